@@ -0,0 +1,81 @@
+package com.github.barteksc.pdfviewer
+
+import android.graphics.RectF
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.github.barteksc.pdfviewer.model.PagePart
+import com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Replays the cache lookups [PagesLoader.loadPages] makes while scrolling a long document,
+ * and logs the time spent per frame.
+ */
+@RunWith(AndroidJUnit4::class)
+class CacheManagerScrollBenchmarkTest {
+
+    private val columns = 4
+    private val rowsPerPage = 6
+    private val visibleRows = 10
+    private val pages = 500
+
+    /**
+     * First visible row of the document on each frame: a slow scroll, a fling and a scroll back
+     */
+    private val scrollTrace: List<Int> = (0 until 200).map { it / 2 } +
+            (100 until pages * rowsPerPage - visibleRows step 3) +
+            (pages * rowsPerPage - visibleRows downTo 2_000 step 5)
+
+    private fun CacheManager.loadFrame(firstRow: Int) {
+        makeANewSet()
+        var cacheOrder = 1
+        for (row in firstRow until firstRow + visibleRows) {
+            val page = row / rowsPerPage
+            val top = (row % rowsPerPage).toFloat() / rowsPerPage
+            val bottom = top + 1f / rowsPerPage
+            for (column in 0 until columns) {
+                val left = column.toFloat() / columns
+                val right = left + 1f / columns
+                if (!upPartIfContained(page, left, top, right, bottom, cacheOrder)) {
+                    // Rendered parts are cached as soon as they are requested
+                    cachePart(PagePart(page, null, RectF(left, top, right, bottom), false, cacheOrder))
+                }
+                cacheOrder++
+            }
+        }
+    }
+
+    @Test
+    fun test_replayScrollTrace() {
+        val underTest = CacheManager(BitmapPool())
+        // Warm up
+        scrollTrace.forEach { underTest.loadFrame(it) }
+
+        val start = System.nanoTime()
+        repeat(REPETITIONS) { scrollTrace.forEach { underTest.loadFrame(it) } }
+        val elapsed = System.nanoTime() - start
+
+        Log.i(TAG, "Average frame: ${elapsed / (REPETITIONS * scrollTrace.size)} ns")
+        assertThat(underTest.pageParts.size).isAtMost(CACHE_SIZE)
+    }
+
+    @Test
+    fun test_cachedPartIsFoundAfterANewSet() {
+        val underTest = CacheManager(BitmapPool())
+        underTest.loadFrame(0)
+
+        underTest.makeANewSet()
+
+        assertThat(underTest.upPartIfContained(0, 0f, 0f, 1f / columns, 1f / rowsPerPage, 1))
+            .isTrue()
+        assertThat(underTest.upPartIfContained(pages, 0f, 0f, 1f / columns, 1f / rowsPerPage, 1))
+            .isFalse()
+    }
+
+    companion object {
+        private const val TAG = "CacheManagerBenchmark"
+        private const val REPETITIONS = 20
+    }
+}
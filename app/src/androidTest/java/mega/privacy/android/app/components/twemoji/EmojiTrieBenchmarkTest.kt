@@ -0,0 +1,77 @@
+package mega.privacy.android.app.components.twemoji
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.components.twemoji.emoji.Emoji
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.regex.Pattern
+
+/**
+ * Compares [EmojiTrie] with the alternation regex it replaced, on the emojis of
+ * [TwitterEmojiProvider] and a chat transcript, and logs the time spent per message.
+ */
+@RunWith(AndroidJUnit4::class)
+class EmojiTrieBenchmarkTest {
+
+    private val emojis: List<Emoji> = TwitterEmojiProvider().categories
+        .flatMap { it.emojis.asList() }
+        .flatMap { listOf(it) + it.variants }
+        .distinctBy { it.unicode }
+
+    private val regex = emojis.map { it.unicode }
+        .sortedByDescending { it.length }
+        .joinToString("|") { Pattern.quote(it) }
+
+    private val messages: List<String> = List(MESSAGES) { index ->
+        val emoji = emojis[index * 31 % emojis.size].unicode
+        when (index % 4) {
+            0 -> "Are we still meeting tomorrow at ${index % 24}:00? $emoji"
+            1 -> "$emoji$emoji"
+            2 -> "Sent the photos from the trip, have a look when you can"
+            else -> "$emoji nice one $emoji see you later"
+        }
+    }
+
+    @Test
+    fun test_trieMatchesFasterThanTheRegex() {
+        val trie = EmojiTrie.build(emojis)
+        val pattern = Pattern.compile(regex)
+        // Warm up
+        messages.forEach { trie.findAll(it) }
+        messages.forEach { pattern.findAll(it) }
+
+        var trieMatches = 0
+        val trieNanos = measure { messages.forEach { trieMatches += trie.findAll(it).size } }
+        var regexMatches = 0
+        val regexNanos = measure { messages.forEach { regexMatches += pattern.findAll(it) } }
+
+        Log.i(
+            TAG,
+            "Per message: trie ${trieNanos / (REPETITIONS * MESSAGES)} ns, " +
+                    "regex ${regexNanos / (REPETITIONS * MESSAGES)} ns"
+        )
+        assertThat(trieMatches).isEqualTo(regexMatches)
+        assertThat(trieNanos).isLessThan(regexNanos)
+    }
+
+    private fun Pattern.findAll(text: String): Int {
+        val matcher = matcher(text)
+        var count = 0
+        while (matcher.find()) count++
+        return count
+    }
+
+    private fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(REPETITIONS) { block() }
+        return System.nanoTime() - start
+    }
+
+    companion object {
+        private const val TAG = "EmojiTrieBenchmark"
+        private const val MESSAGES = 500
+        private const val REPETITIONS = 10
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.LongSparseArray;
+
+import java.util.ArrayDeque;
+
+import static com.github.barteksc.pdfviewer.util.Constants.Cache.BITMAP_POOL_SIZE;
+
+/**
+ * Bitmaps of evicted parts kept for reuse, grouped by size and config.
+ * Rendered parts mostly share a few sizes, so reusing their bitmaps avoids
+ * allocating and collecting one bitmap for every rendered part.
+ */
+class BitmapPool {
+
+    private final LongSparseArray<ArrayDeque<Bitmap>> buckets = new LongSparseArray<>();
+
+    private int size = 0;
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    /**
+     * Get a bitmap of the given size and config, reused from the pool if possible.
+     *
+     * @throws IllegalArgumentException if a new bitmap cannot be created
+     */
+    synchronized Bitmap acquire(int width, int height, Bitmap.Config config) {
+        ArrayDeque<Bitmap> bucket = buckets.get(key(width, height, config));
+        Bitmap bitmap = bucket != null ? bucket.poll() : null;
+        if (bitmap == null) {
+            misses++;
+            return Bitmap.createBitmap(width, height, config);
+        }
+
+        hits++;
+        size--;
+        // Same as a new bitmap, so parts of the previous render do not show through
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Return a bitmap no longer used, recycling it if the pool is full.
+     */
+    synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (size >= BITMAP_POOL_SIZE || !bitmap.isMutable()) {
+            bitmap.recycle();
+            return;
+        }
+
+        long key = key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+        ArrayDeque<Bitmap> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets.put(key, bucket);
+        }
+        bucket.offer(bitmap);
+        size++;
+    }
+
+    /**
+     * Recycle all the pooled bitmaps.
+     */
+    synchronized void clear() {
+        for (int i = 0; i < buckets.size(); i++) {
+            for (Bitmap bitmap : buckets.valueAt(i)) {
+                bitmap.recycle();
+            }
+        }
+        buckets.clear();
+        size = 0;
+    }
+
+    /**
+     * Ratio of acquired bitmaps reused from the pool, between 0 and 1
+     */
+    synchronized float getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0f : (float) hits / total;
+    }
+
+    synchronized int getSize() {
+        return size;
+    }
+
+    private static long key(int width, int height, Bitmap.Config config) {
+        return ((long) width << 32) | ((long) height << 8) | (config != null ? config.ordinal() : 0xFF);
+    }
+}
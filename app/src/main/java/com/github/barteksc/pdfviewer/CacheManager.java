@@ -16,95 +16,135 @@
 package com.github.barteksc.pdfviewer;
 
 import android.graphics.RectF;
-import androidx.annotation.Nullable;
 
 import com.github.barteksc.pdfviewer.model.PagePart;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.CACHE_SIZE;
 import static com.github.barteksc.pdfviewer.util.Constants.Cache.THUMBNAILS_CACHE_SIZE;
 
+/**
+ * Cache of the rendered parts, indexed by page and bounds.
+ * Parts are kept in the order they were last used, the least recently used
+ * parts of previous sets are evicted first.
+ */
 class CacheManager {
 
-    private final PriorityQueue<PagePart> passiveCache;
+    /** Parts of previous sets, least recently used first */
+    private final LinkedHashMap<PartKey, CachedPart> passiveCache;
 
-    private final PriorityQueue<PagePart> activeCache;
+    /** Parts of the current set, least recently used first */
+    private final LinkedHashMap<PartKey, CachedPart> activeCache;
 
-    private final List<PagePart> thumbnails;
+    private final LinkedHashMap<PartKey, CachedPart> thumbnails;
 
     private final Object passiveActiveLock = new Object();
 
-    private final PagePartComparator orderComparator = new PagePartComparator();
+    /** Reused for every lookup, only while holding the lock of the cache it looks in */
+    private final PartKey lookupKey = new PartKey();
+
+    private final PartKey thumbnailLookupKey = new PartKey();
+
+    private final BitmapPool bitmapPool;
 
-    public CacheManager() {
-        activeCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
-        passiveCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
-        thumbnails = new ArrayList<>();
+    public CacheManager(BitmapPool bitmapPool) {
+        this.bitmapPool = bitmapPool;
+        activeCache = new LinkedHashMap<>(CACHE_SIZE);
+        passiveCache = new LinkedHashMap<>(CACHE_SIZE);
+        thumbnails = new LinkedHashMap<>(THUMBNAILS_CACHE_SIZE);
     }
 
     public void cachePart(PagePart part) {
         synchronized (passiveActiveLock) {
-            // If cache too big, remove and recycle
+            CachedPart cachedPart = new CachedPart(part);
+
+            // Replace the same part rendered twice
+            removeAndRelease(passiveCache, cachedPart.key);
+            removeAndRelease(activeCache, cachedPart.key);
+
+            // If cache too big, remove and return the bitmaps to the pool
             makeAFreeSpace();
 
             // Then add part
-            activeCache.offer(part);
+            activeCache.put(cachedPart.key, cachedPart);
         }
     }
 
     public void makeANewSet() {
         synchronized (passiveActiveLock) {
-            passiveCache.addAll(activeCache);
+            passiveCache.putAll(activeCache);
             activeCache.clear();
         }
     }
 
     private void makeAFreeSpace() {
         synchronized (passiveActiveLock) {
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !passiveCache.isEmpty()) {
-                PagePart part = passiveCache.poll();
-                part.getRenderedBitmap().recycle();
-            }
+            evict(passiveCache);
+            evict(activeCache);
+        }
+    }
 
-            while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
-                    !activeCache.isEmpty()) {
-                activeCache.poll().getRenderedBitmap().recycle();
-            }
+    /**
+     * Remove the least recently used parts of the cache while the cache is too big
+     */
+    private void evict(LinkedHashMap<PartKey, CachedPart> cache) {
+        Iterator<CachedPart> iterator = cache.values().iterator();
+        while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE && iterator.hasNext()) {
+            bitmapPool.release(iterator.next().part.getRenderedBitmap());
+            iterator.remove();
+        }
+    }
+
+    private void removeAndRelease(LinkedHashMap<PartKey, CachedPart> cache, PartKey key) {
+        CachedPart removed = cache.remove(key);
+        if (removed != null) {
+            bitmapPool.release(removed.part.getRenderedBitmap());
         }
     }
 
     public void cacheThumbnail(PagePart part) {
         synchronized (thumbnails) {
-            // If cache too big, remove and recycle
-            while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE) {
-                thumbnails.remove(0).getRenderedBitmap().recycle();
+            CachedPart cachedPart = new CachedPart(part);
+
+            // Keep the thumbnail already cached, return the new bitmap to the pool
+            if (thumbnails.containsKey(cachedPart.key)) {
+                bitmapPool.release(part.getRenderedBitmap());
+                return;
+            }
+
+            // If cache too big, remove and return the bitmaps to the pool
+            Iterator<CachedPart> iterator = thumbnails.values().iterator();
+            while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE && iterator.hasNext()) {
+                bitmapPool.release(iterator.next().part.getRenderedBitmap());
+                iterator.remove();
             }
 
             // Then add thumbnail
-            addWithoutDuplicates(thumbnails, part);
+            thumbnails.put(cachedPart.key, cachedPart);
         }
 
     }
 
-    public boolean upPartIfContained(int page, RectF pageRelativeBounds, int toOrder) {
-        PagePart fakePart = new PagePart(page, null, pageRelativeBounds, false, 0);
-
-        PagePart found;
+    /**
+     * Move the described part to the current set if it is cached, without allocating
+     *
+     * @return true if the part is cached
+     */
+    public boolean upPartIfContained(int page, float left, float top, float right, float bottom, int toOrder) {
         synchronized (passiveActiveLock) {
-            if ((found = find(passiveCache, fakePart)) != null) {
-                passiveCache.remove(found);
-                found.setCacheOrder(toOrder);
-                activeCache.offer(found);
+            PartKey key = lookupKey.set(page, left, top, right, bottom, false);
+            CachedPart found = passiveCache.remove(key);
+            if (found != null) {
+                found.part.setCacheOrder(toOrder);
+                activeCache.put(found.key, found);
                 return true;
             }
 
-            return find(activeCache, fakePart) != null;
+            return activeCache.containsKey(key);
         }
     }
 
@@ -112,80 +152,123 @@ class CacheManager {
      * Return true if already contains the described PagePart
      */
     public boolean containsThumbnail(int page, RectF pageRelativeBounds) {
-        PagePart fakePart = new PagePart(page, null, pageRelativeBounds, true, 0);
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
-                if (part.equals(fakePart)) {
-                    return true;
-                }
-            }
-            return false;
+            return thumbnails.containsKey(thumbnailLookupKey.set(page, pageRelativeBounds.left,
+                    pageRelativeBounds.top, pageRelativeBounds.right, pageRelativeBounds.bottom, true));
         }
     }
 
-    /**
-     * Add part if it doesn't exist, recycle bitmap otherwise
-     */
-    private void addWithoutDuplicates(Collection<PagePart> collection, PagePart newPart) {
-        for (PagePart part : collection) {
-            if (part.equals(newPart)) {
-                newPart.getRenderedBitmap().recycle();
-                return;
-            }
-        }
-        collection.add(newPart);
-    }
-
-    @Nullable
-    private static PagePart find(PriorityQueue<PagePart> vector, PagePart fakePart) {
-        for (PagePart part : vector) {
-            if (part.equals(fakePart)) {
-                return part;
-            }
-        }
-        return null;
-    }
-
     public List<PagePart> getPageParts() {
         synchronized (passiveActiveLock) {
-            List<PagePart> parts = new ArrayList<>(passiveCache);
-            parts.addAll(activeCache);
+            List<PagePart> parts = new ArrayList<>(passiveCache.size() + activeCache.size());
+            for (CachedPart cachedPart : passiveCache.values()) {
+                parts.add(cachedPart.part);
+            }
+            for (CachedPart cachedPart : activeCache.values()) {
+                parts.add(cachedPart.part);
+            }
             return parts;
         }
     }
 
     public List<PagePart> getThumbnails() {
         synchronized (thumbnails) {
-            return thumbnails;
+            List<PagePart> parts = new ArrayList<>(thumbnails.size());
+            for (CachedPart cachedPart : thumbnails.values()) {
+                parts.add(cachedPart.part);
+            }
+            return parts;
         }
     }
 
     public void recycle() {
         synchronized (passiveActiveLock) {
-            for (PagePart part : passiveCache) {
-                part.getRenderedBitmap().recycle();
+            for (CachedPart cachedPart : passiveCache.values()) {
+                cachedPart.part.getRenderedBitmap().recycle();
             }
             passiveCache.clear();
-            for (PagePart part : activeCache) {
-                part.getRenderedBitmap().recycle();
+            for (CachedPart cachedPart : activeCache.values()) {
+                cachedPart.part.getRenderedBitmap().recycle();
             }
             activeCache.clear();
         }
         synchronized (thumbnails) {
-            for (PagePart part : thumbnails) {
-                part.getRenderedBitmap().recycle();
+            for (CachedPart cachedPart : thumbnails.values()) {
+                cachedPart.part.getRenderedBitmap().recycle();
             }
             thumbnails.clear();
         }
+        bitmapPool.clear();
+    }
+
+    /**
+     * A cached part with its key
+     */
+    private static final class CachedPart {
+
+        final PartKey key;
+
+        final PagePart part;
+
+        CachedPart(PagePart part) {
+            RectF bounds = part.getPageRelativeBounds();
+            this.key = new PartKey().set(part.getPage(), bounds.left, bounds.top,
+                    bounds.right, bounds.bottom, part.isThumbnail());
+            this.part = part;
+        }
     }
 
-    class PagePartComparator implements Comparator<PagePart> {
+    /**
+     * Page, bounds and thumbnail flag of a part. The bounds are quantised,
+     * so the bounds of a part computed again for the same zoom match.
+     */
+    static final class PartKey {
+
+        /** Steps per page side, much finer than the parts at the maximum zoom */
+        private static final float QUANTIZATION = 1 << 16;
+
+        private int page;
+
+        private int left, top, right, bottom;
+
+        private boolean thumbnail;
+
+        PartKey set(int page, float left, float top, float right, float bottom, boolean thumbnail) {
+            this.page = page;
+            this.left = Math.round(left * QUANTIZATION);
+            this.top = Math.round(top * QUANTIZATION);
+            this.right = Math.round(right * QUANTIZATION);
+            this.bottom = Math.round(bottom * QUANTIZATION);
+            this.thumbnail = thumbnail;
+            return this;
+        }
+
         @Override
-        public int compare(PagePart part1, PagePart part2) {
-            if (part1.getCacheOrder() == part2.getCacheOrder()) {
-                return 0;
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
-            return part1.getCacheOrder() > part2.getCacheOrder() ? 1 : -1;
+            if (!(obj instanceof PartKey)) {
+                return false;
+            }
+
+            PartKey key = (PartKey) obj;
+            return key.page == page
+                    && key.left == left
+                    && key.top == top
+                    && key.right == right
+                    && key.bottom == bottom
+                    && key.thumbnail == thumbnail;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = page;
+            result = 31 * result + left;
+            result = 31 * result + top;
+            result = 31 * result + right;
+            result = 31 * result + bottom;
+            return 31 * result + (thumbnail ? 1 : 0);
         }
     }
 
@@ -61,6 +61,7 @@ import com.github.barteksc.pdfviewer.source.AssetSource;
 import com.github.barteksc.pdfviewer.source.ByteArraySource;
 import com.github.barteksc.pdfviewer.source.DocumentSource;
 import com.github.barteksc.pdfviewer.source.FileSource;
+import com.github.barteksc.pdfviewer.source.HttpRangeSource;
 import com.github.barteksc.pdfviewer.source.InputStreamSource;
 import com.github.barteksc.pdfviewer.source.UriSource;
 import com.github.barteksc.pdfviewer.util.Constants;
@@ -131,6 +132,9 @@ public class PDFView extends RelativeLayout {
     /** Rendered parts go to the cache manager */
     CacheManager cacheManager;
 
+    /** Bitmaps of the parts evicted from the cache, reused by the next rendered parts */
+    BitmapPool bitmapPool;
+
     /** Animation manager manage all offset and zoom animation */
     private AnimationManager animationManager;
 
@@ -246,7 +250,8 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        cacheManager = new CacheManager();
+        bitmapPool = new BitmapPool();
+        cacheManager = new CacheManager(bitmapPool);
         animationManager = new AnimationManager(this);
         dragPinchManager = new DragPinchManager(this, animationManager);
         pagesLoader = new PagesLoader(this);
@@ -398,7 +403,7 @@ public class PDFView extends RelativeLayout {
         // Stop tasks
         if (renderingHandler != null) {
             renderingHandler.stop();
-            renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+            renderingHandler.cancelTasks();
         }
         if (decodingAsyncTask != null) {
             decodingAsyncTask.cancel(true);
@@ -677,8 +682,8 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        // Cancel all current tasks
-        renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+        // Cancel all current tasks, as they may be outside of the new viewport
+        renderingHandler.cancelTasks();
         cacheManager.makeANewSet();
 
         pagesLoader.loadPages();
@@ -1211,6 +1216,11 @@ public class PDFView extends RelativeLayout {
         return new Configurator(new InputStreamSource(stream, tmpFileName));
     }
 
+    /** Use an HTTP URL as the pdf source. Only the parts read are fetched if the server supports range requests */
+    public Configurator fromUrl(String url, String tmpFileName) {
+        return new Configurator(new HttpRangeSource(url, tmpFileName));
+    }
+
     /** Use custom source as pdf source */
     public Configurator fromSource(DocumentSource docSource) {
         return new Configurator(docSource);
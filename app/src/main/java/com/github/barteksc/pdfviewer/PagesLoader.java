@@ -228,10 +228,12 @@ class PagesLoader {
         }
         renderWidth *= relWidth;
         renderHeight *= relHeight;
-        RectF pageRelativeBounds = new RectF(relX, relY, relX + relWidth, relY + relHeight);
 
         if (renderWidth > 0 && renderHeight > 0) {
-            if (!pdfView.cacheManager.upPartIfContained(page, pageRelativeBounds, cacheOrder)) {
+            // Bounds are only allocated for the parts to render, not for the cached ones
+            if (!pdfView.cacheManager.upPartIfContained(page, relX, relY,
+                    relX + relWidth, relY + relHeight, cacheOrder)) {
+                RectF pageRelativeBounds = new RectF(relX, relY, relX + relWidth, relY + relHeight);
                 pdfView.renderingHandler.addRenderingTask(page, renderWidth, renderHeight,
                         pageRelativeBounds, false, cacheOrder, pdfView.isBestQuality(),
                         pdfView.isAnnotationRendering());
@@ -27,6 +27,7 @@ import android.util.Log;
 
 import com.github.barteksc.pdfviewer.exception.PageRenderingException;
 import com.github.barteksc.pdfviewer.model.PagePart;
+import com.github.barteksc.pdfviewer.util.Constants;
 
 /**
  * A {@link Handler} that will process incoming {@link RenderingTask} messages
@@ -48,20 +49,64 @@ class RenderingHandler extends Handler {
     private Matrix renderMatrix = new Matrix();
     private boolean running = false;
 
+    private final Object tasksLock = new Object();
+
+    /**
+     * Incremented when the queued tasks are cancelled, tasks of a previous
+     * generation are dropped without rendering them
+     */
+    private volatile int generation = 0;
+
+    /** Number of tasks of the current generation waiting to be rendered */
+    private int queuedTasks = 0;
+
     RenderingHandler(Looper looper, PDFView pdfView) {
         super(looper);
         this.pdfView = pdfView;
     }
 
     void addRenderingTask(int page, float width, float height, RectF bounds, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
-        RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering);
-        Message msg = obtainMessage(MSG_RENDER_TASK, task);
-        sendMessage(msg);
+        synchronized (tasksLock) {
+            RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering, generation);
+            Message msg = obtainMessage(MSG_RENDER_TASK, task);
+            sendMessage(msg);
+            queuedTasks++;
+        }
+    }
+
+    /**
+     * Cancel the queued tasks, including a task already dequeued and not rendered yet
+     */
+    void cancelTasks() {
+        synchronized (tasksLock) {
+            generation++;
+            removeMessages(MSG_RENDER_TASK);
+            queuedTasks = 0;
+        }
+    }
+
+    /**
+     * Number of tasks waiting to be rendered
+     */
+    int getQueueLength() {
+        synchronized (tasksLock) {
+            return queuedTasks;
+        }
     }
 
     @Override
     public void handleMessage(Message message) {
         RenderingTask task = (RenderingTask) message.obj;
+        synchronized (tasksLock) {
+            if (task.generation != generation) {
+                return;
+            }
+            queuedTasks--;
+        }
+        if (Constants.DEBUG_MODE) {
+            Log.d(TAG, "Render queue length: " + getQueueLength()
+                    + ", bitmap pool hit rate: " + pdfView.bitmapPool.getHitRate());
+        }
         try {
             final PagePart part = proceed(task);
             if (part != null) {
@@ -97,9 +142,14 @@ class RenderingHandler extends Handler {
             return null;
         }
 
+        // Opening the page may take long, the task may have been cancelled meanwhile
+        if (renderingTask.generation != generation) {
+            return null;
+        }
+
         Bitmap render;
         try {
-            render = Bitmap.createBitmap(w, h, renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565);
+            render = pdfView.bitmapPool.acquire(w, h, renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565);
         } catch (IllegalArgumentException e) {
             Log.e(TAG, "Cannot create bitmap", e);
             return null;
@@ -147,7 +197,9 @@ class RenderingHandler extends Handler {
 
         boolean annotationRendering;
 
-        RenderingTask(float width, float height, RectF bounds, int page, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
+        int generation;
+
+        RenderingTask(float width, float height, RectF bounds, int page, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering, int generation) {
             this.page = page;
             this.width = width;
             this.height = height;
@@ -156,6 +208,7 @@ class RenderingHandler extends Handler {
             this.cacheOrder = cacheOrder;
             this.bestQuality = bestQuality;
             this.annotationRendering = annotationRendering;
+            this.generation = generation;
         }
     }
 }
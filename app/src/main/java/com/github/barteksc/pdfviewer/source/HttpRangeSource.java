@@ -0,0 +1,222 @@
+package com.github.barteksc.pdfviewer.source;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.ParcelFileDescriptor;
+import android.os.ProxyFileDescriptorCallback;
+import android.os.storage.StorageManager;
+import android.system.ErrnoException;
+import android.system.OsConstants;
+
+import androidx.annotation.RequiresApi;
+
+import com.shockwave.pdfium.PdfDocument;
+import com.shockwave.pdfium.PdfiumCore;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ * Document served over HTTP, as by the local streaming server.
+ * <p>
+ * When the server supports range requests, Pdfium reads the document through a proxy file
+ * descriptor, and only the blocks it reads are fetched. The first page is shown without
+ * downloading the whole document. Otherwise, the document is downloaded as an
+ * {@link InputStreamSource}.
+ */
+public class HttpRangeSource implements DocumentSource {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_BLOCKS = 64;
+    private static final int TIMEOUT_MILLIS = 30_000;
+
+    private final String url;
+    private final String tmpFileName;
+
+    public HttpRangeSource(String url, String tmpFileName) {
+        this.url = url;
+        this.tmpFileName = tmpFileName;
+    }
+
+    @Override
+    public PdfDocument createDocument(Context context, PdfiumCore core, String password)
+            throws IOException {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            long length = getRangeLength();
+            if (length > 0) {
+                ParcelFileDescriptor fileDescriptor = openProxyFileDescriptor(context, length);
+                try {
+                    return core.newDocument(fileDescriptor, password);
+                } catch (IOException | RuntimeException e) {
+                    // Not owned by Pdfium, closing it releases the reader thread
+                    fileDescriptor.close();
+                    throw e;
+                }
+            }
+        }
+
+        HttpURLConnection connection = openConnection();
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new IOException("Unexpected response " + connection.getResponseCode());
+        }
+        return new InputStreamSource(new BufferedInputStream(connection.getInputStream()), tmpFileName)
+                .createDocument(context, core, password);
+    }
+
+    /**
+     * Get the length of the document if the server supports range requests
+     *
+     * @return the length of the document, or -1 if range requests are not supported
+     */
+    private long getRangeLength() throws IOException {
+        HttpURLConnection connection = openConnection();
+        try {
+            connection.setRequestProperty("Range", "bytes=0-0");
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                return -1;
+            }
+            // Content-Range: bytes 0-0/length
+            String contentRange = connection.getHeaderField("Content-Range");
+            int separator = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+            if (separator < 0) {
+                return -1;
+            }
+            return Long.parseLong(contentRange.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @RequiresApi(Build.VERSION_CODES.O)
+    private ParcelFileDescriptor openProxyFileDescriptor(Context context, long length)
+            throws IOException {
+        HandlerThread readerThread = new HandlerThread("PDF range reader");
+        readerThread.start();
+        StorageManager storageManager = context.getSystemService(StorageManager.class);
+        try {
+            // Released when Pdfium closes the document
+            return storageManager.openProxyFileDescriptor(ParcelFileDescriptor.MODE_READ_ONLY,
+                    new RangeReader(length, readerThread), new Handler(readerThread.getLooper()));
+        } catch (IOException e) {
+            readerThread.quitSafely();
+            throw e;
+        }
+    }
+
+    private HttpURLConnection openConnection() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        return connection;
+    }
+
+    /**
+     * Reads the document with range requests, a block at a time.
+     * The recently read blocks are kept, as Pdfium reads the cross-reference
+     * table and objects of the same page in small pieces.
+     * All the callbacks run on the reader thread.
+     */
+    @RequiresApi(Build.VERSION_CODES.O)
+    private class RangeReader extends ProxyFileDescriptorCallback {
+
+        private final long length;
+
+        private final HandlerThread readerThread;
+
+        private final Map<Long, byte[]> blocks =
+                new LinkedHashMap<Long, byte[]>(MAX_CACHED_BLOCKS, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                        return size() > MAX_CACHED_BLOCKS;
+                    }
+                };
+
+        RangeReader(long length, HandlerThread readerThread) {
+            this.length = length;
+            this.readerThread = readerThread;
+        }
+
+        @Override
+        public long onGetSize() {
+            return length;
+        }
+
+        @Override
+        public int onRead(long offset, int size, byte[] data) throws ErrnoException {
+            int read = 0;
+            while (read < size && offset + read < length) {
+                long position = offset + read;
+                long blockIndex = position / BLOCK_SIZE;
+                byte[] block = getBlock(blockIndex);
+                int blockOffset = (int) (position - blockIndex * BLOCK_SIZE);
+                int count = Math.min(size - read, block.length - blockOffset);
+                if (count <= 0) {
+                    break;
+                }
+                System.arraycopy(block, blockOffset, data, read, count);
+                read += count;
+            }
+            return read;
+        }
+
+        @Override
+        public void onRelease() {
+            blocks.clear();
+            readerThread.quitSafely();
+        }
+
+        private byte[] getBlock(long blockIndex) throws ErrnoException {
+            byte[] block = blocks.get(blockIndex);
+            if (block == null) {
+                try {
+                    block = fetchBlock(blockIndex);
+                } catch (IOException e) {
+                    Timber.w(e, "Cannot read PDF range");
+                    throw new ErrnoException("onRead", OsConstants.EIO);
+                }
+                blocks.put(blockIndex, block);
+            }
+            return block;
+        }
+
+        private byte[] fetchBlock(long blockIndex) throws IOException {
+            long start = blockIndex * BLOCK_SIZE;
+            int blockLength = (int) Math.min(BLOCK_SIZE, length - start);
+            HttpURLConnection connection = openConnection();
+            try {
+                connection.setRequestProperty("Range",
+                        "bytes=" + start + "-" + (start + blockLength - 1));
+                if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new IOException("Unexpected response " + connection.getResponseCode());
+                }
+
+                byte[] block = new byte[blockLength];
+                int read = 0;
+                try (InputStream inputStream = connection.getInputStream()) {
+                    while (read < blockLength) {
+                        int count = inputStream.read(block, read, blockLength - read);
+                        if (count < 0) {
+                            throw new IOException("Unexpected end of range");
+                        }
+                        read += count;
+                    }
+                }
+                return block;
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+}
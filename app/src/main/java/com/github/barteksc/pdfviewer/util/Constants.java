@@ -38,6 +38,9 @@ public class Constants {
         public static int CACHE_SIZE = 120;
 
         public static int THUMBNAILS_CACHE_SIZE = 8;
+
+        /** The number of evicted bitmaps kept for reuse by the next rendered parts */
+        public static int BITMAP_POOL_SIZE = 16;
     }
 
     public static class Pinch {
@@ -0,0 +1,92 @@
+package mega.privacy.android.app
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Decrypted snapshot of single row tables of [SqliteDatabaseHandler], keyed by table name.
+ *
+ * Each row is loaded once and kept until its table is written, so reads don't need to query nor
+ * decrypt anything. Snapshots are immutable, hence reads are lock-free.
+ *
+ * @property cachedTables Names of the tables whose rows are kept.
+ */
+internal class DecryptedRowCache(private val cachedTables: Set<String>) {
+
+    private val rows = ConcurrentHashMap<String, Map<String, String?>>()
+    private val lock = Any()
+    private var version = 0L
+
+    /**
+     * Checks if the rows of a table are kept.
+     *
+     * @param tableName Name of the database's table.
+     */
+    operator fun contains(tableName: String) = tableName in cachedTables
+
+    /**
+     * Gets the decrypted snapshot of a cached table, loading it if needed.
+     *
+     * @param tableName Name of the database's table, one of [cachedTables].
+     * @param load      Reads and decrypts the row of the table, null if the table is empty.
+     * @return Decrypted values keyed by column name, null if the table is empty.
+     */
+    fun getOrLoad(tableName: String, load: () -> Map<String, String?>?): Map<String, String?>? {
+        rows[tableName]?.let { return it }
+        val loadVersion = synchronized(lock) { version }
+        val row = load() ?: return null
+        synchronized(lock) {
+            // Don't publish the row if the table was written while it was being read.
+            if (loadVersion == version && tableName in cachedTables) {
+                rows[tableName] = row
+            }
+        }
+        return row
+    }
+
+    /**
+     * Updates a value of the snapshot of a cached table after writing it.
+     *
+     * @param tableName  Name of the database's table.
+     * @param columnName Name of the table's column.
+     * @param value      Value written.
+     */
+    fun updateValue(tableName: String, columnName: String, value: String?) {
+        if (tableName !in cachedTables) return
+        synchronized(lock) {
+            version++
+            rows[tableName]?.let { rows[tableName] = it + (columnName to value) }
+        }
+    }
+
+    /**
+     * Drops the snapshot of a cached table after writing it.
+     *
+     * @param tableName Name of the database's table.
+     */
+    fun invalidate(tableName: String) {
+        if (tableName !in cachedTables) return
+        synchronized(lock) {
+            version++
+            rows.remove(tableName)
+        }
+    }
+
+    /**
+     * Drops the snapshot of the table written by a SQL statement, if any.
+     *
+     * @param sql SQL statement executed.
+     */
+    fun invalidateWrittenTable(sql: String) {
+        WRITTEN_TABLE_REGEX.find(sql)?.let { invalidate(it.groupValues[1]) }
+    }
+
+    companion object {
+        /**
+         * Extracts the table written by an UPDATE, INSERT, DELETE or DROP statement.
+         */
+        private val WRITTEN_TABLE_REGEX = Regex(
+            "^\\s*(?:UPDATE|INSERT\\s+INTO|DELETE\\s+FROM|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?)\\s+(\\w+)",
+            RegexOption.IGNORE_CASE
+        )
+    }
+}
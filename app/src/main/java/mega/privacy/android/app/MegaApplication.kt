@@ -51,6 +51,7 @@ import mega.privacy.android.app.utils.CacheFolderManager.clearPublicCache
 import mega.privacy.android.app.utils.ChangeApiServerUtil
 import mega.privacy.android.app.utils.ChangeApiServerUtil.getApiServerFromValue
 import mega.privacy.android.app.utils.Constants
+import mega.privacy.android.app.utils.ThumbnailUtils
 import mega.privacy.android.app.utils.greeter.Greeter
 import mega.privacy.android.data.qualifier.MegaApi
 import mega.privacy.android.data.qualifier.MegaApiFolder
@@ -273,7 +274,8 @@ class MegaApplication : MultiDexApplication(), DefaultLifecycleObserver,
                 add(
                     MegaThumbnailFetcher.Factory(
                         getThumbnailUseCase = getThumbnailUseCase,
-                        getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase
+                        getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase,
+                        thumbnailCache = ThumbnailUtils.thumbnailCache
                     )
                 )
                 add(MegaThumbnailKeyer)
@@ -0,0 +1,84 @@
+package mega.privacy.android.app
+
+import android.content.ComponentCallbacks2
+import android.graphics.Bitmap
+import mega.privacy.android.app.utils.cache.CacheStats
+import mega.privacy.android.app.utils.cache.LongLruCache
+import timber.log.Timber
+
+/**
+ * Memory cache of the previews displayed in chats and file links, bounded by bytes
+ *
+ * Nodes without preview can be recorded with a null bitmap, so they are not loaded again.
+ *
+ * @param maxBytes memory budget of the cache
+ */
+class PreviewCache @JvmOverloads constructor(
+    maxBytes: Long = LongLruCache.heapBudget(HEAP_PERCENTAGE),
+) {
+    private val previews = LongLruCache<Bitmap>(maxBytes, Bitmap::getAllocationByteCount)
+
+    /**
+     * Current counters of the cache
+     */
+    val stats: CacheStats
+        get() = previews.stats
+
+    /**
+     * Put a preview
+     *
+     * @param key node handle or fingerprint handle
+     * @param value preview, or null if the node has no preview
+     */
+    fun put(key: Long, value: Bitmap?) {
+        if (value == null) {
+            previews.putMissing(key)
+        } else {
+            previews.put(key, value)
+        }
+    }
+
+    /**
+     * Remove a preview
+     *
+     * @param key node handle or fingerprint handle
+     */
+    fun remove(key: Long) {
+        previews.remove(key)
+    }
+
+    /**
+     * Get a preview
+     *
+     * @param key node handle or fingerprint handle
+     */
+    fun get(key: Long): Bitmap? = previews.get(key)
+
+    /**
+     * Check if a node has a cached preview or is recorded as having none
+     *
+     * @param key node handle or fingerprint handle
+     */
+    fun containsKey(key: Long): Boolean = previews.containsKey(key)
+
+    /**
+     * Release memory according to the level received by [ComponentCallbacks2.onTrimMemory]
+     *
+     * @param level
+     */
+    fun trimMemory(level: Int) {
+        Timber.d("Trim preview cache, level $level: $stats")
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE -> previews.clear()
+            level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW ->
+                previews.trimToSize(previews.maxSize / 2)
+        }
+    }
+
+    companion object {
+        /**
+         * Percentage of the heap used by the previews
+         */
+        const val HEAP_PERCENTAGE = 12
+    }
+}
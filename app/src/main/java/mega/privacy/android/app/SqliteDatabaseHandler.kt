@@ -28,7 +28,6 @@ import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.OfflineUtils
 import mega.privacy.android.app.utils.PasscodeUtil
 import mega.privacy.android.app.utils.TextUtil
-import mega.privacy.android.app.utils.Util
 import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.data.database.MegaDatabaseConstant
 import mega.privacy.android.data.database.MegaDatabaseConstant.DATABASE_NAME
@@ -60,11 +59,15 @@ import timber.log.Timber
 import java.io.File
 import java.util.Collections
 import java.util.Locale
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
 import javax.inject.Inject
+import javax.inject.Singleton
 
 /**
  * Sqlite implementation of database handler
  */
+@Singleton
 class SqliteDatabaseHandler @Inject constructor(
     @ApplicationContext private val context: Context,
     @ApplicationScope private val applicationScope: CoroutineScope,
@@ -75,6 +78,12 @@ class SqliteDatabaseHandler @Inject constructor(
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
 ) : SQLiteOpenHelper(context, DATABASE_NAME, null, MegaDatabaseConstant.DATABASE_VERSION), LegacyDatabaseHandler {
     private var db: SQLiteDatabase
+
+    /**
+     * Decrypted snapshot of the single row tables in [CACHED_TABLES].
+     */
+    private val decryptedRows = DecryptedRowCache(CACHED_TABLES)
+
     override fun onCreate(db: SQLiteDatabase) {
         Timber.d("onCreate")
         val CREATE_OFFLINE_TABLE = "CREATE TABLE IF NOT EXISTS $TABLE_OFFLINE(" +
@@ -744,7 +753,7 @@ class SqliteDatabaseHandler @Inject constructor(
     override fun saveShouldClearCamsyncRecords(should: Boolean) {
         val sql =
             "UPDATE $TABLE_PREFERENCES SET $KEY_SHOULD_CLEAR_CAMSYNC_RECORDS = '${encrypt(should.toString())}'"
-        db.execSQL(sql)
+        execSQL(sql)
     }
 
     override fun findMaxTimestamp(isSecondary: Boolean, fileType: Int): Long? {
@@ -789,10 +798,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_UPLOAD_VIDEO_QUALITY= '${encrypt(quality.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_UPLOAD_VIDEO_QUALITY, encrypt(quality.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -810,10 +819,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CONVERSION_ON_CHARGING= '${
                             encrypt(onCharging.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CONVERSION_ON_CHARGING, encrypt(onCharging.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -829,10 +838,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CHARGING_ON_SIZE= '${encrypt(size.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CHARGING_ON_SIZE, encrypt(size.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -848,10 +857,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_REMOVE_GPS= '${encrypt(removeGPS.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_REMOVE_GPS, encrypt(removeGPS.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -1047,6 +1056,7 @@ class SqliteDatabaseHandler @Inject constructor(
         }
 
         db.insert(TABLE_PREFERENCES, null, values)
+        decryptedRows.invalidate(TABLE_PREFERENCES)
     }
 
     override fun shouldAskForDisplayOver(): Boolean {
@@ -1059,7 +1069,7 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun dontAskForDisplayOver() {
-        db.execSQL("UPDATE $TABLE_PREFERENCES SET $KEY_ASK_FOR_DISPLAY_OVER = '${encrypt("false")}';")
+        execSQL("UPDATE $TABLE_PREFERENCES SET $KEY_ASK_FOR_DISPLAY_OVER = '${encrypt("false")}';")
     }
 
     /**
@@ -1087,7 +1097,7 @@ class SqliteDatabaseHandler @Inject constructor(
      * @return Preferences.
      */
     override val preferences: MegaPreferences?
-        get() = getPreferences(db)
+        get() = getCachedRow(TABLE_PREFERENCES)?.let { getPreferences(it) }
 
     /**
      * Gets preferences.
@@ -1095,242 +1105,107 @@ class SqliteDatabaseHandler @Inject constructor(
      * @param db Current DB.
      * @return Preferences.
      */
-    private fun getPreferences(db: SQLiteDatabase): MegaPreferences? {
-        var prefs: MegaPreferences? = null
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val firstTime =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN)))
-                    val camSyncEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_ENABLED)))
-                    val camSyncHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_HANDLE)))
-                    val camSyncLocalPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_LOCAL_PATH)))
-                    val wifi = decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_WIFI)))
-                    val fileUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_FILE_UPLOAD)))
-                    val pinLockEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_ENABLED)))
-                    val pinLockCode =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_CODE)))
-                    val askAlways =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_STORAGE_ASK_ALWAYS)))
-                    val downloadLocation = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_STORAGE_DOWNLOAD_LOCATION
-                            )
-                        )
-                    )
-                    val camSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_TIMESTAMP)))
-                    val lastFolderUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_LAST_UPLOAD_FOLDER)))
-                    val lastFolderCloud = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_LAST_CLOUD_FOLDER_HANDLE
-                            )
-                        )
-                    )
-                    val secondaryFolderEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_ENABLED)))
-                    val secondaryPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_LOCAL_PATH)))
-                    val secondaryHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_HANDLE)))
-                    val secSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_SYNC_TIMESTAMP)))
-                    val keepFileNames =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_KEEP_FILE_NAMES)))
-                    val storageAdvancedDevices = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_STORAGE_ADVANCED_DEVICES
-                            )
-                        )
-                    )
-                    val preferredViewList =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_VIEW_LIST)))
-                    val preferredViewListCamera = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PREFERRED_VIEW_LIST_CAMERA
-                            )
-                        )
-                    )
-                    val uriExternalSDCard =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_URI_EXTERNAL_SD_CARD)))
-                    val cameraFolderExternalSDCard = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val pinLockType =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_TYPE)))
-                    val preferredSortCloud =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_CLOUD)))
-                    val preferredSortOthers =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_OTHERS)))
-                    val firstTimeChat =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN_CHAT)))
-                    val isAutoPlayEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_AUTO_PLAY)))
-                    val uploadVideoQuality =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_UPLOAD_VIDEO_QUALITY)))
-                    val conversionOnCharging = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CONVERSION_ON_CHARGING
-                            )
-                        )
-                    )
-                    val chargingOnSize =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CHARGING_ON_SIZE)))
-                    val shouldClearCameraSyncRecords = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_SHOULD_CLEAR_CAMSYNC_RECORDS
-                            )
-                        )
-                    )
-                    val camVideoSyncTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CAM_VIDEO_SYNC_TIMESTAMP
-                            )
-                        )
-                    )
-                    val secVideoSyncTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_SEC_VIDEO_SYNC_TIMESTAMP
-                            )
-                        )
-                    )
-                    val removeGPS =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_REMOVE_GPS)))
-                    val closeInviteBanner =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_INVITE_BANNER)))
-                    val preferredSortCameraUpload = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PREFERRED_SORT_CAMERA_UPLOAD
-                            )
-                        )
-                    )
-                    val sdCardUri =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SD_CARD_URI)))
-                    val askForDisplayOver =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_ASK_FOR_DISPLAY_OVER)))
-                    val askForSetDownloadLocation = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_ASK_SET_DOWNLOAD_LOCATION
-                            )
-                        )
-                    )
-                    val mediaSDCardUri = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_URI_MEDIA_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val isMediaOnSDCard = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val passcodeLockRequireTime = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PASSCODE_LOCK_REQUIRE_TIME
-                            )
-                        )
-                    )
-                    val fingerprintLock =
-                        if (cursor.getColumnIndex(KEY_FINGERPRINT_LOCK) != Constants.INVALID_VALUE) decrypt(
-                            cursor.getString(
-                                getColumnIndex(
-                                    cursor,
-                                    KEY_FINGERPRINT_LOCK
-                                )
-                            )
-                        ) else "false"
-                    prefs = MegaPreferences(
-                        firstTime,
-                        wifi,
-                        camSyncEnabled,
-                        camSyncHandle,
-                        camSyncLocalPath,
-                        fileUpload,
-                        camSyncTimeStamp,
-                        pinLockEnabled,
-                        pinLockCode,
-                        askAlways,
-                        downloadLocation,
-                        lastFolderUpload,
-                        lastFolderCloud,
-                        secondaryFolderEnabled,
-                        secondaryPath,
-                        secondaryHandle,
-                        secSyncTimeStamp,
-                        keepFileNames,
-                        storageAdvancedDevices,
-                        preferredViewList,
-                        preferredViewListCamera,
-                        uriExternalSDCard,
-                        cameraFolderExternalSDCard,
-                        pinLockType,
-                        preferredSortCloud,
-                        preferredSortOthers,
-                        firstTimeChat,
-                        uploadVideoQuality,
-                        conversionOnCharging,
-                        chargingOnSize,
-                        shouldClearCameraSyncRecords,
-                        camVideoSyncTimeStamp,
-                        secVideoSyncTimeStamp,
-                        isAutoPlayEnabled,
-                        removeGPS,
-                        closeInviteBanner,
-                        preferredSortCameraUpload,
-                        sdCardUri,
-                        askForDisplayOver,
-                        askForSetDownloadLocation,
-                        mediaSDCardUri,
-                        isMediaOnSDCard,
-                        passcodeLockRequireTime,
-                        fingerprintLock
-                    )
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return prefs
+    private fun getPreferences(db: SQLiteDatabase): MegaPreferences? =
+        readDecryptedRow(db, TABLE_PREFERENCES)?.let { getPreferences(it) }
+
+    /**
+     * Gets preferences from a decrypted row of the preferences table.
+     *
+     * @param row Decrypted row.
+     * @return Preferences.
+     */
+    private fun getPreferences(row: Map<String, String?>): MegaPreferences {
+        val firstTime = row[KEY_FIRST_LOGIN]
+        val camSyncEnabled = row[KEY_CAM_SYNC_ENABLED]
+        val camSyncHandle = row[KEY_CAM_SYNC_HANDLE]
+        val camSyncLocalPath = row[KEY_CAM_SYNC_LOCAL_PATH]
+        val wifi = row[KEY_CAM_SYNC_WIFI]
+        val fileUpload = row[KEY_CAM_SYNC_FILE_UPLOAD]
+        val pinLockEnabled = row[KEY_PASSCODE_LOCK_ENABLED]
+        val pinLockCode = row[KEY_PASSCODE_LOCK_CODE]
+        val askAlways = row[KEY_STORAGE_ASK_ALWAYS]
+        val downloadLocation = row[KEY_STORAGE_DOWNLOAD_LOCATION]
+        val camSyncTimeStamp = row[KEY_CAM_SYNC_TIMESTAMP]
+        val lastFolderUpload = row[KEY_LAST_UPLOAD_FOLDER]
+        val lastFolderCloud = row[KEY_LAST_CLOUD_FOLDER_HANDLE]
+        val secondaryFolderEnabled = row[KEY_SEC_FOLDER_ENABLED]
+        val secondaryPath = row[KEY_SEC_FOLDER_LOCAL_PATH]
+        val secondaryHandle = row[KEY_SEC_FOLDER_HANDLE]
+        val secSyncTimeStamp = row[KEY_SEC_SYNC_TIMESTAMP]
+        val keepFileNames = row[KEY_KEEP_FILE_NAMES]
+        val storageAdvancedDevices = row[KEY_STORAGE_ADVANCED_DEVICES]
+        val preferredViewList = row[KEY_PREFERRED_VIEW_LIST]
+        val preferredViewListCamera = row[KEY_PREFERRED_VIEW_LIST_CAMERA]
+        val uriExternalSDCard = row[KEY_URI_EXTERNAL_SD_CARD]
+        val cameraFolderExternalSDCard = row[KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD]
+        val pinLockType = row[KEY_PASSCODE_LOCK_TYPE]
+        val preferredSortCloud = row[KEY_PREFERRED_SORT_CLOUD]
+        val preferredSortOthers = row[KEY_PREFERRED_SORT_OTHERS]
+        val firstTimeChat = row[KEY_FIRST_LOGIN_CHAT]
+        val isAutoPlayEnabled = row[KEY_AUTO_PLAY]
+        val uploadVideoQuality = row[KEY_UPLOAD_VIDEO_QUALITY]
+        val conversionOnCharging = row[KEY_CONVERSION_ON_CHARGING]
+        val chargingOnSize = row[KEY_CHARGING_ON_SIZE]
+        val shouldClearCameraSyncRecords = row[KEY_SHOULD_CLEAR_CAMSYNC_RECORDS]
+        val camVideoSyncTimeStamp = row[KEY_CAM_VIDEO_SYNC_TIMESTAMP]
+        val secVideoSyncTimeStamp = row[KEY_SEC_VIDEO_SYNC_TIMESTAMP]
+        val removeGPS = row[KEY_REMOVE_GPS]
+        val closeInviteBanner = row[KEY_SHOW_INVITE_BANNER]
+        val preferredSortCameraUpload = row[KEY_PREFERRED_SORT_CAMERA_UPLOAD]
+        val sdCardUri = row[KEY_SD_CARD_URI]
+        val askForDisplayOver = row[KEY_ASK_FOR_DISPLAY_OVER]
+        val askForSetDownloadLocation = row[KEY_ASK_SET_DOWNLOAD_LOCATION]
+        val mediaSDCardUri = row[KEY_URI_MEDIA_EXTERNAL_SD_CARD]
+        val isMediaOnSDCard = row[KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD]
+        val passcodeLockRequireTime = row[KEY_PASSCODE_LOCK_REQUIRE_TIME]
+        val fingerprintLock =
+            if (KEY_FINGERPRINT_LOCK in row) row[KEY_FINGERPRINT_LOCK] else "false"
+        return MegaPreferences(
+            firstTime,
+            wifi,
+            camSyncEnabled,
+            camSyncHandle,
+            camSyncLocalPath,
+            fileUpload,
+            camSyncTimeStamp,
+            pinLockEnabled,
+            pinLockCode,
+            askAlways,
+            downloadLocation,
+            lastFolderUpload,
+            lastFolderCloud,
+            secondaryFolderEnabled,
+            secondaryPath,
+            secondaryHandle,
+            secSyncTimeStamp,
+            keepFileNames,
+            storageAdvancedDevices,
+            preferredViewList,
+            preferredViewListCamera,
+            uriExternalSDCard,
+            cameraFolderExternalSDCard,
+            pinLockType,
+            preferredSortCloud,
+            preferredSortOthers,
+            firstTimeChat,
+            uploadVideoQuality,
+            conversionOnCharging,
+            chargingOnSize,
+            shouldClearCameraSyncRecords,
+            camVideoSyncTimeStamp,
+            secVideoSyncTimeStamp,
+            isAutoPlayEnabled,
+            removeGPS,
+            closeInviteBanner,
+            preferredSortCameraUpload,
+            sdCardUri,
+            askForDisplayOver,
+            askForSetDownloadLocation,
+            mediaSDCardUri,
+            isMediaOnSDCard,
+            passcodeLockRequireTime,
+            fingerprintLock
+        )
     }
 
     /**
@@ -1408,7 +1283,7 @@ class SqliteDatabaseHandler @Inject constructor(
      * @param chatSettings Chat settings to save.
      */
     override var chatSettings: ChatSettings?
-        get() = getChatSettings(db)
+        get() = getCachedRow(TABLE_CHAT_SETTINGS)?.let { getChatSettings(it) }
         set(chatSettings) {
             setChatSettings(db, chatSettings)
         }
@@ -1421,28 +1296,22 @@ class SqliteDatabaseHandler @Inject constructor(
      */
     private fun getChatSettings(db: SQLiteDatabase): ChatSettings? {
         Timber.d("getChatSettings")
-        var chatSettings: ChatSettings? = null
-        val selectQuery = "SELECT * FROM $TABLE_CHAT_SETTINGS"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val notificationSound = decrypt(cursor.getString(2))
-                    val vibrationEnabled = decrypt(cursor.getString(3))
-                    val videoQuality = decrypt(cursor.getString(4))
-                    chatSettings =
-                        ChatSettings(
-                            notificationSound.orEmpty(),
-                            vibrationEnabled ?: VIBRATION_ON,
-                            videoQuality ?: VideoQuality.MEDIUM.value.toString()
-                        )
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return chatSettings
+        return readDecryptedRow(db, TABLE_CHAT_SETTINGS)?.let { getChatSettings(it) }
     }
 
+    /**
+     * Get chat settings from a decrypted row of the chat settings table.
+     *
+     * @param row Decrypted row.
+     * @return Chat settings.
+     */
+    private fun getChatSettings(row: Map<String, String?>): ChatSettings =
+        ChatSettings(
+            row[KEY_CHAT_SOUND_NOTIFICATIONS].orEmpty(),
+            row[KEY_CHAT_VIBRATION_ENABLED] ?: VIBRATION_ON,
+            row[KEY_CHAT_VIDEO_QUALITY] ?: VideoQuality.MEDIUM.value.toString()
+        )
+
     /**
      * Save chat settings in the DB.
      *
@@ -1463,6 +1332,7 @@ class SqliteDatabaseHandler @Inject constructor(
         }
 
         db.insert(TABLE_CHAT_SETTINGS, null, values)
+        decryptedRows.invalidate(TABLE_CHAT_SETTINGS)
     }
     /**
      * Gets the chat video quality value.
@@ -1500,10 +1370,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_CHAT_SETTINGS SET $KEY_CHAT_SOUND_NOTIFICATIONS= '${
                             encrypt(sound)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CHAT_SOUND_NOTIFICATIONS, encrypt(sound))
-                    db.insert(TABLE_CHAT_SETTINGS, null, values)
+                    insert(TABLE_CHAT_SETTINGS, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -1521,10 +1391,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_CHAT_SETTINGS SET $KEY_CHAT_VIBRATION_ENABLED= '${
                             encrypt(enabled)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CHAT_VIBRATION_ENABLED, encrypt(enabled))
-                    db.insert(TABLE_CHAT_SETTINGS, null, values)
+                    insert(TABLE_CHAT_SETTINGS, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -1761,6 +1631,7 @@ class SqliteDatabaseHandler @Inject constructor(
         )
         values.put(KEY_TRANSFER_QUEUE_STATUS, encrypt(attr.transferQueueStatus))
         db.insert(TABLE_ATTRIBUTES, null, values)
+        decryptedRows.invalidate(TABLE_ATTRIBUTES)
     }
 
     /**
@@ -1769,140 +1640,67 @@ class SqliteDatabaseHandler @Inject constructor(
      * @param db Current DB.
      * @return The attributes.
      */
-    private fun getAttributes(db: SQLiteDatabase): MegaAttributes? {
-        var attr: MegaAttributes? = null
-        val selectQuery = "SELECT * FROM $TABLE_ATTRIBUTES"
-        try {
-            db.rawQuery(selectQuery, null)?.use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val online = decrypt(cursor.getString(getColumnIndex(cursor, KEY_ATTR_ONLINE)))
-                    val intents =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_ATTR_INTENTS)))
-                    val askSizeDownload = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_ATTR_ASK_SIZE_DOWNLOAD
-                            )
-                        )
-                    )
-                    val askNoAppDownload = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_ATTR_ASK_NOAPP_DOWNLOAD
-                            )
-                        )
-                    )
-                    if (!legacyLoggingSettings.areSDKLogsEnabled() && cursor.getColumnIndex(
-                            KEY_FILE_LOGGER_SDK
-                        ) != Constants.INVALID_VALUE
-                    ) {
-                        val fileLoggerSDK =
-                            decrypt(cursor.getString(getColumnIndex(cursor, KEY_FILE_LOGGER_SDK)))
-                        legacyLoggingSettings.updateSDKLogs(
-                            java.lang.Boolean.parseBoolean(
-                                fileLoggerSDK
-                            )
-                        )
-                    }
-                    val accountDetailsTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_ACCOUNT_DETAILS_TIMESTAMP
-                            )
-                        )
-                    )
-                    val extendedAccountDetailsTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP
-                            )
-                        )
-                    )
-                    val invalidateSdkCache =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_INVALIDATE_SDK_CACHE)))
-                    if (!legacyLoggingSettings.areKarereLogsEnabled() && cursor.getColumnIndex(
-                            KEY_FILE_LOGGER_KARERE
-                        ) != Constants.INVALID_VALUE
-                    ) {
-                        val fileLoggerKarere = decrypt(
-                            cursor.getString(
-                                getColumnIndex(
-                                    cursor,
-                                    KEY_FILE_LOGGER_KARERE
-                                )
-                            )
-                        )
-                        legacyLoggingSettings.updateKarereLogs(
-                            java.lang.Boolean.parseBoolean(
-                                fileLoggerKarere
-                            )
-                        )
-                    }
-                    val useHttpsOnly =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_USE_HTTPS_ONLY)))
-                    val showCopyright =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_COPYRIGHT)))
-                    val showNotifOff =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_NOTIF_OFF)))
-                    val lastPublicHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_LAST_PUBLIC_HANDLE)))
-                    val lastPublicHandleTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_LAST_PUBLIC_HANDLE_TIMESTAMP
-                            )
-                        )
-                    )
-                    val storageState =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_STORAGE_STATE)))
-                    val lastPublicHandleType = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_LAST_PUBLIC_HANDLE_TYPE
-                            )
-                        )
-                    )
-                    val myChatFilesFolderHandle = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_MY_CHAT_FILES_FOLDER_HANDLE
-                            )
-                        )
-                    )
-                    val transferQueueStatus =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_TRANSFER_QUEUE_STATUS)))
-                    attr = MegaAttributes(
-                        online,
-                        intents?.toIntOrNull() ?: 0,
-                        askSizeDownload,
-                        askNoAppDownload,
-                        accountDetailsTimeStamp,
-                        extendedAccountDetailsTimeStamp,
-                        invalidateSdkCache,
-                        useHttpsOnly,
-                        showCopyright,
-                        showNotifOff,
-                        lastPublicHandle,
-                        lastPublicHandleTimeStamp,
-                        lastPublicHandleType?.toIntOrNull() ?: MegaApiJava.AFFILIATE_TYPE_INVALID,
-                        storageState?.toIntOrNull()?.let { storageStateMapper(it) }
-                            ?: StorageState.Unknown,
-                        myChatFilesFolderHandle,
-                        transferQueueStatus
-                    )
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
+    private fun getAttributes(db: SQLiteDatabase): MegaAttributes? =
+        readDecryptedRow(db, TABLE_ATTRIBUTES)?.let { getAttributes(it) }
+
+    /**
+     * Gets attributes from a decrypted row of the attributes table.
+     *
+     * @param row Decrypted row.
+     * @return The attributes.
+     */
+    private fun getAttributes(row: Map<String, String?>): MegaAttributes {
+        val online = row[KEY_ATTR_ONLINE]
+        val intents = row[KEY_ATTR_INTENTS]
+        val askSizeDownload = row[KEY_ATTR_ASK_SIZE_DOWNLOAD]
+        val askNoAppDownload = row[KEY_ATTR_ASK_NOAPP_DOWNLOAD]
+        if (!legacyLoggingSettings.areSDKLogsEnabled() && KEY_FILE_LOGGER_SDK in row) {
+            val fileLoggerSDK = row[KEY_FILE_LOGGER_SDK]
+            legacyLoggingSettings.updateSDKLogs(
+                java.lang.Boolean.parseBoolean(
+                    fileLoggerSDK
+                )
+            )
+        }
+        val accountDetailsTimeStamp = row[KEY_ACCOUNT_DETAILS_TIMESTAMP]
+        val extendedAccountDetailsTimeStamp = row[KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP]
+        val invalidateSdkCache = row[KEY_INVALIDATE_SDK_CACHE]
+        if (!legacyLoggingSettings.areKarereLogsEnabled() && KEY_FILE_LOGGER_KARERE in row) {
+            val fileLoggerKarere = row[KEY_FILE_LOGGER_KARERE]
+            legacyLoggingSettings.updateKarereLogs(
+                java.lang.Boolean.parseBoolean(
+                    fileLoggerKarere
+                )
+            )
         }
-        return attr
+        val useHttpsOnly = row[KEY_USE_HTTPS_ONLY]
+        val showCopyright = row[KEY_SHOW_COPYRIGHT]
+        val showNotifOff = row[KEY_SHOW_NOTIF_OFF]
+        val lastPublicHandle = row[KEY_LAST_PUBLIC_HANDLE]
+        val lastPublicHandleTimeStamp = row[KEY_LAST_PUBLIC_HANDLE_TIMESTAMP]
+        val storageState = row[KEY_STORAGE_STATE]
+        val lastPublicHandleType = row[KEY_LAST_PUBLIC_HANDLE_TYPE]
+        val myChatFilesFolderHandle = row[KEY_MY_CHAT_FILES_FOLDER_HANDLE]
+        val transferQueueStatus = row[KEY_TRANSFER_QUEUE_STATUS]
+        return MegaAttributes(
+            online,
+            intents?.toIntOrNull() ?: 0,
+            askSizeDownload,
+            askNoAppDownload,
+            accountDetailsTimeStamp,
+            extendedAccountDetailsTimeStamp,
+            invalidateSdkCache,
+            useHttpsOnly,
+            showCopyright,
+            showNotifOff,
+            lastPublicHandle,
+            lastPublicHandleTimeStamp,
+            lastPublicHandleType?.toIntOrNull() ?: MegaApiJava.AFFILIATE_TYPE_INVALID,
+            storageState?.toIntOrNull()?.let { storageStateMapper(it) }
+                ?: StorageState.Unknown,
+            myChatFilesFolderHandle,
+            transferQueueStatus
+        )
     }
     /**
      * Gets attributes.
@@ -1915,7 +1713,7 @@ class SqliteDatabaseHandler @Inject constructor(
      * @param attr Attributes to save.
      */
     override var attributes: MegaAttributes?
-        get() = getAttributes(db)
+        get() = getCachedRow(TABLE_ATTRIBUTES)?.let { getAttributes(it) }
         set(attr) {
             setAttributes(db, attr)
         }
@@ -2378,10 +2176,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_FIRST_LOGIN= '${encrypt(firstTime.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_FIRST_LOGIN, encrypt(firstTime.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2397,10 +2195,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_WIFI= '${encrypt(wifi.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CAM_SYNC_WIFI, encrypt(wifi.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2416,10 +2214,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST= '${encrypt(list.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_PREFERRED_VIEW_LIST, encrypt(list.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2437,10 +2235,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST_CAMERA= '${
                             encrypt(list.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_PREFERRED_VIEW_LIST_CAMERA, encrypt(list.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2456,10 +2254,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_CLOUD= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_PREFERRED_SORT_CLOUD, encrypt(order))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2480,10 +2278,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_OTHERS= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_PREFERRED_SORT_OTHERS, encrypt(order))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2501,10 +2299,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_UPLOAD_FOLDER= '${
                             encrypt(folderPath)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_LAST_UPLOAD_FOLDER, encrypt(folderPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2522,14 +2320,14 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_CLOUD_FOLDER_HANDLE= '${
                             encrypt(folderHandle)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                     Timber.d(
                         "KEY_LAST_CLOUD_FOLDER_HANDLE UPLOAD FOLDER: %s",
                         UPDATE_PREFERENCES_TABLE
                     )
                 } else {
                     values.put(KEY_LAST_CLOUD_FOLDER_HANDLE, encrypt(folderHandle))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2545,10 +2343,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_KEEP_FILE_NAMES= '${encrypt(charging.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_KEEP_FILE_NAMES, encrypt(charging.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2565,10 +2363,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CAM_SYNC_ENABLED, encrypt(enabled.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
                 if (enabled) {
                     setPrimaryBackup()
@@ -2590,10 +2388,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_SEC_FOLDER_ENABLED, encrypt(enabled.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
                 // Set or remove corresponding MU backup.
                 if (enabled) {
@@ -2615,10 +2413,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CAM_SYNC_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
                 Timber.d("Set new primary handle: %s", handle)
                 // Update CU backup when CU target folder changed.
@@ -2638,10 +2436,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_PREFERENCES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_SEC_FOLDER_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
                 Timber.d("Set new secondary handle: %s", handle)
                 // Update MU backup when MU target folder changed.
@@ -2662,10 +2460,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_LOCAL_PATH= '${
                             encrypt(localPath)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CAM_SYNC_LOCAL_PATH, encrypt(localPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2683,11 +2481,11 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_URI_EXTERNAL_SD_CARD= '${
                             encrypt(uriExternalSDCard)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                     Timber.d("KEY_URI_EXTERNAL_SD_CARD URI: %s", UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_URI_EXTERNAL_SD_CARD, encrypt(uriExternalSDCard))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2724,13 +2522,13 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD= '${
                             encrypt(cameraFolderExternalSDCard.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(
                         KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD,
                         encrypt(cameraFolderExternalSDCard.toString())
                     )
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2770,10 +2568,10 @@ class SqliteDatabaseHandler @Inject constructor(
                             "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_TYPE= '${
                                 encrypt(passcodeLockType)
                             }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
+                        execSQL(UPDATE_PREFERENCES_TABLE)
                     } else {
                         values.put(KEY_PASSCODE_LOCK_TYPE, encrypt(passcodeLockType))
-                        db.insert(TABLE_PREFERENCES, null, values)
+                        insert(TABLE_PREFERENCES, null, values)
                     }
                 }
             } catch (e: Exception) {
@@ -2792,10 +2590,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_LOCAL_PATH= '${
                             encrypt(localPath)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_SEC_FOLDER_LOCAL_PATH, encrypt(localPath))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2813,10 +2611,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_FILE_UPLOAD= '${
                             encrypt(fileUpload.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_CAM_SYNC_FILE_UPLOAD, encrypt(fileUpload.toString()))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2843,13 +2641,13 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_ACCOUNT_DETAILS_TIMESTAMP= '${
                             encrypt(accountDetailsTimeStamp.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
+                    execSQL(UPDATE_ATTRIBUTE_TABLE)
                 } else {
                     values.put(
                         KEY_ACCOUNT_DETAILS_TIMESTAMP,
                         encrypt(accountDetailsTimeStamp.toString())
                     )
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2869,13 +2667,13 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP= '${
                             encrypt(extendedAccountDetailsTimestamp.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
+                    execSQL(UPDATE_ATTRIBUTE_TABLE)
                 } else {
                     values.put(
                         KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP,
                         encrypt(extendedAccountDetailsTimestamp.toString())
                     )
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -2895,13 +2693,13 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP= '${
                             encrypt(extendedAccountDetailsTimestamp.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
+                    execSQL(UPDATE_ATTRIBUTE_TABLE)
                 } else {
                     values.put(
                         KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP,
                         encrypt(extendedAccountDetailsTimestamp.toString())
                     )
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3001,10 +2799,11 @@ class SqliteDatabaseHandler @Inject constructor(
                     val UPDATE_TABLE =
                         "UPDATE $tableName SET $columnName= '${encrypt(value)}' WHERE $KEY_ID = '1'"
                     db.execSQL(UPDATE_TABLE)
+                    decryptedRows.updateValue(tableName, columnName, value)
                 } else {
                     val values = ContentValues()
                     values.put(columnName, encrypt(value))
-                    db.insert(tableName, null, values)
+                    insert(tableName, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3025,6 +2824,11 @@ class SqliteDatabaseHandler @Inject constructor(
         columnName: String,
         defaultValue: String,
     ): String? {
+        if (tableName in decryptedRows) {
+            getCachedRow(tableName)?.let { row ->
+                return if (columnName in row) row[columnName] else defaultValue
+            }
+        }
         var value: String? = defaultValue
         val selectQuery =
             "SELECT $columnName FROM $tableName WHERE $KEY_ID = '1'"
@@ -3037,7 +2841,7 @@ class SqliteDatabaseHandler @Inject constructor(
                     Timber.w("No value found, setting default")
                     val values = ContentValues()
                     values.put(columnName, encrypt(defaultValue))
-                    db.insert(tableName, null, values)
+                    insert(tableName, null, values)
                     Timber.d("Default value: %s", defaultValue)
                 }
             }
@@ -3075,13 +2879,13 @@ class SqliteDatabaseHandler @Inject constructor(
                             "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_ENABLED= '${
                                 encrypt(passcodeLockEnabled.toString())
                             }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
+                        execSQL(UPDATE_PREFERENCES_TABLE)
                     } else {
                         values.put(
                             KEY_PASSCODE_LOCK_ENABLED,
                             encrypt(passcodeLockEnabled.toString())
                         )
-                        db.insert(TABLE_PREFERENCES, null, values)
+                        insert(TABLE_PREFERENCES, null, values)
                     }
                 }
             } catch (e: Exception) {
@@ -3103,10 +2907,10 @@ class SqliteDatabaseHandler @Inject constructor(
                                     passcodeLockCode
                                 )
                             }' WHERE $KEY_ID = '1'"
-                        db.execSQL(UPDATE_PREFERENCES_TABLE)
+                        execSQL(UPDATE_PREFERENCES_TABLE)
                     } else {
                         values.put(KEY_PASSCODE_LOCK_CODE, encrypt(passcodeLockCode))
-                        db.insert(TABLE_PREFERENCES, null, values)
+                        insert(TABLE_PREFERENCES, null, values)
                     }
                 }
             } catch (e: Exception) {
@@ -3188,10 +2992,10 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_PREFERENCES SET $KEY_STORAGE_DOWNLOAD_LOCATION= '${
                             encrypt(storageDownloadLocation)
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_PREFERENCES_TABLE)
+                    execSQL(UPDATE_PREFERENCES_TABLE)
                 } else {
                     values.put(KEY_STORAGE_DOWNLOAD_LOCATION, encrypt(storageDownloadLocation))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3209,11 +3013,11 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_ASK_SIZE_DOWNLOAD='${
                             encrypt(askSizeDownload)
                         }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                     Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_ATTR_ASK_SIZE_DOWNLOAD, encrypt(askSizeDownload))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3231,11 +3035,11 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_ASK_NOAPP_DOWNLOAD='${
                             encrypt(askNoAppDownload)
                         }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                     Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_ATTR_ASK_NOAPP_DOWNLOAD, encrypt(askNoAppDownload))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3253,11 +3057,11 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_ATTR_INTENTS='${
                             encrypt(attempt.toString())
                         }' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                     Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_ATTR_INTENTS, encrypt(attempt.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3273,11 +3077,11 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_USE_HTTPS_ONLY='${encrypt(useHttpsOnly.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                     Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_USE_HTTPS_ONLY, encrypt(useHttpsOnly.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3309,10 +3113,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_SHOW_COPYRIGHT='${encrypt(showCopyright.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_SHOW_COPYRIGHT, encrypt(showCopyright.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3344,10 +3148,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_SHOW_NOTIF_OFF='${encrypt(showNotifOff.toString())}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_SHOW_NOTIF_OFF, encrypt(showNotifOff.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3363,10 +3167,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_LAST_PUBLIC_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_LAST_PUBLIC_HANDLE, encrypt(handle.toString()))
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3384,13 +3188,13 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_LAST_PUBLIC_HANDLE_TIMESTAMP= '${
                             encrypt(lastPublicHandleTimeStamp.toString())
                         }' WHERE $KEY_ID = '1'"
-                    db.execSQL(UPDATE_ATTRIBUTE_TABLE)
+                    execSQL(UPDATE_ATTRIBUTE_TABLE)
                 } else {
                     values.put(
                         KEY_LAST_PUBLIC_HANDLE_TIMESTAMP,
                         encrypt(lastPublicHandleTimeStamp.toString())
                     )
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3525,14 +3329,14 @@ class SqliteDatabaseHandler @Inject constructor(
                         "UPDATE $TABLE_ATTRIBUTES SET $KEY_INVALIDATE_SDK_CACHE='" + encrypt(
                             invalidateSdkCache.toString()
                         ) + "' WHERE " + KEY_ID + " ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                     Timber.d("UPDATE_ATTRIBUTES_TABLE : %s", UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(
                         KEY_INVALIDATE_SDK_CACHE,
                         encrypt(invalidateSdkCache.toString())
                     )
-                    db.insert(TABLE_ATTRIBUTES, null, values)
+                    insert(TABLE_ATTRIBUTES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3552,7 +3356,7 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun clearPreferences() {
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
+        execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
         onCreate(db)
     }
 
@@ -3569,7 +3373,7 @@ class SqliteDatabaseHandler @Inject constructor(
             Timber.w(e, "EXCEPTION getting last public handle info.")
             lastPublicHandle = MegaApiJava.INVALID_HANDLE
         }
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_ATTRIBUTES")
+        execSQL("DROP TABLE IF EXISTS $TABLE_ATTRIBUTES")
         onCreate(db)
         if (lastPublicHandle != MegaApiJava.INVALID_HANDLE) {
             try {
@@ -3599,7 +3403,7 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun clearChatSettings() {
-        db.execSQL("DROP TABLE IF EXISTS $TABLE_CHAT_SETTINGS")
+        execSQL("DROP TABLE IF EXISTS $TABLE_CHAT_SETTINGS")
         onCreate(db)
     }
 
@@ -3896,10 +3700,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_AUTO_PLAY='${encrypt(enabled)}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_AUTO_PLAY, encrypt(enabled))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -3916,10 +3720,10 @@ class SqliteDatabaseHandler @Inject constructor(
                 if (cursor != null && cursor.moveToFirst()) {
                     val UPDATE_ATTRIBUTES_TABLE =
                         "UPDATE $TABLE_PREFERENCES SET $KEY_SHOW_INVITE_BANNER='${encrypt(show)}' WHERE $KEY_ID ='1'"
-                    db.execSQL(UPDATE_ATTRIBUTES_TABLE)
+                    execSQL(UPDATE_ATTRIBUTES_TABLE)
                 } else {
                     values.put(KEY_SHOW_INVITE_BANNER, encrypt(show))
-                    db.insert(TABLE_PREFERENCES, null, values)
+                    insert(TABLE_PREFERENCES, null, values)
                 }
             }
         } catch (e: Exception) {
@@ -4320,17 +4124,64 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     /**
-     * Get the index of a column in a cursor.
-     * Avoid to access column with hardcode index.
+     * Reads the first row of a table and decrypts all its values.
      *
-     * @param cursor     Cursor object which has the column.
-     * @param columnName Name of the column.
-     * @return The index of the column in the cursor.
+     * @param db        Current DB.
+     * @param tableName Name of the database's table.
+     * @return Decrypted values keyed by column name, null if the table is empty.
      */
-    private fun getColumnIndex(cursor: Cursor, columnName: String): Int {
-        return cursor.getColumnIndex(columnName)
+    private fun readDecryptedRow(db: SQLiteDatabase, tableName: String): Map<String, String?>? {
+        try {
+            db.rawQuery("SELECT * FROM $tableName", null)?.use { cursor ->
+                if (cursor.moveToFirst()) {
+                    val row = HashMap<String, String?>(cursor.columnCount)
+                    cursor.columnNames.forEachIndexed { index, columnName ->
+                        val value = cursor.getString(index)
+                        row[columnName] = when {
+                            columnName == KEY_ID -> value
+                            value.isNullOrEmpty() -> null
+                            else -> decrypt(value)
+                        }
+                    }
+                    return row
+                }
+            }
+        } catch (e: Exception) {
+            Timber.e(e, "Exception opening or managing DB cursor")
+        }
+        return null
+    }
+
+    /**
+     * Gets the decrypted snapshot of a cached table, loading it if needed.
+     *
+     * @param tableName Name of the database's table, one of [CACHED_TABLES].
+     * @return Decrypted values keyed by column name, null if the table is empty.
+     */
+    private fun getCachedRow(tableName: String): Map<String, String?>? =
+        decryptedRows.getOrLoad(tableName) { readDecryptedRow(db, tableName) }
+
+    /**
+     * Executes a write statement in the current DB, invalidating the snapshot of the written table.
+     *
+     * @param sql SQL statement.
+     */
+    private fun execSQL(sql: String) {
+        db.execSQL(sql)
+        decryptedRows.invalidateWrittenTable(sql)
     }
 
+    /**
+     * Inserts a row in the current DB, invalidating the snapshot of the table.
+     *
+     * @param tableName      Name of the database's table.
+     * @param nullColumnHack Same as [SQLiteDatabase.insert].
+     * @param values         Values to insert.
+     * @return The row ID of the newly inserted row, or -1 if an error occurred.
+     */
+    private fun insert(tableName: String, nullColumnHack: String?, values: ContentValues): Long =
+        db.insert(tableName, nullColumnHack, values).also { decryptedRows.invalidate(tableName) }
+
     companion object {
         private const val TABLE_PREFERENCES = "preferences"
         private const val TABLE_CREDENTIALS = "credentials"
@@ -4548,33 +4399,54 @@ class SqliteDatabaseHandler @Inject constructor(
         private const val SYNC_RECORD_TYPE_VIDEO = 2
         private const val SYNC_RECORD_TYPE_ANY = -1
 
+        /**
+         * Single row tables whose decrypted values are kept in memory.
+         */
+        private val CACHED_TABLES = setOf(TABLE_PREFERENCES, TABLE_ATTRIBUTES, TABLE_CHAT_SETTINGS)
+
         private fun encrypt(original: String?): String? =
             original?.let {
                 try {
-                    val encrypted = Util.aes_encrypt(aesKey, it.toByteArray())
+                    val encrypted = encryptCipher.get()!!.doFinal(it.toByteArray())
                     Base64.encodeToString(encrypted, Base64.DEFAULT)
                 } catch (e: Exception) {
                     Timber.e(e, "Error encrypting DB field")
                     e.printStackTrace()
+                    encryptCipher.remove()
                     null
                 }
             }
 
-        private val aesKey: ByteArray
-            get() {
-                val key = Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G"
-                return key.toByteArray().copyOfRange(0, 32)
-            }
+        private val aesKey: ByteArray =
+            (Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G")
+                .toByteArray().copyOfRange(0, 32)
+
+        private val secretKeySpec = SecretKeySpec(aesKey, "AES")
+
+        /**
+         * Ciphers are not thread safe, so each thread keeps its own initialised instances.
+         * A cipher is reset after each doFinal, so it can be reused for the next value.
+         */
+        private val encryptCipher = object : ThreadLocal<Cipher>() {
+            override fun initialValue(): Cipher =
+                Cipher.getInstance("AES").apply { init(Cipher.ENCRYPT_MODE, secretKeySpec) }
+        }
+
+        private val decryptCipher = object : ThreadLocal<Cipher>() {
+            override fun initialValue(): Cipher =
+                Cipher.getInstance("AES").apply { init(Cipher.DECRYPT_MODE, secretKeySpec) }
+        }
 
         private fun decrypt(encodedString: String?): String? =
             encodedString?.let {
                 try {
                     val encoded = Base64.decode(encodedString, Base64.DEFAULT)
-                    val original = Util.aes_decrypt(aesKey, encoded)
+                    val original = decryptCipher.get()!!.doFinal(encoded)
                     String(original)
                 } catch (e: Exception) {
                     Timber.e(e, "Error decrypting DB field")
                     e.printStackTrace()
+                    decryptCipher.remove()
                     null
                 }
             }
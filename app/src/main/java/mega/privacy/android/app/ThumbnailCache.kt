@@ -0,0 +1,198 @@
+package mega.privacy.android.app
+
+import android.content.ComponentCallbacks2
+import android.graphics.Bitmap
+import androidx.collection.LruCache
+import mega.privacy.android.app.utils.cache.CacheStats
+import mega.privacy.android.app.utils.cache.LongLruCache
+import mega.privacy.android.app.utils.cache.SampledBitmapDecoder
+import timber.log.Timber
+
+/**
+ * Memory cache of the thumbnails displayed in lists and grids
+ *
+ * Thumbnails are kept in two tiers bounded by bytes: the thumbnails as decoded, keyed by node
+ * handle, and copies downsampled to the size of the cell where they are displayed. Both tiers are
+ * shared by the legacy adapters and the Coil thumbnail fetcher. Nodes without thumbnail can be
+ * recorded with a null bitmap, so they are not loaded again on every bind.
+ *
+ * @param maxBytes memory budget of the cache
+ */
+class ThumbnailCache @JvmOverloads constructor(
+    maxBytes: Long = LongLruCache.heapBudget(HEAP_PERCENTAGE),
+) {
+    private val thumbnails = LongLruCache<Bitmap>(maxBytes / 2, Bitmap::getAllocationByteCount)
+
+    private val sizedThumbnails = LongLruCache<SizedBitmap>(
+        maxSize = maxBytes / 4,
+        sizeOf = { it.bitmap.allocationByteCount },
+    )
+
+    private val pathThumbnails =
+        object : LruCache<String, Bitmap>((maxBytes / 4).coerceAtMost(Int.MAX_VALUE.toLong()).toInt()) {
+            override fun sizeOf(key: String, value: Bitmap) = value.allocationByteCount
+        }
+
+    private class SizedBitmap(val bitmap: Bitmap, val maxDimension: Int)
+
+    /**
+     * Current counters of the thumbnails and of the downsampled thumbnails
+     */
+    val stats: ThumbnailCacheStats
+        get() = ThumbnailCacheStats(thumbnails.stats, sizedThumbnails.stats)
+
+    /**
+     * Put a thumbnail
+     *
+     * @param key node handle
+     * @param value thumbnail, or null if the node has no thumbnail
+     */
+    fun put(key: Long, value: Bitmap?) {
+        sizedThumbnails.remove(key)
+        if (value == null) {
+            thumbnails.putMissing(key)
+        } else {
+            thumbnails.put(key, value)
+        }
+    }
+
+    /**
+     * Put the thumbnail of a local file
+     *
+     * @param key file path
+     * @param value thumbnail
+     */
+    fun put(key: String, value: Bitmap) {
+        pathThumbnails.put(key, value)
+    }
+
+    /**
+     * Put a thumbnail downsampled to the size of the cell where it is displayed
+     *
+     * @param key node handle
+     * @param maxDimension maximum width and height of the cell
+     * @param value downsampled thumbnail
+     */
+    fun putSized(key: Long, maxDimension: Int, value: Bitmap) {
+        sizedThumbnails.put(key, SizedBitmap(value, maxDimension))
+    }
+
+    /**
+     * Remove a thumbnail and its downsampled copy
+     *
+     * @param key node handle
+     */
+    fun remove(key: Long) {
+        thumbnails.remove(key)
+        sizedThumbnails.remove(key)
+    }
+
+    /**
+     * Remove the thumbnail of a local file
+     *
+     * @param key file path
+     */
+    fun remove(key: String) {
+        pathThumbnails.remove(key)
+    }
+
+    /**
+     * Get a thumbnail
+     *
+     * @param key node handle
+     */
+    fun get(key: Long): Bitmap? = thumbnails.get(key)
+
+    /**
+     * Get the thumbnail of a local file
+     *
+     * @param key file path
+     */
+    fun get(key: String): Bitmap? = pathThumbnails.get(key)
+
+    /**
+     * Get a thumbnail fitting the cell where it is displayed
+     *
+     * If only the thumbnail as decoded is cached and it is larger than the cell, it is downsampled
+     * and the copy is cached.
+     *
+     * @param key node handle
+     * @param maxDimension maximum width and height of the cell, or 0 for the thumbnail as decoded
+     */
+    fun getSized(key: Long, maxDimension: Int): Bitmap? {
+        if (maxDimension <= 0) return get(key)
+        sizedThumbnails.get(key)
+            ?.takeIf { it.maxDimension == maxDimension }
+            ?.let { return it.bitmap }
+
+        val thumbnail = thumbnails.get(key) ?: return null
+        return SampledBitmapDecoder.scaleDown(thumbnail, maxDimension).also {
+            if (it !== thumbnail) putSized(key, maxDimension, it)
+        }
+    }
+
+    /**
+     * Check if a node has a cached thumbnail or is recorded as having none
+     *
+     * @param key node handle
+     */
+    fun containsKey(key: Long): Boolean = thumbnails.containsKey(key)
+
+    /**
+     * Check if the thumbnail of a local file is cached
+     *
+     * @param key file path
+     */
+    fun containsKey(key: String): Boolean = pathThumbnails.get(key) != null
+
+    /**
+     * Check if a node is recorded as having no thumbnail
+     *
+     * @param key node handle
+     */
+    fun isMissing(key: Long): Boolean = thumbnails.isMissing(key)
+
+    /**
+     * Release memory according to the level received by [ComponentCallbacks2.onTrimMemory]
+     *
+     * @param level
+     */
+    fun trimMemory(level: Int) {
+        Timber.d("Trim thumbnail cache, level $level: $stats")
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE -> clear()
+            level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW -> {
+                thumbnails.trimToSize(thumbnails.maxSize / 2)
+                sizedThumbnails.trimToSize(sizedThumbnails.maxSize / 2)
+                pathThumbnails.trimToSize(pathThumbnails.maxSize() / 2)
+            }
+        }
+    }
+
+    /**
+     * Remove all the thumbnails
+     */
+    fun clear() {
+        thumbnails.clear()
+        sizedThumbnails.clear()
+        pathThumbnails.evictAll()
+    }
+
+    companion object {
+        /**
+         * Percentage of the heap used by the thumbnails of all the tiers
+         */
+        const val HEAP_PERCENTAGE = 12
+    }
+}
+
+/**
+ * Counters of a [ThumbnailCache]
+ *
+ * @property thumbnails counters of the thumbnails as decoded
+ * @property sizedThumbnails counters of the thumbnails downsampled to the size of their cell
+ */
+data class ThumbnailCacheStats(
+    val thumbnails: CacheStats,
+    val sizedThumbnails: CacheStats,
+)
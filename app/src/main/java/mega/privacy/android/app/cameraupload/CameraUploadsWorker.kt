@@ -13,6 +13,8 @@ import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.NonCancellable
 import kotlinx.coroutines.cancelChildren
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.consumeEach
 import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableStateFlow
@@ -150,6 +152,7 @@ import java.io.FileNotFoundException
 import java.time.Instant
 import java.util.Hashtable
 import java.util.concurrent.CancellationException
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
 
 /**
@@ -241,6 +244,7 @@ class CameraUploadsWorker @AssistedInject constructor(
         private const val LOW_BATTERY_LEVEL = 20
         private const val ON_TRANSFER_UPDATE_REFRESH_MILLIS = 1000
         private const val CONCURRENT_UPLOADS_LIMIT = 16
+        private const val COMPRESSED_VIDEOS_PENDING_UPLOAD_LIMIT = 2
 
         private const val PerfUploadFilesTrace = "camera_uploads_upload_files"
         private const val PerfScanFilesTrace = "camera_uploads_scan_files"
@@ -293,6 +297,12 @@ class CameraUploadsWorker @AssistedInject constructor(
      */
     private var videoCompressionJob: Job? = null
 
+    /**
+     * Last progress of the video compression, shown along the upload progress while compressing.
+     * Null when no video is being compressed
+     */
+    private var videoCompressionProgress: VideoCompressionState.Progress? = null
+
     /**
      * Total video size to upload in MB
      */
@@ -344,6 +354,12 @@ class CameraUploadsWorker @AssistedInject constructor(
      */
     private val semaphore = Semaphore(CONCURRENT_UPLOADS_LIMIT)
 
+    /**
+     * Sync records whose upload has already been started during this run, so the uploads started
+     * while scanning are not started again once the scan is finished
+     */
+    private val startedUploads: MutableSet<String> = ConcurrentHashMap.newKeySet()
+
     /**
      * Flag to check if performance benchmark is enabled
      */
@@ -365,10 +381,8 @@ class CameraUploadsWorker @AssistedInject constructor(
                     Timber.d("Calling startWorker() successful. Starting Camera Uploads")
                     cameraUploadsNotificationManagerWrapper.cancelNotifications()
 
-                    tracePerformance(PerfScanFilesTrace) { checkUploadNodes() }
-                    tracePerformance(PerfUploadFilesTrace) { upload() }
-                    tracePerformance(PerfCompressVideosTrace) { compressVideos() }
-                    tracePerformance(PerfUploadCompressedVideosTrace) { uploadCompressedVideos() }
+                    scanAndUpload()
+                    compressAndUploadVideos()
 
                     endService()
                     Result.success()
@@ -672,7 +686,36 @@ class CameraUploadsWorker @AssistedInject constructor(
         }
     }
 
-    private suspend fun checkUploadNodes() {
+    /**
+     * Scan the media store and upload the pending files
+     *
+     * The upload of the sync records saved by the scan starts while the rest of the media store
+     * is still being scanned. Once the scan is finished, the remaining pending sync records are
+     * uploaded. The backup heartbeat is started before the scan, as uploads may start during it
+     */
+    private suspend fun scanAndUpload() = coroutineScope {
+        startHeartbeat()
+        val syncRecordsSaved = Channel<Unit>(Channel.CONFLATED)
+        val scanUploadJob = launch {
+            syncRecordsSaved.consumeEach {
+                val savedList = getPendingSyncRecords().filter { startedUploads.add(it.uploadKey) }
+                if (savedList.isNotEmpty()) {
+                    Timber.d("Start to upload ${savedList.size} files while scanning")
+                    startParallelUpload(savedList, isCompressedVideo = false)
+                }
+            }
+        }
+        tracePerformance(PerfScanFilesTrace) {
+            checkUploadNodes(onSyncRecordsSaved = { syncRecordsSaved.trySend(Unit) })
+        }
+        syncRecordsSaved.close()
+        tracePerformance(PerfUploadFilesTrace) {
+            upload()
+            scanUploadJob.join()
+        }
+    }
+
+    private suspend fun checkUploadNodes(onSyncRecordsSaved: suspend () -> Unit) {
         Timber.d("Get Pending Files from Media Store Database")
         showCheckUploadStatus()
 
@@ -692,28 +735,79 @@ class CameraUploadsWorker @AssistedInject constructor(
         processMediaForUploadUseCase(
             primaryUploadNode.id,
             secondaryUploadNode?.id,
-            tempRoot
+            tempRoot,
+            onSyncRecordsSaved,
         )
     }
 
     private suspend fun upload() {
-        val finalList = getPendingSyncRecords().also {
+        val finalList = getPendingSyncRecords().filter { startedUploads.add(it.uploadKey) }.also {
             Timber.d("Total File to upload ${it.size}")
         }
-        startHeartbeat()
         if (finalList.isNotEmpty()) {
             startParallelUpload(finalList, isCompressedVideo = false)
         }
     }
 
-    private suspend fun compressVideos() {
+    /**
+     * Key identifying the local file of a [SyncRecord]
+     */
+    private val SyncRecord.uploadKey
+        get() = "$isSecondary:$localPath"
+
+    /**
+     * Compress the videos pending compression and upload them
+     *
+     * Each video is uploaded as soon as its compression finishes, while the next one is being
+     * compressed. The compression waits while [COMPRESSED_VIDEOS_PENDING_UPLOAD_LIMIT] compressed
+     * videos are being uploaded, to limit the space used by the temporary files. Once the
+     * compression is finished, the remaining pending videos are uploaded
+     */
+    private suspend fun compressAndUploadVideos() = coroutineScope {
+        val compressedUploadJobs = mutableListOf<Job>()
+        val compressedUploadPermits = Semaphore(COMPRESSED_VIDEOS_PENDING_UPLOAD_LIMIT)
+        var hasUploadPermit = false
+        tracePerformance(PerfCompressVideosTrace) {
+            compressVideos(
+                onVideoCompressed = {
+                    // The compressor does not start the next video until this returns
+                    if (!hasUploadPermit) {
+                        compressedUploadPermits.acquire()
+                        hasUploadPermit = true
+                    }
+                },
+                onVideoReadyToUpload = { record ->
+                    if (hasUploadPermit && startedUploads.add(record.uploadKey)) {
+                        hasUploadPermit = false
+                        compressedUploadJobs.add(launch {
+                            try {
+                                startParallelUpload(listOf(record), isCompressedVideo = true)
+                            } finally {
+                                compressedUploadPermits.release()
+                            }
+                        })
+                    }
+                },
+            )
+        }
+        tracePerformance(PerfUploadCompressedVideosTrace) {
+            compressedUploadJobs.joinAll()
+            uploadCompressedVideos()
+        }
+    }
+
+    private suspend fun compressVideos(
+        onVideoCompressed: suspend () -> Unit,
+        onVideoReadyToUpload: suspend (SyncRecord) -> Unit,
+    ) {
         if (compressedVideoPending()) {
-            startVideoCompression()
+            startVideoCompression(onVideoCompressed, onVideoReadyToUpload)
         }
     }
 
     private suspend fun uploadCompressedVideos() {
         val compressedList = getVideoSyncRecordsByStatus(SyncStatus.STATUS_PENDING)
+            .filter { startedUploads.add(it.uploadKey) }
         if (compressedList.isNotEmpty()) {
             Timber.d("Start to upload ${compressedList.size} compressed videos.")
             startParallelUpload(compressedList, isCompressedVideo = true)
@@ -1364,8 +1458,21 @@ class CameraUploadsWorker @AssistedInject constructor(
         broadcastCameraUploadProgress(progress, pending)
     }
 
-    private suspend fun startVideoCompression() = coroutineScope {
+    /**
+     * Compress the videos pending compression
+     *
+     * @param onVideoCompressed called when the compression of a video finishes, before the next
+     * video is compressed
+     * @param onVideoReadyToUpload called with the [SyncRecord] of each video compressed
+     * successfully, once it is pending upload
+     */
+    private suspend fun startVideoCompression(
+        onVideoCompressed: suspend () -> Unit,
+        onVideoReadyToUpload: suspend (SyncRecord) -> Unit,
+    ) = coroutineScope {
         val fullList = getVideoSyncRecordsByStatus(SyncStatus.STATUS_TO_COMPRESS)
+        // Records not compressed yet, removed as their compression succeeds or fails
+        val pendingRecords = fullList.associateByTo(LinkedHashMap()) { it.id }
         if (fullList.isNotEmpty()) {
             resetTotalUploadsUseCase()
             resetUploadsCounts()
@@ -1381,7 +1488,8 @@ class CameraUploadsWorker @AssistedInject constructor(
                         .collect {
                             when (it) {
                                 is VideoCompressionState.Failed -> {
-                                    onCompressFailed(fullList.first { record -> record.id == it.id })
+                                    it.id?.let { id -> pendingRecords.remove(id) }
+                                        ?.let { record -> onCompressFailed(record) }
                                 }
 
                                 VideoCompressionState.Finished -> {
@@ -1390,6 +1498,7 @@ class CameraUploadsWorker @AssistedInject constructor(
 
                                 is VideoCompressionState.FinishedCompression -> {
                                     Timber.d("Video compressed path: ${it.returnedFile} success:${it.isSuccess} ")
+                                    if (it.isSuccess) onVideoCompressed()
                                 }
 
                                 VideoCompressionState.Initial -> {
@@ -1397,10 +1506,11 @@ class CameraUploadsWorker @AssistedInject constructor(
                                 }
 
                                 VideoCompressionState.InsufficientStorage -> {
-                                    onInsufficientSpace(fullList)
+                                    onInsufficientSpace(pendingRecords.values.toList())
                                 }
 
                                 is VideoCompressionState.Progress -> {
+                                    videoCompressionProgress = it
                                     onCompressUpdateProgress(
                                         progress = it.progress,
                                         currentFileIndex = it.currentIndex,
@@ -1409,13 +1519,18 @@ class CameraUploadsWorker @AssistedInject constructor(
                                 }
 
                                 is VideoCompressionState.Successful -> {
-                                    onCompressSuccessful(fullList.first { record -> record.id == it.id })
+                                    it.id?.let { id -> pendingRecords.remove(id) }
+                                        ?.let { record ->
+                                            onCompressSuccessful(record)
+                                            onVideoReadyToUpload(record)
+                                        }
                                 }
                             }
                         }
                 }
                 videoCompressionJob?.join()
                 videoCompressionJob = null
+                videoCompressionProgress = null
             } else {
                 Timber.d("Compression queue bigger than setting, show notification to user.")
                 showVideoCompressionErrorStatus()
@@ -1522,6 +1637,17 @@ class CameraUploadsWorker @AssistedInject constructor(
                 )
                 if (totalToUpload > 0) {
                     broadcastProgress(progressPercent, pendingToUpload)
+                    // While compressing, the notification shows the progress of both stages
+                    val compressionProgress = videoCompressionProgress
+                    if (compressionProgress != null) {
+                        showVideoCompressionProgress(
+                            compressionProgress.progress,
+                            compressionProgress.currentIndex,
+                            compressionProgress.totalCount,
+                        )
+                        return
+                    }
+
                     showUploadProgress(
                         totalUploaded,
                         totalToUpload,
@@ -1560,7 +1686,8 @@ class CameraUploadsWorker @AssistedInject constructor(
     }
 
     /**
-     *  Display a notification for video compression progress
+     *  Display a notification for video compression progress,
+     *  along with the progress of the uploads running meanwhile
      */
     private suspend fun showVideoCompressionProgress(
         progress: Int,
@@ -1572,7 +1699,9 @@ class CameraUploadsWorker @AssistedInject constructor(
                 STATUS_INFO to COMPRESSION_PROGRESS,
                 CURRENT_PROGRESS to progress,
                 CURRENT_FILE_INDEX to currentFileIndex,
-                TOTAL_COUNT to totalCount
+                TOTAL_COUNT to totalCount,
+                TOTAL_UPLOADED to state.value.totalUploadedCount,
+                TOTAL_TO_UPLOAD to state.value.totalToUploadCount,
             )
         )
     }
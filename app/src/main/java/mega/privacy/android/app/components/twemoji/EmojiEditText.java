@@ -33,6 +33,7 @@ public class EmojiEditText extends AppCompatEditText implements EmojiEditTextInt
     private float emojiSize;
     private Context mContext;
     private MediaListener listener;
+    private boolean emojiRefreshPending;
 
     public EmojiEditText(final Context context) {
         this(context, null);
@@ -70,6 +71,9 @@ public class EmojiEditText extends AppCompatEditText implements EmojiEditTextInt
         final Paint.FontMetrics fontMetrics = getPaint().getFontMetrics();
         final float defaultEmojiSize = fontMetrics.descent - fontMetrics.ascent;
         EmojiManager.getInstance().replaceWithImages(mContext, getText(), emojiSize, defaultEmojiSize);
+        if (!isInEditMode() && !EmojiManager.getInstance().isInstalled()) {
+            refreshWhenEmojisInstalled();
+        }
 
         if (mContext instanceof GroupChatInfoActivity || mContext instanceof AddContactActivity) {
             setFilters(new InputFilter[]{new InputFilter.LengthFilter(getMaxAllowed(getText()))});
@@ -82,6 +86,25 @@ public class EmojiEditText extends AppCompatEditText implements EmojiEditTextInt
         }
     }
 
+    /**
+     * Replaces the emojis of the current text once they are installed, as it was shown without them.
+     */
+    private void refreshWhenEmojisInstalled() {
+        if (emojiRefreshPending) return;
+
+        emojiRefreshPending = true;
+        EmojiManager.getReadyFuture().thenRun(() -> post(() -> {
+            emojiRefreshPending = false;
+            final Editable text = getText();
+            if (text == null || text.length() == 0) return;
+
+            final Paint.FontMetrics fontMetrics = getPaint().getFontMetrics();
+            final float defaultEmojiSize = fontMetrics.descent - fontMetrics.ascent;
+            EmojiManager.getInstance().replaceWithImages(mContext, text, emojiSize, defaultEmojiSize);
+            invalidate();
+        }));
+    }
+
     @Override
     @CallSuper
     public boolean isTextEmpty() {
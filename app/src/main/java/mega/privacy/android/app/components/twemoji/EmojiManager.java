@@ -3,6 +3,8 @@ package mega.privacy.android.app.components.twemoji;
 import static mega.privacy.android.app.components.twemoji.Utils.checkNotNull;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.Trace;
 import android.text.Spannable;
 import android.text.TextUtils;
 
@@ -11,13 +13,15 @@ import androidx.annotation.Nullable;
 import androidx.emoji.text.EmojiCompat;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import mega.privacy.android.app.components.twemoji.emoji.Emoji;
 import mega.privacy.android.app.components.twemoji.emoji.EmojiCategory;
@@ -28,16 +32,8 @@ public final class EmojiManager {
 
     private static final EmojiManager INSTANCE = new EmojiManager();
     private static final int GUESSED_UNICODE_AMOUNT = 3000;
-    private static final int GUESSED_TOTAL_PATTERN_LENGTH = GUESSED_UNICODE_AMOUNT * 4;
-    private static final Pattern SPACE_REMOVAL = Pattern.compile("[\\s]");
-    private static final Comparator<String> STRING_LENGTH_COMPARATOR = new Comparator<String>() {
-        @Override
-        public int compare(final String first, final String second) {
-            final int firstLength = first.length();
-            final int secondLength = second.length();
-            return firstLength < secondLength ? 1 : firstLength == secondLength ? 0 : -1;
-        }
-    };
+    private static final long INSTALL_TIMEOUT_SECONDS = 10;
+    private static final String INSTALL_TRACE_SECTION = "EmojiManager.install";
 
     private static final EmojiReplacer DEFAULT_EMOJI_REPLACER = (context, text, emojiSize, defaultEmojiSize, fallback) -> {
 
@@ -88,9 +84,10 @@ public final class EmojiManager {
 
     private final Map<String, Emoji> emojiMap = new LinkedHashMap<>(GUESSED_UNICODE_AMOUNT);
     private EmojiCategory[] categories;
-    private Pattern emojiPattern;
-    private Pattern emojiRepetitivePattern;
+    private EmojiTrie emojiTrie;
     private EmojiReplacer emojiReplacer;
+    private volatile CompletableFuture<Void> ready = new CompletableFuture<>();
+    private volatile boolean installPending;
 
     private EmojiManager() {
         // No instances apart from singleton.
@@ -107,7 +104,6 @@ public final class EmojiManager {
         INSTANCE.categories = checkNotNull(provider.getCategories(), "categories == null");
         INSTANCE.emojiMap.clear();
         INSTANCE.emojiReplacer = provider instanceof EmojiReplacer ? (EmojiReplacer) provider : DEFAULT_EMOJI_REPLACER;
-        final List<String> unicodesForPattern = new ArrayList<>(GUESSED_UNICODE_AMOUNT);
         final int categoriesSize = INSTANCE.categories.length;
 
         //noinspection ForLoopReplaceableByForEach
@@ -124,40 +120,65 @@ public final class EmojiManager {
                 final String unicode = emoji.getUnicode();
                 final List<Emoji> variants = emoji.getVariants();
                 INSTANCE.emojiMap.put(unicode, emoji);
-                unicodesForPattern.add(unicode);
 
                 //noinspection ForLoopReplaceableByForEach
                 for (int k = 0; k < variants.size(); k++) {
                     final Emoji variant = variants.get(k);
                     final String variantUnicode = variant.getUnicode();
                     INSTANCE.emojiMap.put(variantUnicode, variant);
-                    unicodesForPattern.add(variantUnicode);
-
                 }
             }
         }
-        if (unicodesForPattern.isEmpty()) {
+        if (INSTANCE.emojiMap.isEmpty()) {
             throw new IllegalArgumentException("Your EmojiProvider must at least have one category with at least one emoji.");
         }
-        // We need to sort the unicodes by length so the longest one gets matched first.
-        Collections.sort(unicodesForPattern, STRING_LENGTH_COMPARATOR);
-        final StringBuilder patternBuilder = new StringBuilder(GUESSED_TOTAL_PATTERN_LENGTH);
-        final int unicodesForPatternSize = unicodesForPattern.size();
-        for (int i = 0; i < unicodesForPatternSize; i++) {
-            patternBuilder.append(Pattern.quote(unicodesForPattern.get(i))).append('|');
-        }
-        final String regex = patternBuilder.deleteCharAt(patternBuilder.length() - 1).toString();
-        INSTANCE.emojiPattern = Pattern.compile(regex);
-        INSTANCE.emojiRepetitivePattern = Pattern.compile('(' + regex + ")+");
+        INSTANCE.emojiTrie = EmojiTrie.build(INSTANCE.emojiMap.values());
+        INSTANCE.ready.complete(null);
+    }
+
+    /**
+     * Installs the EmojiProvider in the background, so the emoji data is not built on the calling thread.
+     * Consumers accessing the EmojiManager before the installation finishes await it, apart from
+     * the ones on the main thread, which get no emojis until {@link #getReadyFuture()} completes.
+     *
+     * @param providerSupplier supplier of the provider that should be installed.
+     * @param executor         executor where the installation runs.
+     * @return future completed once the provider has been installed.
+     */
+    @NonNull
+    public static CompletableFuture<Void> installAsync(@NonNull final Supplier<EmojiProvider> providerSupplier, @NonNull final Executor executor) {
+        final CompletableFuture<Void> currentReady = INSTANCE.ready;
+        INSTANCE.installPending = true;
+        executor.execute(() -> {
+            Trace.beginSection(INSTALL_TRACE_SECTION);
+            try {
+                install(providerSupplier.get());
+            } catch (RuntimeException e) {
+                Timber.e(e, "Error installing EmojiProvider");
+                currentReady.completeExceptionally(e);
+            } finally {
+                INSTANCE.installPending = false;
+                Trace.endSection();
+            }
+        });
+        return currentReady;
+    }
+
+    /**
+     * Future completed once an EmojiProvider has been installed.
+     */
+    @NonNull
+    public static CompletableFuture<Void> getReadyFuture() {
+        return INSTANCE.ready;
     }
 
     public static void destroy() {
         release();
         INSTANCE.emojiMap.clear();
         INSTANCE.categories = null;
-        INSTANCE.emojiPattern = null;
-        INSTANCE.emojiRepetitivePattern = null;
+        INSTANCE.emojiTrie = null;
         INSTANCE.emojiReplacer = null;
+        INSTANCE.ready = new CompletableFuture<>();
     }
 
     public static void release() {
@@ -167,30 +188,22 @@ public final class EmojiManager {
     }
 
     public void replaceWithImages(final Context context, final Spannable text, final float emojiSize, final float defaultEmojiSize) {
-        verifyInstalled();
+        if (!verifyInstalled()) return;
         emojiReplacer.replaceWithImages(context, text, emojiSize, defaultEmojiSize, DEFAULT_EMOJI_REPLACER);
     }
 
     EmojiCategory[] getCategories() {
-        verifyInstalled();
+        if (!verifyInstalled()) return new EmojiCategory[0];
         return categories;
     }
 
-    Pattern getEmojiRepetitivePattern() {
-        return emojiRepetitivePattern;
-    }
-
     /**
      * returns true when the string contains only emojis. Note that whitespace will be filtered out.
      */
     public boolean isOnlyEmojis(@Nullable final String text) {
         try {
-            if (!TextUtils.isEmpty(text)) {
-                final String inputWithoutSpaces = SPACE_REMOVAL.matcher(text).replaceAll(Matcher.quoteReplacement(""));
-                return EmojiManager.getInstance()
-                        .getEmojiRepetitivePattern()
-                        .matcher(inputWithoutSpaces)
-                        .matches();
+            if (!TextUtils.isEmpty(text) && verifyInstalled()) {
+                return emojiTrie.isOnlyEmojis(text);
             }
         } catch (Exception e) {
             Timber.e(e);
@@ -207,28 +220,19 @@ public final class EmojiManager {
 
     public @NonNull
     List<EmojiRange> findAllEmojis(@Nullable final CharSequence text) {
-        final List<EmojiRange> result = new ArrayList<>();
         try {
-            verifyInstalled();
-            if (!TextUtils.isEmpty(text)) {
-                final Matcher matcher = emojiPattern.matcher(text);
-                while (matcher.find()) {
-                    final Emoji found = findEmoji(text.subSequence(matcher.start(), matcher.end()));
-                    if (found != null) {
-                        result.add(new EmojiRange(matcher.start(), matcher.end(), found));
-                    }
-                }
+            if (!TextUtils.isEmpty(text) && verifyInstalled()) {
+                return emojiTrie.findAll(text);
             }
         } catch (Exception e) {
             Timber.e(e);
-            return result;
         }
-        return result;
+        return new ArrayList<>();
     }
 
     @Nullable
     Emoji findEmoji(@NonNull final CharSequence candidate) {
-        verifyInstalled();
+        if (!verifyInstalled()) return null;
         // We need to call toString on the candidate, since the emojiMap may not find the requested entry otherwise, because
         // the type is different.
 
@@ -243,9 +247,38 @@ public final class EmojiManager {
 
     }
 
-    void verifyInstalled() {
-        if (categories == null) {
-            throw new IllegalStateException("Please install an EmojiProvider through the EmojiManager.install() method first.");
+    /**
+     * Whether the emoji data of an EmojiProvider is available.
+     */
+    public boolean isInstalled() {
+        final CompletableFuture<Void> currentReady = ready;
+        return currentReady.isDone() && !currentReady.isCompletedExceptionally() && emojiTrie != null;
+    }
+
+    /**
+     * Checks an EmojiProvider has been installed, awaiting a pending installation unless called
+     * from the main thread.
+     *
+     * @return true if the emoji data is available, false if it is still being installed.
+     * @throws IllegalStateException if no EmojiProvider has been installed.
+     */
+    boolean verifyInstalled() {
+        awaitInstalled();
+        if (isInstalled()) return true;
+        if (installPending) return false;
+        throw new IllegalStateException("Please install an EmojiProvider through the EmojiManager.install() method first.");
+    }
+
+    private void awaitInstalled() {
+        final CompletableFuture<Void> currentReady = ready;
+        // Waiting on the main thread could take longer than the ANR threshold
+        if (!installPending || currentReady.isDone() || Looper.getMainLooper().isCurrentThread()) return;
+        try {
+            currentReady.get(INSTALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Timber.e(e, "EmojiProvider installation not available");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+}
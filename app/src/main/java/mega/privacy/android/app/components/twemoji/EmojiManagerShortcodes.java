@@ -2,6 +2,8 @@ package mega.privacy.android.app.components.twemoji;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
@@ -10,33 +12,73 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import timber.log.Timber;
 
 public final class EmojiManagerShortcodes {
     private static final String EMOJI_SHORTCODES = "emojisshortcodes/emoji.json";
-    static List<EmojiShortcodes> emojiData;
+    private static volatile List<EmojiShortcodes> emojiData;
+    private static Context appContext;
 
-    public static void initEmojiData(Context context) {
-        if (emojiData == null || emojiData.size() < 1) {
-            BufferedReader reader = null;
-            try {
-                Gson gson = new GsonBuilder().enableComplexMapKeySerialization().setLenient().create();
-                reader = new BufferedReader(new InputStreamReader(context.getAssets().open(EMOJI_SHORTCODES)));
-                emojiData = gson.fromJson(reader, new TypeToken<ArrayList<EmojiShortcodes>>() {
-                }.getType());
-            } catch (IOException | NullPointerException e) {
-                Timber.e(e);
-            } finally {
-                try {
-                    if (reader != null) {
-                        reader.close();
+    /**
+     * Registers the context used to load the shortcodes data. The data itself is only parsed
+     * the first time it is needed, so it is kept out of the app startup.
+     *
+     * @param context Context.
+     */
+    public static synchronized void initEmojiData(Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    /**
+     * Gets the shortcodes data, loading it the first time.
+     *
+     * @return The shortcodes data, empty if it could not be loaded.
+     */
+    @NonNull
+    static List<EmojiShortcodes> getEmojiData() {
+        List<EmojiShortcodes> data = emojiData;
+        if (data == null) {
+            synchronized (EmojiManagerShortcodes.class) {
+                data = emojiData;
+                if (data == null) {
+                    data = loadEmojiData();
+                    if (!data.isEmpty()) {
+                        emojiData = data;
                     }
-                } catch (IOException e) {
-                    Timber.e(e);
                 }
             }
         }
+        return data;
+    }
+
+    @NonNull
+    private static List<EmojiShortcodes> loadEmojiData() {
+        if (appContext == null) {
+            Timber.w("Emoji shortcodes requested before initEmojiData");
+            return Collections.emptyList();
+        }
+
+        BufferedReader reader = null;
+        try {
+            Gson gson = new GsonBuilder().enableComplexMapKeySerialization().setLenient().create();
+            reader = new BufferedReader(new InputStreamReader(appContext.getAssets().open(EMOJI_SHORTCODES)));
+            List<EmojiShortcodes> data = gson.fromJson(reader, new TypeToken<ArrayList<EmojiShortcodes>>() {
+            }.getType());
+            return data != null ? data : Collections.emptyList();
+        } catch (IOException | NullPointerException e) {
+            Timber.e(e);
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+                Timber.e(e);
+            }
+        }
+        return Collections.emptyList();
     }
 }
@@ -41,6 +41,7 @@ public class EmojiTextView extends AppCompatTextView implements EmojiTexViewInte
 
     private CharSequence latestRawText;
     private BufferType latestBufferType;
+    private boolean emojiRefreshPending;
 
     public EmojiTextView(final Context context) {
         this(context, null);
@@ -90,6 +91,9 @@ public class EmojiTextView extends AppCompatTextView implements EmojiTexViewInte
         float defaultEmojiSize = fontMetrics.descent - fontMetrics.ascent;
         EmojiManager.getInstance()
             .replaceWithImages(getContext(), emojiProcessedText, emojiSize, defaultEmojiSize);
+        if (!isInEditMode() && !EmojiManager.getInstance().isInstalled()) {
+            refreshWhenEmojisInstalled();
+        }
 
         if (mContext == null || (mContext instanceof ContextWrapper
             && ((ContextWrapper) mContext).getBaseContext() == null) || textViewMaxWidth == 0) {
@@ -112,6 +116,19 @@ public class EmojiTextView extends AppCompatTextView implements EmojiTexViewInte
         setTextByManuallyEllipsize(iconDrawable, emojiProcessedText, maxLines, type);
     }
 
+    /**
+     * Sets the latest text again once the emojis are installed, as it was shown without them.
+     */
+    private void refreshWhenEmojisInstalled() {
+        if (emojiRefreshPending) return;
+
+        emojiRefreshPending = true;
+        EmojiManager.getReadyFuture().thenRun(() -> post(() -> {
+            emojiRefreshPending = false;
+            setText(latestRawText, latestBufferType);
+        }));
+    }
+
     /**
      * Manually ellipsize and display the text.
      *
@@ -0,0 +1,198 @@
+package mega.privacy.android.app.components.twemoji;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import mega.privacy.android.app.components.twemoji.emoji.Emoji;
+
+/**
+ * Compiled longest-match trie over the unicode sequences of all the installed emojis.
+ * <p>
+ * It replaces the big alternation regex previously used by {@link EmojiManager}: at each position
+ * of the text the longest emoji sequence starting there is matched, which is what the regex did by
+ * sorting the alternatives by length. Lookups walk the text once and do not allocate anything apart
+ * from the returned ranges.
+ * <p>
+ * The trie works on UTF-16 code units, so matching a sequence is equivalent to matching its code
+ * points without having to decode surrogate pairs.
+ */
+final class EmojiTrie {
+
+    private final Node root;
+
+    private EmojiTrie(@NonNull final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds the trie for the given emojis.
+     *
+     * @param emojis emojis (including variants) to be matched.
+     * @return the compiled trie.
+     */
+    @NonNull
+    static EmojiTrie build(@NonNull final Iterable<Emoji> emojis) {
+        final Builder root = new Builder();
+        for (final Emoji emoji : emojis) {
+            final String unicode = emoji.getUnicode();
+            Builder current = root;
+            for (int i = 0; i < unicode.length(); i++) {
+                current = current.child(unicode.charAt(i));
+            }
+            current.emoji = emoji;
+        }
+        return new EmojiTrie(root.compile());
+    }
+
+    /**
+     * Finds all the emojis in the text, scanning it from left to right and taking the longest
+     * emoji starting at each position.
+     *
+     * @param text the text.
+     * @return the found emojis.
+     */
+    @NonNull
+    List<EmojiRange> findAll(@NonNull final CharSequence text) {
+        final List<EmojiRange> result = new ArrayList<>();
+        final int length = text.length();
+        int start = 0;
+        while (start < length) {
+            final int end = longestMatchEnd(text, start, length);
+            if (end > start) {
+                result.add(new EmojiRange(start, end, lastMatch(text, start, end)));
+                start = end;
+            } else {
+                start++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the text, ignoring whitespace, is entirely made of consecutive emojis.
+     *
+     * @param text the text.
+     * @return true if the text only contains emojis and whitespace, and at least one emoji.
+     */
+    boolean isOnlyEmojis(@NonNull final CharSequence text) {
+        final int length = text.length();
+        int position = nextNonWhitespace(text, 0, length);
+        if (position == length) return false;
+
+        // Greedy longest matches are enough for practically every text, only texts in which a
+        // longer emoji swallows the start of the next one need the exhaustive check.
+        while (position < length) {
+            final int end = longestMatchEnd(text, position, length);
+            if (end == position) return isOnlyEmojisExhaustive(text, length);
+            position = nextNonWhitespace(text, end, length);
+        }
+        return true;
+    }
+
+    private boolean isOnlyEmojisExhaustive(@NonNull final CharSequence text, final int length) {
+        final boolean[] reachable = new boolean[length + 1];
+        reachable[nextNonWhitespace(text, 0, length)] = true;
+        for (int start = 0; start < length; start++) {
+            if (!reachable[start]) continue;
+            Node node = root;
+            for (int i = start; i < length && node != null; i++) {
+                node = node.child(text.charAt(i));
+                if (node != null && node.emoji != null) {
+                    reachable[nextNonWhitespace(text, i + 1, length)] = true;
+                }
+            }
+        }
+        return reachable[length];
+    }
+
+    /**
+     * Returns the end (exclusive) of the longest emoji starting at start, or start if none.
+     */
+    private int longestMatchEnd(@NonNull final CharSequence text, final int start, final int length) {
+        Node node = root;
+        int end = start;
+        for (int i = start; i < length; i++) {
+            node = node.child(text.charAt(i));
+            if (node == null) break;
+            if (node.emoji != null) end = i + 1;
+        }
+        return end;
+    }
+
+    @NonNull
+    private Emoji lastMatch(@NonNull final CharSequence text, final int start, final int end) {
+        Node node = root;
+        for (int i = start; i < end; i++) {
+            node = node.child(text.charAt(i));
+        }
+        return node.emoji;
+    }
+
+    private static int nextNonWhitespace(@NonNull final CharSequence text, int position, final int length) {
+        while (position < length && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Immutable trie node, children are kept in a sorted array and looked up by binary search.
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        @NonNull private final char[] keys;
+        @NonNull private final Node[] children;
+        @Nullable private final Emoji emoji;
+
+        private Node(@NonNull final char[] keys, @NonNull final Node[] children, @Nullable final Emoji emoji) {
+            this.keys = keys.length == 0 ? NO_KEYS : keys;
+            this.children = children.length == 0 ? NO_CHILDREN : children;
+            this.emoji = emoji;
+        }
+
+        @Nullable
+        Node child(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    /**
+     * Mutable node only used while building the trie.
+     */
+    private static final class Builder {
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+        @Nullable private Emoji emoji;
+
+        @NonNull
+        Builder child(final char key) {
+            Builder child = children.get(key);
+            if (child == null) {
+                child = new Builder();
+                children.put(key, child);
+            }
+            return child;
+        }
+
+        @NonNull
+        Node compile() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().compile();
+                i++;
+            }
+            return new Node(keys, nodes, emoji);
+        }
+    }
+}
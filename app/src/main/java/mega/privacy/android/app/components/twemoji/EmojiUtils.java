@@ -2,38 +2,16 @@ package mega.privacy.android.app.components.twemoji;
 
 import static mega.privacy.android.app.utils.TextUtil.isTextEmpty;
 
-import android.text.TextUtils;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import timber.log.Timber;
 
 
 public final class EmojiUtils {
-    private static final Pattern SPACE_REMOVAL = Pattern.compile("[\\s]");
-
     //returns true when the string contains only emojis. Note that whitespace will be filtered out.
     public boolean isOnlyEmojis(@Nullable final String text) {
-        try {
-            if (!TextUtils.isEmpty(text)) {
-
-                final String inputWithoutSpaces = SPACE_REMOVAL.matcher(text).replaceAll(Matcher.quoteReplacement(""));
-
-                return EmojiManager.getInstance()
-                        .getEmojiRepetitivePattern()
-                        .matcher(inputWithoutSpaces)
-                        .matches();
-            }
-        } catch (Exception e) {
-            Timber.e(e);
-        }
-
-        return false;
+        return EmojiManager.getInstance().isOnlyEmojis(text);
     }
 
     /**
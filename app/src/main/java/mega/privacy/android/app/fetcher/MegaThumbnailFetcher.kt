@@ -1,34 +1,74 @@
 package mega.privacy.android.app.fetcher
 
 import android.webkit.MimeTypeMap
+import androidx.core.graphics.drawable.toDrawable
 import coil.ImageLoader
 import coil.decode.DataSource
 import coil.decode.ImageSource
+import coil.fetch.DrawableResult
 import coil.fetch.FetchResult
 import coil.fetch.Fetcher
 import coil.fetch.SourceResult
 import coil.request.Options
+import coil.size.pxOrElse
+import mega.privacy.android.app.ThumbnailCache
+import mega.privacy.android.app.utils.cache.SampledBitmapDecoder
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
 import okio.Path.Companion.toOkioPath
 
 /**
  * Mega thumbnail fetcher to load thumbnails from normal MegaNode
+ *
+ * Thumbnails are shared with the legacy adapters through [ThumbnailCache]: cached thumbnails are
+ * returned without touching the disk, nodes known to have no thumbnail fail without calling the
+ * use cases, and decoded thumbnails are downsampled to the requested size and cached.
  */
 internal class MegaThumbnailFetcher(
     private val request: ThumbnailRequest,
+    private val options: Options,
+    private val thumbnailCache: ThumbnailCache,
     private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
     private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
 ) : Fetcher {
     override suspend fun fetch(): FetchResult {
+        val handle = request.id.longValue
+        val maxDimension = maxOf(
+            options.size.width.pxOrElse { 0 },
+            options.size.height.pxOrElse { 0 },
+        )
+        thumbnailCache.getSized(handle, maxDimension)?.let {
+            return DrawableResult(
+                drawable = it.toDrawable(options.context.resources),
+                isSampled = maxDimension > 0,
+                dataSource = DataSource.MEMORY_CACHE
+            )
+        }
+        if (thumbnailCache.isMissing(handle)) throw NullPointerException("Thumbnail file is null")
+
         val file = if (request.isPublicNode) {
-            getPublicNodeThumbnailUseCase.get()(request.id.longValue, true)
+            getPublicNodeThumbnailUseCase.get()(handle, true)
         } else {
-            getThumbnailUseCase.get()(request.id.longValue, true)
-        } ?: throw NullPointerException("Thumbnail file is null")
-        return SourceResult(
-            source = ImageSource(file = file.toOkioPath()),
-            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(file.extension),
+            getThumbnailUseCase.get()(handle, true)
+        } ?: run {
+            thumbnailCache.put(handle, null)
+            throw NullPointerException("Thumbnail file is null")
+        }
+
+        val bitmap = SampledBitmapDecoder.decode(file, maxDimension)
+            ?: return SourceResult(
+                source = ImageSource(file = file.toOkioPath()),
+                mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(file.extension),
+                dataSource = DataSource.DISK
+            )
+        if (maxDimension > 0) {
+            thumbnailCache.putSized(handle, maxDimension, bitmap)
+        } else {
+            thumbnailCache.put(handle, bitmap)
+        }
+        return DrawableResult(
+            drawable = bitmap.toDrawable(options.context.resources),
+            isSampled = maxDimension > 0,
             dataSource = DataSource.DISK
         )
     }
@@ -39,6 +79,7 @@ internal class MegaThumbnailFetcher(
     class Factory(
         private val getThumbnailUseCase: dagger.Lazy<GetThumbnailUseCase>,
         private val getPublicNodeThumbnailUseCase: dagger.Lazy<GetPublicNodeThumbnailUseCase>,
+        private val thumbnailCache: ThumbnailCache,
     ) : Fetcher.Factory<ThumbnailRequest> {
 
         override fun create(
@@ -47,11 +88,17 @@ internal class MegaThumbnailFetcher(
             imageLoader: ImageLoader,
         ): Fetcher? {
             if (!isApplicable(data)) return null
-            return MegaThumbnailFetcher(data, getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+            return MegaThumbnailFetcher(
+                request = data,
+                options = options,
+                thumbnailCache = thumbnailCache,
+                getThumbnailUseCase = getThumbnailUseCase,
+                getPublicNodeThumbnailUseCase = getPublicNodeThumbnailUseCase
+            )
         }
 
         private fun isApplicable(data: ThumbnailRequest): Boolean {
             return data.id.longValue > 0
         }
     }
-}
\ No newline at end of file
+}
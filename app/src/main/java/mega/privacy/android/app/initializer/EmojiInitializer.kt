@@ -1,14 +1,22 @@
 package mega.privacy.android.app.initializer
 
 import android.content.Context
+import android.os.Trace
 import androidx.core.provider.FontRequest
 import androidx.emoji.text.EmojiCompat
 import androidx.emoji.text.FontRequestEmojiCompatConfig
 import androidx.startup.Initializer
+import dagger.hilt.EntryPoint
+import dagger.hilt.InstallIn
+import dagger.hilt.android.EntryPointAccessors
+import dagger.hilt.components.SingletonComponent
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asExecutor
 import mega.privacy.android.app.R
 import mega.privacy.android.app.components.twemoji.EmojiManager
 import mega.privacy.android.app.components.twemoji.EmojiManagerShortcodes
 import mega.privacy.android.app.components.twemoji.TwitterEmojiProvider
+import mega.privacy.android.domain.qualifier.DefaultDispatcher
 import timber.log.Timber
 
 /**
@@ -16,35 +24,67 @@ import timber.log.Timber
  *
  */
 class EmojiInitializer : Initializer<Unit> {
+
+    /**
+     * Emoji initializer entry point
+     *
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent::class)
+    interface EmojiInitializerEntryPoint {
+        /**
+         * Default dispatcher
+         *
+         */
+        @DefaultDispatcher
+        fun defaultDispatcher(): CoroutineDispatcher
+    }
+
     /**
      * Create
      *
      */
     override fun create(context: Context) {
-        EmojiManagerShortcodes.initEmojiData(context)
-        EmojiManager.install(TwitterEmojiProvider())
-
-        Timber.d("Use downloadable font for EmojiCompat")
-
-        val fontRequest = FontRequest(
-            "com.google.android.gms.fonts",
-            "com.google.android.gms",
-            "Noto Color Emoji Compat",
-            R.array.com_google_android_gms_fonts_certs)
-
-        val config = FontRequestEmojiCompatConfig(context, fontRequest)
-            .setReplaceAll(false)
-            .registerInitCallback(object : EmojiCompat.InitCallback() {
-                override fun onInitialized() {
-                    Timber.d("EmojiCompat initialized")
-                }
-
-                override fun onFailed(throwable: Throwable?) {
-                    Timber.w("EmojiCompat initialization failed")
-                }
-            })
-
-        EmojiCompat.init(config)
+        Trace.beginSection(TRACE_SECTION)
+        try {
+            // The shortcodes are only parsed when first used
+            EmojiManagerShortcodes.initEmojiData(context)
+
+            // Building the emoji data is expensive, keep it out of the main thread.
+            // Consumers accessing the EmojiManager before it finishes await it.
+            val entryPoint = EntryPointAccessors.fromApplication(
+                context,
+                EmojiInitializerEntryPoint::class.java
+            )
+            EmojiManager.installAsync(
+                { TwitterEmojiProvider() },
+                entryPoint.defaultDispatcher().asExecutor()
+            )
+
+            Timber.d("Use downloadable font for EmojiCompat")
+
+            val fontRequest = FontRequest(
+                "com.google.android.gms.fonts",
+                "com.google.android.gms",
+                "Noto Color Emoji Compat",
+                R.array.com_google_android_gms_fonts_certs)
+
+            val config = FontRequestEmojiCompatConfig(context, fontRequest)
+                .setReplaceAll(false)
+                .registerInitCallback(object : EmojiCompat.InitCallback() {
+                    override fun onInitialized() {
+                        Timber.d("EmojiCompat initialized")
+                    }
+
+                    override fun onFailed(throwable: Throwable?) {
+                        Timber.w("EmojiCompat initialization failed")
+                    }
+                })
+
+            EmojiCompat.init(config)
+        } finally {
+            Trace.endSection()
+        }
     }
 
     /**
@@ -52,4 +92,11 @@ class EmojiInitializer : Initializer<Unit> {
      *
      */
     override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
-}
\ No newline at end of file
+
+    companion object {
+        /**
+         * Trace section measured by the startup benchmarks
+         */
+        const val TRACE_SECTION = "EmojiInitializer.create"
+    }
+}
@@ -279,6 +279,7 @@ import mega.privacy.android.app.utils.MegaNodeUtil.showTakenDownNodeActionNotAva
 import mega.privacy.android.app.utils.MegaProgressDialogUtil.createProgressDialog
 import mega.privacy.android.app.utils.MegaProgressDialogUtil.showProcessFileDialog
 import mega.privacy.android.app.utils.OfflineUtils
+import mega.privacy.android.app.utils.PreviewUtils
 import mega.privacy.android.app.utils.TextUtil
 import mega.privacy.android.app.utils.ThumbnailUtils
 import mega.privacy.android.app.utils.UploadUtil
@@ -7994,6 +7995,8 @@ class ManagerActivity : TransfersManagementActivity(), MegaRequestListenerInterf
             Timber.d("Memory OK")
             ThumbnailUtils.isDeviceMemoryLow = false
         }
+        ThumbnailUtils.thumbnailCache.trimMemory(level)
+        PreviewUtils.previewCache.trimMemory(level)
     }
 
     private fun setSearchDrawerItem() {
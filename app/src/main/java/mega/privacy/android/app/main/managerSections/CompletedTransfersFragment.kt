@@ -4,6 +4,7 @@ import android.os.Bundle
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import androidx.recyclerview.widget.RecyclerView
 import dagger.hilt.android.AndroidEntryPoint
 import mega.privacy.android.app.R
 import mega.privacy.android.app.arch.extensions.collectFlow
@@ -50,6 +51,14 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
 
         setupFlow()
         binding.transfersListView.adapter = adapter
+        binding.transfersListView.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
+                val lastVisiblePosition = mLayoutManager.findLastVisibleItemPosition()
+                if (dy > 0 && lastVisiblePosition >= adapter.itemCount - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMoreCompletedTransfers()
+                }
+            }
+        })
     }
 
     private fun setupFlow() {
@@ -59,9 +68,13 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
             }
         }
         viewLifecycleOwner.collectFlow(viewModel.completedTransfers) { completedTransfers ->
+            val previousFirstId = adapter.currentList.firstOrNull()?.id
             adapter.submitList(completedTransfers) {
                 // List Adapter doesn't auto move to top when new item inserted, we need to use this callback to scroll to top
-                binding.transfersListView.scrollToPosition(0)
+                // A loaded page is added at the end, so it doesn't move to top
+                if (completedTransfers.firstOrNull()?.id != previousFirstId) {
+                    binding.transfersListView.scrollToPosition(0)
+                }
             }
             setEmptyView(completedTransfers.size)
         }
@@ -77,6 +90,7 @@ class CompletedTransfersFragment : TransfersBaseFragment() {
     }
 
     companion object {
+        private const val LOAD_MORE_THRESHOLD = 10
 
         /**
          * Generate a new instance for [CompletedTransfersFragment]
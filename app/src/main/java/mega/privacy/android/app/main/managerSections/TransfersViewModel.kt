@@ -4,20 +4,24 @@ import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.flatMapLatest
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.shareIn
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import mega.privacy.android.app.globalmanagement.TransfersManagement
 import mega.privacy.android.app.presentation.manager.model.TransfersTab
 import mega.privacy.android.app.utils.Constants.INVALID_POSITION
-import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferEvent
@@ -33,7 +37,7 @@ import mega.privacy.android.domain.usecase.transfers.MoveTransferBeforeByTagUseC
 import mega.privacy.android.domain.usecase.transfers.MoveTransferToFirstByTagUseCase
 import mega.privacy.android.domain.usecase.transfers.MoveTransferToLastByTagUseCase
 import mega.privacy.android.domain.usecase.transfers.completed.DeleteCompletedTransferUseCase
-import mega.privacy.android.domain.usecase.transfers.completed.GetAllCompletedTransfersUseCase
+import mega.privacy.android.domain.usecase.transfers.completed.GetCompletedTransfersPageUseCase
 import mega.privacy.android.domain.usecase.transfers.completed.MonitorCompletedTransferEventUseCase
 import mega.privacy.android.domain.usecase.transfers.paused.PauseTransferByTagUseCase
 import nz.mega.sdk.MegaTransfer
@@ -45,6 +49,7 @@ import javax.inject.Inject
 /**
  * The logic regarding transfers UI
  */
+@OptIn(ExperimentalCoroutinesApi::class)
 @HiltViewModel
 class TransfersViewModel @Inject constructor(
     private val transfersManagement: TransfersManagement,
@@ -55,7 +60,7 @@ class TransfersViewModel @Inject constructor(
     private val moveTransferToLastByTagUseCase: MoveTransferToLastByTagUseCase,
     private val getTransferByTagUseCase: GetTransferByTagUseCase,
     private val getInProgressTransfersUseCase: GetInProgressTransfersUseCase,
-    private val getAllCompletedTransfersUseCase: GetAllCompletedTransfersUseCase,
+    private val getCompletedTransfersPageUseCase: GetCompletedTransfersPageUseCase,
     monitorTransferEventsUseCase: MonitorTransferEventsUseCase,
     monitorCompletedTransferEventUseCase: MonitorCompletedTransferEventUseCase,
     private val getFailedOrCanceledTransfersUseCase: GetFailedOrCanceledTransfersUseCase,
@@ -104,6 +109,8 @@ class TransfersViewModel @Inject constructor(
      */
     val completedTransfers = _completedTransfers.asStateFlow()
 
+    private val completedTransfersPageCount = MutableStateFlow(1)
+
     private var transferCallback = 0L
     private var currentTab = TransfersTab.NONE
     private var previousTab = TransfersTab.NONE
@@ -139,7 +146,8 @@ class TransfersViewModel @Inject constructor(
                 }
         }
         viewModelScope.launch {
-            getAllCompletedTransfersUseCase(MAX_TRANSFERS)
+            completedTransfersPageCount
+                .flatMapLatest { getCompletedTransfersPages(it) }
                 .catch {
                     Timber.e(it)
                 }.collect { completedTransfers ->
@@ -369,6 +377,38 @@ class TransfersViewModel @Inject constructor(
      */
     fun getCompletedTransfers() = completedTransfers.value
 
+    /**
+     * Load the next page of completed transfers, if the last loaded page is full
+     */
+    fun loadMoreCompletedTransfers() {
+        val pageCount = completedTransfersPageCount.value
+        if (completedTransfers.value.size >= pageCount * COMPLETED_TRANSFERS_PAGE_SIZE) {
+            completedTransfersPageCount.update { pageCount + 1 }
+        }
+    }
+
+    /**
+     * Get the first pages of completed transfers
+     *
+     * Each page is read after the last transfer of the previous one, so it is read again when the
+     * previous page changes. Reading a page does not depend on the size of the history.
+     *
+     * @param pageCount the number of pages
+     * @param after the last completed transfer of the previous page, or null for the first page
+     */
+    private fun getCompletedTransfersPages(
+        pageCount: Int,
+        after: CompletedTransfer? = null,
+    ): Flow<List<CompletedTransfer>> =
+        getCompletedTransfersPageUseCase(COMPLETED_TRANSFERS_PAGE_SIZE, after)
+            .flatMapLatest { page ->
+                if (pageCount > 1 && page.size == COMPLETED_TRANSFERS_PAGE_SIZE) {
+                    getCompletedTransfersPages(pageCount - 1, page.last()).map { page + it }
+                } else {
+                    flowOf(page)
+                }
+            }
+
     /**
      * Launches the request to change the priority of a transfer.
      *
@@ -452,4 +492,11 @@ class TransfersViewModel @Inject constructor(
     fun markHandledCancelTransfersResult() {
         _uiState.update { it.copy(cancelTransfersResult = null) }
     }
+
+    companion object {
+        /**
+         * Number of completed transfers read at a time
+         */
+        const val COMPLETED_TRANSFERS_PAGE_SIZE = 50
+    }
 }
@@ -15,6 +15,9 @@ import io.reactivex.rxjava3.disposables.CompositeDisposable
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
@@ -672,69 +675,93 @@ class AudioPlayerServiceViewModel @Inject constructor(
     ) {
         playlistItems.clear()
 
-        val mediaItems = ArrayList<MediaItem>()
-        var firstPlayIndex = 0
-
+        val fileNodes = typedNodes.filterIsInstance<TypedFileNode>()
         val nodesWithoutThumbnail = ArrayList<Pair<Long, File>>()
 
-        typedNodes.mapIndexed { currentIndex, typedNode ->
-            if (typedNode is TypedFileNode) {
-                getLocalFilePathUseCase(typedNode).let { localPath ->
-                    if (localPath != null && isLocalFile(typedNode, localPath)) {
-                        mediaItemFromFile(File(localPath), typedNode.id.longValue.toString())
-                    } else {
-                        val url =
-                            if (type == FOLDER_LINK_ADAPTER) {
-                                if (isMegaApiFolder(type)) {
-                                    getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
-                                } else {
-                                    getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
-                                }
-                            } else {
-                                getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
-                            }
-                        if (url == null) {
-                            null
-                        } else {
-                            MediaItem.Builder()
-                                .setUri(Uri.parse(url))
-                                .setMediaId(typedNode.id.longValue.toString())
-                                .build()
-                        }
-                    }?.let {
-                        mediaItems.add(it)
-                    }
-                }
+        fileNodes.forEachIndexed { currentIndex, typedNode ->
+            val thumbnail = typedNode.thumbnailPath?.let { path ->
+                File(path)
+            }
 
-                if (typedNode.id.longValue == firstPlayHandle) {
-                    firstPlayIndex = currentIndex
-                }
-                val thumbnail = typedNode.thumbnailPath?.let { path ->
-                    File(path)
-                }
+            val duration = typedNode.type.let {
+                fileDurationMapper(it) ?: 0
+            }
 
-                val duration = typedNode.type.let {
-                    fileDurationMapper(it) ?: 0
-                }
+            playlistItemMapper(
+                typedNode.id.longValue,
+                typedNode.name,
+                thumbnail,
+                currentIndex,
+                TYPE_NEXT,
+                typedNode.size,
+                duration,
+            ).let { playlistItem ->
+                playlistItems.add(playlistItem)
+            }
 
-                playlistItemMapper(
-                    typedNode.id.longValue,
-                    typedNode.name,
-                    thumbnail,
-                    currentIndex,
-                    TYPE_NEXT,
-                    typedNode.size,
-                    duration,
-                ).let { playlistItem ->
-                    playlistItems.add(playlistItem)
-                }
+            if (thumbnail != null && !thumbnail.exists()) {
+                nodesWithoutThumbnail.add(Pair(typedNode.id.longValue, thumbnail))
+            }
+        }
 
-                if (thumbnail != null && !thumbnail.exists()) {
-                    nodesWithoutThumbnail.add(Pair(typedNode.id.longValue, thumbnail))
-                }
+        val megaApiFolder = isMegaApiFolder(type)
+        val resolvedItems = arrayOfNulls<MediaItem>(fileNodes.size)
+        val firstPlayNodeIndex = fileNodes.indexOfFirst { typedNode ->
+            typedNode.id.longValue == firstPlayHandle
+        }.coerceAtLeast(0)
+        val windowStart = (firstPlayNodeIndex - FIRST_WINDOW_SIZE / 2).coerceAtLeast(0)
+        val windowEnd = minOf(windowStart + FIRST_WINDOW_SIZE, fileNodes.size)
+
+        var windowPublished = false
+        resolveMediaItems(
+            type = type,
+            megaApiFolder = megaApiFolder,
+            nodes = fileNodes,
+            indices = windowStart until windowEnd,
+            mediaItems = resolvedItems
+        )
+        if (windowEnd - windowStart < fileNodes.size) {
+            // Play around the first item without waiting for the local links of the whole playlist
+            val windowItems = resolvedItems.copyOfRange(windowStart, windowEnd).filterNotNull()
+            windowItems.indexOfFirst { mediaItem ->
+                mediaItem.mediaId == firstPlayHandle.toString()
+            }.takeIf { index ->
+                index in windowItems.indices
+            }?.let { index ->
+                playerSource.postValue(MediaPlaySources(windowItems, index, null))
+                windowPublished = true
             }
+            resolveMediaItems(
+                type = type,
+                megaApiFolder = megaApiFolder,
+                nodes = fileNodes,
+                indices = windowEnd until fileNodes.size,
+                mediaItems = resolvedItems
+            )
+            resolveMediaItems(
+                type = type,
+                megaApiFolder = megaApiFolder,
+                nodes = fileNodes,
+                indices = 0 until windowStart,
+                mediaItems = resolvedItems
+            )
         }
 
+        val mediaItems = resolvedItems.filterNotNull()
+        // The user may have moved to another item of the window while the rest was resolved
+        val currentHandle = if (windowPublished) playingHandle else firstPlayHandle
+        // The index is in mediaItems, which skips the nodes without a media item. When the first
+        // node has none, the next node that has one is played instead.
+        val firstPlayIndex = mediaItems.indexOfFirst { mediaItem ->
+            mediaItem.mediaId == currentHandle.toString()
+        }.takeIf { index ->
+            index in mediaItems.indices
+        } ?: resolvedItems.take(firstPlayNodeIndex).count { mediaItem ->
+            mediaItem != null
+        }.takeIf { index ->
+            index in mediaItems.indices
+        } ?: 0
+
         if (nodesWithoutThumbnail.isNotEmpty() && isConnectedToInternetUseCase()) {
             cancellableJobs[JOB_KEY_UPDATE_THUMBNAIL]?.cancel()
             val updateThumbnailJob = sharingScope.launch(ioDispatcher) {
@@ -767,6 +794,68 @@ class AudioPlayerServiceViewModel @Inject constructor(
         updatePlaySources(mediaItems, playlistItems, firstPlayIndex)
     }
 
+    /**
+     * Resolve the media items of nodes, in parallel batches
+     *
+     * @param type adapter type
+     * @param megaApiFolder true if the nodes belong to MegaApiFolder, otherwise is false
+     * @param nodes [TypedFileNode] list
+     * @param indices the indices of the nodes to resolve
+     * @param mediaItems the resolved media items, at the index of their node
+     */
+    private suspend fun resolveMediaItems(
+        type: Int,
+        megaApiFolder: Boolean,
+        nodes: List<TypedFileNode>,
+        indices: IntRange,
+        mediaItems: Array<MediaItem?>,
+    ) = coroutineScope {
+        indices.chunked(RESOLVE_BATCH_SIZE).forEach { batch ->
+            batch.map { index ->
+                async {
+                    mediaItems[index] = mediaItemFromTypedNode(type, megaApiFolder, nodes[index])
+                }
+            }.awaitAll()
+        }
+    }
+
+    /**
+     * Get the media item of a node, from its local file if available, otherwise from its
+     * streaming url
+     *
+     * @param type adapter type
+     * @param megaApiFolder true if the node belongs to MegaApiFolder, otherwise is false
+     * @param typedNode [TypedFileNode]
+     * @return the media item, or null if the node has no streaming url
+     */
+    private suspend fun mediaItemFromTypedNode(
+        type: Int,
+        megaApiFolder: Boolean,
+        typedNode: TypedFileNode,
+    ): MediaItem? =
+        getLocalFilePathUseCase(typedNode).let { localPath ->
+            if (localPath != null && isLocalFile(typedNode, localPath)) {
+                mediaItemFromFile(File(localPath), typedNode.id.longValue.toString())
+            } else {
+                val url =
+                    if (type == FOLDER_LINK_ADAPTER) {
+                        if (megaApiFolder) {
+                            getLocalFolderLinkFromMegaApiFolderUseCase(typedNode.id.longValue)
+                        } else {
+                            getLocalFolderLinkFromMegaApiUseCase(typedNode.id.longValue)
+                        }
+                    } else {
+                        getLocalLinkFromMegaApiUseCase(typedNode.id.longValue)
+                    }
+                url?.let {
+                    MediaItem.Builder()
+                        .setUri(Uri.parse(it))
+                        .setMediaId(typedNode.id.longValue.toString())
+                        .build()
+                }
+            }
+        }
+
     /**
      * Build play sources by node handles
      *
@@ -1028,22 +1117,17 @@ class AudioPlayerServiceViewModel @Inject constructor(
                 index in originalItems.indices
             } ?: 0
 
-            val recreatedItems = mutableListOf<PlaylistItem>()
+            val recreatedItems = ArrayList<PlaylistItem>(items.size)
             // Adjust whether need to build play sources again to avoid playlist is reordered everytime playlist items updated
             if (isBuildPlaySources && shuffleEnabled.value && shuffleOrder.length == originalItems.size) {
-                recreatedItems.add(items[playingPosition])
-
                 var newPlayingIndex = 0
 
-                var index = shuffleOrder.getPreviousIndex(playingPosition)
-                while (index != C.INDEX_UNSET) {
-                    recreatedItems.add(0, items[index])
-                    index = shuffleOrder.getPreviousIndex(index)
-                    newPlayingIndex++
-                }
-
-                index = shuffleOrder.getNextIndex(playingPosition)
+                // Walk the shuffle order from its first index, each step is a lookup in its arrays
+                var index = shuffleOrder.firstIndex
                 while (index != C.INDEX_UNSET) {
+                    if (index == playingPosition) {
+                        newPlayingIndex = recreatedItems.size
+                    }
                     recreatedItems.add(items[index])
                     index = shuffleOrder.getNextIndex(index)
                 }
@@ -1094,7 +1178,7 @@ class AudioPlayerServiceViewModel @Inject constructor(
     private fun filterPlaylistItems(items: List<PlaylistItem>, filter: String) {
         if (items.isEmpty()) return
 
-        val filteredItems = ArrayList<PlaylistItem>()
+        val filteredItems = ArrayList<PlaylistItem>(items.size)
         items.forEachIndexed { index, item ->
             if (item.nodeName.contains(filter, true)) {
                 // Filter only affects displayed playlist, it doesn't affect what
@@ -1179,38 +1263,45 @@ class AudioPlayerServiceViewModel @Inject constructor(
         }
     }
 
-    private fun removeSingleItem(handle: Long): List<PlaylistItem> =
+    private fun removeSingleItem(handle: Long): List<PlaylistItem> = removeItems(setOf(handle))
+
+    /**
+     * Remove items from the playlist and the play source in a single pass
+     *
+     * @param handles the handles of the items to remove
+     * @return the playlist items left
+     */
+    private fun removeItems(handles: Set<Long>): List<PlaylistItem> =
         playlistItemsFlow.value.first.let { items ->
-            val newItems = items.toMutableList()
-            items.indexOfFirst { (nodeHandle) ->
-                nodeHandle == handle
-            }.takeIf { index ->
-                index in playlistItems.indices
-            }?.let { index ->
-                cancellableJobs[JOB_KEY_REMOVE_ITEM]?.cancel()
-                cancellableJobs[JOB_KEY_REMOVE_ITEM] = sharingScope.launch {
+            // From the last index, so removing an item does not move the ones still to remove
+            val removedIndexes = items.indices.filter { index ->
+                items[index].nodeHandle in handles && index in playlistItems.indices
+            }.asReversed()
+            if (removedIndexes.isEmpty()) {
+                return@let items
+            }
+            cancellableJobs[JOB_KEY_REMOVE_ITEM]?.cancel()
+            cancellableJobs[JOB_KEY_REMOVE_ITEM] = sharingScope.launch {
+                removedIndexes.forEach { index ->
                     mediaItemToRemove.emit(index)
                 }
-                newItems.removeIf { (nodeHandle) ->
-                    nodeHandle == handle
-                }
-                playlistItems.removeIf { (nodeHandle) ->
-                    nodeHandle == handle
-                }
-                playSourceChanged.removeIf { mediaItem ->
-                    mediaItem.mediaId.toLong() == handle
-                }
             }
-            newItems
+            playlistItems.removeIf { (nodeHandle) ->
+                nodeHandle in handles
+            }
+            playSourceChanged.removeIf { mediaItem ->
+                mediaItem.mediaId.toLong() in handles
+            }
+            items.filterNot { (nodeHandle) ->
+                nodeHandle in handles
+            }
         }
 
     override fun removeAllSelectedItems() {
         if (itemsSelectedMap.isNotEmpty()) {
-            itemsSelectedMap.forEach {
-                removeSingleItem(it.value.nodeHandle).let { newItems ->
-                    playlistItemsFlow.update { flow ->
-                        flow.copy(newItems, playingPosition)
-                    }
+            removeItems(itemsSelectedMap.keys.toHashSet()).let { newItems ->
+                playlistItemsFlow.update { flow ->
+                    flow.copy(newItems, playingPosition)
                 }
             }
             itemsSelectedMap.clear()
@@ -1458,6 +1549,16 @@ class AudioPlayerServiceViewModel @Inject constructor(
     companion object {
         private const val MAX_RETRY = 6
 
+        /**
+         * Media items around the first playing item published before the rest are resolved
+         */
+        private const val FIRST_WINDOW_SIZE = 20
+
+        /**
+         * Media items resolved in parallel
+         */
+        private const val RESOLVE_BATCH_SIZE = 32
+
         private const val JOB_KEY_MONITOR_SHUFFLE = "JOB_KEY_MONITOR_SHUFFLE"
         private const val JOB_KEY_BUILD_PLAYER_SOURCES = "KEY_JOB_BUILD_PLAYER_SOURCES"
         private const val JOB_KEY_UPDATE_THUMBNAIL = "JOB_KEY_UPDATE_THUMBNAIL"
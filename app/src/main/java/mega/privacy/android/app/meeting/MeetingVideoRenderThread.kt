@@ -0,0 +1,23 @@
+package mega.privacy.android.app.meeting
+
+import android.os.Handler
+import android.os.HandlerThread
+import android.os.Process
+import java.util.concurrent.Executor
+
+/**
+ * Dedicated thread where the video frames of all the participants of a meeting are rendered,
+ * so the SDK callback threads never wait for a canvas
+ */
+object MeetingVideoRenderThread : Executor {
+
+    private val handler by lazy {
+        val thread = HandlerThread("MeetingVideoRender", Process.THREAD_PRIORITY_DISPLAY)
+        thread.start()
+        Handler(thread.looper)
+    }
+
+    override fun execute(command: Runnable) {
+        handler.post(command)
+    }
+}
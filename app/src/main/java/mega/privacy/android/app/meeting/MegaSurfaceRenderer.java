@@ -59,6 +59,8 @@ public class MegaSurfaceRenderer implements TextureView.SurfaceTextureListener {
     protected List<MegaSurfaceRendererListener> listeners;
 
     private int alpha = VISIBLE;
+    // true if the bitmap has to be created again before drawing the next frame
+    private volatile boolean isBitmapInvalidated = true;
 
     public void setAlpha(int alpha) {
         this.alpha = alpha;
@@ -150,15 +152,7 @@ public class MegaSurfaceRenderer implements TextureView.SurfaceTextureListener {
         }
     }
 
-    public Bitmap createBitmap(int width, int height) {
-        if (bitmap == null) {
-            try {
-                android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_DISPLAY);
-            } catch (Exception e) {
-                Timber.e(e);
-            }
-        }
-
+    public synchronized Bitmap createBitmap(int width, int height) {
         bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
         srcRect.left = 0;
         srcRect.top = 0;
@@ -168,12 +162,37 @@ public class MegaSurfaceRenderer implements TextureView.SurfaceTextureListener {
         return bitmap;
     }
 
+    /**
+     * Request the bitmap to be created again before drawing the next frame.
+     */
+    public void invalidateBitmap() {
+        isBitmapInvalidated = true;
+    }
+
+    /**
+     * Draw a video frame, reusing the bitmap while the frame size does not change.
+     * Called from the render thread.
+     *
+     * @param frame   The frame to draw.
+     * @param isLocal Indicates if the frames are from the local camera.
+     */
+    public synchronized void drawFrame(VideoFrame frame, boolean isLocal) {
+        if (isBitmapInvalidated || bitmap == null
+                || bitmap.getWidth() != frame.getWidth() || bitmap.getHeight() != frame.getHeight()) {
+            isBitmapInvalidated = false;
+            createBitmap(frame.getWidth(), frame.getHeight());
+        }
+        frame.getBuffer().rewind();
+        bitmap.copyPixelsFromBuffer(frame.getBuffer());
+        drawBitmap(isLocal);
+    }
+
     /**
      * Draw video frames.
      *
      * @param isLocal Indicates if the frames are from the local camera.
      */
-    public void drawBitmap(boolean isLocal) {
+    public synchronized void drawBitmap(boolean isLocal) {
         if (bitmap == null || myTexture == null)
             return;
 
@@ -220,7 +239,7 @@ public class MegaSurfaceRenderer implements TextureView.SurfaceTextureListener {
     }
 
     @Override
-    public void onSurfaceTextureAvailable(SurfaceTexture surfaceTexture, int in_width, int in_height) {
+    public synchronized void onSurfaceTextureAvailable(SurfaceTexture surfaceTexture, int in_width, int in_height) {
         Bitmap textureViewBitmap = myTexture.getBitmap();
         if (textureViewBitmap == null) return;
 
@@ -230,12 +249,12 @@ public class MegaSurfaceRenderer implements TextureView.SurfaceTextureListener {
     }
 
     @Override
-    public void onSurfaceTextureSizeChanged(SurfaceTexture surfaceTexture, int in_width, int in_height) {
+    public synchronized void onSurfaceTextureSizeChanged(SurfaceTexture surfaceTexture, int in_width, int in_height) {
         changeDestRect(in_width, in_height);
     }
 
     @Override
-    public boolean onSurfaceTextureDestroyed(SurfaceTexture surfaceTexture) {
+    public synchronized boolean onSurfaceTextureDestroyed(SurfaceTexture surfaceTexture) {
         Timber.d("TextureView destroyed");
         bitmap = null;
         surfaceWidth = 0;
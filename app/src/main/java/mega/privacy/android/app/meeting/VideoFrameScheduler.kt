@@ -0,0 +1,157 @@
+package mega.privacy.android.app.meeting
+
+import timber.log.Timber
+import java.nio.ByteBuffer
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Hands the video frames of a participant from the SDK callback thread to the render thread
+ *
+ * Frames are copied into a small pool of reusable buffers and only the latest one is kept: if a
+ * new frame arrives before the previous one has been rendered, the previous one is dropped instead
+ * of queued. At most one render of the participant is scheduled at any time, so a slow participant
+ * cannot delay the render thread with a backlog of stale frames.
+ *
+ * [onFrame] must always be called from the same thread.
+ *
+ * @property name name of the participant, used for logging
+ * @property executor executor of the render thread
+ * @property render renders a frame on the render thread. The frame is reused once it returns
+ */
+class VideoFrameScheduler(
+    private val name: String,
+    private val executor: Executor,
+    private val render: (VideoFrame) -> Unit,
+) {
+    private val pendingFrame = AtomicReference<VideoFrame?>()
+    private val freeFrame = AtomicReference<VideoFrame?>()
+    private val isRenderScheduled = AtomicBoolean(false)
+    private val receivedFrames = AtomicLong()
+    private val renderedFrames = AtomicLong()
+    private val droppedFrames = AtomicLong()
+
+    @Volatile
+    private var isReleased = false
+
+    /**
+     * Frame owned by the producer thread, reused for the next frame
+     */
+    private var writingFrame: VideoFrame? = null
+
+    private val renderTask = Runnable {
+        isRenderScheduled.set(false)
+        val frame = pendingFrame.getAndSet(null) ?: return@Runnable
+        if (!isReleased) {
+            runCatching { render(frame) }
+                .onSuccess { renderedFrames.incrementAndGet() }
+                .onFailure {
+                    droppedFrames.incrementAndGet()
+                    Timber.e(it, "Error rendering $name")
+                }
+        }
+        freeFrame.set(frame)
+    }
+
+    /**
+     * Current frame counters
+     */
+    val stats: VideoFrameStats
+        get() = VideoFrameStats(
+            received = receivedFrames.get(),
+            rendered = renderedFrames.get(),
+            dropped = droppedFrames.get(),
+        )
+
+    /**
+     * Offer a new frame, replacing the pending one if it has not been rendered yet
+     *
+     * @param width frame width
+     * @param height frame height
+     * @param data frame pixels, copied before returning
+     */
+    fun onFrame(width: Int, height: Int, data: ByteArray) {
+        if (isReleased) return
+        val frame = writingFrame ?: freeFrame.getAndSet(null) ?: VideoFrame()
+        frame.set(width, height, data)
+        val replaced = pendingFrame.getAndSet(frame)
+        if (replaced != null) droppedFrames.incrementAndGet()
+        writingFrame = replaced
+
+        if (receivedFrames.incrementAndGet() % STATS_LOG_INTERVAL == 0L) {
+            Timber.d("Video frames of $name: $stats")
+        }
+        if (isRenderScheduled.compareAndSet(false, true)) {
+            executor.execute(renderTask)
+        }
+    }
+
+    /**
+     * Stop rendering frames and release the buffers
+     */
+    fun release() {
+        isReleased = true
+        if (pendingFrame.getAndSet(null) != null) droppedFrames.incrementAndGet()
+        freeFrame.set(null)
+        writingFrame = null
+        Timber.d("Video frames of $name released: $stats")
+    }
+
+    companion object {
+        /**
+         * Number of received frames between each log of the counters
+         */
+        const val STATS_LOG_INTERVAL = 900L
+    }
+}
+
+/**
+ * Reusable video frame
+ *
+ * The pixels are kept in a buffer that only grows, so frames of the same size never allocate.
+ */
+class VideoFrame internal constructor() {
+    /**
+     * Frame width
+     */
+    var width = 0
+        private set
+
+    /**
+     * Frame height
+     */
+    var height = 0
+        private set
+
+    /**
+     * Frame pixels, from the start of the buffer up to its limit
+     */
+    var buffer: ByteBuffer = ByteBuffer.allocate(0)
+        private set
+
+    internal fun set(width: Int, height: Int, data: ByteArray) {
+        if (buffer.capacity() < data.size) {
+            buffer = ByteBuffer.allocate(data.size)
+        }
+        buffer.clear()
+        buffer.put(data)
+        buffer.flip()
+        this.width = width
+        this.height = height
+    }
+}
+
+/**
+ * Frame counters of a participant
+ *
+ * @property received frames received from the SDK
+ * @property rendered frames rendered
+ * @property dropped frames replaced by a newer one, released or failed before being rendered
+ */
+data class VideoFrameStats(
+    val received: Long,
+    val rendered: Long,
+    val dropped: Long,
+)
@@ -162,6 +162,7 @@ class MeetingActivityRepository @Inject constructor(
     fun removeLocalVideo(chatId: Long, listener: IndividualCallVideoListener) {
         Timber.d("Removed Chat video listener")
         megaChatApi.removeChatVideoListener(chatId, MEGACHAT_INVALID_HANDLE, true, listener)
+        listener.release()
     }
 
     /**
@@ -11,6 +11,8 @@ import mega.privacy.android.app.MegaApplication
 import mega.privacy.android.app.main.controllers.ChatController
 import mega.privacy.android.app.meeting.adapter.Participant
 import mega.privacy.android.app.meeting.listeners.AddContactListener
+import mega.privacy.android.app.meeting.listeners.GroupVideoListener
+import mega.privacy.android.app.meeting.listeners.IndividualCallVideoListener
 import mega.privacy.android.app.meeting.listeners.MeetingAvatarListener
 import mega.privacy.android.app.meeting.listeners.SetCallOnHoldListener
 import mega.privacy.android.app.usecase.chat.GetChatChangesUseCase
@@ -306,6 +308,10 @@ class InMeetingRepository @Inject constructor(
             Timber.d("Remove Chat remote video listener of client $clientId, with LowRes")
         }
         megaChatApi.removeChatVideoListener(chatId, clientId, hiRes, listener)
+        when (listener) {
+            is GroupVideoListener -> listener.release()
+            is IndividualCallVideoListener -> listener.release()
+        }
     }
 
     /**
@@ -1,13 +1,13 @@
 package mega.privacy.android.app.meeting.listeners
 
-import android.graphics.Bitmap
 import android.view.TextureView
+import mega.privacy.android.app.meeting.MeetingVideoRenderThread
 import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.VideoFrameScheduler
 import mega.privacy.android.app.utils.Constants.INVALID_DIMENSION
 import mega.privacy.android.app.utils.VideoCaptureUtils
 import nz.mega.sdk.MegaChatApiJava
 import nz.mega.sdk.MegaChatVideoListenerInterface
-import java.nio.ByteBuffer
 
 class GroupVideoListener(
     textureView: TextureView,
@@ -18,10 +18,14 @@ class GroupVideoListener(
 
     var width = 0
     var height = 0
-    private var bitmap: Bitmap? = null
     var textureView: TextureView? = null
     private var isLocal = false
     var localRenderer: MegaSurfaceRenderer? = null
+    private var hasValidSize = false
+    private val frameScheduler = VideoFrameScheduler(
+        name = "participant $peerId:$clientId",
+        executor = MeetingVideoRenderThread,
+    ) { frame -> localRenderer?.drawFrame(frame, isLocal) }
 
     override fun onChatVideoData(
         api: MegaChatApiJava,
@@ -40,21 +44,29 @@ class GroupVideoListener(
             this.height = height
             val viewWidth = textureView!!.width
             val viewHeight = textureView!!.height
-            if (viewWidth != 0 && viewHeight != 0) {
-                bitmap = localRenderer!!.createBitmap(width, height)
+            hasValidSize = viewWidth != 0 && viewHeight != 0
+            if (hasValidSize) {
+                localRenderer!!.invalidateBitmap()
             } else {
                 this.width = INVALID_DIMENSION
                 this.height = INVALID_DIMENSION
             }
         }
 
-        (bitmap ?: return).copyPixelsFromBuffer(ByteBuffer.wrap(byteBuffer))
+        if (!hasValidSize) return
 
         if (!isLocal || VideoCaptureUtils.isVideoAllowed()) {
-            localRenderer!!.drawBitmap(isLocal)
+            frameScheduler.onFrame(width, height, byteBuffer)
         }
     }
 
+    /**
+     * Stop rendering the frames and release their buffers, once the listener has been removed
+     */
+    fun release() {
+        frameScheduler.release()
+    }
+
     init {
         this.width = 0
         this.height = 0
@@ -62,4 +74,4 @@ class GroupVideoListener(
         this.isLocal = isMe
         this.localRenderer = MegaSurfaceRenderer(textureView, peerId, clientId)
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,15 @@
 package mega.privacy.android.app.meeting.listeners
 
-import android.graphics.Bitmap
 import android.util.DisplayMetrics
 import android.view.TextureView
+import mega.privacy.android.app.meeting.MeetingVideoRenderThread
 import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.VideoFrameScheduler
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.VideoCaptureUtils
 import nz.mega.sdk.MegaChatApiJava
 import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
 import nz.mega.sdk.MegaChatVideoListenerInterface
-import java.nio.ByteBuffer
 
 /**
  * A listener for metadata corresponding to video being rendered.
@@ -26,7 +26,11 @@ class IndividualCallVideoListener(
     private var isFloatingWindow = false
     private var isLocal = true
     val renderer: MegaSurfaceRenderer
-    private var bitmap: Bitmap? = null
+    private var hasValidSize = false
+    private val frameScheduler = VideoFrameScheduler(
+        name = "individual call $clientId",
+        executor = MeetingVideoRenderThread,
+    ) { frame -> renderer.drawFrame(frame, isLocal) }
 
     fun setAlpha(alpha: Int) {
         renderer.setAlpha(alpha)
@@ -48,20 +52,29 @@ class IndividualCallVideoListener(
             this.height = height
             val viewWidth = textureView.width
             val viewHeight = textureView.height
-            if (viewWidth != 0 && viewHeight != 0) {
-                bitmap = renderer.createBitmap(width, height)
+            hasValidSize = viewWidth != 0 && viewHeight != 0
+            if (hasValidSize) {
+                renderer.invalidateBitmap()
             } else {
                 this.width = Constants.INVALID_DIMENSION
                 this.height = Constants.INVALID_DIMENSION
             }
         }
 
-        (bitmap ?: return).copyPixelsFromBuffer(ByteBuffer.wrap(byteBuffer))
+        if (!hasValidSize) return
+
         if (VideoCaptureUtils.isVideoAllowed()) {
-            renderer.drawBitmap(isLocal)
+            frameScheduler.onFrame(width, height, byteBuffer)
         }
     }
 
+    /**
+     * Stop rendering the frames and release their buffers, once the listener has been removed
+     */
+    fun release() {
+        frameScheduler.release()
+    }
+
     init {
         isLocal = clientId == MEGACHAT_INVALID_HANDLE
 
@@ -96,6 +96,8 @@ class CameraUploadsNotificationManager @Inject constructor(
                 progress = cameraUploadsStatusInfo.progress,
                 currentFileIndex = cameraUploadsStatusInfo.currentFileIndex,
                 totalCount = cameraUploadsStatusInfo.totalCount,
+                totalUploaded = cameraUploadsStatusInfo.totalUploaded,
+                totalToUpload = cameraUploadsStatusInfo.totalToUpload,
             )
         }
     }
@@ -168,22 +170,30 @@ class CameraUploadsNotificationManager @Inject constructor(
     }
 
     /**
-     *  Display a notification for video compression progress
+     *  Display a notification for video compression progress,
+     *  and the upload progress if files are uploaded meanwhile
      */
     private fun showVideoCompressionProgressNotification(
         progress: Int,
         currentFileIndex: Int,
         totalCount: Int,
+        totalUploaded: Int,
+        totalToUpload: Int,
     ) {
         val content = context.getString(
             R.string.title_compress_video,
             currentFileIndex,
             totalCount
         )
+        val subText = if (totalToUpload > 0) {
+            context.getString(R.string.upload_service_notification, totalUploaded, totalToUpload)
+        } else {
+            content
+        }
         val notification = createNotification(
             title = context.getString(R.string.message_compress_video, "$progress%"),
             content = content,
-            subText = content,
+            subText = subText,
             intent = defaultPendingIntent,
             isAutoCancel = false,
             isOngoing = true,
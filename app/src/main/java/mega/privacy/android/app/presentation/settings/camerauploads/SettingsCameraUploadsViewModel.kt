@@ -11,8 +11,8 @@ import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import mega.privacy.android.app.LegacyDatabaseHandler
 import mega.privacy.android.app.R
-import mega.privacy.android.app.SqliteDatabaseHandler
 import mega.privacy.android.app.presentation.settings.camerauploads.model.SettingsCameraUploadsState
 import mega.privacy.android.app.presentation.settings.camerauploads.model.UploadConnectionType
 import mega.privacy.android.domain.entity.SyncStatus
@@ -142,7 +142,7 @@ class SettingsCameraUploadsViewModel @Inject constructor(
     private val hasMediaPermissionUseCase: HasMediaPermissionUseCase,
     monitorCameraUploadsSettingsActionsUseCase: MonitorCameraUploadsSettingsActionsUseCase,
     private val isConnectedToInternetUseCase: IsConnectedToInternetUseCase,
-    private val dbh: SqliteDatabaseHandler,
+    private val dbh: LegacyDatabaseHandler,
 ) : ViewModel() {
 
     private val _state = MutableStateFlow(SettingsCameraUploadsState())
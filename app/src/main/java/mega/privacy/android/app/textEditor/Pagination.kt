@@ -1,101 +1,221 @@
 package mega.privacy.android.app.textEditor
 
-import java.util.regex.Pattern
-import kotlin.collections.ArrayList
-
-class Pagination(private var text: String) {
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import java.io.Closeable
+import java.io.File
+import java.io.IOException
+import java.io.Writer
+
+/**
+ * Pages of the text shown in the text editor.
+ *
+ * Only the current page is decoded from the [TextSource]. Pages are indexed when they are first
+ * needed, or ahead of time by [buildIndex] in the background, so a large file can be shown before
+ * it is fully read. Edited pages are kept apart from the source as a piece table: checking if the
+ * text is edited does not rebuild it, and [writeTo] streams it page by page.
+ *
+ * @property source Text to paginate, closed with the pagination.
+ */
+class Pagination private constructor(private val source: TextSource) : Closeable {
+
+    constructor(text: String) : this(TextSource.StringSource(text))
 
     constructor() : this("")
 
+    constructor(file: File) : this(TextSource.FileSource(file))
+
     companion object {
         private const val CHARS_FOR_PAGE = 30000
         const val LINE_BREAK = "\n"
     }
 
-    private var pages: MutableList<String?> = ArrayList()
-    private var currentPage = 0
-    private var firstLineNumber = 1
+    private val lock = Any()
 
-    init {
-        var i = 0
-        var to: Int
-        var nextIndexOfReturn: Int
+    // Start of every indexed page in the source, followed by the end of the last indexed page
+    private val pageBounds = mutableListOf(0L)
 
-        while (i < text.length) {
-            to = i + CHARS_FOR_PAGE
-            nextIndexOfReturn = text.indexOf(LINE_BREAK, to)
+    // First line number of every indexed page in the source, followed by the next line number
+    private val pageFirstLines = mutableListOf(1)
+    private var fullyIndexed = false
 
-            if (nextIndexOfReturn > to) {
-                to = nextIndexOfReturn + 1
-            }
+    // Pages replaced after an edition finished, and pages edited since then
+    private val savedPages = HashMap<Int, String>()
+    private val editedPages = HashMap<Int, String>()
 
-            if (to > text.length) {
-                to = text.length
-            }
+    private var currentPage = 0
+    private var currentPageOriginalText: String? = null
+    private var firstLineNumber = 1
 
-            pages.add(text.substring(i, to))
-            i = to
+    init {
+        indexNextPage()
+    }
+
+    /**
+     * Indexes every page of the source. Stops when the calling coroutine is cancelled.
+     */
+    suspend fun buildIndex() {
+        while (indexNextPage()) {
+            currentCoroutineContext().ensureActive()
         }
+    }
 
-        if (i == 0) pages.add("")
+    /**
+     * Indexes the page after the last indexed one.
+     *
+     * @return True if a page was indexed, false if the source is fully indexed.
+     */
+    private fun indexNextPage(): Boolean = synchronized(lock) {
+        if (fullyIndexed) return false
+
+        val start = pageBounds.last()
+        val pageEnd = source.findPageEnd(start, CHARS_FOR_PAGE)
+        pageBounds.add(pageEnd.end)
+        pageFirstLines.add(pageFirstLines.last() + pageEnd.lineBreaks)
+        fullyIndexed = pageEnd.end >= source.length
+        true
     }
 
-    fun size(): Int = pages.size
+    /**
+     * Gets the number of pages indexed so far, which is the number of pages once fully indexed.
+     */
+    fun size(): Int = synchronized(lock) { pageBounds.size - 1 }
 
-    fun isNotEmpty(): Boolean = text.isNotEmpty()
+    fun isNotEmpty(): Boolean = source.length > 0
 
     fun getCurrentPage(): Int = currentPage
 
-    fun getCurrentPageText(): String? = pages[currentPage]
+    fun getCurrentPageText(): String? = synchronized(lock) {
+        editedPages[currentPage] ?: getOriginalText(currentPage)
+    }
 
+    /**
+     * Updates the text of the current page.
+     *
+     * @param text New text of the page.
+     */
     fun updatePage(text: String?) {
-        pages[currentPage] = text
+        synchronized(lock) {
+            val newText = text ?: ""
+
+            if (newText == getOriginalText(currentPage)) {
+                editedPages.remove(currentPage)
+            } else {
+                editedPages[currentPage] = newText
+            }
+        }
     }
 
+    /**
+     * Keeps the current edition as the original text.
+     */
     fun editionFinished() {
-        text = getEditedText()
+        synchronized(lock) {
+            savedPages.putAll(editedPages)
+            editedPages.clear()
+            currentPageOriginalText = null
+        }
     }
 
-    fun isEdited(): Boolean = text != getEditedText()
+    fun isEdited(): Boolean = synchronized(lock) { editedPages.isNotEmpty() }
+
+    /**
+     * Writes the edited text, a page at a time.
+     *
+     * @param writer Writer to write the text to.
+     */
+    fun writeTo(writer: Writer) {
+        var page = 0
 
-    fun getEditedText(): String {
-        val editedText = StringBuilder()
+        while (page < size() || indexNextPage()) {
+            writer.write(getPageText(page))
+            page++
+        }
+    }
 
-        for (page in pages) {
-            editedText.append(page)
+    /**
+     * Writes the edited text to a file, a page at a time.
+     *
+     * The text is written to a temporary file moved over [file] once complete, so [file] can be
+     * the source of this pagination: the source keeps reading the replaced file.
+     *
+     * @param file File to write the text to.
+     */
+    fun writeTo(file: File) {
+        val tempFile = File.createTempFile("${file.name}.save", null, file.parentFile)
+        try {
+            tempFile.bufferedWriter().use { writeTo(it) }
+            if (!tempFile.renameTo(file)) {
+                throw IOException("Cannot move ${tempFile.name} to ${file.name}")
+            }
+        } finally {
+            tempFile.delete()
         }
+    }
 
-        return editedText.toString()
+    override fun close() {
+        synchronized(lock) { source.close() }
     }
 
     fun previousPage() {
         if (currentPage - 1 >= 0) {
-            currentPage--
-            updateFirstLineNumber()
+            setCurrentPage(currentPage - 1)
         }
     }
 
     fun nextPage() {
-        if (currentPage + 1 < pages.size) {
-            currentPage++
+        if (currentPage + 1 < size() || indexNextPage()) {
+            setCurrentPage(currentPage + 1)
+        }
+    }
+
+    private fun setCurrentPage(page: Int) {
+        synchronized(lock) {
+            currentPage = page
+            currentPageOriginalText = null
             updateFirstLineNumber()
         }
     }
 
     /**
-     * Updates the value to show as first line number of the page.
+     * Gets the text of a page, including its edition.
+     *
+     * @param page Page index.
+     * @return The text of the page.
      */
-    private fun updateFirstLineNumber() {
-        if (currentPage == 0) {
-            firstLineNumber = 1
-            return
+    private fun getPageText(page: Int): String = synchronized(lock) {
+        editedPages[page] ?: savedPages[page]
+        ?: source.read(pageBounds[page], pageBounds[page + 1])
+    }
+
+    /**
+     * Gets the text of a page before the current edition, decoding the current page only once.
+     *
+     * @param page Page index.
+     * @return The original text of the page.
+     */
+    private fun getOriginalText(page: Int): String {
+        if (page == currentPage) {
+            currentPageOriginalText?.let { return it }
         }
 
-        var firstLine = 1
+        val text = savedPages[page] ?: source.read(pageBounds[page], pageBounds[page + 1])
+        if (page == currentPage) currentPageOriginalText = text
+        return text
+    }
+
+    /**
+     * Updates the value to show as first line number of the page, from the indexed line numbers
+     * and the number of lines added or removed in the edited pages before it.
+     */
+    private fun updateFirstLineNumber() {
+        var firstLine = pageFirstLines[currentPage]
 
-        for (page in 0 until currentPage) {
-            val text = pages[page]
-            firstLine += getNumberOfLines(text)
+        (savedPages.keys + editedPages.keys).forEach { page ->
+            if (page < currentPage) {
+                val sourceLines = pageFirstLines[page + 1] - pageFirstLines[page]
+                firstLine += getNumberOfLines(getPageText(page)) - sourceLines
+            }
         }
 
         firstLineNumber = firstLine
@@ -107,24 +227,13 @@ class Pagination(private var text: String) {
      * @param text Text to get its number of lines.
      * @return The number of lines.
      */
-    private fun getNumberOfLines(text: String?): Int {
-        if (text == null) {
-            return 0
-        }
-
-        val matcher = Pattern.compile(LINE_BREAK).matcher(text)
-        var count = 0
-
-        while (matcher.find()) {
-            count++
-        }
-
-        return count
-    }
+    private fun getNumberOfLines(text: String): Int = text.count { it == '\n' }
 
     fun getFirstLineNumber(): Int = firstLineNumber
 
     fun shouldShowPrevious(): Boolean = currentPage > 0
 
-    fun shouldShowNext(): Boolean = pages.size > 1 && currentPage + 1 < pages.size
-}
\ No newline at end of file
+    fun shouldShowNext(): Boolean = synchronized(lock) {
+        currentPage + 1 < size() || !fullyIndexed
+    }
+}
@@ -17,6 +17,7 @@ import io.reactivex.rxjava3.core.Completable
 import io.reactivex.rxjava3.kotlin.addTo
 import io.reactivex.rxjava3.kotlin.subscribeBy
 import io.reactivex.rxjava3.schedulers.Schedulers
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
@@ -87,10 +88,7 @@ import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaShare
 import timber.log.Timber
 import java.io.BufferedReader
-import java.io.BufferedWriter
 import java.io.File
-import java.io.FileReader
-import java.io.FileWriter
 import java.io.InputStreamReader
 import java.net.HttpURLConnection
 import java.net.URL
@@ -465,7 +463,7 @@ class TextEditorViewModel @Inject constructor(
 
         return if (localFile.exists()) {
             kotlin.runCatching {
-                readFile(BufferedReader(FileReader(localFile)))
+                readFile(localFile)
             }.onFailure {
                 Timber.e(it, "Exception while reading text file.")
             }
@@ -525,6 +523,32 @@ class TextEditorViewModel @Inject constructor(
         }
     }
 
+    /**
+     * Finishes the read action of a local file. Only the first page is read, the rest of the file
+     * is indexed in background and each page is read when shown.
+     *
+     * @param file Local file to read.
+     */
+    private suspend fun readFile(file: File) {
+        withContext(ioDispatcher) {
+            val content = kotlin.runCatching { Pagination(file) }.getOrElse {
+                Timber.e(it, "Exception while reading text file.")
+                Pagination()
+            }
+
+            checkIfNeedsStopHttpServer()
+            isReadingContent = false
+            pagination.postValue(content)
+
+            viewModelScope.launch(ioDispatcher) {
+                kotlin.runCatching { content.buildIndex() }.onFailure {
+                    if (it is CancellationException) throw it
+                    Timber.e(it, "Exception while indexing text file.")
+                }
+            }
+        }
+    }
+
     /**
      * Finishes the read action after get all necessary params to do it.
      *
@@ -580,10 +604,12 @@ class TextEditorViewModel @Inject constructor(
             return
         }
 
-        val fileWriter = FileWriter(tempFile.absolutePath)
-        val out = BufferedWriter(fileWriter)
-        out.write(pagination.value?.getEditedText() ?: "")
-        out.close()
+        // The temp file can be the local copy being read, written to a new file then replaced
+        runCatching { pagination.value?.writeTo(tempFile) ?: tempFile.writeText("") }
+            .onFailure {
+                Timber.e(it, "Cannot write temporal file.")
+                return
+            }
 
         if (!isFileAvailable(tempFile)) {
             Timber.e("Cannot manage temporal file.")
@@ -916,4 +942,9 @@ class TextEditorViewModel @Inject constructor(
         pagination.value?.nextPage()
         pagination.notifyObserver()
     }
-}
\ No newline at end of file
+
+    override fun onCleared() {
+        super.onCleared()
+        pagination.value?.close()
+    }
+}
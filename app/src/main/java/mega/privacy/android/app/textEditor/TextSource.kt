@@ -0,0 +1,166 @@
+package mega.privacy.android.app.textEditor
+
+import java.io.Closeable
+import java.io.EOFException
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+
+/**
+ * Text read by [Pagination], split in pages ending at a line break.
+ *
+ * Positions are chars for a [StringSource] and bytes for a [FileSource].
+ */
+sealed interface TextSource : Closeable {
+
+    /**
+     * Length of the source.
+     */
+    val length: Long
+
+    /**
+     * Finds the end of the page starting at [start].
+     *
+     * @param start Start of the page.
+     * @param targetSize Approximate size of the page, extended to the next line break.
+     * @return The end of the page and the number of line breaks in it.
+     */
+    fun findPageEnd(start: Long, targetSize: Int): PageEnd
+
+    /**
+     * Decodes the text between [start] and [end].
+     */
+    fun read(start: Long, end: Long): String
+
+    /**
+     * End of a page.
+     *
+     * @property end End of the page, exclusive.
+     * @property lineBreaks Number of line breaks in the page.
+     */
+    data class PageEnd(val end: Long, val lineBreaks: Int)
+
+    /**
+     * Text already in memory.
+     */
+    class StringSource(private val text: String) : TextSource {
+
+        override val length: Long = text.length.toLong()
+
+        override fun findPageEnd(start: Long, targetSize: Int): PageEnd {
+            val from = start.toInt()
+            var to = from + targetSize
+            val nextIndexOfReturn = text.indexOf(Pagination.LINE_BREAK, to)
+
+            if (nextIndexOfReturn > to) {
+                to = nextIndexOfReturn + 1
+            }
+
+            if (to > text.length) {
+                to = text.length
+            }
+
+            var lineBreaks = 0
+            for (i in from until to) {
+                if (text[i] == '\n') lineBreaks++
+            }
+
+            return PageEnd(to.toLong(), lineBreaks)
+        }
+
+        override fun read(start: Long, end: Long): String =
+            text.substring(start.toInt(), end.toInt())
+
+        override fun close() {}
+    }
+
+    /**
+     * UTF-8 text file, read a page at a time so the file is never loaded in memory.
+     *
+     * A line break byte is never part of a multi-byte UTF-8 char, so pages ending at a line break
+     * can be decoded on their own. Lines longer than [maxLineBytes] are split at a char boundary.
+     *
+     * The file is kept open until the source is closed, so it can still be read after being
+     * replaced, e.g. when the edited text is saved over it.
+     *
+     * @property file File to read.
+     * @property maxLineBytes Maximum bytes read looking for a line break after the target size.
+     */
+    class FileSource(
+        private val file: File,
+        private val maxLineBytes: Int = MAX_LINE_BYTES,
+    ) : TextSource {
+
+        companion object {
+            private const val BUFFER_SIZE = 8 * 1024
+            private const val MAX_LINE_BYTES = 1024 * 1024
+            private const val LINE_BREAK_BYTE = '\n'.code.toByte()
+            private const val CONTINUATION_MASK = 0xC0
+            private const val CONTINUATION_BYTE = 0x80
+        }
+
+        private val channel = RandomAccessFile(file, "r").channel
+
+        override val length: Long = channel.size()
+
+        override fun findPageEnd(start: Long, targetSize: Int): PageEnd {
+            val buffer = ByteBuffer.allocate(BUFFER_SIZE)
+            val target = minOf(start + targetSize, length)
+            val limit = minOf(target + maxLineBytes, length)
+            var position = start
+            var lineBreaks = 0
+
+            while (position < limit) {
+                buffer.clear()
+                buffer.limit(minOf(BUFFER_SIZE.toLong(), limit - position).toInt())
+                val read = channel.read(buffer, position)
+                if (read <= 0) break
+
+                for (i in 0 until read) {
+                    if (buffer.get(i) != LINE_BREAK_BYTE) continue
+
+                    val lineBreak = position + i
+                    if (lineBreak == target) {
+                        // As in a text page, a line break right at the target starts next page
+                        return PageEnd(target, lineBreaks)
+                    } else if (lineBreak > target) {
+                        return PageEnd(lineBreak + 1, lineBreaks + 1)
+                    }
+                    lineBreaks++
+                }
+                position += read
+            }
+
+            // No line break after the target, there are none between the target and limit
+            val end = if (limit == length) length else alignToCharStart(limit)
+            return PageEnd(end, lineBreaks)
+        }
+
+        override fun read(start: Long, end: Long): String {
+            val buffer = ByteBuffer.allocate((end - start).toInt())
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) throw EOFException()
+            }
+            return String(buffer.array(), Charsets.UTF_8)
+        }
+
+        override fun close() {
+            channel.close()
+        }
+
+        /**
+         * Moves [position] back to the start of a UTF-8 char.
+         */
+        private fun alignToCharStart(position: Long): Long {
+            val byte = ByteBuffer.allocate(1)
+            var aligned = position
+            while (aligned > 0) {
+                byte.clear()
+                channel.read(byte, aligned)
+                if ((byte.get(0).toInt() and CONTINUATION_MASK) != CONTINUATION_BYTE) break
+                aligned--
+            }
+            return aligned
+        }
+    }
+}
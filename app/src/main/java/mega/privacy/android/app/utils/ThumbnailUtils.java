@@ -1,5 +1,6 @@
 package mega.privacy.android.app.utils;
 
+import static mega.privacy.android.app.utils.Constants.THUMBNAIL_SIZE_DP;
 import static mega.privacy.android.app.utils.Constants.THUMB_CORNER_RADIUS_DP;
 import static mega.privacy.android.app.utils.FileUtil.getLocalFile;
 import static mega.privacy.android.app.utils.FileUtil.isFileAvailable;
@@ -53,6 +54,7 @@ import mega.privacy.android.app.main.providers.MegaProviderAdapter;
 import mega.privacy.android.app.main.providers.MegaProviderAdapter.ViewHolderProvider;
 import mega.privacy.android.app.presentation.recentactions.RecentActionsAdapter;
 import mega.privacy.android.app.presentation.recentactions.recentactionbucket.RecentActionBucketAdapter;
+import mega.privacy.android.app.utils.cache.SampledBitmapDecoder;
 import nz.mega.sdk.MegaApiAndroid;
 import nz.mega.sdk.MegaApiJava;
 import nz.mega.sdk.MegaError;
@@ -67,7 +69,6 @@ import timber.log.Timber;
 public class ThumbnailUtils {
     public static File thumbDir;
     public static ThumbnailCache thumbnailCache = new ThumbnailCache();
-    public static ThumbnailCache thumbnailCachePath = new ThumbnailCache(1);
     public static Boolean isDeviceMemoryLow = false;
 
     public static Bitmap getRoundedRectBitmap(Context context, final Bitmap bitmap, final int pixels) {
@@ -524,8 +525,19 @@ public class ThumbnailUtils {
         return thumbnailCache.get(handle);
     }
 
+    /**
+     * Get the thumbnail of a node from the cache, downsampled to fit a cell.
+     *
+     * @param node         Node from which want to get the thumbnail.
+     * @param maxDimension Maximum width and height of the cell in pixels.
+     * @return The thumbnail if cached, null otherwise.
+     */
+    public static Bitmap getThumbnailFromCache(MegaNode node, int maxDimension) {
+        return thumbnailCache.getSized(node.getHandle(), maxDimension);
+    }
+
     public static Bitmap getThumbnailFromCache(String path) {
-        return thumbnailCachePath.get(path);
+        return thumbnailCache.get(path);
     }
 
     public static void setThumbnailCache(long handle, Bitmap bitmap) {
@@ -533,7 +545,7 @@ public class ThumbnailUtils {
     }
 
     public static void setThumbnailCache(String path, Bitmap bitmap) {
-        thumbnailCachePath.put(path, bitmap);
+        thumbnailCache.put(path, bitmap);
     }
 
     public static Bitmap getThumbnailFromFolder(MegaNode node, Context context) {
@@ -554,6 +566,30 @@ public class ThumbnailUtils {
         return null;
     }
 
+    /**
+     * Decode the thumbnail of a node from the thumbnail folder, downsampled to fit a cell,
+     * and keep it in the cache.
+     *
+     * @param node         Node from which want to get the thumbnail.
+     * @param context      The current context.
+     * @param maxDimension Maximum width and height of the cell in pixels.
+     * @return The downsampled thumbnail, or null if it is not in the thumbnail folder.
+     */
+    public static Bitmap getThumbnailFromFolder(MegaNode node, Context context, int maxDimension) {
+        if (node == null) return null;
+
+        File thumb = new File(getThumbFolder(context), node.getBase64Handle() + ".jpg");
+        if (!thumb.exists() || thumb.length() <= 0) return null;
+
+        Bitmap bitmap = SampledBitmapDecoder.decode(thumb, maxDimension);
+        if (bitmap == null) {
+            thumb.delete();
+        } else {
+            thumbnailCache.putSized(node.getHandle(), maxDimension, bitmap);
+        }
+        return bitmap;
+    }
+
     public static Bitmap getThumbnailFromMegaList(MegaNode document, Context context, RecyclerView.ViewHolder viewHolder, MegaApiAndroid megaApi, RecyclerView.Adapter adapter) {
 
         if (!Util.isOnline(context)) {
@@ -1208,10 +1244,11 @@ public class ThumbnailUtils {
     public static void getThumbAndSetViewForList(Context context, MegaNode node, RecyclerView.ViewHolder holder,
                                                  MegaApiAndroid megaApi, RecyclerView.Adapter adapter, ImageView imageView) {
         Bitmap thumb;
+        int thumbSize = dp2px(THUMBNAIL_SIZE_DP);
         setThumbLayoutParamsForList(context, imageView);
 
-        if ((thumb = ThumbnailUtils.getThumbnailFromCache(node)) == null &&
-                ((thumb = ThumbnailUtils.getThumbnailFromFolder(node, context)) == null)) {
+        if ((thumb = ThumbnailUtils.getThumbnailFromCache(node, thumbSize)) == null &&
+                ((thumb = ThumbnailUtils.getThumbnailFromFolder(node, context, thumbSize)) == null)) {
             try {
                 thumb = ThumbnailUtils.getThumbnailFromMegaList(node, context, holder, megaApi, adapter);
             } catch (Exception e) {
@@ -1227,8 +1264,9 @@ public class ThumbnailUtils {
     public static void getThumbAndSetViewOrCreateForList(Context context, MegaNode node, RecyclerView.ViewHolder holder,
                                                          MegaApiAndroid megaApi, RecyclerView.Adapter adapter, ImageView imageView) {
         Bitmap thumb;
-        if ((thumb = ThumbnailUtils.getThumbnailFromCache(node)) != null ||
-                (thumb = ThumbnailUtils.getThumbnailFromFolder(node, context)) != null) {
+        int thumbSize = dp2px(THUMBNAIL_SIZE_DP);
+        if ((thumb = ThumbnailUtils.getThumbnailFromCache(node, thumbSize)) != null ||
+                (thumb = ThumbnailUtils.getThumbnailFromFolder(node, context, thumbSize)) != null) {
             setThumbLayoutParamsForList(context, imageView);
             imageView.setImageBitmap(ThumbnailUtils.getRoundedBitmap(context, thumb, dp2px(THUMB_CORNER_RADIUS_DP)));
         } else {
@@ -0,0 +1,336 @@
+package mega.privacy.android.app.utils.cache
+
+import android.os.SystemClock
+
+/**
+ * Least recently used cache keyed by primitive longs and bounded by the size of its values
+ *
+ * Keys are kept in an open addressing table, so they are never boxed, and entries are linked in
+ * access order, so every operation runs in constant time. Keys can also be recorded as missing,
+ * letting callers skip loading values they already know do not exist. Missing keys expire after
+ * [missingTtlMillis] and only the [maxMissingEntries] most recent ones are kept.
+ *
+ * All the operations are thread safe.
+ *
+ * @param V type of the values
+ * @property maxSize maximum total size of the values, in the unit returned by [sizeOf]
+ * @property sizeOf size of a value
+ * @property maxMissingEntries maximum number of keys recorded as missing
+ * @property missingTtlMillis time during which a key is considered missing
+ * @property clock current time in milliseconds
+ */
+class LongLruCache<V : Any>(
+    val maxSize: Long,
+    private val sizeOf: (V) -> Int,
+    private val maxMissingEntries: Int = DEFAULT_MAX_MISSING_ENTRIES,
+    private val missingTtlMillis: Long = DEFAULT_MISSING_TTL_MILLIS,
+    private val clock: () -> Long = SystemClock::elapsedRealtime,
+) {
+    private class Entry<V : Any>(val key: Long) {
+        var value: V? = null
+        var size = 0
+        var missingSince = 0L
+        var list: EntryList<V>? = null
+        var previous: Entry<V>? = null
+        var next: Entry<V>? = null
+    }
+
+    /**
+     * Entries in access order, from the most recently used to the least recently used
+     */
+    private class EntryList<V : Any> {
+        var head: Entry<V>? = null
+        var tail: Entry<V>? = null
+        var count = 0
+
+        fun addFirst(entry: Entry<V>) {
+            entry.list = this
+            entry.previous = null
+            entry.next = head
+            head?.previous = entry
+            head = entry
+            if (tail == null) tail = entry
+            count++
+        }
+
+        fun remove(entry: Entry<V>) {
+            entry.previous?.let { it.next = entry.next } ?: run { head = entry.next }
+            entry.next?.let { it.previous = entry.previous } ?: run { tail = entry.previous }
+            entry.list = null
+            entry.previous = null
+            entry.next = null
+            count--
+        }
+
+        fun clear() {
+            head = null
+            tail = null
+            count = 0
+        }
+    }
+
+    private val values = EntryList<V>()
+    private val missing = EntryList<V>()
+    private var table = newTable(INITIAL_TABLE_CAPACITY)
+    private var tableCount = 0
+    private var size = 0L
+    private var hits = 0L
+    private var missingHits = 0L
+    private var misses = 0L
+    private var evictions = 0L
+
+    /**
+     * Current counters of the cache
+     */
+    val stats: CacheStats
+        @Synchronized get() = CacheStats(
+            hits = hits,
+            missingHits = missingHits,
+            misses = misses,
+            evictions = evictions,
+            size = size,
+            maxSize = maxSize,
+        )
+
+    /**
+     * Get the value of a key, marking it as the most recently used
+     *
+     * @param key
+     * @return the value, or null if it is not cached or the key is recorded as missing
+     */
+    @Synchronized
+    fun get(key: Long): V? {
+        val entry = find(key)
+        val value = entry?.value
+        when {
+            entry == null -> misses++
+            value != null -> {
+                values.remove(entry)
+                values.addFirst(entry)
+                hits++
+            }
+
+            removeIfExpired(entry) -> misses++
+            else -> missingHits++
+        }
+        return value
+    }
+
+    /**
+     * Check if a key is recorded as missing
+     *
+     * @param key
+     * @return true if the key was recorded as missing and has not expired yet
+     */
+    @Synchronized
+    fun isMissing(key: Long): Boolean {
+        val entry = find(key) ?: return false
+        return entry.value == null && !removeIfExpired(entry)
+    }
+
+    /**
+     * Check if a key has a cached value or is recorded as missing
+     *
+     * @param key
+     */
+    @Synchronized
+    fun containsKey(key: Long): Boolean = find(key)?.value != null || isMissing(key)
+
+    /**
+     * Put a value, evicting the least recently used values if the cache exceeds its maximum size
+     *
+     * Values larger than [maxSize] are not cached.
+     *
+     * @param key
+     * @param value
+     */
+    @Synchronized
+    fun put(key: Long, value: V) {
+        val valueSize = sizeOf(value)
+        if (valueSize > maxSize) {
+            find(key)?.let { removeEntry(it) }
+            return
+        }
+        val entry = find(key) ?: insert(key)
+        unlink(entry)
+        entry.value = value
+        entry.size = valueSize
+        values.addFirst(entry)
+        size += valueSize
+        trimToSize(maxSize)
+    }
+
+    /**
+     * Record a key as missing, replacing its value if any
+     *
+     * @param key
+     */
+    @Synchronized
+    fun putMissing(key: Long) {
+        val entry = find(key) ?: insert(key)
+        unlink(entry)
+        entry.value = null
+        entry.size = 0
+        entry.missingSince = clock()
+        missing.addFirst(entry)
+        while (missing.count > maxMissingEntries) {
+            missing.tail?.let { removeEntry(it) }
+        }
+    }
+
+    /**
+     * Remove the value of a key, or the key from the missing ones
+     *
+     * @param key
+     * @return the removed value, if any
+     */
+    @Synchronized
+    fun remove(key: Long): V? {
+        val entry = find(key) ?: return null
+        val value = entry.value
+        removeEntry(entry)
+        return value
+    }
+
+    /**
+     * Evict the least recently used values until the total size is not greater than [maxSize]
+     *
+     * @param maxSize
+     */
+    @Synchronized
+    fun trimToSize(maxSize: Long) {
+        while (size > maxSize) {
+            val eldest = values.tail ?: break
+            removeEntry(eldest)
+            evictions++
+        }
+    }
+
+    /**
+     * Remove all the values and missing keys
+     */
+    @Synchronized
+    fun clear() {
+        values.clear()
+        missing.clear()
+        table = newTable(INITIAL_TABLE_CAPACITY)
+        tableCount = 0
+        size = 0
+    }
+
+    private fun removeIfExpired(entry: Entry<V>): Boolean {
+        val isExpired = clock() - entry.missingSince >= missingTtlMillis
+        if (isExpired) removeEntry(entry)
+        return isExpired
+    }
+
+    private fun unlink(entry: Entry<V>) {
+        val list = entry.list ?: return
+        list.remove(entry)
+        if (list === values) size -= entry.size
+    }
+
+    private fun removeEntry(entry: Entry<V>) {
+        unlink(entry)
+        removeFromTable(entry)
+    }
+
+    private fun find(key: Long): Entry<V>? {
+        val mask = table.size - 1
+        var index = slotOf(key, mask)
+        while (true) {
+            val entry = table[index] ?: return null
+            if (entry.key == key) return entry
+            index = (index + 1) and mask
+        }
+    }
+
+    private fun insert(key: Long): Entry<V> {
+        if ((tableCount + 1) * 2 > table.size) {
+            val oldTable = table
+            table = newTable(oldTable.size * 2)
+            oldTable.forEach { entry -> entry?.let { place(it) } }
+        }
+        return Entry<V>(key).also {
+            place(it)
+            tableCount++
+        }
+    }
+
+    private fun place(entry: Entry<V>) {
+        val mask = table.size - 1
+        var index = slotOf(entry.key, mask)
+        while (table[index] != null) index = (index + 1) and mask
+        table[index] = entry
+    }
+
+    /**
+     * Remove an entry from the table, shifting back the entries of the same probe sequence so no
+     * tombstones are needed
+     */
+    private fun removeFromTable(entry: Entry<V>) {
+        val mask = table.size - 1
+        var hole = slotOf(entry.key, mask)
+        while (table[hole] !== entry) hole = (hole + 1) and mask
+        var index = (hole + 1) and mask
+        while (true) {
+            val next = table[index] ?: break
+            val probeDistance = (index - slotOf(next.key, mask)) and mask
+            if (probeDistance >= ((index - hole) and mask)) {
+                table[hole] = next
+                hole = index
+            }
+            index = (index + 1) and mask
+        }
+        table[hole] = null
+        tableCount--
+    }
+
+    private fun slotOf(key: Long, mask: Int) = ((key * HASH_MULTIPLIER) ushr 32).toInt() and mask
+
+    @Suppress("UNCHECKED_CAST")
+    private fun newTable(capacity: Int) = arrayOfNulls<Entry<*>>(capacity) as Array<Entry<V>?>
+
+    companion object {
+        /**
+         * Default maximum number of keys recorded as missing
+         */
+        const val DEFAULT_MAX_MISSING_ENTRIES = 1024
+
+        /**
+         * Default time during which a key is considered missing
+         */
+        const val DEFAULT_MISSING_TTL_MILLIS = 60_000L
+
+        private const val INITIAL_TABLE_CAPACITY = 64
+        private const val HASH_MULTIPLIER = -0x61c8864680b583ebL
+
+        /**
+         * Get a memory budget as a percentage of the maximum heap of the app
+         *
+         * @param percentage percentage of the heap, from 0 to 100
+         * @return the budget in bytes
+         */
+        @JvmStatic
+        fun heapBudget(percentage: Int): Long = Runtime.getRuntime().maxMemory() / 100 * percentage
+    }
+}
+
+/**
+ * Counters of a [LongLruCache]
+ *
+ * @property hits lookups that found a value
+ * @property missingHits lookups of keys recorded as missing
+ * @property misses lookups of unknown keys
+ * @property evictions values evicted to keep the cache within its maximum size
+ * @property size current total size of the values
+ * @property maxSize maximum total size of the values
+ */
+data class CacheStats(
+    val hits: Long,
+    val missingHits: Long,
+    val misses: Long,
+    val evictions: Long,
+    val size: Long,
+    val maxSize: Long,
+)
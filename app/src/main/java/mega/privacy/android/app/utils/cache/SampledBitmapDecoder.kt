@@ -0,0 +1,72 @@
+package mega.privacy.android.app.utils.cache
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import java.io.File
+import kotlin.math.max
+import kotlin.math.roundToInt
+
+/**
+ * Decodes bitmaps no larger than the cell where they are displayed
+ */
+object SampledBitmapDecoder {
+
+    /**
+     * Decode an image file, sampling it while decoding and scaling it down to fit [maxDimension]
+     *
+     * @param file image file
+     * @param maxDimension maximum width and height of the bitmap, or 0 to decode it at full size
+     * @return the bitmap, or null if the file cannot be decoded
+     */
+    @JvmStatic
+    fun decode(file: File, maxDimension: Int): Bitmap? {
+        val bounds = BitmapFactory.Options().apply { inJustDecodeBounds = true }
+        BitmapFactory.decodeFile(file.absolutePath, bounds)
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) return null
+
+        val options = BitmapFactory.Options().apply {
+            inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight, maxDimension)
+        }
+        return BitmapFactory.decodeFile(file.absolutePath, options)
+            ?.let { scaleDown(it, maxDimension) }
+    }
+
+    /**
+     * Scale a bitmap down to fit [maxDimension], keeping its aspect ratio
+     *
+     * @param bitmap
+     * @param maxDimension maximum width and height of the bitmap, or 0 to keep it as it is
+     * @return the scaled bitmap, or [bitmap] if it already fits
+     */
+    @JvmStatic
+    fun scaleDown(bitmap: Bitmap, maxDimension: Int): Bitmap {
+        val largestDimension = max(bitmap.width, bitmap.height)
+        if (maxDimension <= 0 || largestDimension <= maxDimension) return bitmap
+
+        val scale = maxDimension.toFloat() / largestDimension
+        return Bitmap.createScaledBitmap(
+            bitmap,
+            max(1, (bitmap.width * scale).roundToInt()),
+            max(1, (bitmap.height * scale).roundToInt()),
+            true
+        )
+    }
+
+    /**
+     * Calculate the largest power of two sample size that keeps the image at least as large as
+     * [maxDimension]
+     *
+     * @param width width of the image
+     * @param height height of the image
+     * @param maxDimension maximum width and height of the bitmap, or 0 to decode it at full size
+     */
+    fun calculateInSampleSize(width: Int, height: Int, maxDimension: Int): Int {
+        if (maxDimension <= 0) return 1
+        val largestDimension = max(width, height)
+        var sampleSize = 1
+        while (largestDimension / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2
+        }
+        return sampleSize
+    }
+}
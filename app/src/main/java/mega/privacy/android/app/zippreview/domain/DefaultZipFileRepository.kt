@@ -1,13 +1,17 @@
 package mega.privacy.android.app.zippreview.domain
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import timber.log.Timber
-import java.io.ByteArrayOutputStream
 import java.io.File
-import java.io.FileOutputStream
-import java.nio.charset.Charset
+import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
 import javax.inject.Inject
 
@@ -18,81 +22,79 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
     ZipFileRepository {
     companion object {
         private const val SUFFIX_ZIP = ".zip"
+        private const val SUFFIX_TEMP = ".unzipping"
+        private const val INDEX_BATCH_SIZE = 1_000
     }
 
     private val zipTreeNodeMap: ZipTreeMap = ZipTreeMap()
+    private val rootChildren = mutableListOf<ZipTreeNode>()
 
-    override suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean {
-        return withContext(ioDispatcher) {
-            unzip(zipFullPath, unzipRootPath)
+    // Entries are extracted one at a time, as the same entry may be requested again while extracted
+    private val unzipMutex = Mutex()
+
+    override suspend fun unzipEntry(
+        zipFile: ZipFile,
+        entryPath: String,
+        unzipRootPath: String,
+    ): File? = withContext(ioDispatcher) {
+        runCatching { unzipMutex.withLock { unzip(zipFile, entryPath, unzipRootPath) } }
+            .onFailure { Timber.e(it) }
+            .getOrNull()
+    }
+
+    override suspend fun unzipEntries(
+        zipFile: ZipFile,
+        entryPaths: List<String>,
+        unzipRootPath: String,
+    ): List<File> = withContext(ioDispatcher) {
+        entryPaths.mapNotNull { entryPath ->
+            ensureActive()
+            runCatching { unzipMutex.withLock { unzip(zipFile, entryPath, unzipRootPath) } }
+                .onFailure { Timber.e(it) }
+                .getOrNull()
         }
     }
 
     /**
-     * Unzip file
-     * @param zipFullPath zip file path
+     * Unzip a single entry
+     * @param zipFile zip file
+     * @param entryPath zip entry name
      * @param unzipRootPath unzip destination path
-     * @return true is unzip succeed.
+     * @return the extracted file, null if the entry does not exist.
      */
-    private fun unzip(zipFullPath: String, unzipRootPath: String): Boolean {
-        try {
-            val zipFile = try {
-                // Construct ZipFile with UTF-8
-                val zipFile = ZipFile(zipFullPath)
-                // Try reading the Zip File with UTF-8 Charset
-                zipFile.entries().toList()
-                zipFile
-            } catch (e: Exception) {
-                // Throws IllegalArgumentException (thrown when malformed) / ZipException (thrown when unsupported format)
-                // Fallback if zip cannot be read with UTF-8 Charset, then switch to CP-437 (Default for Most Windows Zip Software)
-                // i.e: 7-Zip, PeaZip, Winrar, Winzip
-                ZipFile(zipFullPath, Charset.forName("Cp437"))
-            }
-            val zipEntries = zipFile.entries()
-            zipEntries.toList().forEach {
-                val zipDestination = File(unzipRootPath + it.name)
-                if (it.isDirectory) {
-                    if (!zipDestination.exists()) {
-                        zipDestination.mkdirs()
-                    }
-                } else {
-                    val inputStream = zipFile.getInputStream(it)
-                    //Get the parent file. If it is null or
-                    // doesn't exist, created the parent folder.
-                    val parentFile = zipDestination.parentFile
-                    if (parentFile != null) {
-                        if (!parentFile.exists()) {
-                            parentFile.mkdirs()
-                        }
-                        val byteArrayOutputStream = ByteArrayOutputStream()
-                        val buffer = ByteArray(1024)
-                        var count: Int
-                        FileOutputStream(zipDestination).use { outputStream ->
-                            //Write the file.
-                            while (inputStream.read(buffer)
-                                    .also { readCount -> count = readCount } != -1
-                            ) {
-                                byteArrayOutputStream.write(buffer, 0, count)
-                                val bytes = byteArrayOutputStream.toByteArray()
-                                outputStream.write(bytes)
-                                byteArrayOutputStream.reset()
-                            }
-                        }
-                        inputStream.close()
-                    }
-                }
+    private fun unzip(zipFile: ZipFile, entryPath: String, unzipRootPath: String): File? {
+        val zipEntry = zipFile.getEntry(entryPath)?.takeUnless { it.isDirectory } ?: return null
+        val rootFolder = File(unzipRootPath).canonicalFile
+        val zipDestination = File(rootFolder, zipEntry.name).canonicalFile
+        // Skip entries escaping the unzip folder, as ../file
+        if (!zipDestination.path.startsWith(rootFolder.path + File.separator)) {
+            Timber.w("Zip entry ${zipEntry.name} is outside of the unzip folder")
+            return null
+        }
+        if (zipDestination.exists() && zipDestination.length() == zipEntry.size) {
+            return zipDestination
+        }
+
+        //Get the parent file. If it doesn't exist, created the parent folder.
+        zipDestination.parentFile?.takeUnless { it.exists() }?.mkdirs()
+        // Write to a temporary file first, so a partially written file is never opened
+        val tempFile = File(zipDestination.path + SUFFIX_TEMP)
+        zipFile.getInputStream(zipEntry).use { inputStream ->
+            tempFile.outputStream().use { outputStream ->
+                inputStream.copyTo(outputStream)
             }
-        } catch (e: Exception) {
-            Timber.e(e)
-            return false
         }
-        return true
+        if (!tempFile.renameTo(zipDestination)) {
+            tempFile.delete()
+            return null
+        }
+        return zipDestination
     }
 
     override fun getParentZipInfoList(
         folderPath: String,
         isEmptyFolder: Boolean
-    ): List<ZipTreeNode> {
+    ): List<ZipTreeNode> = synchronized(zipTreeNodeMap) {
         val parentNodeKey = if (isEmptyFolder) {
             //If folder is empty, using saved folder path to back preview directory
             zipTreeNodeMap[folderPath.removeSuffix("/")]?.path
@@ -101,91 +103,96 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
             zipTreeNodeMap[folderPath.removeSuffix("/")]?.parent
         }
         // No at root level, show parent and it's siblings
-        return zipTreeNodeMap[parentNodeKey]?.let { parentNode ->
+        zipTreeNodeMap[parentNodeKey]?.let { parentNode ->
             parentNode.parent?.let { grandpaPath ->
-                zipTreeNodeMap[grandpaPath]?.children ?: mutableListOf()
+                zipTreeNodeMap[grandpaPath]?.children?.snapshot() ?: mutableListOf()
                 // Parent's parent is null, should show root children
-            } ?: getRootChildren()
+            } ?: rootChildren.snapshot()
             // Parent is null, return empty list
         } ?: mutableListOf()
     }
 
-    override fun updateZipInfoList(zipFile: ZipFile, folderPath: String): List<ZipTreeNode> {
-        return if (folderPath.isNotEmpty()) {
-            zipTreeNodeMap[folderPath.removeSuffix("/")]?.children ?: mutableListOf()
-        } else {
-            //If folder is empty, show the root directory
-            getRootChildren()
+    override fun updateZipInfoList(zipFile: ZipFile, folderPath: String): List<ZipTreeNode> =
+        synchronized(zipTreeNodeMap) {
+            if (folderPath.isNotEmpty()) {
+                zipTreeNodeMap[folderPath.removeSuffix("/")]?.children?.snapshot()
+                    ?: mutableListOf()
+            } else {
+                //If folder is empty, show the root directory
+                rootChildren.snapshot()
+            }
         }
-    }
 
     /**
-     * Get items of root directory
+     * Copy the nodes and their children lists, as the tree may still be growing while indexing
      * @return List<ZipTreeNode>
      */
-    private fun getRootChildren() = zipTreeNodeMap.values.filter {
-        it.parent == null
-    }
+    private fun List<ZipTreeNode>.snapshot() =
+        map { it.copy(children = it.children.toMutableList()) }
 
     /**
      * Using zip tree map could save all of zip entries information and could created complete
      * directory structure to handle the switch on different zip file directory. Meanwhile, avoid
      * repeatedly iterate zip entries when the directory is changed.
+     *
+     * The entries are read from the central directory, no entry is decompressed.
+     */
+    override fun initZipTreeNode(zipFile: ZipFile): Flow<Int> = flow {
+        val batch = ArrayList<ZipEntry>(INDEX_BATCH_SIZE)
+        var indexed = 0
+        val entries = zipFile.entries()
+        while (entries.hasMoreElements()) {
+            batch.add(entries.nextElement())
+            if (batch.size == INDEX_BATCH_SIZE || !entries.hasMoreElements()) {
+                synchronized(zipTreeNodeMap) { batch.forEach(::addZipEntry) }
+                indexed += batch.size
+                batch.clear()
+                // Emitting checks for cancellation
+                emit(indexed)
+            }
+        }
+    }.flowOn(ioDispatcher)
+
+    /**
+     * Add a zip entry and its missing parent folders to the tree
+     * @param zipEntry ZipEntry
      */
-    override suspend fun initZipTreeNode(zipFile: ZipFile) {
-        withContext(ioDispatcher) {
-            zipFile.entries().toList().forEach { zipEntry ->
-                zipEntry.name.let { name ->
-                    val nodeDepth = name.getZipTreeNodeDepth()
-                    for (i in 1..nodeDepth) {
-                        //Get every sub path of current zip entry. For example, the path zip entry
-                        // path is 1/2/3.txt, the sub paths respectively are 1/ 1/2/ 1/2/3.txt
-                        val subPath = name.getSubPathByDepth(i)
-                        //Get name of current sub path
-                        val subName = subPath.getZipTreeNodeName()
-                        //Get parent path of current sub path. For example, if current sub path is 1/2/
-                        //its parent path is 1/
-                        val subParentPath = if (i == 1) {
-                            null
-                        } else {
-                            name.getSubPathByDepth(i - 1)
-                        }
-                        //Get current zip tree node using sub path
-                        var zipTreeNode = zipTreeNodeMap[subPath]
+    private fun addZipEntry(zipEntry: ZipEntry) {
+        //Get every sub path of current zip entry. For example, the path zip entry
+        // path is 1/2/3.txt, the sub paths respectively are 1 1/2 1/2/3.txt
+        val subNames = zipEntry.name.removeSuffix("/").split("/")
+        val subPath = StringBuilder(zipEntry.name.length)
+        var subParentPath: String? = null
+        subNames.forEachIndexed { index, subName ->
+            if (index > 0) subPath.append('/')
+            subPath.append(subName)
+            val currentPath = subPath.toString()
+            val isLeaf = index == subNames.lastIndex
 
-                        // If node doesn't exist, create one, otherwise ignore it
-                        if (zipTreeNode == null) {
-                            zipTreeNode = ZipTreeNode(
-                                name = subName,
-                                path = subPath,
-                                size = zipEntry.size,
-                                fileType = if (i == nodeDepth) {
-                                    if (zipEntry.isDirectory) {
-                                        FileType.FOLDER
-                                    } else {
-                                        when {
-                                            subPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
-                                            else -> FileType.FILE
-                                        }
-                                    }
-                                } else {
-                                    FileType.FOLDER
-                                },
-                                parent = subParentPath,
-                                children = mutableListOf(),
-                            )
-                            zipTreeNodeMap[subPath] = zipTreeNode
+            // If node doesn't exist, create one, otherwise ignore it
+            if (!zipTreeNodeMap.containsKey(currentPath)) {
+                val zipTreeNode = ZipTreeNode(
+                    name = subName,
+                    path = currentPath,
+                    size = zipEntry.size,
+                    fileType = when {
+                        !isLeaf || zipEntry.isDirectory -> FileType.FOLDER
+                        currentPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
+                        else -> FileType.FILE
+                    },
+                    parent = subParentPath,
+                    children = mutableListOf(),
+                )
+                zipTreeNodeMap[currentPath] = zipTreeNode
 
-                            // If parent path is not empty add current path to map
-                            // Empty path represents root directory
-                            if (!subParentPath.isNullOrEmpty()) {
-                                val parentNode = zipTreeNodeMap[subParentPath]
-                                parentNode?.children?.add(zipTreeNode)
-                            }
-                        }
-                    }
+                // Empty parent path represents root directory
+                if (subParentPath.isNullOrEmpty()) {
+                    rootChildren.add(zipTreeNode)
+                } else {
+                    zipTreeNodeMap[subParentPath]?.children?.add(zipTreeNode)
                 }
             }
+            subParentPath = currentPath
         }
     }
-}
\ No newline at end of file
+}
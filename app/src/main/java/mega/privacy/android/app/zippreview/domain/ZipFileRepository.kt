@@ -1,5 +1,7 @@
 package mega.privacy.android.app.zippreview.domain
 
+import kotlinx.coroutines.flow.Flow
+import java.io.File
 import java.util.zip.ZipFile
 
 /**
@@ -8,18 +10,45 @@ import java.util.zip.ZipFile
 interface ZipFileRepository {
 
     /**
-     * Unpack Zip file
-     * @param zipFullPath Zip file full path
+     * Extract a single entry of the zip file, unless it was already extracted
+     *
+     * Entries are extracted on demand, and the extracted files are kept under [unzipRootPath] so
+     * opening the same entry again does not extract it again.
+     *
+     * @param zipFile zip file
+     * @param entryPath zip entry name
+     * @param unzipRootPath the unpacked root path
+     * @return the extracted file, or null if the entry does not exist or cannot be extracted
+     */
+    suspend fun unzipEntry(zipFile: ZipFile, entryPath: String, unzipRootPath: String): File?
+
+    /**
+     * Extract several entries of the zip file, skipping the ones already extracted
+     *
+     * Used to extract the siblings of an opened file, which the viewers list from its folder.
+     *
+     * @param zipFile zip file
+     * @param entryPaths zip entry names
      * @param unzipRootPath the unpacked root path
-     * @return true is unpack succeed.
+     * @return the extracted files, without the entries which do not exist or cannot be extracted
      */
-    suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean
+    suspend fun unzipEntries(
+        zipFile: ZipFile,
+        entryPaths: List<String>,
+        unzipRootPath: String,
+    ): List<File>
 
     /**
      * Init the ZipTreeNode. Created ZipTreeMap using zip entries of current zip file
+     *
+     * Only the central directory of the zip file is read. The tree is built in batches, so the
+     * listing can be shown while a large zip file is still being indexed, and indexing stops when
+     * the flow collection is cancelled.
+     *
      * @param zipFile
+     * @return flow of the number of entries indexed so far, emitted after every batch
      */
-    suspend fun initZipTreeNode(zipFile: ZipFile)
+    fun initZipTreeNode(zipFile: ZipFile): Flow<Int>
 
     /**
      * Updated zip info list when the directory changed.
@@ -7,8 +7,11 @@ import androidx.lifecycle.MutableLiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.launch
 import mega.privacy.android.app.MimeTypeList
@@ -48,6 +51,10 @@ class ZipBrowserViewModel @Inject constructor(
 
     private var currentZipInfo: ZipInfoUIO? = null
 
+    private var currentFolderPath: String? = null
+
+    private var mediaSiblingsJob: Job? = null
+
     private var _title = MutableLiveData<String>()
     val title: LiveData<String>
         get() = _title
@@ -76,17 +83,25 @@ class ZipBrowserViewModel @Inject constructor(
     val enableBackPressedHandler = _deepOfFolder.asStateFlow().map { deep -> deep > 1 }
 
     /**
-     * The type of clicked item
+     * The type of clicked item. ZIP_NOT_UNPACK means the clicked entry is not extracted yet.
      */
     enum class StatusItemClicked {
         OPEN_FOLDER, ZIP_NOT_UNPACK, ITEM_NOT_EXIST, OPEN_FILE
     }
 
+    /**
+     * The types of files opened with their siblings
+     */
+    private enum class MediaType {
+        IMAGE, VIDEO, AUDIO
+    }
+
     /**
      * Update zip info list
      * @param folderPath the path of folder, default value is ""
      */
     private fun updateZipInfoList(context: Context, folderPath: String = "") {
+        currentFolderPath = folderPath
         _zipInfoList.value =
             zipFileRepository.updateZipInfoList(zipFile, folderPath).map {
                 zipTreeNodeToZipInfoUIO(it, context)
@@ -96,6 +111,17 @@ class ZipBrowserViewModel @Inject constructor(
         _deepOfFolder.value = _deepOfFolder.value.inc()
     }
 
+    /**
+     * Refresh the zip info list of the current folder while the zip file is being indexed
+     */
+    private fun refreshZipInfoList(context: Context) {
+        val folderPath = currentFolderPath ?: return updateZipInfoList(context)
+        _zipInfoList.value =
+            zipFileRepository.updateZipInfoList(zipFile, folderPath).map {
+                zipTreeNodeToZipInfoUIO(it, context)
+            }
+    }
+
     /**
      * Convert ZipTreeNode to ZipInfoUIO
      * @param zipTreeNode ZipTreeNode
@@ -156,8 +182,8 @@ class ZipBrowserViewModel @Inject constructor(
             zipFile = try {
                 // Construct ZipFile with UTF-8
                 val zipFile = ZipFile(zipFullPath)
-                // Try reading the Zip File with UTF-8 Charset
-                zipFile.entries().toList()
+                // Try reading the Zip File with UTF-8 Charset, without keeping the entries
+                zipFile.entries().asSequence().count()
                 zipFile
             } catch (e: Exception) {
                 // Throws IllegalArgumentException (thrown when malformed) / ZipException (thrown when unsupported format)
@@ -167,8 +193,12 @@ class ZipBrowserViewModel @Inject constructor(
             }
             rootFolderPath = unzipRootPath.split("/").last()
             viewModelScope.launch {
+                // Show the entries as they are indexed, instead of waiting for the whole zip file
                 zipFileRepository.initZipTreeNode(zipFile)
-                updateZipInfoList(context)
+                    .conflate()
+                    .catch { Timber.e(it) }
+                    .collect { refreshZipInfoList(context) }
+                if (currentFolderPath == null) updateZipInfoList(context)
             }
         } catch (e: Exception) {
             Timber.e(e)
@@ -206,6 +236,7 @@ class ZipBrowserViewModel @Inject constructor(
                 zipTreeNodeToZipInfoUIO(it, context)
             }.also {
                 val firstNodeParent = it.firstOrNull()?.parent
+                currentFolderPath = if (firstNodeParent.isNullOrEmpty()) "" else firstNodeParent
                 getTitle(if (firstNodeParent.isNullOrEmpty()) "" else firstNodeParent)
             }
     }
@@ -219,19 +250,14 @@ class ZipBrowserViewModel @Inject constructor(
         when (getItemClickedStatus(zipInfoUIO, unzipRootPath)) {
             StatusItemClicked.ZIP_NOT_UNPACK -> {
                 _showProgressDialog.value = true
-                //If zip folder doesn't exist, unpacked the zip file.
+                //If the entry is not extracted yet, extract only this entry before opening it.
+                mediaSiblingsJob?.cancel()
                 unpackedZipFile(zipInfoUIO, position)
             }
 
             StatusItemClicked.OPEN_FILE -> {
-                //If the zip file name is start with ".", it cannot be unzip. So show the alert.
-                if (zipInfoUIO.fileType == FileType.ZIP && zipInfoUIO.name.startsWith(".")) {
-                    Timber.e("zip file ${zipInfoUIO.name} start with \".\" cannot unzip")
-                    _showAlert.value = true
-                } else {
-                    _openFile.value = Pair(position, zipInfoUIO)
-                }
-
+                openFile(zipInfoUIO, position)
+                unpackMediaSiblings(zipInfoUIO)
             }
 
             StatusItemClicked.OPEN_FOLDER -> {
@@ -247,15 +273,82 @@ class ZipBrowserViewModel @Inject constructor(
     }
 
     /**
-     * Unpack zip file and open the current clicked file.
+     * Open the clicked file, once extracted
+     * @param zipInfoUIO ZipInfoUIO of clicked file
+     * @param position position of clicked file
+     */
+    private fun openFile(zipInfoUIO: ZipInfoUIO, position: Int) {
+        //If the zip file name is start with ".", it cannot be unzip. So show the alert.
+        if (zipInfoUIO.fileType == FileType.ZIP && zipInfoUIO.name.startsWith(".")) {
+            Timber.e("zip file ${zipInfoUIO.name} start with \".\" cannot unzip")
+            _showAlert.value = true
+        } else {
+            _openFile.value = Pair(position, zipInfoUIO)
+        }
+    }
+
+    /**
+     * Extract the current clicked entry and open it.
      * @param zipInfoUIO ZipInfoUIO of clicked file
      * @param position position of clicked file
      */
     private fun unpackedZipFile(zipInfoUIO: ZipInfoUIO, position: Int) {
         viewModelScope.launch {
-            zipFileRepository.unzipFile(zipFullPath, unzipRootPath)
+            val file = zipFileRepository.unzipEntry(zipFile, zipInfoUIO.path, unzipRootPath)
             _showProgressDialog.value = false
-            _openFile.value = Pair(position, zipInfoUIO)
+            if (file != null) {
+                openFile(zipInfoUIO, position)
+                unpackMediaSiblings(zipInfoUIO)
+            } else {
+                Timber.e("zip entry position $position cannot be extracted")
+                _showAlert.value = true
+            }
+        }
+    }
+
+    /**
+     * Extract in the background the siblings of an opened file.
+     *
+     * The image viewer and the media players list the files of the same type next to the opened
+     * one. They are extracted after the file is opened so they do not delay it, the viewer lists
+     * the ones already extracted when it opens.
+     *
+     * @param zipInfoUIO ZipInfoUIO of the opened file
+     */
+    private fun unpackMediaSiblings(zipInfoUIO: ZipInfoUIO) {
+        val paths = getMediaSiblingPaths(zipInfoUIO).takeIf { it.isNotEmpty() } ?: return
+        mediaSiblingsJob?.cancel()
+        mediaSiblingsJob = viewModelScope.launch {
+            zipFileRepository.unzipEntries(zipFile, paths, unzipRootPath)
+        }
+    }
+
+    /**
+     * Get the paths of the files of the current folder with the same media type as a file
+     * @param zipInfoUIO ZipInfoUIO of the file
+     * @return the paths of the siblings, empty if the file is not an image, a video or an audio
+     */
+    private fun getMediaSiblingPaths(zipInfoUIO: ZipInfoUIO): List<String> {
+        val mediaType = getMediaType(zipInfoUIO) ?: return emptyList()
+        return _zipInfoList.value.orEmpty()
+            .filter { it.path != zipInfoUIO.path && getMediaType(it) == mediaType }
+            .map { it.path }
+    }
+
+    /**
+     * Get the media type of a file, as grouped by the viewers
+     * @param zipInfoUIO ZipInfoUIO of the file
+     * @return the media type, null if the file is not an image, a video or an audio
+     */
+    private fun getMediaType(zipInfoUIO: ZipInfoUIO): MediaType? {
+        if (zipInfoUIO.fileType != FileType.FILE) return null
+        return MimeTypeList.typeForName(zipInfoUIO.path).run {
+            when {
+                isImage -> MediaType.IMAGE
+                isVideoMimeType -> MediaType.VIDEO
+                isAudio -> MediaType.AUDIO
+                else -> null
+            }
         }
     }
 
@@ -283,15 +376,10 @@ class ZipBrowserViewModel @Inject constructor(
             StatusItemClicked.OPEN_FOLDER
         } else {
             val currentFile = File(rootPath + zipInfoUIO.path)
-            if (File(rootPath).exists()) {
-                if (currentFile.exists()) {
-
-                    StatusItemClicked.OPEN_FILE
-                } else {
-                    StatusItemClicked.ITEM_NOT_EXIST
-                }
-            } else {
-                StatusItemClicked.ZIP_NOT_UNPACK
+            when {
+                currentFile.exists() -> StatusItemClicked.OPEN_FILE
+                zipFile.getEntry(zipInfoUIO.path) != null -> StatusItemClicked.ZIP_NOT_UNPACK
+                else -> StatusItemClicked.ITEM_NOT_EXIST
             }
         }
     }
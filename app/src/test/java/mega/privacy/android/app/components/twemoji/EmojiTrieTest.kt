@@ -0,0 +1,97 @@
+package mega.privacy.android.app.components.twemoji
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.components.twemoji.emoji.Emoji
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.regex.Pattern
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmojiTrieTest {
+
+    private val grinning = Emoji(0x1F600, 1)
+    private val thumbsUp = Emoji(0x1F44D, 2)
+    private val thumbsUpDark = Emoji(intArrayOf(0x1F44D, 0x1F3FF), 3)
+    private val flagSpain = Emoji(intArrayOf(0x1F1EA, 0x1F1F8), 4)
+    private val regionalE = Emoji(0x1F1EA, 5)
+    private val family = Emoji(intArrayOf(0x1F468, 0x200D, 0x1F469, 0x200D, 0x1F467), 6)
+    private val man = Emoji(0x1F468, 7)
+    private val heart = Emoji(0x2764, 8)
+
+    private val emojis =
+        listOf(grinning, thumbsUp, thumbsUpDark, flagSpain, regionalE, family, man, heart)
+
+    private val underTest = EmojiTrie.build(emojis)
+
+    @Test
+    fun `test that the longest emoji is matched at each position`() {
+        val text = "ok ${thumbsUpDark.unicode}${thumbsUp.unicode} ${family.unicode}!"
+
+        val actual = underTest.findAll(text)
+
+        assertThat(actual.map { it.emoji }).containsExactly(thumbsUpDark, thumbsUp, family)
+            .inOrder()
+        assertThat(actual.first().start).isEqualTo(3)
+        assertThat(actual.first().end).isEqualTo(3 + thumbsUpDark.unicode.length)
+    }
+
+    @Test
+    fun `test that text without emojis returns no ranges`() {
+        assertThat(underTest.findAll("Hello, how are you?")).isEmpty()
+    }
+
+    @Test
+    fun `test that only emojis text ignoring whitespace is detected`() {
+        assertThat(underTest.isOnlyEmojis(" ${grinning.unicode} ${flagSpain.unicode}\n")).isTrue()
+        assertThat(underTest.isOnlyEmojis("${grinning.unicode} a")).isFalse()
+        assertThat(underTest.isOnlyEmojis("   ")).isFalse()
+    }
+
+    @Test
+    fun `test that results are the same as the previous alternation regex`() {
+        val regex = emojis.map { it.unicode }
+            .sortedByDescending { it.length }
+            .joinToString("|") { Pattern.quote(it) }
+        val pattern = Pattern.compile(regex)
+        val repetitivePattern = Pattern.compile("($regex)+")
+        val emojiMap = emojis.associateBy { it.unicode }
+
+        TRANSCRIPT.map { it.withEmojis() }.forEach { line ->
+            val expected = buildList {
+                val matcher = pattern.matcher(line)
+                while (matcher.find()) {
+                    add(EmojiRange(matcher.start(), matcher.end(), emojiMap.getValue(matcher.group())))
+                }
+            }
+            val expectedOnlyEmojis = line.isNotEmpty() &&
+                    repetitivePattern.matcher(line.replace("\\s".toRegex(), "")).matches()
+
+            assertThat(underTest.findAll(line)).isEqualTo(expected)
+            assertThat(underTest.isOnlyEmojis(line)).isEqualTo(expectedOnlyEmojis)
+        }
+    }
+
+    private fun String.withEmojis() = this
+        .replace(":grinning:", grinning.unicode)
+        .replace(":+1:", thumbsUp.unicode)
+        .replace(":+1_dark:", thumbsUpDark.unicode)
+        .replace(":es:", flagSpain.unicode)
+        .replace(":e:", regionalE.unicode)
+        .replace(":family:", family.unicode)
+        .replace(":man:", man.unicode)
+        .replace(":heart:", heart.unicode)
+
+    companion object {
+        private val TRANSCRIPT = listOf(
+            "Hi! Are we still meeting tomorrow? :grinning:",
+            ":+1:",
+            ":+1_dark::+1_dark: sure, see you at 10",
+            "Sent the photos from the trip :es::es: :heart:",
+            ":family: :man::heart:",
+            ":e::es::e:",
+            "no emojis in this message at all",
+            "   :grinning:   :heart:  ",
+            "",
+        )
+    }
+}
@@ -13,7 +13,6 @@ import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
 import kotlinx.coroutines.test.setMain
 import mega.privacy.android.app.globalmanagement.TransfersManagement
-import mega.privacy.android.data.database.DatabaseHandler
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferState
@@ -27,7 +26,7 @@ import mega.privacy.android.domain.usecase.transfers.MoveTransferBeforeByTagUseC
 import mega.privacy.android.domain.usecase.transfers.MoveTransferToFirstByTagUseCase
 import mega.privacy.android.domain.usecase.transfers.MoveTransferToLastByTagUseCase
 import mega.privacy.android.domain.usecase.transfers.completed.DeleteCompletedTransferUseCase
-import mega.privacy.android.domain.usecase.transfers.completed.GetAllCompletedTransfersUseCase
+import mega.privacy.android.domain.usecase.transfers.completed.GetCompletedTransfersPageUseCase
 import mega.privacy.android.domain.usecase.transfers.completed.MonitorCompletedTransferEventUseCase
 import mega.privacy.android.domain.usecase.transfers.paused.PauseTransferByTagUseCase
 import org.junit.After
@@ -35,6 +34,7 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -53,7 +53,7 @@ internal class TransfersViewModelTest {
     private val getInProgressTransfersUseCase: GetInProgressTransfersUseCase = mock()
     private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase = mock()
     private val monitorCompletedTransferEventUseCase: MonitorCompletedTransferEventUseCase = mock()
-    private val getAllCompletedTransfersUseCase: GetAllCompletedTransfersUseCase = mock()
+    private val getCompletedTransfersPageUseCase: GetCompletedTransfersPageUseCase = mock()
     private val getFailedOrCanceledTransfersUseCase: GetFailedOrCanceledTransfersUseCase = mock()
     private val deleteCompletedTransferUseCase: DeleteCompletedTransferUseCase = mock()
     private val pauseTransferByTagUseCase: PauseTransferByTagUseCase = mock()
@@ -75,7 +75,7 @@ internal class TransfersViewModelTest {
             moveTransferToLastByTagUseCase = moveTransferToLastByTagUseCase,
             getTransferByTagUseCase = getTransferByTagUseCase,
             getInProgressTransfersUseCase = getInProgressTransfersUseCase,
-            getAllCompletedTransfersUseCase = getAllCompletedTransfersUseCase,
+            getCompletedTransfersPageUseCase = getCompletedTransfersPageUseCase,
             monitorTransferEventsUseCase = monitorTransferEventsUseCase,
             monitorCompletedTransferEventUseCase = monitorCompletedTransferEventUseCase,
             getFailedOrCanceledTransfersUseCase = getFailedOrCanceledTransfersUseCase,
@@ -162,13 +162,13 @@ internal class TransfersViewModelTest {
         }
 
     @Test
-    fun `test that completedTransfers update correctly when getAllCompletedTransfersUseCase returns value`() =
+    fun `test that completedTransfers update correctly when getCompletedTransfersPageUseCase returns value`() =
         runTest {
             val completedTransfer = mock<CompletedTransfer>()
             val completedTransfers = listOf(completedTransfer)
-            whenever(getAllCompletedTransfersUseCase(DatabaseHandler.MAX_TRANSFERS)).thenReturn(
-                flowOf(completedTransfers)
-            )
+            whenever(
+                getCompletedTransfersPageUseCase(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE)
+            ).thenReturn(flowOf(completedTransfers))
             initViewModel()
             advanceUntilIdle()
             underTest.completedTransfers.test {
@@ -176,6 +176,49 @@ internal class TransfersViewModelTest {
             }
         }
 
+    @Test
+    fun `test that loadMoreCompletedTransfers adds the page after the last completed transfer`() =
+        runTest {
+            val firstPage = List(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE) {
+                mock<CompletedTransfer>()
+            }
+            val secondPage = listOf(mock<CompletedTransfer>())
+            whenever(
+                getCompletedTransfersPageUseCase(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE)
+            ).thenReturn(flowOf(firstPage))
+            whenever(
+                getCompletedTransfersPageUseCase(
+                    TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE,
+                    firstPage.last()
+                )
+            ).thenReturn(flowOf(secondPage))
+            initViewModel()
+            advanceUntilIdle()
+
+            underTest.loadMoreCompletedTransfers()
+            advanceUntilIdle()
+
+            assertThat(underTest.completedTransfers.value).isEqualTo(firstPage + secondPage)
+        }
+
+    @Test
+    fun `test that loadMoreCompletedTransfers does not read another page after a partial one`() =
+        runTest {
+            val firstPage = listOf(mock<CompletedTransfer>())
+            whenever(
+                getCompletedTransfersPageUseCase(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE)
+            ).thenReturn(flowOf(firstPage))
+            initViewModel()
+            advanceUntilIdle()
+
+            underTest.loadMoreCompletedTransfers()
+            advanceUntilIdle()
+
+            assertThat(underTest.completedTransfers.value).isEqualTo(firstPage)
+            verify(getCompletedTransfersPageUseCase, never())
+                .invoke(TransfersViewModel.COMPLETED_TRANSFERS_PAGE_SIZE, firstPage.last())
+        }
+
     @Test
     fun `test that deleteCompletedTransferUseCase invoke success when deleteCompletedTransfer is called`() =
         runTest {
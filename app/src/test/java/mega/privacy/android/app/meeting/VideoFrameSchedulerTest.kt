@@ -0,0 +1,143 @@
+package mega.privacy.android.app.meeting
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.Executor
+
+class VideoFrameSchedulerTest {
+    private lateinit var underTest: VideoFrameScheduler
+
+    private val executor = ManualExecutor()
+    private val renderedFrames = mutableListOf<RenderedFrame>()
+    private val renderedBuffers = mutableListOf<Int>()
+
+    @Before
+    fun setUp() {
+        executor.tasks.clear()
+        renderedFrames.clear()
+        renderedBuffers.clear()
+        underTest = VideoFrameScheduler("test", executor) { frame ->
+            val pixels = ByteArray(frame.buffer.remaining()).also { frame.buffer.get(it) }
+            renderedFrames.add(RenderedFrame(frame.width, frame.height, pixels.map { it.toInt() }))
+            renderedBuffers.add(System.identityHashCode(frame.buffer))
+        }
+    }
+
+    @Test
+    fun `test that a frame is rendered on the executor`() {
+        underTest.onFrame(2, 1, byteArrayOf(1, 2))
+
+        assertThat(renderedFrames).isEmpty()
+        executor.runAll()
+
+        assertThat(renderedFrames).containsExactly(RenderedFrame(2, 1, listOf(1, 2)))
+    }
+
+    @Test
+    fun `test that only the latest frame is rendered if several arrive before rendering`() {
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        underTest.onFrame(1, 1, byteArrayOf(2))
+        underTest.onFrame(1, 1, byteArrayOf(3))
+        executor.runAll()
+
+        assertThat(renderedFrames).containsExactly(RenderedFrame(1, 1, listOf(3)))
+        assertThat(underTest.stats).isEqualTo(VideoFrameStats(received = 3, rendered = 1, dropped = 2))
+    }
+
+    @Test
+    fun `test that a single render is scheduled while a frame is pending`() {
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        underTest.onFrame(1, 1, byteArrayOf(2))
+
+        assertThat(executor.tasks).hasSize(1)
+    }
+
+    @Test
+    fun `test that a new render is scheduled after the previous one has run`() {
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        executor.runAll()
+        underTest.onFrame(1, 1, byteArrayOf(2))
+        executor.runAll()
+
+        assertThat(renderedFrames.map { it.pixels }).containsExactly(listOf(1), listOf(2))
+            .inOrder()
+        assertThat(underTest.stats).isEqualTo(VideoFrameStats(received = 2, rendered = 2, dropped = 0))
+    }
+
+    @Test
+    fun `test that frame buffers are reused once rendered`() {
+        repeat(10) {
+            underTest.onFrame(1, 1, byteArrayOf(it.toByte()))
+            executor.runAll()
+        }
+
+        assertThat(renderedFrames).hasSize(10)
+        assertThat(renderedBuffers.toSet().size).isAtMost(2)
+    }
+
+    @Test
+    fun `test that the size of a frame can change`() {
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        executor.runAll()
+        underTest.onFrame(2, 2, byteArrayOf(1, 2, 3, 4))
+        executor.runAll()
+        underTest.onFrame(1, 1, byteArrayOf(5))
+        executor.runAll()
+
+        assertThat(renderedFrames).containsExactly(
+            RenderedFrame(1, 1, listOf(1)),
+            RenderedFrame(2, 2, listOf(1, 2, 3, 4)),
+            RenderedFrame(1, 1, listOf(5)),
+        ).inOrder()
+    }
+
+    @Test
+    fun `test that a frame arriving while rendering is rendered afterwards`() {
+        underTest = VideoFrameScheduler("test", executor) { frame ->
+            renderedFrames.add(RenderedFrame(frame.width, frame.height, emptyList()))
+            if (renderedFrames.size == 1) underTest.onFrame(3, 3, ByteArray(9))
+        }
+
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        executor.runAll()
+
+        assertThat(renderedFrames.map { it.width }).containsExactly(1, 3).inOrder()
+    }
+
+    @Test
+    fun `test that nothing is rendered after releasing`() {
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        underTest.release()
+        executor.runAll()
+        underTest.onFrame(1, 1, byteArrayOf(2))
+        executor.runAll()
+
+        assertThat(renderedFrames).isEmpty()
+        assertThat(underTest.stats).isEqualTo(VideoFrameStats(received = 1, rendered = 0, dropped = 1))
+    }
+
+    @Test
+    fun `test that a frame failing to render is counted as dropped`() {
+        underTest = VideoFrameScheduler("test", executor) { throw IllegalStateException() }
+
+        underTest.onFrame(1, 1, byteArrayOf(1))
+        executor.runAll()
+
+        assertThat(underTest.stats).isEqualTo(VideoFrameStats(received = 1, rendered = 0, dropped = 1))
+    }
+
+    private data class RenderedFrame(val width: Int, val height: Int, val pixels: List<Int>)
+
+    private class ManualExecutor : Executor {
+        val tasks = ArrayDeque<Runnable>()
+
+        override fun execute(command: Runnable) {
+            tasks.addLast(command)
+        }
+
+        fun runAll() {
+            while (tasks.isNotEmpty()) tasks.removeFirst().run()
+        }
+    }
+}
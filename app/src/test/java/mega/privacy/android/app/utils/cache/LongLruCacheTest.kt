@@ -0,0 +1,154 @@
+package mega.privacy.android.app.utils.cache
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.Before
+import org.junit.Test
+
+class LongLruCacheTest {
+    private lateinit var underTest: LongLruCache<ByteArray>
+
+    private var currentTime = 0L
+
+    @Before
+    fun setUp() {
+        currentTime = 0L
+        underTest = LongLruCache(
+            maxSize = 10,
+            sizeOf = { it.size },
+            maxMissingEntries = 2,
+            missingTtlMillis = 1000,
+            clock = { currentTime },
+        )
+    }
+
+    @Test
+    fun `test that a cached value is returned`() {
+        val value = ByteArray(3)
+        underTest.put(1L, value)
+
+        assertThat(underTest.get(1L)).isSameInstanceAs(value)
+        assertThat(underTest.get(2L)).isNull()
+        assertThat(underTest.stats).isEqualTo(
+            CacheStats(hits = 1, missingHits = 0, misses = 1, evictions = 0, size = 3, maxSize = 10)
+        )
+    }
+
+    @Test
+    fun `test that the least recently used values are evicted when the size is exceeded`() {
+        underTest.put(1L, ByteArray(4))
+        underTest.put(2L, ByteArray(4))
+        underTest.get(1L)
+        underTest.put(3L, ByteArray(4))
+
+        assertThat(underTest.get(1L)).isNotNull()
+        assertThat(underTest.get(2L)).isNull()
+        assertThat(underTest.get(3L)).isNotNull()
+        assertThat(underTest.stats.evictions).isEqualTo(1)
+        assertThat(underTest.stats.size).isEqualTo(8)
+    }
+
+    @Test
+    fun `test that replacing a value updates the size`() {
+        underTest.put(1L, ByteArray(4))
+        underTest.put(1L, ByteArray(2))
+
+        assertThat(underTest.get(1L)?.size).isEqualTo(2)
+        assertThat(underTest.stats.size).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that values larger than the maximum size are not cached`() {
+        underTest.put(1L, ByteArray(4))
+        underTest.put(1L, ByteArray(11))
+
+        assertThat(underTest.get(1L)).isNull()
+        assertThat(underTest.stats.size).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a removed value is not returned`() {
+        val value = ByteArray(3)
+        underTest.put(1L, value)
+
+        assertThat(underTest.remove(1L)).isSameInstanceAs(value)
+        assertThat(underTest.get(1L)).isNull()
+        assertThat(underTest.stats.size).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a missing key is contained until it expires`() {
+        underTest.putMissing(1L)
+
+        assertThat(underTest.isMissing(1L)).isTrue()
+        assertThat(underTest.containsKey(1L)).isTrue()
+        assertThat(underTest.get(1L)).isNull()
+        assertThat(underTest.stats.missingHits).isEqualTo(1)
+
+        currentTime = 1000
+
+        assertThat(underTest.isMissing(1L)).isFalse()
+        assertThat(underTest.containsKey(1L)).isFalse()
+    }
+
+    @Test
+    fun `test that putting a value clears a missing key`() {
+        underTest.putMissing(1L)
+        underTest.put(1L, ByteArray(1))
+
+        assertThat(underTest.isMissing(1L)).isFalse()
+        assertThat(underTest.get(1L)).isNotNull()
+    }
+
+    @Test
+    fun `test that only the most recent missing keys are kept`() {
+        underTest.putMissing(1L)
+        underTest.putMissing(2L)
+        underTest.putMissing(3L)
+
+        assertThat(underTest.isMissing(1L)).isFalse()
+        assertThat(underTest.isMissing(2L)).isTrue()
+        assertThat(underTest.isMissing(3L)).isTrue()
+    }
+
+    @Test
+    fun `test that trimming evicts values down to the given size`() {
+        underTest.put(1L, ByteArray(3))
+        underTest.put(2L, ByteArray(3))
+        underTest.put(3L, ByteArray(3))
+
+        underTest.trimToSize(4)
+
+        assertThat(underTest.get(1L)).isNull()
+        assertThat(underTest.get(2L)).isNull()
+        assertThat(underTest.get(3L)).isNotNull()
+    }
+
+    @Test
+    fun `test that keys remain reachable after many insertions and removals`() {
+        underTest = LongLruCache(maxSize = Long.MAX_VALUE, sizeOf = { it.size }, clock = { 0L })
+        val keys = (0 until 5000).map { it * 4096L - 2_000_000L }
+        keys.forEach { underTest.put(it, ByteArray(1) { _ -> (it % 100).toByte() }) }
+        keys.filterIndexed { index, _ -> index % 3 == 0 }.forEach { underTest.remove(it) }
+
+        keys.forEachIndexed { index, key ->
+            val value = underTest.get(key)
+            if (index % 3 == 0) {
+                assertThat(value).isNull()
+            } else {
+                assertThat(value?.single()).isEqualTo((key % 100).toByte())
+            }
+        }
+    }
+
+    @Test
+    fun `test that clear removes values and missing keys`() {
+        underTest.put(1L, ByteArray(3))
+        underTest.putMissing(2L)
+
+        underTest.clear()
+
+        assertThat(underTest.get(1L)).isNull()
+        assertThat(underTest.isMissing(2L)).isFalse()
+        assertThat(underTest.stats.size).isEqualTo(0)
+    }
+}
@@ -0,0 +1,119 @@
+package test.mega.privacy.android.app
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.DecryptedRowCache
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DecryptedRowCacheTest {
+    private lateinit var underTest: DecryptedRowCache
+
+    private var loads = 0
+
+    private fun load(): Map<String, String?> {
+        loads++
+        return mapOf("id" to "1", "column" to "value $loads")
+    }
+
+    @BeforeEach
+    fun setUp() {
+        loads = 0
+        underTest = DecryptedRowCache(setOf(CACHED_TABLE))
+    }
+
+    @Test
+    fun `test that a cached row is only loaded once`() {
+        val first = underTest.getOrLoad(CACHED_TABLE, ::load)
+        val second = underTest.getOrLoad(CACHED_TABLE, ::load)
+
+        assertThat(second).isSameInstanceAs(first)
+        assertThat(loads).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the row of a table not cached is loaded every time`() {
+        underTest.getOrLoad(OTHER_TABLE, ::load)
+        underTest.getOrLoad(OTHER_TABLE, ::load)
+
+        assertThat(OTHER_TABLE in underTest).isFalse()
+        assertThat(loads).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that an empty table is not cached`() {
+        underTest.getOrLoad(CACHED_TABLE) { loads++; null }
+
+        assertThat(underTest.getOrLoad(CACHED_TABLE, ::load)).isNotNull()
+        assertThat(loads).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that an updated value is returned without loading the row again`() {
+        underTest.getOrLoad(CACHED_TABLE, ::load)
+
+        underTest.updateValue(CACHED_TABLE, "column", "new value")
+
+        assertThat(underTest.getOrLoad(CACHED_TABLE, ::load)?.get("column"))
+            .isEqualTo("new value")
+        assertThat(loads).isEqualTo(1)
+    }
+
+    @ParameterizedTest(name = "statement: {0}")
+    @ValueSource(
+        strings = [
+            "UPDATE $CACHED_TABLE SET column = 'value' WHERE id = '1'",
+            "  update $CACHED_TABLE set column = 'value'",
+            "INSERT INTO $CACHED_TABLE (column) VALUES ('value')",
+            "DELETE FROM $CACHED_TABLE",
+            "DROP TABLE IF EXISTS $CACHED_TABLE",
+        ]
+    )
+    fun `test that writing the table with a statement loads the row again`(sql: String) {
+        underTest.getOrLoad(CACHED_TABLE, ::load)
+
+        underTest.invalidateWrittenTable(sql)
+
+        assertThat(underTest.getOrLoad(CACHED_TABLE, ::load)?.get("column"))
+            .isEqualTo("value 2")
+    }
+
+    @ParameterizedTest(name = "statement: {0}")
+    @ValueSource(
+        strings = [
+            "SELECT * FROM $CACHED_TABLE",
+            "UPDATE $OTHER_TABLE SET column = 'value'",
+            "DELETE FROM ${CACHED_TABLE}_backup",
+            "CREATE TABLE IF NOT EXISTS $OTHER_TABLE (id INTEGER PRIMARY KEY)",
+        ]
+    )
+    fun `test that a statement not writing the table keeps the row`(sql: String) {
+        underTest.getOrLoad(CACHED_TABLE, ::load)
+
+        underTest.invalidateWrittenTable(sql)
+
+        assertThat(underTest.getOrLoad(CACHED_TABLE, ::load)?.get("column"))
+            .isEqualTo("value 1")
+        assertThat(loads).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that a row read while its table is written is not kept`() {
+        underTest.getOrLoad(CACHED_TABLE) {
+            underTest.invalidate(CACHED_TABLE)
+            load()
+        }
+
+        underTest.getOrLoad(CACHED_TABLE, ::load)
+
+        assertThat(loads).isEqualTo(2)
+    }
+
+    companion object {
+        private const val CACHED_TABLE = "preferences"
+        private const val OTHER_TABLE = "offline"
+    }
+}
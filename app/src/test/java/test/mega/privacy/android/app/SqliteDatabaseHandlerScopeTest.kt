@@ -0,0 +1,64 @@
+package test.mega.privacy.android.app
+
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.testing.HiltAndroidRule
+import dagger.hilt.android.testing.HiltAndroidTest
+import dagger.hilt.android.testing.UninstallModules
+import dagger.hilt.components.SingletonComponent
+import mega.privacy.android.app.LegacyDatabaseHandler
+import mega.privacy.android.app.SqliteDatabaseHandler
+import mega.privacy.android.data.database.DatabaseHandler
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import test.mega.privacy.android.app.di.TestDbHandlerModule
+import javax.inject.Inject
+
+/**
+ * Test that the rows cached by [SqliteDatabaseHandler] are shared by all its injection paths
+ */
+@HiltAndroidTest
+@UninstallModules(TestDbHandlerModule::class)
+@RunWith(AndroidJUnit4::class)
+class SqliteDatabaseHandlerScopeTest {
+
+    @Module
+    @InstallIn(SingletonComponent::class)
+    object UnscopedDbHandlerModule {
+        @Provides
+        fun provideLegacyDbHandler(handler: SqliteDatabaseHandler): LegacyDatabaseHandler =
+            handler
+
+        @Provides
+        fun provideDbHandler(handler: SqliteDatabaseHandler): DatabaseHandler = handler
+    }
+
+    @get:Rule
+    val hiltRule = HiltAndroidRule(this)
+
+    @Inject
+    lateinit var sqliteDatabaseHandler: SqliteDatabaseHandler
+
+    @Inject
+    lateinit var databaseHandler: DatabaseHandler
+
+    @Before
+    fun setUp() {
+        hiltRule.inject()
+    }
+
+    @Test
+    fun `test that a write through the handler is read through the database handler`() {
+        databaseHandler.setCamSyncHandle(1L)
+        assertThat(databaseHandler.preferences?.camSyncHandle).isEqualTo("1")
+
+        sqliteDatabaseHandler.setCamSyncHandle(2L)
+
+        assertThat(databaseHandler.preferences?.camSyncHandle).isEqualTo("2")
+    }
+}
@@ -4,28 +4,48 @@ import android.content.Context
 import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import androidx.work.ForegroundInfo
+import androidx.work.Data
 import androidx.work.ListenableWorker
+import androidx.work.ProgressUpdater
 import androidx.work.WorkerFactory
 import androidx.work.WorkerParameters
 import androidx.work.impl.WorkDatabase
 import androidx.work.impl.foreground.ForegroundProcessor
 import androidx.work.impl.utils.WorkForegroundUpdater
-import androidx.work.impl.utils.WorkProgressUpdater
+import androidx.work.impl.utils.futures.SettableFuture
 import androidx.work.impl.utils.taskexecutor.WorkManagerTaskExecutor
 import androidx.work.workDataOf
 import com.google.common.truth.Truth
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import kotlinx.coroutines.test.setMain
 import mega.privacy.android.app.cameraupload.CameraUploadsWorker
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.COMPRESSION_PROGRESS
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.STATUS_INFO
+import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_TO_UPLOAD
 import mega.privacy.android.data.mapper.transfer.CompletedTransferMapper
 import mega.privacy.android.data.wrapper.ApplicationWrapper
 import mega.privacy.android.data.wrapper.CameraUploadsNotificationManagerWrapper
 import mega.privacy.android.data.wrapper.CookieEnabledCheckWrapper
+import mega.privacy.android.domain.entity.BatteryInfo
+import mega.privacy.android.domain.entity.SyncRecord
+import mega.privacy.android.domain.entity.SyncRecordType
+import mega.privacy.android.domain.entity.SyncStatus
+import mega.privacy.android.domain.entity.VideoCompressionState
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.entity.transfer.TransferEvent
 import mega.privacy.android.domain.usecase.BroadcastCameraUploadProgress
 import mega.privacy.android.domain.usecase.ClearSyncRecords
 import mega.privacy.android.domain.usecase.CompressVideos
@@ -99,10 +119,15 @@ import mega.privacy.android.domain.usecase.transfers.uploads.StartUploadUseCase
 import mega.privacy.android.domain.usecase.workers.ScheduleCameraUploadUseCase
 import org.junit.After
 import org.junit.Before
+import org.junit.Rule
 import org.junit.Test
+import org.junit.rules.TemporaryFolder
 import org.junit.runner.RunWith
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.util.UUID
 import java.util.concurrent.Executor
@@ -115,8 +140,17 @@ import java.util.concurrent.Executors
 @RunWith(AndroidJUnit4::class)
 class CameraUploadsWorkerTest {
 
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
     private lateinit var underTest: CameraUploadsWorker
 
+    private val progressUpdates = mutableListOf<Data>()
+    private val progressUpdater = ProgressUpdater { _, _, data ->
+        progressUpdates.add(data)
+        SettableFuture.create<Void>().apply { set(null) }
+    }
+
     private lateinit var context: Context
     private lateinit var executor: Executor
     private lateinit var workExecutor: WorkManagerTaskExecutor
@@ -228,7 +262,7 @@ class CameraUploadsWorkerTest {
                 executor,
                 workExecutor,
                 WorkerFactory.getDefaultWorkerFactory(),
-                WorkProgressUpdater(workDatabase, workExecutor),
+                progressUpdater,
                 WorkForegroundUpdater(workDatabase, object : ForegroundProcessor {
                     override fun startForeground(
                         workSpecId: String,
@@ -335,4 +369,148 @@ class CameraUploadsWorkerTest {
         val result = underTest.doWork()
         Truth.assertThat(result).isEqualTo(ListenableWorker.Result.failure())
     }
+
+    @Test
+    fun `test that each compressed video is uploaded`() = runTest {
+        val records = createVideoRecords(3)
+        setUpCompressionRun(records)
+        stubUploads(flowOf(TransferEvent.TransferFinishEvent(mock(), null)))
+
+        val result = underTest.doWork()
+
+        Truth.assertThat(result).isEqualTo(ListenableWorker.Result.success())
+        verifyUploads(times = records.size)
+    }
+
+    @Test
+    fun `test that the compression waits while the limit of compressed videos are uploading`() =
+        runTest {
+            val records = createVideoRecords(4)
+            val compressedIds = setUpCompressionRun(records)
+            val uploadGate = CompletableDeferred<Unit>()
+            stubUploads(flow {
+                uploadGate.await()
+                emit(TransferEvent.TransferFinishEvent(mock(), null))
+            })
+
+            val result = async { underTest.doWork() }
+            runCurrent()
+
+            Truth.assertThat(compressedIds).containsExactly(1, 2, 3).inOrder()
+            verifyUploads(times = 2)
+
+            uploadGate.complete(Unit)
+            runCurrent()
+
+            Truth.assertThat(result.await()).isEqualTo(ListenableWorker.Result.success())
+            Truth.assertThat(compressedIds).containsExactly(1, 2, 3, 4).inOrder()
+            verifyUploads(times = records.size)
+        }
+
+    @Test
+    fun `test that the upload progress is shown while the videos are compressed`() = runTest {
+        val records = createVideoRecords(3)
+        setUpCompressionRun(records)
+        val uploadGate = CompletableDeferred<Unit>()
+        stubUploads(flow {
+            uploadGate.await()
+            emit(TransferEvent.TransferFinishEvent(mock(), null))
+        })
+
+        val result = async { underTest.doWork() }
+        runCurrent()
+
+        Truth.assertThat(progressUpdates.any {
+            it.getString(STATUS_INFO) == COMPRESSION_PROGRESS && it.getInt(TOTAL_TO_UPLOAD, 0) > 0
+        }).isTrue()
+
+        uploadGate.complete(Unit)
+        runCurrent()
+        Truth.assertThat(result.await()).isEqualTo(ListenableWorker.Result.success())
+    }
+
+    private fun stubUploads(upload: Flow<TransferEvent>) {
+        whenever(
+            startUploadUseCase(
+                any(), NodeId(any()), anyOrNull(), any(), anyOrNull(), any(), any()
+            )
+        ).thenReturn(upload)
+    }
+
+    private fun verifyUploads(times: Int) {
+        verify(startUploadUseCase, times(times)).invoke(
+            any(), NodeId(any()), anyOrNull(), any(), anyOrNull(), any(), any()
+        )
+    }
+
+    private fun createVideoRecords(count: Int) = (1..count).map { id ->
+        SyncRecord(
+            id = id,
+            localPath = temporaryFolder.newFile("video$id.mp4").absolutePath,
+            newPath = null,
+            originFingerprint = null,
+            newFingerprint = null,
+            timestamp = id.toLong(),
+            fileName = "video$id.mp4",
+            longitude = null,
+            latitude = null,
+            status = SyncStatus.STATUS_TO_COMPRESS.value,
+            type = SyncRecordType.TYPE_VIDEO,
+            nodeHandle = null,
+            isCopyOnly = false,
+            isSecondary = false,
+        )
+    }
+
+    /**
+     * Sets up a Camera Uploads run with no file to upload but the videos to compress
+     *
+     * @return the ids of the videos whose compression started, in order
+     */
+    private suspend fun setUpCompressionRun(records: List<SyncRecord>): List<Int> {
+        whenever(monitorConnectivityUseCase()).thenReturn(MutableStateFlow(true))
+        whenever(monitorChargingStoppedState()).thenReturn(MutableStateFlow(false))
+        whenever(monitorBatteryInfo()).thenReturn(MutableStateFlow(BatteryInfo(100, true)))
+        whenever(monitorPausedTransfersUseCase()).thenReturn(emptyFlow())
+        whenever(monitorStorageOverQuotaUseCase()).thenReturn(emptyFlow())
+        whenever(sendBackupHeartBeatSyncUseCase(any())).thenReturn(emptyFlow())
+        whenever(createCameraUploadTemporaryRootDirectoryUseCase())
+            .thenReturn(temporaryFolder.newFolder().absolutePath)
+        whenever(hasMediaPermissionUseCase()).thenReturn(true)
+        whenever(applicationWrapper.isLoggingIn()).thenReturn(false)
+        whenever(backgroundFastLoginUseCase()).thenReturn("session")
+        whenever(isNotEnoughQuota()).thenReturn(false)
+        whenever(isCameraUploadsEnabledUseCase()).thenReturn(true)
+        whenever(isWifiNotSatisfiedUseCase()).thenReturn(false)
+        whenever(getPrimaryFolderPathUseCase()).thenReturn(temporaryFolder.root.absolutePath)
+        whenever(isPrimaryFolderPathValidUseCase(any())).thenReturn(true)
+        whenever(isSecondaryFolderEnabled()).thenReturn(false)
+        whenever(getUploadFolderHandleUseCase(any())).thenReturn(UPLOAD_FOLDER_HANDLE)
+        whenever(isNodeInRubbishOrDeletedUseCase(any())).thenReturn(false)
+        val uploadFolder = mock<TypedFolderNode> {
+            on { id }.thenReturn(NodeId(UPLOAD_FOLDER_HANDLE))
+        }
+        whenever(getNodeByIdUseCase(NodeId(any()))).thenReturn(uploadFolder)
+        whenever(getPendingSyncRecords()).thenReturn(emptyList())
+        whenever(isChargingRequired(any())).thenReturn(false)
+        whenever(compressedVideoPending()).thenReturn(true)
+        whenever(getVideoSyncRecordsByStatus(SyncStatus.STATUS_TO_COMPRESS)).thenReturn(records)
+        whenever(getVideoSyncRecordsByStatus(SyncStatus.STATUS_PENDING)).thenReturn(emptyList())
+
+        val compressedIds = mutableListOf<Int>()
+        whenever(compressVideos(any(), any())).thenReturn(flow {
+            records.forEachIndexed { index, record ->
+                compressedIds.add(record.id)
+                emit(VideoCompressionState.Progress(100, index + 1, records.size, record.localPath))
+                emit(VideoCompressionState.FinishedCompression(record.localPath, true, null))
+                emit(VideoCompressionState.Successful(record.id))
+            }
+            emit(VideoCompressionState.Finished)
+        })
+        return compressedIds
+    }
+
+    companion object {
+        private const val UPLOAD_FOLDER_HANDLE = 1L
+    }
 }
@@ -1,6 +1,9 @@
 package test.mega.privacy.android.app.fetcher
 
+import coil.request.Options
+import coil.size.Size
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.ThumbnailCache
 import mega.privacy.android.app.fetcher.MegaThumbnailFetcher
 import mega.privacy.android.app.fetcher.ThumbnailRequest
 import mega.privacy.android.domain.usecase.thumbnailpreview.GetPublicNodeThumbnailUseCase
@@ -13,12 +16,15 @@ import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class MegaThumbnailFetcherTest {
     private val request: ThumbnailRequest = mock()
+    private val options: Options = mock()
+    private val thumbnailCache: ThumbnailCache = mock()
     private val getThumbnailUseCase: GetThumbnailUseCase = mock()
     private val getPublicNodeThumbnailUseCase: GetPublicNodeThumbnailUseCase = mock()
     private lateinit var underTest: MegaThumbnailFetcher
@@ -27,17 +33,24 @@ class MegaThumbnailFetcherTest {
     fun setUp() {
         underTest = MegaThumbnailFetcher(
             request,
+            options,
+            thumbnailCache,
             { getThumbnailUseCase },
             { getPublicNodeThumbnailUseCase }
         )
     }
 
     @BeforeEach
-    fun resetMocks() = reset(
-        request,
-        getThumbnailUseCase,
-        getPublicNodeThumbnailUseCase
-    )
+    fun resetMocks() {
+        reset(
+            request,
+            options,
+            thumbnailCache,
+            getThumbnailUseCase,
+            getPublicNodeThumbnailUseCase
+        )
+        whenever(options.size).thenReturn(Size.ORIGINAL)
+    }
 
     @Test
     fun `test that throw NullPointerException when fetch cloud drive node and getThumbnailUseCase returns null`() =
@@ -56,4 +69,28 @@ class MegaThumbnailFetcherTest {
             assertThrows<NullPointerException> { underTest.fetch() }
             verifyNoInteractions(getPublicNodeThumbnailUseCase)
         }
-}
\ No newline at end of file
+
+    @Test
+    fun `test that the node is recorded as having no thumbnail when getThumbnailUseCase returns null`() =
+        runTest {
+            whenever(request.isPublicNode).thenReturn(false)
+            whenever(getThumbnailUseCase(any(), any())).thenReturn(null)
+            assertThrows<NullPointerException> { underTest.fetch() }
+            verify(thumbnailCache).put(HANDLE, null)
+        }
+
+    @Test
+    fun `test that throw NullPointerException without calling the use cases when the node is known to have no thumbnail`() =
+        runTest {
+            whenever(thumbnailCache.isMissing(HANDLE)).thenReturn(true)
+            assertThrows<NullPointerException> { underTest.fetch() }
+            verifyNoInteractions(getThumbnailUseCase, getPublicNodeThumbnailUseCase)
+        }
+
+    companion object {
+        /**
+         * Handle of the mocked request, as its node id is not stubbed
+         */
+        private const val HANDLE = 0L
+    }
+}
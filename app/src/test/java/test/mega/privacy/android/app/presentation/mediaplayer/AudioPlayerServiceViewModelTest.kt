@@ -0,0 +1,272 @@
+package test.mega.privacy.android.app.presentation.mediaplayer
+
+import android.content.Intent
+import android.net.Uri
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.resetMain
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.test.setMain
+import mega.privacy.android.app.mediaplayer.playlist.PlaylistAdapter.Companion.TYPE_PLAYING
+import mega.privacy.android.app.mediaplayer.playlist.PlaylistItem
+import mega.privacy.android.app.mediaplayer.service.AudioPlayerServiceViewModel
+import mega.privacy.android.app.mediaplayer.service.ExposedShuffleOrder
+import mega.privacy.android.app.utils.Constants.AUDIO_BROWSE_ADAPTER
+import mega.privacy.android.app.utils.Constants.INTENT_EXTRA_KEY_ADAPTER_TYPE
+import mega.privacy.android.app.utils.Constants.INTENT_EXTRA_KEY_FILE_NAME
+import mega.privacy.android.app.utils.Constants.INTENT_EXTRA_KEY_HANDLE
+import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.usecase.GetAudioNodesUseCase
+import mega.privacy.android.domain.usecase.GetLocalLinkFromMegaApiUseCase
+import mega.privacy.android.domain.usecase.mediaplayer.MegaApiHttpServerIsRunningUseCase
+import mega.privacy.android.domain.usecase.mediaplayer.MonitorAudioBackgroundPlayEnabledUseCase
+import mega.privacy.android.domain.usecase.mediaplayer.MonitorAudioRepeatModeUseCase
+import mega.privacy.android.domain.usecase.mediaplayer.MonitorAudioShuffleEnabledUseCase
+import mega.privacy.android.domain.usecase.network.IsConnectedToInternetUseCase
+import mega.privacy.android.domain.usecase.transfers.MonitorTransferEventsUseCase
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@RunWith(AndroidJUnit4::class)
+class AudioPlayerServiceViewModelTest {
+
+    @get:Rule
+    val instantTaskExecutorRule = InstantTaskExecutorRule()
+
+    private val getAudioNodesUseCase = mock<GetAudioNodesUseCase>()
+    private val getLocalLinkFromMegaApiUseCase = mock<GetLocalLinkFromMegaApiUseCase>()
+    private val megaApiHttpServerIsRunningUseCase = mock<MegaApiHttpServerIsRunningUseCase>()
+    private val isConnectedToInternetUseCase = mock<IsConnectedToInternetUseCase>()
+    private val monitorTransferEventsUseCase = mock<MonitorTransferEventsUseCase> {
+        on { invoke() }.thenReturn(emptyFlow())
+    }
+    private val monitorAudioBackgroundPlayEnabledUseCase =
+        mock<MonitorAudioBackgroundPlayEnabledUseCase> {
+            on { invoke() }.thenReturn(flowOf(true))
+        }
+    private val monitorAudioShuffleEnabledUseCase = mock<MonitorAudioShuffleEnabledUseCase>()
+    private val monitorAudioRepeatModeUseCase = mock<MonitorAudioRepeatModeUseCase> {
+        on { invoke() }.thenReturn(flowOf(RepeatToggleMode.REPEAT_NONE))
+    }
+
+    private lateinit var sharingScope: CoroutineScope
+
+    @Before
+    fun setUp() {
+        Dispatchers.setMain(UnconfinedTestDispatcher())
+    }
+
+    @After
+    fun tearDown() {
+        sharingScope.cancel()
+        Dispatchers.resetMain()
+    }
+
+    @Test
+    fun `test that the window around the first item is published before the whole playlist`() =
+        runTest {
+            val handles = (1L..30L).toList()
+            val firstPlayHandle = 25L
+            val gate = CompletableDeferred<Unit>()
+            whenever(getLocalLinkFromMegaApiUseCase(any())).doSuspendableAnswer {
+                val handle = it.arguments[0] as Long
+                // The items before the window are resolved last, hold them back
+                if (handle == handles.first()) gate.await()
+                "http://localhost/$handle"
+            }
+            val underTest = createUnderTest(handles = handles)
+
+            underTest.buildPlayerSource(createIntent(firstPlayHandle))
+
+            val window = underTest.playerSourceUpdate().first()
+            assertThat(window.mediaItems.map { it.mediaId.toLong() })
+                .containsExactlyElementsIn(15L..30L)
+                .inOrder()
+            assertThat(window.mediaItems[window.newIndexForCurrentItem].mediaId)
+                .isEqualTo(firstPlayHandle.toString())
+
+            gate.complete(Unit)
+
+            val playlist = underTest.playerSourceUpdate().first()
+            assertThat(playlist.mediaItems.map { it.mediaId.toLong() })
+                .containsExactlyElementsIn(handles)
+                .inOrder()
+            assertThat(playlist.newIndexForCurrentItem).isEqualTo(24)
+        }
+
+    @Test
+    fun `test that the next item is played when the first item has no media item`() =
+        runTest {
+            val handles = (1L..5L).toList()
+            val firstPlayHandle = 3L
+            whenever(getLocalLinkFromMegaApiUseCase(any())).doSuspendableAnswer {
+                val handle = it.arguments[0] as Long
+                if (handle == firstPlayHandle) null else "http://localhost/$handle"
+            }
+            val underTest = createUnderTest(handles = handles)
+
+            underTest.buildPlayerSource(createIntent(firstPlayHandle))
+
+            val playlist = underTest.playerSourceUpdate().first()
+            assertThat(playlist.mediaItems.map { it.mediaId.toLong() })
+                .containsExactly(1L, 2L, 4L, 5L)
+                .inOrder()
+            // The index is in the media items, the unresolved node is not counted
+            assertThat(playlist.newIndexForCurrentItem).isEqualTo(2)
+        }
+
+    @Test
+    fun `test that the shuffled playlist keeps the playing item`() = runTest {
+        val handles = (1L..5L).toList()
+        stubAllLocalLinks()
+        val underTest = createUnderTest(handles = handles, shuffleEnabled = true)
+        underTest.buildPlayerSource(createIntent(firstPlayHandle = 3L))
+        underTest.setCurrentPlayingHandle(3L)
+
+        ExposedShuffleOrder(intArrayOf(4, 2, 0, 3, 1), 0L, underTest)
+
+        val (items, scrollPosition) = underTest.playlistUpdate().value
+        assertThat(items.map { it.nodeHandle }).containsExactly(5L, 3L, 1L, 4L, 2L).inOrder()
+        assertThat(underTest.getPlayingPosition()).isEqualTo(1)
+        assertThat(scrollPosition).isEqualTo(1)
+        assertThat(items[1].type).isEqualTo(TYPE_PLAYING)
+    }
+
+    @Test
+    fun `test that the removed items are emitted from the last index`() = runTest {
+        val handles = (1L..5L).toList()
+        stubAllLocalLinks()
+        val underTest = createUnderTest(handles = handles)
+        underTest.buildPlayerSource(createIntent(firstPlayHandle = 1L))
+        val removedIndexes = mutableListOf<Int>()
+        val collectJob = launch(UnconfinedTestDispatcher(testScheduler)) {
+            underTest.mediaItemToRemoveUpdate().toList(removedIndexes)
+        }
+
+        underTest.itemSelected(2L)
+        underTest.itemSelected(4L)
+        underTest.itemSelected(5L)
+        underTest.removeAllSelectedItems()
+
+        assertThat(removedIndexes).containsExactly(4, 3, 1).inOrder()
+        assertThat(underTest.playlistUpdate().value.first.map { it.nodeHandle })
+            .containsExactly(1L, 3L)
+            .inOrder()
+        collectJob.cancel()
+    }
+
+    private suspend fun stubAllLocalLinks() {
+        whenever(getLocalLinkFromMegaApiUseCase(any())).doSuspendableAnswer {
+            "http://localhost/${it.arguments[0]}"
+        }
+    }
+
+    private suspend fun TestScope.createUnderTest(
+        handles: List<Long>,
+        shuffleEnabled: Boolean = false,
+    ): AudioPlayerServiceViewModel {
+        val dispatcher = UnconfinedTestDispatcher(testScheduler)
+        sharingScope = CoroutineScope(dispatcher)
+        whenever(getAudioNodesUseCase(any())).thenReturn(handles.map { createAudioNode(it) })
+        whenever(megaApiHttpServerIsRunningUseCase()).thenReturn(1)
+        whenever(isConnectedToInternetUseCase()).thenReturn(false)
+        whenever(monitorAudioShuffleEnabledUseCase()).thenReturn(flowOf(shuffleEnabled))
+
+        return AudioPlayerServiceViewModel(
+            context = InstrumentationRegistry.getInstrumentation().targetContext,
+            offlineThumbnailFileWrapper = mock(),
+            monitorTransferEventsUseCase = monitorTransferEventsUseCase,
+            sharingScope = sharingScope,
+            ioDispatcher = dispatcher,
+            playlistItemMapper = { handle, name, thumbnail, index, type, size, duration ->
+                PlaylistItem(
+                    nodeHandle = handle,
+                    nodeName = name,
+                    thumbnail = thumbnail,
+                    index = index,
+                    type = type,
+                    size = size,
+                    duration = duration,
+                )
+            },
+            megaApiFolderHttpServerSetMaxBufferSizeUseCase = mock(),
+            megaApiFolderHttpServerIsRunningUseCase = mock(),
+            megaApiFolderHttpServerStartUseCase = mock(),
+            megaApiFolderHttpServerStopUseCase = mock(),
+            megaApiHttpServerSetMaxBufferSizeUseCase = mock(),
+            megaApiHttpServerIsRunningUseCase = megaApiHttpServerIsRunningUseCase,
+            megaApiHttpServerStartUseCase = mock(),
+            megaApiHttpServerStop = mock(),
+            areCredentialsNullUseCase = mock(),
+            getLocalFilePathUseCase = mock(),
+            getLocalFolderLinkFromMegaApiFolderUseCase = mock(),
+            getLocalFolderLinkFromMegaApiUseCase = mock(),
+            getLocalLinkFromMegaApiUseCase = getLocalLinkFromMegaApiUseCase,
+            getThumbnailFromMegaApiUseCase = mock(),
+            getThumbnailFromMegaApiFolderUseCase = mock(),
+            getBackupsNodeUseCase = mock(),
+            getParentNodeFromMegaApiFolderUseCase = mock(),
+            getRootNodeUseCase = mock(),
+            getRootNodeFromMegaApiFolderUseCase = mock(),
+            getRubbishNodeUseCase = mock(),
+            getNodeByHandleUseCase = mock(),
+            getAudioNodesFromPublicLinksUseCase = mock(),
+            getAudioNodesFromInSharesUseCase = mock(),
+            getAudioNodesFromOutSharesUseCase = mock(),
+            getAudioNodesUseCase = getAudioNodesUseCase,
+            getAudioNodesByEmailUseCase = mock(),
+            getUserNameByEmailUseCase = mock(),
+            getAudiosByParentHandleFromMegaApiFolderUseCase = mock(),
+            getAudioNodesByParentHandleUseCase = mock(),
+            getNodesByHandlesUseCase = mock(),
+            getFingerprintUseCase = mock(),
+            fileDurationMapper = { 0 },
+            monitorAudioBackgroundPlayEnabledUseCase = monitorAudioBackgroundPlayEnabledUseCase,
+            monitorAudioShuffleEnabledUseCase = monitorAudioShuffleEnabledUseCase,
+            monitorAudioRepeatModeUseCase = monitorAudioRepeatModeUseCase,
+            setAudioBackgroundPlayEnabledUseCase = mock(),
+            setAudioShuffleEnabledUseCase = mock(),
+            setAudioRepeatModeUseCase = mock(),
+            isConnectedToInternetUseCase = isConnectedToInternetUseCase,
+        )
+    }
+
+    private fun createAudioNode(handle: Long) = mock<TypedFileNode> {
+        on { id }.thenReturn(NodeId(handle))
+        on { name }.thenReturn("audio $handle.mp3")
+        on { size }.thenReturn(handle)
+        on { type }.thenReturn(mock())
+        on { thumbnailPath }.thenReturn(null)
+    }
+
+    private fun createIntent(firstPlayHandle: Long) = Intent().apply {
+        data = Uri.parse("http://localhost/$firstPlayHandle")
+        putExtra(INTENT_EXTRA_KEY_ADAPTER_TYPE, AUDIO_BROWSE_ADAPTER)
+        putExtra(INTENT_EXTRA_KEY_HANDLE, firstPlayHandle)
+        putExtra(INTENT_EXTRA_KEY_FILE_NAME, "audio $firstPlayHandle.mp3")
+    }
+}
@@ -0,0 +1,160 @@
+package test.mega.privacy.android.app.textEditor
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.textEditor.Pagination
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.io.StringWriter
+
+class PaginationTest {
+
+    @TempDir
+    lateinit var directory: File
+
+    private val line = "a".repeat(99) + "\n"
+    private val text = line.repeat(1_000) + "end"
+
+    private fun createFile(content: String) =
+        File(directory, "text.txt").apply { writeText(content) }
+
+    private fun Pagination.allPages(): List<String?> {
+        val pages = mutableListOf(getCurrentPageText())
+        while (shouldShowNext()) {
+            nextPage()
+            pages.add(getCurrentPageText())
+        }
+        return pages
+    }
+
+    @Test
+    fun `test that a file is split in the same pages as its text`() {
+        val fromText = Pagination(text).allPages()
+        val fromFile = Pagination(createFile(text)).allPages()
+
+        assertThat(fromFile).isEqualTo(fromText)
+        assertThat(fromFile.size).isGreaterThan(1)
+        assertThat(fromFile.joinToString("")).isEqualTo(text)
+    }
+
+    @Test
+    fun `test that pages of a file are indexed on demand`() {
+        val underTest = Pagination(createFile(text))
+
+        assertThat(underTest.size()).isEqualTo(1)
+        assertThat(underTest.shouldShowNext()).isTrue()
+
+        underTest.nextPage()
+
+        assertThat(underTest.size()).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that build index indexes every page`() = runTest {
+        val underTest = Pagination(createFile(text))
+
+        underTest.buildIndex()
+
+        assertThat(underTest.size()).isEqualTo(Pagination(text).allPages().size)
+    }
+
+    @Test
+    fun `test that the first line number accounts for previous pages`() {
+        val underTest = Pagination(text)
+        val firstPageLines = underTest.getCurrentPageText()!!.count { it == '\n' }
+
+        underTest.nextPage()
+
+        assertThat(underTest.getFirstLineNumber()).isEqualTo(firstPageLines + 1)
+    }
+
+    @Test
+    fun `test that the first line number accounts for lines added in previous pages`() {
+        val underTest = Pagination(text)
+        val firstPage = underTest.getCurrentPageText()!!
+        underTest.updatePage(firstPage + "\n\n")
+
+        underTest.nextPage()
+
+        assertThat(underTest.getFirstLineNumber())
+            .isEqualTo(firstPage.count { it == '\n' } + 3)
+    }
+
+    @Test
+    fun `test that restoring the original text of a page is not an edition`() {
+        val underTest = Pagination(text)
+        val original = underTest.getCurrentPageText()
+
+        underTest.updatePage("edited")
+        assertThat(underTest.isEdited()).isTrue()
+
+        underTest.updatePage(original)
+        assertThat(underTest.isEdited()).isFalse()
+    }
+
+    @Test
+    fun `test that the edited text is written with the unedited pages`() {
+        val underTest = Pagination(createFile(text))
+        underTest.nextPage()
+        underTest.updatePage("edited\n")
+        val writer = StringWriter()
+
+        underTest.writeTo(writer)
+
+        val pages = Pagination(text).allPages()
+        val expected = pages.mapIndexed { index, page -> if (index == 1) "edited\n" else page }
+            .joinToString("")
+        assertThat(writer.toString()).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the edited text is saved over the file it is read from`() {
+        val file = createFile(text)
+        val underTest = Pagination(file)
+        underTest.nextPage()
+        underTest.updatePage("edited\n")
+
+        underTest.writeTo(file)
+
+        val pages = Pagination(text).allPages()
+        val expected = pages.mapIndexed { index, page -> if (index == 1) "edited\n" else page }
+            .joinToString("")
+        assertThat(file.readText()).isEqualTo(expected)
+        assertThat(directory.listFiles()?.map { it.name }).containsExactly(file.name)
+        underTest.previousPage()
+        assertThat(underTest.getCurrentPageText()).isEqualTo(pages.first())
+        underTest.close()
+    }
+
+    @Test
+    fun `test that edition finished keeps the edited text as original`() {
+        val underTest = Pagination(text)
+        underTest.updatePage("edited")
+
+        underTest.editionFinished()
+
+        assertThat(underTest.isEdited()).isFalse()
+        assertThat(underTest.getCurrentPageText()).isEqualTo("edited")
+    }
+
+    @Test
+    fun `test that a long line of a file is split at a char boundary`() {
+        val content = "é".repeat(1_000_000)
+        val underTest = Pagination(createFile(content))
+
+        val pages = underTest.allPages()
+
+        assertThat(pages.size).isGreaterThan(1)
+        assertThat(pages.joinToString("")).isEqualTo(content)
+    }
+
+    @Test
+    fun `test that an empty text has one empty page`() {
+        val underTest = Pagination()
+
+        assertThat(underTest.size()).isEqualTo(1)
+        assertThat(underTest.getCurrentPageText()).isEmpty()
+        assertThat(underTest.shouldShowNext()).isFalse()
+    }
+}
@@ -0,0 +1,143 @@
+package test.mega.privacy.android.app.zippreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.zippreview.domain.DefaultZipFileRepository
+import mega.privacy.android.app.zippreview.domain.FileType
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class DefaultZipFileRepositoryTest {
+
+    @TempDir
+    lateinit var directory: File
+
+    private lateinit var underTest: DefaultZipFileRepository
+
+    @BeforeEach
+    fun setUp() {
+        underTest = DefaultZipFileRepository(UnconfinedTestDispatcher())
+    }
+
+    private fun createZip(vararg entries: Pair<String, String>): ZipFile {
+        val file = File(directory, "test.zip")
+        ZipOutputStream(file.outputStream()).use { outputStream ->
+            entries.forEach { (name, content) ->
+                outputStream.putNextEntry(ZipEntry(name))
+                outputStream.write(content.toByteArray())
+                outputStream.closeEntry()
+            }
+        }
+        return ZipFile(file)
+    }
+
+    @Test
+    fun `test that the tree includes folders missing from the entries`() = runTest {
+        val zipFile = createZip("a/b/c.txt" to "c", "d.zip" to "d")
+
+        underTest.initZipTreeNode(zipFile).toList()
+
+        val root = underTest.updateZipInfoList(zipFile, "")
+        assertThat(root.map { it.name to it.fileType })
+            .containsExactly("a" to FileType.FOLDER, "d.zip" to FileType.ZIP)
+        val folder = underTest.updateZipInfoList(zipFile, "a/b/")
+        assertThat(folder.map { it.path }).containsExactly("a/b/c.txt")
+        assertThat(folder.single().parent).isEqualTo("a/b")
+    }
+
+    @Test
+    fun `test that the entries are indexed in batches`() = runTest {
+        val entries = (1..2_500).map { "file$it.txt" to "" }.toTypedArray()
+        val zipFile = createZip(*entries)
+
+        val progress = underTest.initZipTreeNode(zipFile).toList()
+
+        assertThat(progress).containsExactly(1_000, 2_000, 2_500).inOrder()
+        assertThat(underTest.updateZipInfoList(zipFile, "")).hasSize(2_500)
+    }
+
+    @Test
+    fun `test that only the requested entry is extracted`() = runTest {
+        val zipFile = createZip("a/b.txt" to "b", "c.txt" to "c")
+        val unzipRoot = File(directory, "test")
+
+        val file = underTest.unzipEntry(zipFile, "a/b.txt", unzipRoot.path)
+
+        assertThat(file?.readText()).isEqualTo("b")
+        assertThat(File(unzipRoot, "c.txt").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that several entries are extracted skipping the missing ones`() = runTest {
+        val zipFile = createZip("a/b.jpg" to "b", "a/c.jpg" to "c", "d.txt" to "d")
+        val unzipRoot = File(directory, "test")
+
+        val files = underTest.unzipEntries(
+            zipFile = zipFile,
+            entryPaths = listOf("a/b.jpg", "a/c.jpg", "a/e.jpg"),
+            unzipRootPath = unzipRoot.path,
+        )
+
+        assertThat(files.map { it.readText() }).containsExactly("b", "c").inOrder()
+        assertThat(File(unzipRoot, "d.txt").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that an entry requested while extracted in the background is extracted whole`() =
+        runTest {
+            val content = "a".repeat(1_000_000)
+            val zipFile = createZip("a.jpg" to content)
+            val unzipRoot = File(directory, "test")
+            underTest = DefaultZipFileRepository(Dispatchers.IO)
+
+            val files = listOf(
+                async { underTest.unzipEntries(zipFile, listOf("a.jpg"), unzipRoot.path) },
+                async { listOfNotNull(underTest.unzipEntry(zipFile, "a.jpg", unzipRoot.path)) },
+            ).awaitAll().flatten()
+
+            assertThat(files.map { it.readText() }).containsExactly(content, content)
+            assertThat(unzipRoot.list()).asList().containsExactly("a.jpg")
+        }
+
+    @Test
+    fun `test that an extracted entry is not extracted again`() = runTest {
+        val zipFile = createZip("a.txt" to "a")
+        val unzipRoot = File(directory, "test")
+        val extracted = underTest.unzipEntry(zipFile, "a.txt", unzipRoot.path)
+        extracted?.setLastModified(0)
+
+        val file = underTest.unzipEntry(zipFile, "a.txt", unzipRoot.path)
+
+        assertThat(file).isEqualTo(extracted)
+        assertThat(file?.lastModified()).isEqualTo(0L)
+    }
+
+    @Test
+    fun `test that entries outside of the unzip folder are not extracted`() = runTest {
+        val zipFile = createZip("../evil.txt" to "evil")
+
+        val file = underTest.unzipEntry(zipFile, "../evil.txt", File(directory, "test").path)
+
+        assertThat(file).isNull()
+        assertThat(File(directory, "evil.txt").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that a missing entry returns null`() = runTest {
+        val zipFile = createZip("a.txt" to "a")
+
+        assertThat(underTest.unzipEntry(zipFile, "b.txt", directory.path)).isNull()
+    }
+}
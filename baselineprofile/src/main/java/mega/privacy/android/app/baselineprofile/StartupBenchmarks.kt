@@ -2,8 +2,10 @@ package mega.privacy.android.app.baselineprofile
 
 import androidx.benchmark.macro.BaselineProfileMode
 import androidx.benchmark.macro.CompilationMode
+import androidx.benchmark.macro.ExperimentalMetricApi
 import androidx.benchmark.macro.StartupMode
 import androidx.benchmark.macro.StartupTimingMetric
+import androidx.benchmark.macro.TraceSectionMetric
 import androidx.benchmark.macro.junit4.MacrobenchmarkRule
 import androidx.test.ext.junit.runners.AndroidJUnit4
 import androidx.test.filters.LargeTest
@@ -45,10 +47,16 @@ class StartupBenchmarks {
     fun startupCompilationBaselineProfiles() =
         benchmark(CompilationMode.Partial(BaselineProfileMode.Require))
 
+    @OptIn(ExperimentalMetricApi::class)
     private fun benchmark(compilationMode: CompilationMode) {
         rule.measureRepeated(
             packageName = "mega.privacy.android.app",
-            metrics = listOf(StartupTimingMetric()),
+            metrics = listOf(
+                StartupTimingMetric(),
+                // Emoji setup on the main thread, the emoji data is built in the background
+                TraceSectionMetric("EmojiInitializer.create"),
+                TraceSectionMetric("EmojiManager.install"),
+            ),
             compilationMode = compilationMode,
             startupMode = StartupMode.COLD,
             iterations = 10,
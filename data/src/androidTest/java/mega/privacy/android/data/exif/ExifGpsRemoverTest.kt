@@ -0,0 +1,105 @@
+package mega.privacy.android.data.exif
+
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.graphics.Color
+import androidx.exifinterface.media.ExifInterface
+import androidx.test.platform.app.InstrumentationRegistry
+import com.google.common.truth.Truth.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+
+/**
+ * Checks the images copied by [ExifGpsRemover] with [ExifInterface]
+ */
+class ExifGpsRemoverTest {
+    private lateinit var directory: File
+
+    @Before
+    fun setUp() {
+        directory = File(
+            InstrumentationRegistry.getInstrumentation().targetContext.cacheDir,
+            "exif_gps_remover"
+        ).apply { mkdirs() }
+    }
+
+    @After
+    fun tearDown() {
+        directory.deleteRecursively()
+    }
+
+    @Test
+    fun test_that_the_copy_of_a_jpeg_image_has_no_gps_coordinates() {
+        val source = createJpegWithGps()
+        val destination = File(directory, "destination.jpg")
+
+        assertThat(ExifGpsRemover.copyWithoutGps(source, destination)).isTrue()
+
+        val exif = ExifInterface(destination.absolutePath)
+        assertThat(exif.latLong).isNull()
+        assertThat(exif.getAttribute(ExifInterface.TAG_GPS_LATITUDE)).isNull()
+        assertThat(exif.getAttribute(ExifInterface.TAG_GPS_LONGITUDE)).isNull()
+        assertThat(exif.getAttribute(ExifInterface.TAG_GPS_ALTITUDE)).isNull()
+    }
+
+    @Test
+    fun test_that_the_copy_of_a_jpeg_image_keeps_the_other_metadata_and_the_image() {
+        val source = createJpegWithGps()
+        val destination = File(directory, "destination.jpg")
+
+        ExifGpsRemover.copyWithoutGps(source, destination)
+
+        val exif = ExifInterface(destination.absolutePath)
+        assertThat(exif.getAttribute(ExifInterface.TAG_MAKE)).isEqualTo(MAKE)
+        assertThat(exif.getAttribute(ExifInterface.TAG_DATETIME_ORIGINAL))
+            .isEqualTo(DATE_TIME)
+        assertThat(exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, 0))
+            .isEqualTo(ExifInterface.ORIENTATION_ROTATE_90)
+        assertThat(destination.length()).isEqualTo(source.length())
+
+        val bitmap = BitmapFactory.decodeFile(destination.absolutePath)
+        assertThat(bitmap.width).isEqualTo(WIDTH)
+        assertThat(bitmap.height).isEqualTo(HEIGHT)
+    }
+
+    @Test
+    fun test_that_the_source_image_is_not_modified() {
+        val source = createJpegWithGps()
+        val content = source.readBytes()
+
+        ExifGpsRemover.copyWithoutGps(source, File(directory, "destination.jpg"))
+
+        assertThat(source.readBytes()).isEqualTo(content)
+        assertThat(ExifInterface(source.absolutePath).latLong).isNotNull()
+    }
+
+    private fun createJpegWithGps(): File {
+        val file = File(directory, "source.jpg")
+        val bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888).apply {
+            eraseColor(Color.RED)
+        }
+        file.outputStream().use { bitmap.compress(Bitmap.CompressFormat.JPEG, 90, it) }
+        ExifInterface(file.absolutePath).apply {
+            setAttribute(ExifInterface.TAG_MAKE, MAKE)
+            setAttribute(ExifInterface.TAG_DATETIME_ORIGINAL, DATE_TIME)
+            setAttribute(
+                ExifInterface.TAG_ORIENTATION,
+                ExifInterface.ORIENTATION_ROTATE_90.toString()
+            )
+            setLatLong(40.4168, -3.7038)
+            setAltitude(650.0)
+            saveAttributes()
+        }
+        assertThat(ExifInterface(file.absolutePath).latLong).isNotNull()
+        return file
+    }
+
+    companion object {
+        private const val WIDTH = 64
+        private const val HEIGHT = 48
+        private const val MAKE = "MEGA"
+        private const val DATE_TIME = "2023:01:02 03:04:05"
+    }
+}
@@ -4,8 +4,10 @@ import android.content.Context
 import androidx.test.platform.app.InstrumentationRegistry
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.constant.CacheFolderConstant
 import org.junit.After
 import org.junit.Assert.fail
@@ -27,6 +29,11 @@ class CacheGatewayImplTest {
         underTest = CacheGatewayImpl(
             context = context,
             ioDispatcher = UnconfinedTestDispatcher(),
+            diskCacheManager = DiskCacheManager(
+                context = context,
+                ioDispatcher = UnconfinedTestDispatcher(),
+                applicationScope = TestScope(),
+            ),
         )
     }
 
@@ -239,7 +246,7 @@ class CacheGatewayImplTest {
      */
     @Test
     fun test_that_getFullSizeCacheFolder_returns_the_folder_if_exist() = runTest {
-        val folderName = CacheFolderConstant.TEMPORARY_FOLDER
+        val folderName = CacheFolderConstant.FULL_SIZE_FOLDER
         val expected = File(context.cacheDir, folderName)
         createDirectory(expected)
 
@@ -254,7 +261,7 @@ class CacheGatewayImplTest {
     @Test
     fun test_that_getFullSizeCacheFolder_creates_the_folder_in_cacheDir_if_not_exist_and_return_it() =
         runTest {
-            val folderName = CacheFolderConstant.TEMPORARY_FOLDER
+            val folderName = CacheFolderConstant.FULL_SIZE_FOLDER
             val expected = File(context.cacheDir, folderName)
 
             assertThat(expected.exists()).isEqualTo(false)
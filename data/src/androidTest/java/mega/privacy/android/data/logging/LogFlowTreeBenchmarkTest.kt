@@ -0,0 +1,98 @@
+package mega.privacy.android.data.logging
+
+import android.util.Log
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import mega.privacy.android.domain.entity.logging.LogEntry
+import mega.privacy.android.domain.usecase.CreateLogEntry
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import timber.log.Timber
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.concurrent.thread
+
+/**
+ * Measures the lines per second accepted by [LogFlowTree] while several threads log like the sdk
+ * does with verbose logging enabled, and checks that every line is either written or counted
+ * as dropped
+ */
+@RunWith(AndroidJUnit4::class)
+class LogFlowTreeBenchmarkTest {
+    private lateinit var underTest: LogFlowTree
+    private lateinit var consumer: ExecutorService
+
+    private val writtenEntries = AtomicLong()
+
+    @Before
+    fun setUp() {
+        consumer = Executors.newSingleThreadExecutor()
+        underTest = LogFlowTree(
+            dispatcher = consumer.asCoroutineDispatcher(),
+            createLogEntry = CreateLogEntry {
+                LogEntry(it.tag, it.message, null, it.priority.intValue, it.throwable)
+            },
+        )
+        Timber.plant(underTest)
+    }
+
+    @After
+    fun tearDown() {
+        Timber.uproot(underTest)
+        consumer.shutdownNow()
+    }
+
+    @Test
+    fun test_sdkVerboseLoggingThroughput() = runBlocking {
+        val collector = launch(consumer.asCoroutineDispatcher()) {
+            underTest.logFlow.collect { writtenEntries.incrementAndGet() }
+        }
+        underTest.logFlow.subscriptionCount.first { it > 0 }
+
+        val start = CountDownLatch(1)
+        val startTime = System.nanoTime()
+        val threads = List(LOGGING_THREADS) { threadIndex ->
+            thread {
+                start.await()
+                repeat(LINES_PER_THREAD) {
+                    Timber.tag("[sdk]").v("Benchmark line $it of thread $threadIndex $SDK_SOURCE")
+                }
+            }
+        }
+        start.countDown()
+        threads.forEach { it.join() }
+        val elapsedNanos = System.nanoTime() - startTime
+
+        withTimeout(TimeUnit.SECONDS.toMillis(30)) {
+            while (writtenEntries.get() < underTest.stats.enqueued) delay(10)
+        }
+        collector.cancel()
+
+        val stats = underTest.stats
+        val totalLines = LOGGING_THREADS * LINES_PER_THREAD.toLong()
+        val linesPerSecond = totalLines * TimeUnit.SECONDS.toNanos(1) / elapsedNanos
+        Log.i(TAG, "$linesPerSecond lines/s logged, $stats")
+
+        assertThat(stats.enqueued + stats.dropped).isEqualTo(totalLines)
+        assertThat(stats.written).isEqualTo(stats.enqueued)
+        assertThat(writtenEntries.get()).isEqualTo(stats.written)
+    }
+
+    companion object {
+        private const val TAG = "LogFlowTreeBenchmark"
+        private const val LOGGING_THREADS = 4
+        private const val LINES_PER_THREAD = 10_000
+        private const val SDK_SOURCE = "(src/megaclient.cpp:1234)"
+    }
+}
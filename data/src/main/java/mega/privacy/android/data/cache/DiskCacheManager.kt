@@ -0,0 +1,109 @@
+package mega.privacy.android.data.cache
+
+import android.content.Context
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Keeps the thumbnail, preview and full size cache folders within their byte budgets
+ *
+ * Accesses to the files of those folders are recorded in a [DiskLruIndex] per folder, and the
+ * folders are trimmed in the background a few seconds after being used.
+ *
+ * The temporary folder is not managed, as it also holds the sources of pending uploads and
+ * downloads being moved to their destination.
+ */
+@Singleton
+internal class DiskCacheManager @Inject constructor(
+    @ApplicationContext context: Context,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    @ApplicationScope private val applicationScope: CoroutineScope,
+) {
+    private val indexes = mapOf(
+        CacheFolderConstant.THUMBNAIL_FOLDER to THUMBNAIL_FOLDER_MAX_BYTES,
+        CacheFolderConstant.PREVIEW_FOLDER to PREVIEW_FOLDER_MAX_BYTES,
+        CacheFolderConstant.FULL_SIZE_FOLDER to FULL_SIZE_FOLDER_MAX_BYTES,
+    ).mapValues { (folderName, maxBytes) ->
+        DiskLruIndex(File(context.cacheDir, folderName), maxBytes)
+    }
+
+    private val trimScheduled = AtomicBoolean(false)
+
+    /**
+     * Record an access to a cached file, if its folder is managed
+     *
+     * @param folderName name of the cache folder
+     * @param fileName name of the file
+     */
+    fun recordAccess(folderName: String, fileName: String) {
+        indexes[folderName]?.let {
+            it.recordAccess(fileName)
+            scheduleTrim()
+        }
+    }
+
+    /**
+     * Trim the managed folders in the background, unless a trim is already scheduled
+     */
+    fun scheduleTrim() {
+        if (!trimScheduled.compareAndSet(false, true)) return
+        applicationScope.launch(ioDispatcher) {
+            delay(TRIM_DELAY_MILLIS)
+            trimScheduled.set(false)
+            trim()
+        }
+    }
+
+    /**
+     * Trim the managed folders now
+     */
+    suspend fun trim() = withContext(ioDispatcher) {
+        indexes.forEach { (folderName, index) ->
+            runCatching { index.trim() }
+                .onSuccess {
+                    if (it.evictedFiles > 0) {
+                        Timber.d("Trimmed $folderName: $it, budget ${index.maxBytes}")
+                    }
+                }
+                .onFailure { Timber.e(it, "Error trimming $folderName") }
+        }
+    }
+
+    /**
+     * Forget the files of the managed folders, after the cache has been cleared
+     */
+    fun reset() {
+        indexes.values.forEach { it.reset() }
+    }
+
+    companion object {
+        /**
+         * Byte budget of the thumbnail folder
+         */
+        const val THUMBNAIL_FOLDER_MAX_BYTES = 128L * 1024 * 1024
+
+        /**
+         * Byte budget of the preview folder
+         */
+        const val PREVIEW_FOLDER_MAX_BYTES = 512L * 1024 * 1024
+
+        /**
+         * Byte budget of the full size folder
+         */
+        const val FULL_SIZE_FOLDER_MAX_BYTES = 1024L * 1024 * 1024
+
+        private const val TRIM_DELAY_MILLIS = 5_000L
+    }
+}
@@ -0,0 +1,227 @@
+package mega.privacy.android.data.cache
+
+import java.io.File
+
+/**
+ * Least recently used index of the files of a cache folder, bounded by bytes
+ *
+ * Accesses are only recorded in memory, and are appended to a journal in the folder when the
+ * index is trimmed, so the order survives restarts without reading the access time of every file.
+ * Files written to the folder without going through the index, as the SDK downloads, are picked up
+ * on the next [trim], which only reads the size of the files it does not know yet.
+ *
+ * Files modified less than [minAgeMillis] ago are never evicted, so files still being written or
+ * just handed to a caller are kept even when the folder is over budget.
+ *
+ * @property directory cache folder
+ * @property maxBytes byte budget of the folder
+ * @param minAgeMillis minimum age of the files which can be evicted
+ * @param clock wall clock, compared with the modification time of the files
+ */
+internal class DiskLruIndex(
+    val directory: File,
+    val maxBytes: Long,
+    private val minAgeMillis: Long = DEFAULT_MIN_AGE_MILLIS,
+    private val clock: () -> Long = System::currentTimeMillis,
+) {
+    private class Entry(var size: Long)
+
+    private val lock = Any()
+    private val entries = LinkedHashMap<String, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+    private val pendingLines = ArrayList<String>()
+    private var journalLines = 0
+    private var loaded = false
+
+    /**
+     * Record an access to a file of the folder
+     *
+     * @param fileName name of the file, which does not need to exist yet
+     */
+    fun recordAccess(fileName: String) {
+        if (!isValidName(fileName)) return
+        synchronized(lock) {
+            if (entries[fileName] == null) entries[fileName] = Entry(UNKNOWN_SIZE)
+            if (pendingLines.size < MAX_PENDING_LINES) pendingLines.add("$READ $fileName")
+        }
+    }
+
+    /**
+     * Forget every file, after the folder has been deleted
+     */
+    fun reset() {
+        synchronized(lock) {
+            entries.clear()
+            pendingLines.clear()
+            journalLines = 0
+            loaded = false
+        }
+    }
+
+    /**
+     * Evict the least recently used files until the folder fits in [maxBytes]
+     *
+     * Reads the journal on the first call. Performs disk IO, so it must not be called on the main
+     * thread.
+     *
+     * @return the size of the folder and the evicted files
+     */
+    fun trim(): DiskTrimResult {
+        val journal = File(directory, JOURNAL_FILE)
+        val restored = if (synchronized(lock) { loaded }) null else readJournal(journal)
+        val names = directory.list()
+            ?.filterTo(HashSet()) {
+                it != JOURNAL_FILE && it != JOURNAL_TEMP_FILE && isValidName(it)
+            }
+            ?: return DiskTrimResult(0, 0, 0)
+
+        val known = synchronized(lock) {
+            if (restored != null) {
+                // Accesses recorded before the journal was read are the most recent ones
+                entries.forEach { (name, entry) ->
+                    if (restored[name] == null) restored[name] = entry
+                }
+                entries.clear()
+                entries.putAll(restored)
+                loaded = true
+            }
+            entries.mapValuesTo(HashMap()) { it.value.size }
+        }
+        val newFiles = names.filterNot { known.containsKey(it) }
+            .map { File(directory, it) }
+            .map { Triple(it.name, it.lastModified(), it.length()) }
+            .sortedBy { it.second }
+        val measured = known.filter { it.value == UNKNOWN_SIZE && it.key in names }
+            .mapValues { File(directory, it.key).length() }
+
+        val evicted = ArrayList<String>()
+        val lines = ArrayList<String>()
+        var evictedBytes = 0L
+        val totalBytes: Long
+        val compacted: List<String>?
+        synchronized(lock) {
+            newFiles.forEach { (name, _, size) ->
+                if (!entries.containsKey(name)) {
+                    entries[name] = Entry(size)
+                    lines.add("$SIZE $size $name")
+                }
+            }
+            var total = 0L
+            val iterator = entries.entries.iterator()
+            while (iterator.hasNext()) {
+                val (name, entry) = iterator.next()
+                measured[name]?.let {
+                    entry.size = it
+                    lines.add("$SIZE $it $name")
+                }
+                when {
+                    name in names -> total += entry.size.coerceAtLeast(0)
+                    known.containsKey(name) -> iterator.remove()
+                }
+            }
+
+            val now = clock()
+            val candidates = entries.entries.iterator()
+            while (total > maxBytes && candidates.hasNext()) {
+                val (name, entry) = candidates.next()
+                if (entry.size <= 0) continue
+                if (now - File(directory, name).lastModified() < minAgeMillis) continue
+                candidates.remove()
+                evicted.add(name)
+                lines.add("$DELETE $name")
+                total -= entry.size
+                evictedBytes += entry.size
+            }
+            totalBytes = total
+
+            lines.addAll(0, pendingLines)
+            pendingLines.clear()
+            journalLines += lines.size
+            compacted = if (journalLines > maxOf(COMPACT_THRESHOLD, entries.size * 2)) {
+                entries.map { (name, entry) -> "$SIZE ${entry.size} $name" }
+                    .also { journalLines = it.size }
+            } else null
+        }
+
+        evicted.forEach { File(directory, it).delete() }
+        if (compacted != null) {
+            writeJournal(journal, compacted)
+        } else if (lines.isNotEmpty()) {
+            journal.appendText(lines.joinToString(separator = "\n", postfix = "\n"))
+        }
+        return DiskTrimResult(totalBytes, evicted.size, evictedBytes)
+    }
+
+    private fun readJournal(journal: File): LinkedHashMap<String, Entry> {
+        val restored = LinkedHashMap<String, Entry>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+        if (!journal.exists()) return restored
+        var count = 0
+        runCatching {
+            journal.forEachLine { line ->
+                count++
+                when (line.substringBefore(' ')) {
+                    SIZE -> {
+                        val parts = line.split(' ', limit = 3)
+                        val size = parts.getOrNull(1)?.toLongOrNull()
+                        val name = parts.getOrNull(2)
+                        if (size != null && name != null) restored[name] = Entry(size)
+                    }
+                    READ -> line.substringAfter(' ').let { name ->
+                        if (restored[name] == null) restored[name] = Entry(UNKNOWN_SIZE)
+                    }
+                    DELETE -> restored.remove(line.substringAfter(' '))
+                }
+            }
+        }.onFailure {
+            // A corrupted journal only loses the access order, the folder is listed anyway
+            restored.clear()
+            journal.delete()
+            count = 0
+        }
+        synchronized(lock) { journalLines = count }
+        return restored
+    }
+
+    private fun writeJournal(journal: File, lines: List<String>) {
+        val temp = File(directory, JOURNAL_TEMP_FILE)
+        temp.writeText(lines.joinToString(separator = "\n", postfix = "\n"))
+        if (!temp.renameTo(journal)) temp.delete()
+    }
+
+    private fun isValidName(fileName: String) =
+        fileName.isNotEmpty() && '\n' !in fileName && '/' !in fileName
+
+    companion object {
+        /**
+         * Name of the journal in the cache folder
+         */
+        const val JOURNAL_FILE = ".lru-journal"
+
+        /**
+         * Default minimum age of the files which can be evicted
+         */
+        const val DEFAULT_MIN_AGE_MILLIS = 60 * 60 * 1000L
+
+        private const val JOURNAL_TEMP_FILE = ".lru-journal.tmp"
+        private const val SIZE = "S"
+        private const val READ = "R"
+        private const val DELETE = "D"
+        private const val UNKNOWN_SIZE = -1L
+        private const val INITIAL_CAPACITY = 256
+        private const val LOAD_FACTOR = 0.75f
+        private const val MAX_PENDING_LINES = 10_000
+        private const val COMPACT_THRESHOLD = 2_000
+    }
+}
+
+/**
+ * Result of [DiskLruIndex.trim]
+ *
+ * @property totalBytes size of the folder after trimming
+ * @property evictedFiles number of files deleted
+ * @property evictedBytes bytes freed
+ */
+internal data class DiskTrimResult(
+    val totalBytes: Long,
+    val evictedFiles: Int,
+    val evictedBytes: Long,
+)
@@ -0,0 +1,107 @@
+package mega.privacy.android.data.cache
+
+import mega.privacy.android.domain.entity.photos.Photo
+import java.util.TreeSet
+
+/**
+ * In-memory index of the timeline photos, kept sorted by modification time (newest first)
+ *
+ * The index is meant to be updated incrementally from node updates instead of re-running the
+ * whole account search. Snapshots are only rebuilt after a change, and photos that did not
+ * change keep the same instance across snapshots so list diffing stays cheap.
+ *
+ * The index is not thread safe, callers must serialise access.
+ */
+internal class TimelinePhotosIndex {
+    private val photosById = HashMap<Long, Photo>()
+    private val sortedPhotos = TreeSet(TIMELINE_ORDER)
+    private var snapshot: List<Photo>? = null
+
+    /**
+     * True if the index has been populated by a full rebuild
+     */
+    var isInitialised: Boolean = false
+        private set
+
+    /**
+     * Number of photos in the index
+     */
+    val size: Int
+        get() = photosById.size
+
+    /**
+     * Replace the whole content of the index
+     *
+     * @param photos
+     */
+    fun rebuild(photos: List<Photo>) {
+        photosById.clear()
+        sortedPhotos.clear()
+        photos.forEach { insert(it) }
+        snapshot = null
+        isInitialised = true
+    }
+
+    /**
+     * Insert or replace a photo
+     *
+     * @param photo
+     * @return true if the index changed
+     */
+    fun upsert(photo: Photo): Boolean {
+        val existing = photosById[photo.id]
+        if (existing == photo) return false
+        existing?.let { sortedPhotos.remove(it) }
+        insert(photo)
+        snapshot = null
+        return true
+    }
+
+    /**
+     * Remove a photo
+     *
+     * @param id photo id
+     * @return true if the index changed
+     */
+    fun remove(id: Long): Boolean {
+        val existing = photosById.remove(id) ?: return false
+        sortedPhotos.remove(existing)
+        snapshot = null
+        return true
+    }
+
+    /**
+     * Get a photo by id
+     *
+     * @param id photo id
+     */
+    operator fun get(id: Long): Photo? = photosById[id]
+
+    /**
+     * Get the sorted content of the index
+     *
+     * The returned list is immutable and reused until the next change.
+     */
+    fun snapshot(): List<Photo> =
+        snapshot ?: sortedPhotos.toList().also { snapshot = it }
+
+    /**
+     * Clear the index, a new [rebuild] is required afterwards
+     */
+    fun clear() {
+        photosById.clear()
+        sortedPhotos.clear()
+        snapshot = null
+        isInitialised = false
+    }
+
+    private fun insert(photo: Photo) {
+        photosById.put(photo.id, photo)?.let { sortedPhotos.remove(it) }
+        sortedPhotos.add(photo)
+    }
+
+    companion object {
+        private val TIMELINE_ORDER: Comparator<Photo> =
+            compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+    }
+}
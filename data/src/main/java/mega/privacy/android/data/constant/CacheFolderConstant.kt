@@ -21,6 +21,11 @@ object CacheFolderConstant {
      */
     const val TEMPORARY_FOLDER = "tempMEGA"
 
+    /**
+     * Full Size Folder
+     */
+    const val FULL_SIZE_FOLDER = "fullSizeMEGA"
+
     /**
      * Avatar Folder
      */
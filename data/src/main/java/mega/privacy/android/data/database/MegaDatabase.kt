@@ -84,6 +84,32 @@ internal abstract class MegaDatabase : RoomDatabase() {
                 }
             }
         }
-        val MIGRATIONS = arrayOf(MIGRATION_67_68, MIGRATION_68_69, MIGRATION_70_71, MIGRATION_71_72)
+        private val MIGRATION_74_75 = object : Migration(74, 75) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Add a plain timestamp column to sort and page completed transfers, existing rows
+                // are filled the first time completed transfers are read.
+                database.execSQL("ALTER TABLE completedtransfers ADD COLUMN transfersorttimestamp INTEGER")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_completedtransfers_transfersorttimestamp_id` ON `completedtransfers` (`transfersorttimestamp`, `id`)")
+            }
+        }
+        private val MIGRATION_75_76 = object : Migration(75, 76) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Index the columns used to look up sync records
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_filepath_origin_sync_secondary` ON `syncrecords` (`sync_filepath_origin`, `sync_secondary`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_filepath_new` ON `syncrecords` (`sync_filepath_new`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_fingerprint_origin` ON `syncrecords` (`sync_fingerprint_origin`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_fingerprint_new` ON `syncrecords` (`sync_fingerprint_new`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_state_sync_type` ON `syncrecords` (`sync_state`, `sync_type`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_secondary` ON `syncrecords` (`sync_secondary`)")
+            }
+        }
+        val MIGRATIONS = arrayOf(
+            MIGRATION_67_68,
+            MIGRATION_68_69,
+            MIGRATION_70_71,
+            MIGRATION_71_72,
+            MIGRATION_74_75,
+            MIGRATION_75_76,
+        )
     }
 }
@@ -8,7 +8,7 @@ object MegaDatabaseConstant {
     /**
      * Database Version
      */
-    const val DATABASE_VERSION = 74
+    const val DATABASE_VERSION = 76
 
     /**
      * Database Name
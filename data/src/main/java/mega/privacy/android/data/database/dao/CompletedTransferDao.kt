@@ -5,6 +5,7 @@ import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
 
@@ -13,6 +14,27 @@ internal interface CompletedTransferDao {
     @Query("SELECT * FROM completedtransfers")
     fun getAllCompletedTransfers(): Flow<List<CompletedTransferEntity>>
 
+    @Query("SELECT * FROM completedtransfers ORDER BY transfersorttimestamp DESC, id DESC LIMIT :limit")
+    fun getCompletedTransfers(limit: Int): Flow<List<CompletedTransferEntity>>
+
+    @Query(
+        "SELECT * FROM completedtransfers " +
+                "WHERE transfersorttimestamp < :timestamp OR (transfersorttimestamp = :timestamp AND id < :id) " +
+                "ORDER BY transfersorttimestamp DESC, id DESC LIMIT :limit"
+    )
+    fun getCompletedTransfersAfter(timestamp: Long, id: Int, limit: Int): Flow<List<CompletedTransferEntity>>
+
+    @Query("SELECT * FROM completedtransfers WHERE transfersorttimestamp IS NULL")
+    suspend fun getCompletedTransfersWithoutSortTimestamp(): List<CompletedTransferEntity>
+
+    @Query("UPDATE completedtransfers SET transfersorttimestamp = :timestamp WHERE id = :id")
+    suspend fun setCompletedTransferSortTimestamp(id: Int, timestamp: Long)
+
+    @Transaction
+    suspend fun setCompletedTransfersSortTimestamp(timestamps: Map<Int, Long>) {
+        timestamps.forEach { (id, timestamp) -> setCompletedTransferSortTimestamp(id, timestamp) }
+    }
+
     @Query("SELECT * FROM completedtransfers WHERE transferstate IN(:states)")
     fun getCompletedTransfersByState(states: List<String>): List<CompletedTransferEntity>
 
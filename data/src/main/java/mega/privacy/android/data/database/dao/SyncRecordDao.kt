@@ -28,6 +28,12 @@ internal interface SyncRecordDao {
     @Query("SELECT COUNT(id) FROM ${MegaDatabaseConstant.TABLE_SYNC_RECORDS} WHERE sync_filepath_origin = :originalPath AND sync_secondary = :secondary")
     suspend fun getSyncRecordCountByOriginalPath(originalPath: String?, secondary: String): Int
 
+    @Query("SELECT sync_filepath_origin FROM ${MegaDatabaseConstant.TABLE_SYNC_RECORDS} WHERE sync_filepath_origin IN (:originalPaths) AND sync_secondary = :secondary")
+    suspend fun getExistingOriginalPaths(
+        originalPaths: List<String>,
+        secondary: String,
+    ): List<String>
+
     @Query("SELECT * FROM ${MegaDatabaseConstant.TABLE_SYNC_RECORDS} WHERE sync_fingerprint_origin = :originalFingerprint AND sync_secondary = :secondary AND sync_copyonly = :copyOnly")
     suspend fun getSyncRecordByOriginalFingerprint(
         originalFingerprint: String?,
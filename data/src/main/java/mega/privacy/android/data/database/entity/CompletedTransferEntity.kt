@@ -2,6 +2,7 @@ package mega.privacy.android.data.database.entity
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import mega.privacy.android.data.database.MegaDatabaseConstant
 
@@ -20,9 +21,13 @@ import mega.privacy.android.data.database.MegaDatabaseConstant
  * @property error
  * @property originalPath
  * @property parentHandle
+ * @property sortTimestamp plain timestamp, only used to sort and page the completed transfers
  *
  */
-@Entity(MegaDatabaseConstant.TABLE_COMPLETED_TRANSFERS)
+@Entity(
+    MegaDatabaseConstant.TABLE_COMPLETED_TRANSFERS,
+    indices = [Index(value = ["transfersorttimestamp", "id"])]
+)
 internal data class CompletedTransferEntity(
     @PrimaryKey(autoGenerate = true)
     @ColumnInfo(name = "id") val id: Int? = null,
@@ -37,4 +42,5 @@ internal data class CompletedTransferEntity(
     @ColumnInfo(name = "transfererror") val error: String?,
     @ColumnInfo(name = "transferoriginalpath") val originalPath: String?,
     @ColumnInfo(name = "transferparenthandle") val parentHandle: String?,
+    @ColumnInfo(name = "transfersorttimestamp") val sortTimestamp: Long? = null,
 )
@@ -0,0 +1,356 @@
+package mega.privacy.android.data.exif
+
+import java.io.EOFException
+import java.io.File
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+
+/**
+ * Copies JPEG and HEIF images removing their GPS metadata in the same pass
+ *
+ * Only the headers of the source are read to locate its Exif block. The image is then copied once
+ * and the Exif block is patched in memory on its way to the destination: the GPS IFD pointer is
+ * removed from IFD0, and the GPS IFD with all its values is overwritten with zeros. The size and
+ * position of every other byte is left unchanged, so no offset of the image needs to be updated.
+ */
+internal object ExifGpsRemover {
+
+    /**
+     * Copy the source image into the destination without its GPS metadata
+     *
+     * @param source image to copy
+     * @param destination file to create
+     * @return true if the copy was made, false if the format of the image is not supported or its
+     * Exif block could not be parsed. Nothing is written to the destination in that case
+     * @throws IOException if the source cannot be read or the destination cannot be written
+     */
+    @Throws(IOException::class)
+    fun copyWithoutGps(source: File, destination: File): Boolean =
+        RandomAccessFile(source, "r").use { input ->
+            val exifBlock = runCatching {
+                when {
+                    input.isJpeg() -> input.findJpegExifBlock()
+                    input.isHeif() -> input.findHeifExifBlock()
+                    else -> return false
+                }?.also { block ->
+                    input.seek(block.start)
+                    input.readFully(block.data)
+                    block.data.removeGpsIfd()
+                }
+            }.getOrElse {
+                if (it is UnsupportedImageException || it is EOFException) return false else throw it
+            }
+
+            FileOutputStream(destination).use { output ->
+                val inputChannel = input.channel
+                val outputChannel = output.channel
+                if (exifBlock == null) {
+                    inputChannel.copyTo(outputChannel, 0, inputChannel.size())
+                } else {
+                    val exifEnd = exifBlock.start + exifBlock.data.size
+                    inputChannel.copyTo(outputChannel, 0, exifBlock.start)
+                    outputChannel.writeFully(ByteBuffer.wrap(exifBlock.data))
+                    inputChannel.copyTo(outputChannel, exifEnd, inputChannel.size() - exifEnd)
+                }
+            }
+            true
+        }
+
+    /**
+     * Remove the GPS IFD from a TIFF block
+     *
+     * The GPS IFD pointer entry is removed from IFD0 shifting the following entries, and the
+     * GPS IFD table and out of line values are overwritten with zeros
+     */
+    private fun ByteArray.removeGpsIfd() {
+        val byteOrder = when {
+            size < TIFF_HEADER_SIZE -> throw UnsupportedImageException()
+            this[0] == 'I'.code.toByte() && this[1] == 'I'.code.toByte() -> ByteOrder.LITTLE_ENDIAN
+            this[0] == 'M'.code.toByte() && this[1] == 'M'.code.toByte() -> ByteOrder.BIG_ENDIAN
+            else -> throw UnsupportedImageException()
+        }
+        val buffer = ByteBuffer.wrap(this).order(byteOrder)
+        if (buffer.getUnsignedShort(2) != TIFF_MAGIC) throw UnsupportedImageException()
+
+        val ifd0 = buffer.getOffset(4)
+        val entryCount = buffer.getUnsignedShort(ifd0)
+        val entriesStart = ifd0 + 2
+        val tableEnd = entriesStart + entryCount * IFD_ENTRY_SIZE + 4
+        checkRange(entriesStart, tableEnd)
+
+        val gpsEntry = (0 until entryCount)
+            .map { entriesStart + it * IFD_ENTRY_SIZE }
+            .firstOrNull { buffer.getUnsignedShort(it) == TAG_GPS_INFO_IFD_POINTER }
+            ?: return
+        clearIfd(buffer, buffer.getOffset(gpsEntry + 8))
+
+        copyInto(this, gpsEntry, gpsEntry + IFD_ENTRY_SIZE, tableEnd)
+        fill(0, tableEnd - IFD_ENTRY_SIZE, tableEnd)
+        buffer.putShort(ifd0, (entryCount - 1).toShort())
+    }
+
+    private fun ByteArray.clearIfd(buffer: ByteBuffer, ifd: Int) {
+        val entryCount = buffer.getUnsignedShort(ifd)
+        val tableEnd = ifd + 2 + entryCount * IFD_ENTRY_SIZE + 4
+        checkRange(ifd, tableEnd)
+        repeat(entryCount) {
+            val entry = ifd + 2 + it * IFD_ENTRY_SIZE
+            val typeSize = TYPE_SIZES.getOrNull(buffer.getUnsignedShort(entry + 2))
+                ?: throw UnsupportedImageException()
+            val valueSize = typeSize * (buffer.getInt(entry + 4).toLong() and 0xFFFFFFFFL)
+            if (valueSize > 4) {
+                val valueOffset = buffer.getOffset(entry + 8)
+                if (valueSize > size - valueOffset) throw UnsupportedImageException()
+                fill(0, valueOffset, valueOffset + valueSize.toInt())
+            }
+        }
+        fill(0, ifd, tableEnd)
+    }
+
+    private fun RandomAccessFile.isJpeg(): Boolean {
+        if (length() < 4) return false
+        seek(0)
+        return readUnsignedShort() == JPEG_SOI
+    }
+
+    /**
+     * Walk the JPEG segments up to the start of the scan, looking for the Exif APP1 segment
+     */
+    private fun RandomAccessFile.findJpegExifBlock(): ExifBlock? {
+        var position = 2L
+        while (position + 4 <= length()) {
+            seek(position)
+            if (readUnsignedByte() != 0xFF) throw UnsupportedImageException()
+            var marker = readUnsignedByte()
+            while (marker == 0xFF) marker = readUnsignedByte()
+            if (marker == JPEG_SOS || marker == JPEG_EOI) return null
+            if (marker == JPEG_TEM || marker in JPEG_RST) {
+                position = filePointer
+                continue
+            }
+
+            val segmentLength = readUnsignedShort()
+            if (segmentLength < 2) throw UnsupportedImageException()
+            val segmentEnd = filePointer - 2 + segmentLength
+            if (marker == JPEG_APP1 && segmentLength >= 2 + EXIF_HEADER.size) {
+                val header = ByteArray(EXIF_HEADER.size).also { readFully(it) }
+                if (header.contentEquals(EXIF_HEADER)) {
+                    return ExifBlock(filePointer, (segmentEnd - filePointer).toInt())
+                }
+            }
+            position = segmentEnd
+        }
+        return null
+    }
+
+    private fun RandomAccessFile.isHeif(): Boolean {
+        if (length() < 16) return false
+        seek(0)
+        val ftyp = readBoxes(0, length()).firstOrNull() ?: return false
+        if (ftyp.type != BOX_FTYP) return false
+        seek(ftyp.dataStart)
+        return (ftyp.dataStart until ftyp.end step 4)
+            .filter { it + 4 <= ftyp.end }
+            .any {
+                seek(it)
+                readInt() in HEIF_BRANDS
+            }
+    }
+
+    /**
+     * Locate the Exif item of a HEIF image from its meta box
+     */
+    private fun RandomAccessFile.findHeifExifBlock(): ExifBlock? {
+        val meta = readBoxes(0, length()).firstOrNull { it.type == BOX_META } ?: return null
+        // meta is a full box, its children start after the version and flags
+        val children = readBoxes(meta.dataStart + 4, meta.end)
+        val iinf = children.firstOrNull { it.type == BOX_IINF } ?: return null
+        val iloc = children.firstOrNull { it.type == BOX_ILOC } ?: return null
+        val exifItemId = findExifItemId(iinf) ?: return null
+        val (itemOffset, itemLength) = findItemLocation(iloc, exifItemId)
+            ?: throw UnsupportedImageException()
+
+        seek(itemOffset)
+        val tiffHeaderOffset = readInt().toLong() and 0xFFFFFFFFL
+        val tiffStart = itemOffset + 4 + tiffHeaderOffset
+        val tiffLength = itemOffset + itemLength - tiffStart
+        if (tiffLength !in TIFF_HEADER_SIZE..MAX_HEIF_EXIF_SIZE || tiffStart + tiffLength > length()) {
+            throw UnsupportedImageException()
+        }
+        return ExifBlock(tiffStart, tiffLength.toInt())
+    }
+
+    private fun RandomAccessFile.findExifItemId(iinf: Box): Long? {
+        seek(iinf.dataStart)
+        val version = readUnsignedByte()
+        skipBytes(3)
+        if (version == 0) readUnsignedShort() else readInt()
+        return readBoxes(filePointer, iinf.end)
+            .filter { it.type == BOX_INFE }
+            .firstNotNullOfOrNull { infe ->
+                seek(infe.dataStart)
+                val infeVersion = readUnsignedByte()
+                skipBytes(3)
+                if (infeVersion < 2) return@firstNotNullOfOrNull null
+                val itemId =
+                    if (infeVersion == 2) readUnsignedShort().toLong() else readUnsignedInt()
+                readUnsignedShort() // item_protection_index
+                itemId.takeIf { readInt() == ITEM_TYPE_EXIF }
+            }
+    }
+
+    /**
+     * Find the offset and length of an item, only items stored in a single extent of the file
+     * are supported
+     */
+    private fun RandomAccessFile.findItemLocation(iloc: Box, itemId: Long): Pair<Long, Long>? {
+        seek(iloc.dataStart)
+        val version = readUnsignedByte()
+        skipBytes(3)
+        val sizes = readUnsignedByte()
+        val offsetSize = sizes shr 4
+        val lengthSize = sizes and 0x0F
+        val baseSizes = readUnsignedByte()
+        val baseOffsetSize = baseSizes shr 4
+        val hasExtentIndex = version == 1 || version == 2
+        val indexSize = if (hasExtentIndex) baseSizes and 0x0F else 0
+        val itemCount = if (version < 2) readUnsignedShort().toLong() else readUnsignedInt()
+
+        for (item in 0L until itemCount) {
+            val id = if (version < 2) readUnsignedShort().toLong() else readUnsignedInt()
+            val constructionMethod = if (hasExtentIndex) readUnsignedShort() and 0x0F else 0
+            readUnsignedShort() // data_reference_index
+            val baseOffset = readSized(baseOffsetSize)
+            val extentCount = readUnsignedShort()
+            var extent: Pair<Long, Long>? = null
+            repeat(extentCount) {
+                readSized(indexSize)
+                val extentOffset = readSized(offsetSize)
+                val extentLength = readSized(lengthSize)
+                if (extent == null) extent = baseOffset + extentOffset to extentLength
+            }
+            if (id == itemId) {
+                return extent.takeIf {
+                    constructionMethod == 0 && extentCount == 1 && (it?.second ?: 0) > 0
+                }
+            }
+        }
+        return null
+    }
+
+    private fun RandomAccessFile.readBoxes(start: Long, end: Long): List<Box> {
+        val boxes = mutableListOf<Box>()
+        var position = start
+        while (position + 8 <= end) {
+            seek(position)
+            var size = readUnsignedInt()
+            val type = readInt()
+            var headerSize = 8
+            if (size == 1L) {
+                size = readLong()
+                headerSize = 16
+            } else if (size == 0L) {
+                size = end - position
+            }
+            if (size < headerSize || position + size > end) throw UnsupportedImageException()
+            boxes.add(Box(type, position + headerSize, position + size))
+            position += size
+        }
+        return boxes
+    }
+
+    private fun RandomAccessFile.readUnsignedInt() = readInt().toLong() and 0xFFFFFFFFL
+
+    private fun RandomAccessFile.readSized(size: Int): Long = when (size) {
+        0 -> 0L
+        4 -> readUnsignedInt()
+        8 -> readLong()
+        else -> throw UnsupportedImageException()
+    }
+
+    private fun ByteBuffer.getUnsignedShort(index: Int): Int {
+        if (index < 0 || index + 2 > limit()) throw UnsupportedImageException()
+        return getShort(index).toInt() and 0xFFFF
+    }
+
+    private fun ByteBuffer.getOffset(index: Int): Int {
+        if (index < 0 || index + 4 > limit()) throw UnsupportedImageException()
+        val offset = getInt(index).toLong() and 0xFFFFFFFFL
+        if (offset >= limit()) throw UnsupportedImageException()
+        return offset.toInt()
+    }
+
+    private fun ByteArray.checkRange(start: Int, end: Int) {
+        if (start < 0 || end > size) throw UnsupportedImageException()
+    }
+
+    private fun FileChannel.copyTo(target: FileChannel, position: Long, count: Long) {
+        var transferred = 0L
+        while (transferred < count) {
+            val bytes = transferTo(position + transferred, count - transferred, target)
+            if (bytes <= 0) throw IOException("Unexpected end of file")
+            transferred += bytes
+        }
+    }
+
+    private fun FileChannel.writeFully(buffer: ByteBuffer) {
+        while (buffer.hasRemaining()) write(buffer)
+    }
+
+    private fun fourCC(value: String) = value.fold(0) { acc, char -> (acc shl 8) or char.code }
+
+    /**
+     * Exif block of an image, starting with the TIFF header
+     *
+     * @property start position of the block in the file
+     * @property data content of the block
+     */
+    private class ExifBlock(val start: Long, size: Int) {
+        val data = ByteArray(size)
+    }
+
+    /**
+     * ISO base media file format box
+     *
+     * @property type four character code of the box
+     * @property dataStart position of the content of the box, after its header
+     * @property end position of the end of the box
+     */
+    private class Box(val type: Int, val dataStart: Long, val end: Long)
+
+    /**
+     * The image is not a supported JPEG or HEIF image, or its metadata could not be parsed
+     */
+    private class UnsupportedImageException : IOException()
+
+    private const val JPEG_SOI = 0xFFD8
+    private const val JPEG_SOS = 0xDA
+    private const val JPEG_EOI = 0xD9
+    private const val JPEG_APP1 = 0xE1
+    private const val JPEG_TEM = 0x01
+    private val JPEG_RST = 0xD0..0xD7
+    private val EXIF_HEADER = byteArrayOf(0x45, 0x78, 0x69, 0x66, 0x00, 0x00)
+
+    private const val TIFF_HEADER_SIZE = 8
+    private const val TIFF_MAGIC = 42
+    private const val IFD_ENTRY_SIZE = 12
+    private const val TAG_GPS_INFO_IFD_POINTER = 0x8825
+
+    /**
+     * Size in bytes of each TIFF field type, indexed by type
+     */
+    private val TYPE_SIZES = listOf(0, 1, 1, 2, 4, 8, 1, 1, 2, 4, 8, 4, 8, 4)
+
+    private const val MAX_HEIF_EXIF_SIZE = 1024L * 1024L
+    private val BOX_FTYP = fourCC("ftyp")
+    private val BOX_META = fourCC("meta")
+    private val BOX_IINF = fourCC("iinf")
+    private val BOX_ILOC = fourCC("iloc")
+    private val BOX_INFE = fourCC("infe")
+    private val ITEM_TYPE_EXIF = fourCC("Exif")
+    private val HEIF_BRANDS = setOf("mif1", "heic", "heix", "avif").map { fourCC(it) }.toSet()
+}
@@ -7,8 +7,11 @@ import android.database.Cursor
 import android.net.Uri
 import android.os.Build
 import android.os.Bundle
+import android.provider.BaseColumns
 import android.provider.MediaStore
 import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import nz.mega.sdk.MegaApiJava
@@ -54,21 +57,33 @@ internal class CameraUploadsMediaFacade @Inject constructor(
      */
     private val debugSizeLimitation: Int? = null
 
-    override suspend fun getMediaList(
+    override fun getMediaList(
         uri: Uri,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia> = runCatching {
+    ): Flow<List<CameraUploadsMedia>> = flow {
         val isVideo = uri.isVideoUri()
-        createMediaCursor(uri, selectionQuery, isVideo)?.use { cursor ->
-            Timber.d("Extract ${cursor.count} Media from Cursor")
-            cursor.extractMedia(isVideo)
-        } ?: run {
-            Timber.d("Extract 0 Media - Cursor is NULL")
-            emptyList()
+        var lastPage: MediaPage? = null
+        var remaining = debugSizeLimitation
+        while (true) {
+            val pageSize = remaining?.coerceAtMost(MEDIA_PAGE_SIZE) ?: MEDIA_PAGE_SIZE
+            if (pageSize <= 0) break
+            val page = runCatching {
+                createMediaCursor(uri, selectionQuery, isVideo, lastPage, pageSize)
+                    ?.use { cursor -> cursor.extractMedia(isVideo) }
+                    ?: run {
+                        Timber.d("Extract 0 Media - Cursor is NULL")
+                        null
+                    }
+            }.getOrElse {
+                Timber.e(it)
+                null
+            } ?: break
+            Timber.d("Extract ${page.media.size} Media from Cursor")
+            if (page.media.isNotEmpty()) emit(page.media)
+            if (page.media.size < pageSize) break
+            lastPage = page
+            remaining = remaining?.minus(page.media.size)
         }
-    }.getOrElse {
-        Timber.e(it)
-        emptyList()
     }
 
     override suspend fun sendUpdateFolderIconBroadcast(
@@ -115,76 +130,85 @@ internal class CameraUploadsMediaFacade @Inject constructor(
     )
 
     /**
-     * Create the cursor to use for querying the media store
+     * Create the cursor to use for querying a page of the media store
+     *
+     * Pages are sorted by modification date and id, the next page is requested with a keyset
+     * condition on the last row of the previous page instead of an offset, so reaching the end
+     * of a big media store is not slower than reading its beginning
      *
      * @param uri the uri to query
      * @param selectionQuery a String representation to the conditions applied to the query
      * @param isVideo true if the query relates to the video media store
+     * @param lastPage the previous page, null to query the first page
+     * @param pageSize maximum number of rows to retrieve
      * @return a [Cursor] of the query result
      */
     private fun createMediaCursor(
         uri: Uri,
         selectionQuery: String?,
-        isVideo: Boolean
+        isVideo: Boolean,
+        lastPage: MediaPage?,
+        pageSize: Int,
     ): Cursor? {
         val projection = getProjection(isVideo)
+        val selection = lastPage?.let {
+            listOfNotNull(selectionQuery?.let { query -> "($query)" }, KEYSET_SELECTION)
+                .joinToString(" AND ")
+        } ?: selectionQuery
+        val selectionArgs = lastPage?.let {
+            arrayOf(
+                it.lastModifiedDate.toString(),
+                it.lastModifiedDate.toString(),
+                it.lastMediaId.toString(),
+            )
+        }
         return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
             val args = Bundle().apply {
-                val sortOrder = MediaStore.MediaColumns.DATE_MODIFIED + " ASC "
-                putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, sortOrder)
-                putString(ContentResolver.QUERY_ARG_OFFSET, "0")
-                putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selectionQuery)
-                debugSizeLimitation?.let {
-                    putString(ContentResolver.QUERY_ARG_SQL_LIMIT, it.toString())
-                }
+                putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, SORT_ORDER)
+                putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selection)
+                putStringArray(ContentResolver.QUERY_ARG_SQL_SELECTION_ARGS, selectionArgs)
+                putString(ContentResolver.QUERY_ARG_SQL_LIMIT, pageSize.toString())
             }
             context.contentResolver?.query(uri, projection, args, null)
         } else {
-            val sortOrder = debugSizeLimitation?.let { "$this LIMIT 0,$it" }
-            context.contentResolver?.query(uri, projection, selectionQuery, null, sortOrder)
+            val sortOrder = "$SORT_ORDER LIMIT $pageSize"
+            context.contentResolver?.query(uri, projection, selection, selectionArgs, sortOrder)
         }
     }
 
     /**
-     * Extract the media list using the cursor
+     * Extract a page of media using the cursor
      *
      * @param isVideo true if the type of media retrieved is
-     * @return a Queue of [CameraUploadsMedia]
+     * @return the [MediaPage] read from the cursor
      */
-    private fun Cursor.extractMedia(isVideo: Boolean): List<CameraUploadsMedia> =
-        ArrayList<CameraUploadsMedia>().apply {
-            if (moveToFirst()) {
-                do {
-                    val mediaId =
-                        getLongValue(if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID)
-                    val displayName = getStringValue(MediaStore.MediaColumns.DISPLAY_NAME)
-                    val filePath = getStringValue(MediaStore.MediaColumns.DATA)
-                    val addedDate = getLongValue(MediaStore.MediaColumns.DATE_ADDED) * 1000
-                    val modifiedDate = getLongValue(MediaStore.MediaColumns.DATE_MODIFIED) * 1000
-                    val timestamp = max(addedDate, modifiedDate)
-
-                    val cameraUploadsMedia = CameraUploadsMedia(
+    private fun Cursor.extractMedia(isVideo: Boolean): MediaPage {
+        val media = ArrayList<CameraUploadsMedia>(count.coerceAtLeast(0))
+        var lastMediaId = 0L
+        var lastModifiedDate = 0L
+        if (moveToFirst()) {
+            val columns = MediaColumnIndices(this, isVideo)
+            do {
+                val mediaId = getLong(columns.id)
+                val displayName = getString(columns.displayName)
+                val filePath = getString(columns.data)
+                val addedDate = getLong(columns.dateAdded)
+                val modifiedDate = getLong(columns.dateModified)
+
+                media.add(
+                    CameraUploadsMedia(
                         mediaId = mediaId,
                         displayName = displayName,
                         filePath = filePath,
-                        timestamp = timestamp
+                        timestamp = max(addedDate, modifiedDate) * 1000,
                     )
-                    add(cameraUploadsMedia)
-                } while (moveToNext())
-            }
-            close()
-        }.toList()
-
-    /**
-     *  Get the string value of a cursor column index
-     */
-    private fun Cursor.getStringValue(key: String) = getString(getColumnIndexOrThrow(key))
-
-    /**
-     *  Get the long value of a cursor column index
-     */
-    private fun Cursor.getLongValue(key: String) = getLong(getColumnIndexOrThrow(key))
-
+                )
+                lastMediaId = mediaId
+                lastModifiedDate = modifiedDate
+            } while (moveToNext())
+        }
+        return MediaPage(media, lastMediaId, lastModifiedDate)
+    }
 
     /**
      * Check if the uri corresponds to an uri of type video or not
@@ -202,4 +226,44 @@ internal class CameraUploadsMediaFacade @Inject constructor(
 
         else -> false
     }
+
+    /**
+     * Column indices of the projection, resolved once per cursor instead of once per row
+     */
+    private class MediaColumnIndices(cursor: Cursor, isVideo: Boolean) {
+        val id = cursor.getColumnIndexOrThrow(
+            if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID
+        )
+        val displayName = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DISPLAY_NAME)
+        val dateAdded = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_ADDED)
+        val dateModified = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_MODIFIED)
+        val data = cursor.getColumnIndexOrThrow(MediaStore.MediaColumns.DATA)
+    }
+
+    /**
+     * Page of media read from the media store
+     *
+     * @property media
+     * @property lastMediaId id of the last row, used as keyset for the next page
+     * @property lastModifiedDate modification date of the last row, used as keyset for the next page
+     */
+    private class MediaPage(
+        val media: List<CameraUploadsMedia>,
+        val lastMediaId: Long,
+        val lastModifiedDate: Long,
+    )
+
+    companion object {
+        /**
+         * Maximum number of media retrieved by each media store query
+         */
+        const val MEDIA_PAGE_SIZE = 500
+
+        private const val SORT_ORDER =
+            "${MediaStore.MediaColumns.DATE_MODIFIED} ASC, ${BaseColumns._ID} ASC"
+
+        private const val KEYSET_SELECTION =
+            "(${MediaStore.MediaColumns.DATE_MODIFIED} > ? OR " +
+                    "(${MediaStore.MediaColumns.DATE_MODIFIED} = ? AND ${BaseColumns._ID} > ?))"
+    }
 }
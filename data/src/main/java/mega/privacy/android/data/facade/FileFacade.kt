@@ -19,6 +19,7 @@ import androidx.exifinterface.media.ExifInterface
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.exif.ExifGpsRemover
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.domain.exception.FileNotCreatedException
 import mega.privacy.android.domain.exception.NotEnoughStorageException
@@ -197,6 +198,40 @@ class FileFacade @Inject constructor(
     }
 
     override suspend fun createTempFile(rootPath: String, localPath: String, newPath: String) {
+        val srcFile = getTempFileSource(rootPath, localPath)
+        val destinationFile = File(newPath)
+        try {
+            copyFile(srcFile, destinationFile)
+        } catch (e: IOException) {
+            Timber.e(e)
+            throw FileNotCreatedException()
+        }
+    }
+
+    override suspend fun createTempFileWithoutGPSCoordinates(
+        rootPath: String,
+        localPath: String,
+        newPath: String,
+    ) {
+        val srcFile = getTempFileSource(rootPath, localPath)
+        val destinationFile = File(newPath)
+        try {
+            if (!ExifGpsRemover.copyWithoutGps(srcFile, destinationFile)) {
+                copyFile(srcFile, destinationFile)
+                removeGPSCoordinates(newPath)
+            }
+        } catch (e: IOException) {
+            Timber.e(e)
+            throw FileNotCreatedException()
+        }
+    }
+
+    /**
+     * Check that a temporary file can be created from the file at local path
+     *
+     * @return the source file
+     */
+    private suspend fun getTempFileSource(rootPath: String, localPath: String): File {
         val srcFile = File(localPath)
         if (!srcFile.exists()) {
             Timber.e("Source File doesn't exist")
@@ -207,13 +242,7 @@ class FileFacade @Inject constructor(
             Timber.e("Not Enough Storage")
             throw NotEnoughStorageException()
         }
-        val destinationFile = File(newPath)
-        try {
-            copyFile(srcFile, destinationFile)
-        } catch (e: IOException) {
-            Timber.e(e)
-            throw FileNotCreatedException()
-        }
+        return srcFile
     }
 
     override suspend fun hasEnoughStorage(rootPath: String, file: File) =
@@ -0,0 +1,117 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.asSharedFlow
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.model.GlobalUpdate
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.reflect.KClass
+
+/**
+ * Fan-out of the [GlobalUpdate] received from the SDK
+ *
+ * Each update is queued without blocking the SDK thread, then delivered in order to the
+ * subscribers of all the updates and to the subscribers of its type, so a slow subscriber of a
+ * type does not delay the other types. Updates carrying data are never dropped. Updates without
+ * data are coalesced in their type stream while a subscriber is busy, as receiving one of them
+ * is the same as receiving several.
+ *
+ * @param scope Scope delivering the updates
+ */
+internal class GlobalUpdatesHub(scope: CoroutineScope) {
+
+    private val allUpdates = UpdateStream<GlobalUpdate>(scope, Channel.UNLIMITED)
+
+    private val typeUpdates: Map<KClass<out GlobalUpdate>, UpdateStream<GlobalUpdate>> = mapOf(
+        GlobalUpdate.OnUsersUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnUserAlertsUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnNodesUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnContactRequestsUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnEvent::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnSetsUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnSetElementsUpdate::class to UpdateStream(scope, Channel.UNLIMITED),
+        GlobalUpdate.OnReloadNeeded::class to UpdateStream(scope, Channel.CONFLATED),
+        GlobalUpdate.OnAccountUpdate::class to UpdateStream(scope, Channel.CONFLATED),
+        GlobalUpdate.OnGlobalSyncStateChanged::class to UpdateStream(scope, Channel.CONFLATED),
+    )
+
+    /**
+     * All the updates, in the order received from the SDK
+     */
+    val updates: Flow<GlobalUpdate> = allUpdates.updates
+
+    /**
+     * Number of updates queued and not delivered yet
+     */
+    val queueDepth: Int
+        get() = allUpdates.queueDepth.get() + typeUpdates.values.sumOf { it.queueDepth.get() }
+
+    /**
+     * Number of updates coalesced in their type stream
+     */
+    val droppedCount: Long
+        get() = allUpdates.droppedCount.get() + typeUpdates.values.sumOf { it.droppedCount.get() }
+
+    /**
+     * Updates of a single type
+     *
+     * @param type Type of the updates
+     * @return the updates of the type, in the order received from the SDK
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun <T : GlobalUpdate> updatesOf(type: KClass<T>): Flow<T> =
+        typeUpdates.getValue(type).updates as Flow<T>
+
+    /**
+     * Queues an update received from the SDK
+     *
+     * @param update [GlobalUpdate]
+     */
+    fun publish(update: GlobalUpdate) {
+        allUpdates.offer(update)
+        typeUpdates[update::class]?.offer(update)
+    }
+
+    /**
+     * Queue of updates delivered to the subscribers of a stream
+     *
+     * The updates are delivered to the subscribers present when they are dequeued, as the
+     * previous shared flows did, so they are not kept while there are no subscribers.
+     *
+     * @param scope Scope delivering the updates
+     * @param capacity Capacity of the queue, [Channel.UNLIMITED] or [Channel.CONFLATED]
+     */
+    private class UpdateStream<T>(scope: CoroutineScope, capacity: Int) {
+        val queueDepth = AtomicInteger()
+        val droppedCount = AtomicLong()
+
+        private val queue = Channel<T>(capacity) {
+            queueDepth.decrementAndGet()
+            droppedCount.incrementAndGet()
+        }
+        private val sharedUpdates = MutableSharedFlow<T>()
+
+        val updates: Flow<T> = sharedUpdates.asSharedFlow()
+
+        init {
+            scope.launch {
+                for (update in queue) {
+                    queueDepth.decrementAndGet()
+                    sharedUpdates.emit(update)
+                }
+            }
+        }
+
+        fun offer(update: T) {
+            queueDepth.incrementAndGet()
+            if (queue.trySend(update).isFailure) {
+                queueDepth.decrementAndGet()
+                droppedCount.incrementAndGet()
+            }
+        }
+    }
+}
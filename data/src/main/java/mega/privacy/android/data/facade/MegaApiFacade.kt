@@ -47,6 +47,7 @@ import nz.mega.sdk.MegaUserAlert
 import java.io.File
 import javax.inject.Inject
 import javax.inject.Singleton
+import kotlin.reflect.KClass
 
 /**
  * Mega api facade
@@ -187,71 +188,77 @@ internal class MegaApiFacade @Inject constructor(
         SharingStarted.WhileSubscribed()
     )
 
-    override val globalUpdates: Flow<GlobalUpdate> = callbackFlow {
-        val listener = object : MegaGlobalListenerInterface {
-            override fun onUsersUpdate(
-                api: MegaApiJava,
-                users: ArrayList<MegaUser>?,
-            ) {
-                trySend(GlobalUpdate.OnUsersUpdate(users))
-            }
+    /**
+     * Global listener, registered the first time the global updates are requested and kept for
+     * the lifetime of the app, so it is not removed and added again as the number of subscribers
+     * changes
+     */
+    private val globalListener = object : MegaGlobalListenerInterface {
+        override fun onUsersUpdate(
+            api: MegaApiJava,
+            users: ArrayList<MegaUser>?,
+        ) {
+            globalUpdatesHub.publish(GlobalUpdate.OnUsersUpdate(users))
+        }
 
-            override fun onUserAlertsUpdate(
-                api: MegaApiJava,
-                userAlerts: ArrayList<MegaUserAlert>?,
-            ) {
-                trySend(GlobalUpdate.OnUserAlertsUpdate(userAlerts))
-            }
+        override fun onUserAlertsUpdate(
+            api: MegaApiJava,
+            userAlerts: ArrayList<MegaUserAlert>?,
+        ) {
+            globalUpdatesHub.publish(GlobalUpdate.OnUserAlertsUpdate(userAlerts))
+        }
 
-            override fun onNodesUpdate(
-                api: MegaApiJava,
-                nodeList: ArrayList<MegaNode>?,
-            ) {
-                trySend(GlobalUpdate.OnNodesUpdate(nodeList))
-            }
+        override fun onNodesUpdate(
+            api: MegaApiJava,
+            nodeList: ArrayList<MegaNode>?,
+        ) {
+            globalUpdatesHub.publish(GlobalUpdate.OnNodesUpdate(nodeList))
+        }
 
-            override fun onReloadNeeded(api: MegaApiJava) {
-                trySend(GlobalUpdate.OnReloadNeeded)
-            }
+        override fun onReloadNeeded(api: MegaApiJava) {
+            globalUpdatesHub.publish(GlobalUpdate.OnReloadNeeded)
+        }
 
-            override fun onAccountUpdate(api: MegaApiJava) {
-                trySend(GlobalUpdate.OnAccountUpdate)
-            }
+        override fun onAccountUpdate(api: MegaApiJava) {
+            globalUpdatesHub.publish(GlobalUpdate.OnAccountUpdate)
+        }
 
-            override fun onContactRequestsUpdate(
-                api: MegaApiJava,
-                requests: ArrayList<MegaContactRequest>?,
-            ) {
-                trySend(GlobalUpdate.OnContactRequestsUpdate(requests))
-            }
+        override fun onContactRequestsUpdate(
+            api: MegaApiJava,
+            requests: ArrayList<MegaContactRequest>?,
+        ) {
+            globalUpdatesHub.publish(GlobalUpdate.OnContactRequestsUpdate(requests))
+        }
 
-            override fun onEvent(api: MegaApiJava, event: MegaEvent?) {
-                trySend(GlobalUpdate.OnEvent(event))
-            }
+        override fun onEvent(api: MegaApiJava, event: MegaEvent?) {
+            globalUpdatesHub.publish(GlobalUpdate.OnEvent(event))
+        }
 
-            override fun onSetsUpdate(api: MegaApiJava, sets: ArrayList<MegaSet>?) {
-                trySend(GlobalUpdate.OnSetsUpdate(sets))
-            }
+        override fun onSetsUpdate(api: MegaApiJava, sets: ArrayList<MegaSet>?) {
+            globalUpdatesHub.publish(GlobalUpdate.OnSetsUpdate(sets))
+        }
 
-            override fun onSetElementsUpdate(
-                api: MegaApiJava,
-                elements: ArrayList<MegaSetElement>?,
-            ) {
-                trySend(GlobalUpdate.OnSetElementsUpdate(elements))
-            }
+        override fun onSetElementsUpdate(
+            api: MegaApiJava,
+            elements: ArrayList<MegaSetElement>?,
+        ) {
+            globalUpdatesHub.publish(GlobalUpdate.OnSetElementsUpdate(elements))
+        }
 
-            override fun onGlobalSyncStateChanged(api: MegaApiJava) {
-                trySend(GlobalUpdate.OnGlobalSyncStateChanged)
-            }
+        override fun onGlobalSyncStateChanged(api: MegaApiJava) {
+            globalUpdatesHub.publish(GlobalUpdate.OnGlobalSyncStateChanged)
         }
+    }
 
-        megaApi.addGlobalListener(listener)
+    private val globalUpdatesHub: GlobalUpdatesHub by lazy {
+        GlobalUpdatesHub(sharingScope).also { megaApi.addGlobalListener(globalListener) }
+    }
 
-        awaitClose { megaApi.removeGlobalListener(listener) }
-    }.shareIn(
-        sharingScope,
-        SharingStarted.WhileSubscribed()
-    )
+    override val globalUpdates: Flow<GlobalUpdate>
+        get() = globalUpdatesHub.updates
+
+    override fun <T : GlobalUpdate> globalUpdatesOf(type: KClass<T>): Flow<T> =
+        globalUpdatesHub.updatesOf(type)
 
     override val globalTransfer: Flow<GlobalTransfer> = callbackFlow {
         val listener = OptionalMegaTransferListenerInterface(
@@ -798,6 +805,8 @@ internal class MegaApiFacade @Inject constructor(
     override suspend fun getOutShares(megaNode: MegaNode): List<MegaShare> =
         megaApi.getOutShares(megaNode)
 
+    override suspend fun getPendingOutShares(): List<MegaShare> = megaApi.pendingOutShares
+
     override fun createSet(name: String, listener: MegaRequestListenerInterface) =
         megaApi.createSet(name, listener)
 
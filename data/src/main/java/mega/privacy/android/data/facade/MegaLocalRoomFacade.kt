@@ -1,7 +1,12 @@
 package mega.privacy.android.data.facade
 
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.database.dao.ActiveTransferDao
@@ -9,6 +14,7 @@ import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
+import mega.privacy.android.data.database.entity.CompletedTransferEntity
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.mapper.SyncStatusIntMapper
 import mega.privacy.android.data.mapper.camerauploads.SyncRecordEntityMapper
@@ -17,7 +23,6 @@ import mega.privacy.android.data.mapper.camerauploads.SyncRecordTypeIntMapper
 import mega.privacy.android.data.mapper.contact.ContactEntityMapper
 import mega.privacy.android.data.mapper.contact.ContactModelMapper
 import mega.privacy.android.data.mapper.transfer.active.ActiveTransferEntityMapper
-import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferEntityMapper
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferModelMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferEntityMapper
@@ -41,7 +46,6 @@ internal class MegaLocalRoomFacade @Inject constructor(
     private val completedTransferModelMapper: CompletedTransferModelMapper,
     private val completedTransferEntityMapper: CompletedTransferEntityMapper,
     private val activeTransferEntityMapper: ActiveTransferEntityMapper,
-    private val activeTransferTotalsMapper: ActiveTransferTotalsMapper,
     private val syncRecordDao: SyncRecordDao,
     private val syncRecordModelMapper: SyncRecordModelMapper,
     private val syncRecordEntityMapper: SyncRecordEntityMapper,
@@ -53,6 +57,11 @@ internal class MegaLocalRoomFacade @Inject constructor(
     private val encryptData: EncryptData,
     private val decryptData: DecryptData,
 ) : MegaLocalRoomGateway {
+    private val sortTimestampMutex = Mutex()
+
+    @Volatile
+    private var sortTimestampFilled = false
+
     override suspend fun insertContact(contact: Contact) {
         contactDao.insertOrUpdateContact(contactEntityMapper(contact))
     }
@@ -112,13 +121,46 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override fun getAllCompletedTransfers(size: Int?) =
-        completedTransferDao.getAllCompletedTransfers()
-            .map { list ->
-                list.map { completedTransferModelMapper(it) }
-                    .toMutableList()
-                    .apply { sortWith(compareByDescending { it.timestamp }) }
-                    .let { if (size != null) it.take(size) else it }
+        completedTransfersFlow { getCompletedTransfers(size ?: NO_LIMIT) }
+
+    override fun getCompletedTransfersPage(
+        size: Int,
+        after: CompletedTransfer?,
+    ): Flow<List<CompletedTransfer>> = completedTransfersFlow {
+        val afterId = after?.id
+        if (after == null || afterId == null) {
+            getCompletedTransfers(size)
+        } else {
+            getCompletedTransfersAfter(after.timestamp, afterId, size)
+        }
+    }
+
+    private fun completedTransfersFlow(
+        query: CompletedTransferDao.() -> Flow<List<CompletedTransferEntity>>,
+    ) = flow {
+        fillCompletedTransfersSortTimestamp()
+        emitAll(completedTransferDao.query())
+    }.map { list -> list.map { completedTransferModelMapper(it) } }
+
+    /**
+     * Completed transfers saved before the sort timestamp column existed don't have it yet,
+     * fill it once, in a single transaction, so they are ordered and paged with the rest.
+     */
+    private suspend fun fillCompletedTransfersSortTimestamp() {
+        if (sortTimestampFilled) return
+        sortTimestampMutex.withLock {
+            if (sortTimestampFilled) return
+            val timestamps = completedTransferDao.getCompletedTransfersWithoutSortTimestamp()
+                .mapNotNull { entity ->
+                    val id = entity.id ?: return@mapNotNull null
+                    id to (decryptData(entity.timestamp)?.toLongOrNull() ?: -1L)
+                }.toMap()
+            if (timestamps.isNotEmpty()) {
+                completedTransferDao.setCompletedTransfersSortTimestamp(timestamps)
             }
+            sortTimestampFilled = true
+        }
+    }
 
     override suspend fun addCompletedTransfer(transfer: CompletedTransfer) {
         completedTransferDao.insertOrUpdateCompletedTransfer(completedTransferEntityMapper(transfer))
@@ -152,33 +194,21 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun getActiveTransferByTag(tag: Int) =
         activeTransferDao.getActiveTransferByTag(tag)
 
-    override fun getActiveTransfersByType(transferType: TransferType) =
-        activeTransferDao.getActiveTransfersByType(transferType).map { activeTransferEntities ->
-            activeTransferEntities.map { it }
-        }
-
     override suspend fun getCurrentActiveTransfersByType(transferType: TransferType) =
         activeTransferDao.getCurrentActiveTransfersByType(transferType).map { it }
 
     override suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer) =
         activeTransferDao.insertOrUpdateActiveTransfer(activeTransferEntityMapper(activeTransfer))
 
+    override suspend fun insertOrUpdateActiveTransfers(activeTransfers: List<ActiveTransfer>) =
+        activeTransferDao.insertOrUpdateActiveTransfers(activeTransfers.map { activeTransferEntityMapper(it) })
+
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         activeTransferDao.deleteAllActiveTransfersByType(transferType)
 
     override suspend fun setActiveTransferAsFinishedByTag(tags: List<Int>) =
         activeTransferDao.setActiveTransferAsFinishedByTag(tags)
 
-    override fun getActiveTransferTotalsByType(transferType: TransferType) =
-        activeTransferDao.getActiveTransfersByType(transferType)
-            .map { activeTransferTotalsMapper(transferType, it) }
-
-    override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType) =
-        activeTransferTotalsMapper(
-            transferType,
-            activeTransferDao.getCurrentActiveTransfersByType(transferType)
-        )
-
     override suspend fun saveSyncRecord(record: SyncRecord) =
         syncRecordDao.insertOrUpdateSyncRecord(syncRecordEntityMapper(record))
 
@@ -208,6 +238,18 @@ internal class MegaLocalRoomFacade @Inject constructor(
         encryptData(isSecondary.toString()).toString(),
     ) == 1
 
+    override suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String> {
+        val pathsByEncryptedPath = localPaths.associateBy { encryptData(it) }
+        val secondary = encryptData(isSecondary.toString()).toString()
+        return pathsByEncryptedPath.keys.filterNotNull()
+            .chunked(MAX_QUERY_ARGUMENTS)
+            .flatMap { syncRecordDao.getExistingOriginalPaths(it, secondary) }
+            .mapNotNullTo(HashSet()) { pathsByEncryptedPath[it] }
+    }
+
     override suspend fun getSyncRecordByFingerprint(
         fingerprint: String?,
         isSecondary: Boolean,
@@ -308,4 +350,16 @@ internal class MegaLocalRoomFacade @Inject constructor(
 
     override suspend fun getCompletedTransferById(id: Int) = completedTransferDao
         .getCompletedTransferById(id)?.let { completedTransferModelMapper(it) }
+
+    companion object {
+        /**
+         * SQLite treats a negative LIMIT as no limit
+         */
+        private const val NO_LIMIT = -1
+
+        /**
+         * Older SQLite versions don't allow more than 999 arguments in a query
+         */
+        private const val MAX_QUERY_ARGUMENTS = 900
+    }
 }
@@ -8,9 +8,10 @@ import android.media.MediaFormat
 import android.media.MediaMetadataRetriever
 import android.media.MediaMuxer
 import android.view.Surface
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
-import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.suspendCancellableCoroutine
 import mega.privacy.android.data.compression.video.InputSurface
 import mega.privacy.android.data.compression.video.OutputSurface
@@ -60,6 +61,11 @@ internal class VideoCompressionFacade @Inject constructor(private val fileGatewa
         config.isRunning = false
     }
 
+    /**
+     * The states are sent through a rendezvous channel, so the next video is not compressed until
+     * the collector has received the [VideoCompressionState.Successful] state of the previous one.
+     * Progress updates are dropped while the collector is busy
+     */
     override fun start() = callbackFlow {
         try {
             with(config) {
@@ -119,7 +125,7 @@ internal class VideoCompressionFacade @Inject constructor(private val fileGatewa
         send(VideoCompressionState.Finished)
         config.isRunning = false
         channel.close()
-    }.cancellable()
+    }.buffer(Channel.RENDEZVOUS)
 
     override fun addItems(videoAttachments: List<VideoAttachment>) {
         config.queue.addAll(videoAttachments)
@@ -46,16 +46,22 @@ interface CacheGateway {
 
     /**
      * Return node thumbnail folder
+     *
+     * The folder is kept within its byte budget, evicting the least recently used files
      */
     suspend fun getThumbnailCacheFolder(): File?
 
     /**
      * Return node preview folder
+     *
+     * The folder is kept within its byte budget, evicting the least recently used files
      */
     suspend fun getPreviewCacheFolder(): File?
 
     /**
      * Return node full size folder
+     *
+     * The folder is kept within its byte budget, evicting the least recently used files
      */
     suspend fun getFullSizeCacheFolder(): File?
 
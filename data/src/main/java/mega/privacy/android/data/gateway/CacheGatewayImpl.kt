@@ -4,6 +4,7 @@ import android.content.Context
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.DiskCacheManager
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.facade.CacheFolderFacade
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -16,10 +17,12 @@ import javax.inject.Inject
  *
  * @property context
  * @property ioDispatcher
+ * @property diskCacheManager keeps the thumbnail, preview and full size folders within budget
  */
 internal class CacheGatewayImpl @Inject constructor(
     @ApplicationContext private val context: Context,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    private val diskCacheManager: DiskCacheManager,
 ) : CacheGateway {
 
     companion object {
@@ -38,6 +41,7 @@ internal class CacheGatewayImpl @Inject constructor(
     override suspend fun getCacheFile(folderName: String, fileName: String): File? =
         withContext(ioDispatcher) {
             return@withContext getOrCreateCacheFolder(folderName)?.takeIf { it.exists() }?.let {
+                diskCacheManager.recordAccess(folderName, fileName)
                 File(it, fileName)
             }
         }
@@ -51,16 +55,20 @@ internal class CacheGatewayImpl @Inject constructor(
         } catch (e: Exception) {
             Timber.e(e)
         }
+        diskCacheManager.reset()
     }
 
     override suspend fun getThumbnailCacheFolder(): File? =
         getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER)
+            ?.also { diskCacheManager.scheduleTrim() }
 
     override suspend fun getPreviewCacheFolder(): File? =
         getOrCreateCacheFolder(CacheFolderConstant.PREVIEW_FOLDER)
+            ?.also { diskCacheManager.scheduleTrim() }
 
     override suspend fun getFullSizeCacheFolder(): File? =
-        getOrCreateCacheFolder(CacheFolderConstant.TEMPORARY_FOLDER)
+        getOrCreateCacheFolder(CacheFolderConstant.FULL_SIZE_FOLDER)
+            ?.also { diskCacheManager.scheduleTrim() }
 
     override suspend fun getCameraUploadsCacheFolder(): File? =
         getOrCreateCacheFolder(CacheFolderConstant.CAMERA_UPLOADS_CACHE_FOLDER)
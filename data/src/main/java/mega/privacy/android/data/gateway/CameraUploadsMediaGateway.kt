@@ -1,6 +1,7 @@
 package mega.privacy.android.data.gateway
 
 import android.net.Uri
+import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 
 /**
@@ -9,17 +10,20 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 interface CameraUploadsMediaGateway {
 
     /**
-     * Get the media queue for a given media type
+     * Get the media for a given media type
+     *
+     * The media store is queried lazily in pages sorted by modification date, each page is emitted
+     * as soon as it is read so the whole media store does not need to be kept in memory
      *
      * @param uri different media store file type
      * @param selectionQuery db query
      *
-     * @return list of camera upload media
+     * @return cold flow of bounded chunks of camera upload media
      */
-    suspend fun getMediaList(
+    fun getMediaList(
         uri: Uri,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia>
+    ): Flow<List<CameraUploadsMedia>>
 
     /**
      * Update camera upload folder (node list) icon
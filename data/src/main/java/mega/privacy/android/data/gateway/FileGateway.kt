@@ -125,6 +125,25 @@ interface FileGateway {
     @Throws(IOException::class)
     suspend fun createTempFile(rootPath: String, localPath: String, newPath: String)
 
+    /**
+     * creating a new temporary file in a root directory by copying the file from local path
+     * to new path, without its GPS coordinates
+     *
+     * JPEG and HEIF images are copied removing their GPS metadata in the same pass, other files
+     * are copied and their GPS coordinates removed afterwards
+     *
+     * @param rootPath root path.
+     * @param newPath new path of the file.
+     * @param localPath  local path of the file.
+     * @throws IOException if some error happens while creating.
+     */
+    @Throws(IOException::class)
+    suspend fun createTempFileWithoutGPSCoordinates(
+        rootPath: String,
+        localPath: String,
+        newPath: String,
+    )
+
     /**
      * check enough storage availability
      *
@@ -5,7 +5,6 @@ import mega.privacy.android.domain.entity.Contact
 import mega.privacy.android.domain.entity.SdTransfer
 import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
-import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.TransferType
 
@@ -112,6 +111,20 @@ interface MegaLocalRoomGateway {
      */
     fun getAllCompletedTransfers(size: Int? = null): Flow<List<CompletedTransfer>>
 
+    /**
+     * Get a page of completed transfers, ordered by timestamp descendant
+     *
+     * Pages are read with keyset pagination, so reading a page does not depend on the size of the
+     * completed transfers history.
+     *
+     * @param size the size of the page
+     * @param after the last completed transfer of the previous page, or null for the first page
+     */
+    fun getCompletedTransfersPage(
+        size: Int,
+        after: CompletedTransfer? = null,
+    ): Flow<List<CompletedTransfer>>
+
     /**
      * Add a completed transfer
      *
@@ -157,12 +170,6 @@ interface MegaLocalRoomGateway {
      */
     suspend fun getActiveTransferByTag(tag: Int): ActiveTransfer?
 
-    /**
-     * Get active transfers by type
-     * @return a flow of all active transfers list
-     */
-    fun getActiveTransfersByType(transferType: TransferType): Flow<List<ActiveTransfer>>
-
     /**
      * Get active transfers by type
      * @return all active transfers list
@@ -174,6 +181,11 @@ interface MegaLocalRoomGateway {
      */
     suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer)
 
+    /**
+     * Insert or replace a batch of active transfers in a single transaction
+     */
+    suspend fun insertOrUpdateActiveTransfers(activeTransfers: List<ActiveTransfer>)
+
     /**
      * Delete all active transfer by type
      */
@@ -184,18 +196,6 @@ interface MegaLocalRoomGateway {
      */
     suspend fun setActiveTransferAsFinishedByTag(tags: List<Int>)
 
-    /**
-     * Get active transfer totals by type
-     * @return a flow of [ActiveTransferTotals]
-     */
-    fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals>
-
-    /**
-     * Get active transfer totals by type
-     * @return current [ActiveTransferTotals]
-     */
-    suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals
-
     /**
      * Save sync record
      */
@@ -229,6 +229,18 @@ interface MegaLocalRoomGateway {
         isSecondary: Boolean,
     ): Boolean
 
+    /**
+     * Get the local paths that already have a sync record
+     *
+     * @param localPaths the local paths to check
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that already have a sync record
+     */
+    suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String>
+
     /**
      * Get sync record by fingerprint
      * @return sync record
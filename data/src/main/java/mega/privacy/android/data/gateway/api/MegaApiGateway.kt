@@ -27,6 +27,7 @@ import nz.mega.sdk.MegaTransferListenerInterface
 import nz.mega.sdk.MegaUser
 import nz.mega.sdk.MegaUserAlert
 import java.io.File
+import kotlin.reflect.KClass
 
 /**
  * Mega api gateway
@@ -257,6 +258,14 @@ interface MegaApiGateway {
      */
     val globalUpdates: Flow<GlobalUpdate>
 
+    /**
+     * Global updates of a single type
+     *
+     * @param type Type of the updates
+     * @return the updates of the type, without filtering the updates of the other types
+     */
+    fun <T : GlobalUpdate> globalUpdatesOf(type: KClass<T>): Flow<T>
+
     /**
      * Global transfer
      */
@@ -1287,6 +1296,13 @@ interface MegaApiGateway {
      */
     suspend fun getOutShares(megaNode: MegaNode): List<MegaShare>
 
+    /**
+     * Get a list with all the pending outbound sharings
+     *
+     * @return List of MegaShare objects
+     */
+    suspend fun getPendingOutShares(): List<MegaShare>
+
     /**
      * Get unverified incoming shares
      *
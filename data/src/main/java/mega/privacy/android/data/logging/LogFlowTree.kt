@@ -3,7 +3,7 @@ package mega.privacy.android.data.logging
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
-import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.launch
@@ -14,29 +14,42 @@ import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.entity.logging.LogPriority
 import mega.privacy.android.domain.usecase.CreateLogEntry
 import timber.log.Timber
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * Sdk log flow tree
  *
  * Implementation of [Timber.Tree] that converts logging events from the sdk listener to a flow
  *
+ * Logging threads only copy the line into a bounded [LogRingBuffer] and a single consumer
+ * coroutine converts the pending lines in batches, emitting them to [logFlow]. Lines are ignored
+ * while nothing collects [logFlow], and the stack trace of the caller is only captured for
+ * untagged lines, as the tagged ones are identified by their tag and never need the location.
+ *
+ * @param dispatcher dispatcher of the consumer
+ * @property createLogEntry
+ * @param capacity maximum number of lines waiting to be consumed
  * @property logFlow a flow where all sdk log messages are emitted
  */
 internal class LogFlowTree(
     dispatcher: CoroutineDispatcher,
     private val createLogEntry: CreateLogEntry,
+    capacity: Int = BUFFER_CAPACITY,
 ) : Timber.Tree() {
 
     private val scope = CoroutineScope(Job() + dispatcher)
 
-    private val _logFlow =
-        MutableSharedFlow<LogEntry>(
-            replay = 0,
-            extraBufferCapacity = 1,
-            onBufferOverflow = BufferOverflow.DROP_OLDEST
-        )
+    private val _logFlow = MutableSharedFlow<LogEntry>(
+        replay = 0,
+        extraBufferCapacity = BATCH_SIZE,
+    )
     val logFlow: SharedFlow<LogEntry> = _logFlow
 
+    private val buffer = LogRingBuffer(capacity)
+    private val batch = Array(BATCH_SIZE) { LogLine() }
+    private val linesAvailable = Channel<Unit>(Channel.CONFLATED)
+    private val writtenLines = AtomicLong()
+
     private val ignoredClasses = listOf(
         Timber::class.java.name,
         Timber.Forest::class.java.name,
@@ -50,20 +63,78 @@ internal class LogFlowTree(
         TimberMegaLogger::class.java.name
     )
 
+    init {
+        scope.launch { consumeLines() }
+    }
+
+    /**
+     * Current line counters
+     */
+    val stats: LogPipelineStats
+        get() = LogPipelineStats(
+            enqueued = buffer.enqueued,
+            written = writtenLines.get(),
+            dropped = buffer.dropped,
+        )
+
     override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {
-        val trace = Throwable().stackTrace
-        scope.launch {
-            createLogEntry(
-                CreateLogEntryRequest(
-                    tag = tag,
-                    message = message,
-                    priority = LogPriority.fromInt(priority),
-                    throwable = t,
-                    trace = trace.asList(),
-                    loggingClasses = ignoredClasses,
-                    sdkLoggers = sdkLoggers)
-            )?.let { _logFlow.emit(it) }
+        if (_logFlow.subscriptionCount.value == 0) return
+        val trace = if (tag == null) Throwable().stackTrace else null
+        if (buffer.offer(priority, tag, message, t, trace)) {
+            linesAvailable.trySend(Unit)
         }
     }
 
-}
\ No newline at end of file
+    private suspend fun consumeLines() {
+        while (true) {
+            val count = buffer.drainTo(batch)
+            if (count == 0) {
+                linesAvailable.receive()
+                continue
+            }
+            for (index in 0 until count) {
+                val line = batch[index]
+                createLogEntry(line.toRequest())?.let {
+                    _logFlow.emit(it)
+                    writtenLines.incrementAndGet()
+                }
+                line.clear()
+            }
+        }
+    }
+
+    private fun LogLine.toRequest() = CreateLogEntryRequest(
+        tag = tag,
+        message = message,
+        priority = LogPriority.fromInt(priority),
+        throwable = throwable,
+        trace = trace?.asList().orEmpty(),
+        loggingClasses = ignoredClasses,
+        sdkLoggers = sdkLoggers,
+    )
+
+    companion object {
+        /**
+         * Default number of lines waiting to be consumed before new lines are dropped
+         */
+        const val BUFFER_CAPACITY = 4096
+
+        /**
+         * Maximum number of lines converted and emitted at once by the consumer
+         */
+        const val BATCH_SIZE = 256
+    }
+}
+
+/**
+ * Line counters of a [LogFlowTree]
+ *
+ * @property enqueued lines accepted by the tree
+ * @property written lines emitted to the file writer
+ * @property dropped lines dropped because the tree had too many pending lines
+ */
+internal data class LogPipelineStats(
+    val enqueued: Long,
+    val written: Long,
+    val dropped: Long,
+)
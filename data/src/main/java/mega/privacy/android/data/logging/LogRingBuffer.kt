@@ -0,0 +1,132 @@
+package mega.privacy.android.data.logging
+
+/**
+ * Bounded queue of log lines with preallocated, reusable entries
+ *
+ * Any thread can offer lines, but only a single consumer may drain them. Lines offered while the
+ * queue is full are dropped and counted instead of blocking the logging thread.
+ *
+ * @param capacity maximum number of lines waiting to be consumed
+ */
+internal class LogRingBuffer(capacity: Int) {
+    private val lock = Any()
+    private val slots = Array(capacity) { LogLine() }
+    private var head = 0
+    private var size = 0
+    private var enqueuedLines = 0L
+    private var droppedLines = 0L
+
+    /**
+     * Number of lines accepted by the queue
+     */
+    val enqueued: Long
+        get() = synchronized(lock) { enqueuedLines }
+
+    /**
+     * Number of lines dropped because the queue was full
+     */
+    val dropped: Long
+        get() = synchronized(lock) { droppedLines }
+
+    /**
+     * Offer a line
+     *
+     * @return true if the queue was empty before adding the line, so the consumer has to be
+     * notified. False if the consumer already has pending lines or the line was dropped
+     */
+    fun offer(
+        priority: Int,
+        tag: String?,
+        message: String,
+        throwable: Throwable?,
+        trace: Array<StackTraceElement>?,
+    ): Boolean = synchronized(lock) {
+        if (size == slots.size) {
+            droppedLines++
+            return false
+        }
+        slots[(head + size) % slots.size].set(priority, tag, message, throwable, trace)
+        size++
+        enqueuedLines++
+        size == 1
+    }
+
+    /**
+     * Move the pending lines to [batch]
+     *
+     * Entries are swapped rather than copied, so the entries of [batch] become free slots of the
+     * queue. They must be cleared by the consumer before draining again.
+     *
+     * @param batch entries owned by the consumer
+     * @return number of lines moved to the start of [batch]
+     */
+    fun drainTo(batch: Array<LogLine>): Int = synchronized(lock) {
+        val count = minOf(size, batch.size)
+        for (i in 0 until count) {
+            val index = (head + i) % slots.size
+            val line = slots[index]
+            slots[index] = batch[i]
+            batch[i] = line
+        }
+        head = (head + count) % slots.size
+        size -= count
+        count
+    }
+}
+
+/**
+ * Reusable log line
+ */
+internal class LogLine {
+    /**
+     * Log priority
+     */
+    var priority = 0
+        private set
+
+    /**
+     * Log tag
+     */
+    var tag: String? = null
+        private set
+
+    /**
+     * Log message
+     */
+    var message = ""
+        private set
+
+    /**
+     * Logged throwable
+     */
+    var throwable: Throwable? = null
+        private set
+
+    /**
+     * Stack trace of the caller, only captured when its location is needed
+     */
+    var trace: Array<StackTraceElement>? = null
+        private set
+
+    /**
+     * Set the content of the line
+     */
+    fun set(
+        priority: Int,
+        tag: String?,
+        message: String,
+        throwable: Throwable?,
+        trace: Array<StackTraceElement>?,
+    ) {
+        this.priority = priority
+        this.tag = tag
+        this.message = message
+        this.throwable = throwable
+        this.trace = trace
+    }
+
+    /**
+     * Release the references of the line so it can be reused
+     */
+    fun clear() = set(0, null, "", null, null)
+}
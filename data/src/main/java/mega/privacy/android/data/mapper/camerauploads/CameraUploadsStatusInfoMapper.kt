@@ -68,6 +68,8 @@ class CameraUploadsStatusInfoMapper @Inject constructor() {
                         ),
                         totalCount = getInt(TOTAL_COUNT, 0),
                         progress = getInt(CURRENT_PROGRESS, 0),
+                        totalUploaded = getInt(TOTAL_UPLOADED, 0),
+                        totalToUpload = getInt(TOTAL_TO_UPLOAD, 0),
                     )
                 }
             }
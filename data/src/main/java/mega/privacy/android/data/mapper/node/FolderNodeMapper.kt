@@ -3,6 +3,7 @@ package mega.privacy.android.data.mapper.node
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.model.node.DefaultFolderNode
+import mega.privacy.android.data.model.node.NodeListAttributes
 import mega.privacy.android.domain.entity.node.ExportedData
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeId
@@ -25,12 +26,14 @@ internal class FolderNodeMapper @Inject constructor(
      *
      * @param megaNode
      * @param requireSerializedData
+     * @param listAttributes attributes fetched for the list the node belongs to, if any
      * @return
      */
     suspend operator fun invoke(
         megaNode: MegaNode,
         fromFolderLink: Boolean,
         requireSerializedData: Boolean,
+        listAttributes: NodeListAttributes? = null,
     ): FolderNode = DefaultFolderNode(
         id = NodeId(megaNode.handle),
         name = megaNode.name,
@@ -51,10 +54,12 @@ internal class FolderNodeMapper @Inject constructor(
             ExportedData(it.publicLink, it.publicLinkCreationTime)
         },
         isTakenDown = megaNode.isTakenDown,
-        isInRubbishBin = megaApiGateway.isInRubbish(megaNode),
+        isInRubbishBin = listAttributes?.isInRubbishBin(megaNode)
+            ?: megaApiGateway.isInRubbish(megaNode),
         isIncomingShare = megaNode.isInShare,
         isShared = megaNode.isOutShare,
-        isPendingShare = megaApiGateway.isPendingShare(megaNode),
+        isPendingShare = listAttributes?.isPendingShare(megaNode)
+            ?: megaApiGateway.isPendingShare(megaNode),
         device = megaNode.deviceId,
         isNodeKeyDecrypted = megaNode.isNodeKeyDecrypted,
         creationTime = megaNode.creationTime,
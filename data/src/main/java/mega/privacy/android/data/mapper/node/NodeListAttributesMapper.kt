@@ -0,0 +1,40 @@
+package mega.privacy.android.data.mapper.node
+
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.node.NodeListAttributes
+import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaNode
+import javax.inject.Inject
+
+/**
+ * Fetches the folder attributes of a list of nodes in one pass
+ *
+ * The pending shares come from a single SDK call. The rubbish bin state is looked up once per
+ * parent, as siblings share it. Root nodes have no parent to share it, so they are left to
+ * [FolderNodeMapper].
+ *
+ * @property megaApiGateway
+ */
+internal class NodeListAttributesMapper @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+) {
+    /**
+     * Invoke
+     *
+     * @param megaNodes the nodes of the list
+     * @return the attributes of the folders in the list
+     */
+    suspend operator fun invoke(megaNodes: List<MegaNode>): NodeListAttributes {
+        val folders = megaNodes.filter { it.isFolder }
+        if (folders.isEmpty()) return NodeListAttributes(emptySet(), emptyMap())
+
+        return NodeListAttributes(
+            pendingShareHandles = megaApiGateway.getPendingOutShares()
+                .mapTo(HashSet()) { it.nodeHandle },
+            rubbishBinByParent = folders
+                .filter { it.parentHandle != MegaApiJava.INVALID_HANDLE }
+                .distinctBy { it.parentHandle }
+                .associate { it.parentHandle to megaApiGateway.isInRubbish(it) },
+        )
+    }
+}
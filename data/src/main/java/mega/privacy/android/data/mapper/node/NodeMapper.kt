@@ -1,5 +1,6 @@
 package mega.privacy.android.data.mapper.node
 
+import mega.privacy.android.data.model.node.NodeListAttributes
 import nz.mega.sdk.MegaNode
 import javax.inject.Inject
 
@@ -20,13 +21,15 @@ internal class NodeMapper @Inject constructor(
      * @param megaNode  Mega node to map
      * @param fromFolderLink    If the node mapping is from folder link
      * @param requireSerializedData To se the serializedData only when required and not always
+     * @param listAttributes    Attributes fetched for the list the node belongs to, if any
      */
     suspend operator fun invoke(
         megaNode: MegaNode,
         fromFolderLink: Boolean = false,
         requireSerializedData: Boolean = false,
+        listAttributes: NodeListAttributes? = null,
     ) = if (megaNode.isFolder) {
-        folderNodeMapper(megaNode, fromFolderLink, requireSerializedData)
+        folderNodeMapper(megaNode, fromFolderLink, requireSerializedData, listAttributes)
     } else {
         fileNodeMapper(megaNode, requireSerializedData)
     }
@@ -1,28 +0,0 @@
-package mega.privacy.android.data.mapper.transfer.active
-
-import mega.privacy.android.data.database.entity.ActiveTransferEntity
-import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
-import mega.privacy.android.domain.entity.transfer.TransferType
-import javax.inject.Inject
-
-/**
- * Mapper for converting a list of [ActiveTransferEntity] into [ActiveTransferTotals].
- */
-internal class ActiveTransferTotalsMapper @Inject constructor() {
-    operator fun invoke(
-        type: TransferType,
-        list: List<ActiveTransferEntity>,
-    ): ActiveTransferTotals {
-        val onlyFiles = list.filter { !it.isFolderTransfer }
-        return ActiveTransferTotals(
-            transfersType = type,
-            totalTransfers = list.size,
-            totalFileTransfers = onlyFiles.size,
-            pausedFileTransfers = onlyFiles.count { it.isPaused },
-            totalFinishedTransfers = list.count { it.isFinished },
-            totalFinishedFileTransfers = onlyFiles.count { it.isFinished },
-            totalBytes = onlyFiles.sumOf { it.totalBytes },
-            transferredBytes = 0 // this will be recovered in TRAN-230
-        )
-    }
-}
\ No newline at end of file
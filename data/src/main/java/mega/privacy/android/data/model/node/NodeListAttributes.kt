@@ -0,0 +1,31 @@
+package mega.privacy.android.data.model.node
+
+import nz.mega.sdk.MegaNode
+
+/**
+ * Folder attributes fetched once for a whole list of nodes, instead of once per node
+ *
+ * @property pendingShareHandles Handles of the nodes with pending outgoing shares
+ * @property rubbishBinByParent If the children of each parent are in the rubbish bin
+ */
+internal data class NodeListAttributes(
+    private val pendingShareHandles: Set<Long>,
+    private val rubbishBinByParent: Map<Long, Boolean>,
+) {
+
+    /**
+     * Is pending share
+     *
+     * @param megaNode
+     * @return true if the node has pending outgoing shares
+     */
+    fun isPendingShare(megaNode: MegaNode) = megaNode.handle in pendingShareHandles
+
+    /**
+     * Is in rubbish bin
+     *
+     * @param megaNode
+     * @return if the node is in the rubbish bin, or null if it was not fetched for its parent
+     */
+    fun isInRubbishBin(megaNode: MegaNode) = rubbishBinByParent[megaNode.parentHandle]
+}
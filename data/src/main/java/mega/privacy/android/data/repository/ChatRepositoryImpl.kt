@@ -584,8 +584,8 @@ internal class ChatRepositoryImpl @Inject constructor(
                     && lastMessage?.containsMeta?.type == MegaChatContainsMeta.CONTAINS_META_GEOLOCATION
         }
 
-    override fun monitorMyEmail(): Flow<String?> = megaApiGateway.globalUpdates
-        .filterIsInstance<GlobalUpdate.OnUsersUpdate>()
+    override fun monitorMyEmail(): Flow<String?> = megaApiGateway
+        .globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)
         .mapNotNull {
             it.users?.find { user ->
                 user.isOwnChange <= 0 && user.hasChanged(MegaUser.CHANGE_TYPE_EMAIL.toLong()) && user.email == megaApiGateway.accountEmail
@@ -598,8 +598,8 @@ internal class ChatRepositoryImpl @Inject constructor(
         .flowOn(ioDispatcher)
         .shareIn(sharingScope, SharingStarted.WhileSubscribed(), replay = 1)
 
-    override fun monitorMyName(): Flow<String?> = megaApiGateway.globalUpdates
-        .filterIsInstance<GlobalUpdate.OnUsersUpdate>()
+    override fun monitorMyName(): Flow<String?> = megaApiGateway
+        .globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)
         .mapNotNull {
             it.users?.find { user ->
                 user.isOwnChange <= 0 &&
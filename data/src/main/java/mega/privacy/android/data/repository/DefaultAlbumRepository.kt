@@ -9,7 +9,6 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.filter
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
@@ -178,8 +177,7 @@ internal class DefaultAlbumRepository @Inject constructor(
         }
 
     override fun monitorUserSetsUpdate(): Flow<List<UserSet>> = merge(
-        megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnSetsUpdate>()
+        megaApiGateway.globalUpdatesOf(GlobalUpdate.OnSetsUpdate::class)
             .mapNotNull { it.sets }
             .map { sets -> sets.map { it.toUserSet() } },
         userSetsFlow
@@ -209,8 +207,7 @@ internal class DefaultAlbumRepository @Inject constructor(
     }
 
     override fun monitorAlbumElementIds(albumId: AlbumId): Flow<List<AlbumPhotoId>> = merge(
-        megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnSetElementsUpdate>()
+        megaApiGateway.globalUpdatesOf(GlobalUpdate.OnSetElementsUpdate::class)
             .mapNotNull { it.elements }
             .map { elements -> elements.filter { it.setId() == albumId.id } }
             .onEach(::checkSetsCoverRemoved)
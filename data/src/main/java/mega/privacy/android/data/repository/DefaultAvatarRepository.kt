@@ -7,7 +7,6 @@ import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.asSharedFlow
 import kotlinx.coroutines.flow.catch
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.map
@@ -60,8 +59,7 @@ internal class DefaultAvatarRepository @Inject constructor(
     private val myAvatarFile = MutableSharedFlow<File?>()
 
     init {
-        megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnUsersUpdate>()
+        megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)
             .mapNotNull {
                 val currentUserHandle = megaApiGateway.myUser?.handle
                 it.users?.find { user ->
@@ -7,6 +7,7 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.R
@@ -210,6 +211,13 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         megaLocalRoomGateway.doesLocalPathExist(fileName, isSecondary)
     }
 
+    override suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String> = withContext(ioDispatcher) {
+        megaLocalRoomGateway.getExistingLocalPaths(localPaths, isSecondary)
+    }
+
     override suspend fun saveSyncRecord(record: SyncRecord) = withContext(ioDispatcher) {
         megaLocalRoomGateway.saveSyncRecord(record)
     }
@@ -386,17 +394,15 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         cameraUploadsMediaGateway.sendUpdateFolderDestinationBroadcast(nodeHandle, isSecondary)
     }
 
-    override suspend fun getMediaList(
+    override fun getMediaList(
         mediaStoreFileType: MediaStoreFileType,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia> = withContext(ioDispatcher) {
-        val queue = cameraUploadsMediaGateway.getMediaList(
-            mediaStoreFileTypeUriMapper(mediaStoreFileType),
-            selectionQuery
-        )
-        Timber.d("$mediaStoreFileType count from media store database: ${queue.size}")
-        queue
-    }
+    ): Flow<List<CameraUploadsMedia>> = cameraUploadsMediaGateway.getMediaList(
+        mediaStoreFileTypeUriMapper(mediaStoreFileType),
+        selectionQuery
+    ).onEach {
+        Timber.d("$mediaStoreFileType chunk from media store database: ${it.size}")
+    }.flowOn(ioDispatcher)
 
     override suspend fun getMaxTimestamp(
         isSecondary: Boolean,
@@ -4,6 +4,8 @@ package mega.privacy.android.data.repository
 import android.content.Context
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.filterIsInstance
@@ -60,6 +62,7 @@ import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaStringMap
 import nz.mega.sdk.MegaUser
 import timber.log.Timber
+import java.io.File
 import javax.inject.Inject
 import kotlin.coroutines.Continuation
 import kotlin.coroutines.resume
@@ -81,6 +84,7 @@ import kotlin.coroutines.suspendCoroutine
  * @property contactCredentialsMapper [ContactCredentialsMapper]
  * @property inviteContactRequestMapper [InviteContactRequestMapper]
  * @property localStorageGateway      [MegaLocalStorageGateway]
+ * @property lastGreenRequestLimiter  [LastGreenRequestLimiter]
  */
 internal class DefaultContactsRepository @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
@@ -101,11 +105,11 @@ internal class DefaultContactsRepository @Inject constructor(
     private val databaseHandler: DatabaseHandler,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
     @ApplicationContext private val context: Context,
+    private val lastGreenRequestLimiter: LastGreenRequestLimiter,
 ) : ContactsRepository {
 
     override fun monitorContactRequestUpdates(): Flow<List<ContactRequest>> =
-        megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnContactRequestsUpdate>()
+        megaApiGateway.globalUpdatesOf(GlobalUpdate.OnContactRequestsUpdate::class)
             .mapNotNull { it.requests?.map(contactRequestMapper) }
             .flowOn(ioDispatcher)
 
@@ -132,8 +136,7 @@ internal class DefaultContactsRepository @Inject constructor(
     }
 
     override fun monitorContactUpdates(): Flow<UserUpdate> =
-        megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnUsersUpdate>()
+        megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)
             .mapNotNull { it.users }
             .map { usersList ->
                 userUpdateMapper(usersList.filter { user ->
@@ -152,10 +155,32 @@ internal class DefaultContactsRepository @Inject constructor(
             .flowOn(ioDispatcher)
 
     override suspend fun getVisibleContacts(): List<ContactItem> = withContext(ioDispatcher) {
-        megaApiGateway.getContacts()
+        val contacts = megaApiGateway.getContacts()
             .filter { contact -> contact.visibility == MegaUser.VISIBILITY_VISIBLE }
-            .map { getContactItem(it, false) }
-            .sortList()
+        // List the avatar folder once instead of checking every avatar file
+        val avatarFolder = cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.AVATAR_FOLDER)
+        val avatarFiles = avatarFolder?.list()?.toHashSet().orEmpty()
+        val contactsPerJob = maxOf(
+            MIN_CONTACTS_PER_JOB,
+            (contacts.size + MAX_CONCURRENT_JOBS - 1) / MAX_CONCURRENT_JOBS
+        )
+
+        contacts.chunked(contactsPerJob).map { chunk ->
+            async {
+                chunk.map { megaUser ->
+                    val avatarFileName = megaUser.email + FileConstant.JPG_EXTENSION
+                    val avatarUri = avatarFolder?.takeIf { avatarFileName in avatarFiles }
+                        ?.let { File(it, avatarFileName).absolutePath }
+
+                    getContactItem(
+                        megaUser = megaUser,
+                        fullName = megaChatApiGateway.getUserFullNameFromCache(megaUser.handle),
+                        alias = megaChatApiGateway.getUserAliasFromCache(megaUser.handle),
+                        avatarUri = avatarUri,
+                    )
+                }
+            }
+        }.awaitAll().flatten().sortList()
     }
 
     /**
@@ -164,9 +189,9 @@ internal class DefaultContactsRepository @Inject constructor(
      * @param status User online status.
      * @param userHandle User handle.
      */
-    private suspend fun checkLastGreen(status: Int, userHandle: Long) {
+    private fun checkLastGreen(status: Int, userHandle: Long) {
         if (status != MegaChatApi.STATUS_ONLINE) {
-            megaChatApiGateway.requestLastGreen(userHandle)
+            lastGreenRequestLimiter.request(userHandle)
         }
     }
 
@@ -429,7 +454,6 @@ internal class DefaultContactsRepository @Inject constructor(
             fullName = megaChatApiGateway.getUserFullNameFromCache(megaUser.handle)
             alias = megaChatApiGateway.getUserAliasFromCache(megaUser.handle)
         }
-        val status = megaChatApiGateway.getUserOnlineStatus(megaUser.handle)
         val avatarUri = if (skipCache) {
             getAvatarUri(megaUser.email)
         } else {
@@ -439,6 +463,16 @@ internal class DefaultContactsRepository @Inject constructor(
             )?.takeIf { it.exists() }?.absolutePath
         }
 
+        return getContactItem(megaUser, fullName, alias, avatarUri)
+    }
+
+    private suspend fun getContactItem(
+        megaUser: MegaUser,
+        fullName: String?,
+        alias: String?,
+        avatarUri: String?,
+    ): ContactItem {
+        val status = megaChatApiGateway.getUserOnlineStatus(megaUser.handle)
         checkLastGreen(status, megaUser.handle)
 
         val contactData = contactDataMapper(
@@ -840,4 +874,9 @@ internal class DefaultContactsRepository @Inject constructor(
     override suspend fun isContactRequestSent(email: String) = withContext(ioDispatcher) {
         megaApiGateway.outgoingContactRequests().any { it.targetEmail == email }
     }
+
+    companion object {
+        private const val MAX_CONCURRENT_JOBS = 4
+        private const val MIN_CONTACTS_PER_JOB = 50
+    }
 }
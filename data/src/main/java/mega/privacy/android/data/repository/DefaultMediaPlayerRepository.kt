@@ -5,10 +5,8 @@ import com.google.gson.reflect.TypeToken
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.database.DatabaseHandler
-import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
@@ -19,6 +17,9 @@ import mega.privacy.android.data.mapper.mediaplayer.RepeatToggleModeMapper
 import mega.privacy.android.data.mapper.mediaplayer.SubtitleFileInfoMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.model.MimeTypeList
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailDownloadKey
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailDownloadPriority
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailDownloadScheduler
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.mediaplayer.PlaybackInformation
 import mega.privacy.android.domain.entity.node.TypedFileNode
@@ -50,6 +51,7 @@ internal class DefaultMediaPlayerRepository @Inject constructor(
     private val subtitleFileInfoMapper: SubtitleFileInfoMapper,
     private val mediaPlayerPreferencesGateway: MediaPlayerPreferencesGateway,
     private val repeatToggleModeMapper: RepeatToggleModeMapper,
+    private val thumbnailDownloadScheduler: ThumbnailDownloadScheduler,
 ) : MediaPlayerRepository {
 
     private val playbackInfoMap = mutableMapOf<Long, PlaybackInformation>()
@@ -114,32 +116,26 @@ internal class DefaultMediaPlayerRepository @Inject constructor(
     override suspend fun getThumbnailFromMegaApi(nodeHandle: Long, path: String): Long? =
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(nodeHandle)?.let { node ->
-                suspendCancellableCoroutine { continuation ->
-                    val listener =
-                        continuation.getRequestListener("getThumbnailFromMegaApi") { it.nodeHandle }
-                    megaApi.getThumbnail(node = node, thumbnailFilePath = path, listener = listener)
-                    continuation.invokeOnCancellation {
-                        megaApi.removeRequestListener(listener)
-                    }
-                }
+                thumbnailDownloadScheduler.downloadWithRequest(
+                    ThumbnailDownloadKey(nodeHandle, path),
+                    ThumbnailDownloadPriority.Prefetch,
+                    "getThumbnailFromMegaApi",
+                ) { megaApi.getThumbnail(node = node, thumbnailFilePath = path, listener = it) }
+                node.handle
             }
         }
 
     override suspend fun getThumbnailFromMegaApiFolder(nodeHandle: Long, path: String): Long? =
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(nodeHandle)?.let { node ->
-                suspendCancellableCoroutine { continuation ->
-                    val listener =
-                        continuation.getRequestListener("getThumbnailFromMegaApiFolder") { it.nodeHandle }
-                    megaApiFolder.getThumbnail(
-                        node = node,
-                        thumbnailFilePath = path,
-                        listener = listener
-                    )
-                    continuation.invokeOnCancellation {
-                        megaApi.removeRequestListener(listener)
-                    }
+                thumbnailDownloadScheduler.downloadWithRequest(
+                    ThumbnailDownloadKey(nodeHandle, path),
+                    ThumbnailDownloadPriority.Prefetch,
+                    "getThumbnailFromMegaApiFolder",
+                ) {
+                    megaApiFolder.getThumbnail(node = node, thumbnailFilePath = path, listener = it)
                 }
+                node.handle
             }
         }
 
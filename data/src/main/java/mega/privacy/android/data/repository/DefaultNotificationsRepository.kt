@@ -2,7 +2,6 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.mapNotNull
@@ -49,8 +48,8 @@ internal class DefaultNotificationsRepository @Inject constructor(
     private val appEventGateway: AppEventGateway,
 ) : NotificationsRepository {
 
-    override fun monitorUserAlerts() = megaApiGateway.globalUpdates
-        .filterIsInstance<GlobalUpdate.OnUserAlertsUpdate>()
+    override fun monitorUserAlerts() = megaApiGateway
+        .globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class)
         .mapNotNull { (newUserAlerts) ->
             withContext(dispatcher) {
                 val userAlerts = newUserAlerts?.map { userAlert ->
@@ -71,8 +70,8 @@ internal class DefaultNotificationsRepository @Inject constructor(
             }
         }.flowOn(dispatcher)
 
-    override fun monitorEvent(): Flow<Event> = megaApiGateway.globalUpdates
-        .filterIsInstance<GlobalUpdate.OnEvent>()
+    override fun monitorEvent(): Flow<Event> = megaApiGateway
+        .globalUpdatesOf(GlobalUpdate.OnEvent::class)
         .mapNotNull { (event) ->
             event?.let { eventMapper(it) }
         }
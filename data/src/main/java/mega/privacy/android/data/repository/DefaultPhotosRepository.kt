@@ -12,9 +12,11 @@ import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
-import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.TimelinePhotosIndex
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.extensions.decodeBase64
 import mega.privacy.android.data.extensions.failWithError
@@ -24,6 +26,7 @@ import mega.privacy.android.data.extensions.getRequestListener
 import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.extensions.getValueFor
 import mega.privacy.android.data.extensions.toException
+import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -43,8 +46,10 @@ import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.SvgFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
@@ -57,6 +62,7 @@ import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
+import timber.log.Timber
 import java.io.File
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -69,6 +75,7 @@ import kotlin.coroutines.resumeWithException
  * @property ioDispatcher CoroutineDispatcher
  * @property cacheGateway CacheFolderGateway
  * @property megaLocalStorageFacade MegaLocalStorageGateway
+ * @property appEventGateway AppEventGateway
  * @property imageMapper ImageMapper
  * @property videoMapper VideoMapper
  */
@@ -83,6 +90,7 @@ internal class DefaultPhotosRepository @Inject constructor(
     private val cacheGateway: CacheGateway,
     private val fileGateway: FileGateway,
     private val megaLocalStorageFacade: MegaLocalStorageGateway,
+    private val appEventGateway: AppEventGateway,
     private val dateUtilFacade: DateUtilWrapper,
     private val imageMapper: ImageMapper,
     private val videoMapper: VideoMapper,
@@ -92,6 +100,16 @@ internal class DefaultPhotosRepository @Inject constructor(
 ) : PhotosRepository {
     private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
 
+    private val timelineIndex = TimelinePhotosIndex()
+
+    private val timelineIndexMutex = Mutex()
+
+    /**
+     * Node updates applied while a full search is running, replayed on top of its result.
+     * Null when no search is running. Guarded by [timelineIndexMutex].
+     */
+    private var updatesDuringSearch: MutableList<Pair<Long, Photo?>>? = null
+
     private var thumbnailFolderPath: String? = null
 
     private var previewFolderPath: String? = null
@@ -105,10 +123,21 @@ internal class DefaultPhotosRepository @Inject constructor(
         NodeChanges.Favourite,
         NodeChanges.Attributes,
         NodeChanges.Parent,
+        NodeChanges.Name,
+        NodeChanges.Timestamp,
+        NodeChanges.File_attributes,
+    )
+
+    private val folderRefreshRules = listOf(
+        NodeChanges.New,
+        NodeChanges.Parent,
+        NodeChanges.Remove,
     )
 
     private var monitorNodeUpdatesJob: Job? = null
 
+    private var monitorFetchNodesJob: Job? = null
+
     private var refreshPhotosJob: Job? = null
 
     @Volatile
@@ -118,18 +147,69 @@ internal class DefaultPhotosRepository @Inject constructor(
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = nodeRepository.monitorNodeUpdates()
             .onEach { nodeUpdate ->
-                appScope.launch {
-                    val nodes = nodeUpdate.changes.keys.toList()
-                    nodes.forEach { photosCache.remove(it.id) }
+                nodeUpdate.changes.keys.forEach { photosCache.remove(it.id) }
+                runCatching { applyNodeUpdate(nodeUpdate) }.onFailure {
+                    Timber.e(it, "Failed to apply node update to timeline, rebuilding")
+                    refreshPhotos()
                 }
+            }.launchIn(appScope)
+    }
 
-                appScope.launch {
-                    val changes = nodeUpdate.changes.values
-                    if (changes.flatten().intersect(photosRefreshRules).isNotEmpty()) {
-                        refreshPhotos()
-                    }
+    private fun monitorFetchNodes() {
+        monitorFetchNodesJob?.cancel()
+        monitorFetchNodesJob = appEventGateway.monitorFetchNodesFinish()
+            .filter { it }
+            .onEach { refreshPhotos() }
+            .launchIn(appScope)
+    }
+
+    /**
+     * Apply the node update deltas to the timeline index
+     *
+     * Only the updated nodes are mapped again, the full search is reserved for
+     * [refreshPhotos] calls (fetch nodes, cache invalidation).
+     */
+    private suspend fun applyNodeUpdate(nodeUpdate: NodeUpdate) {
+        val updatedNodes = nodeUpdate.changes.filter { (_, changes) ->
+            changes.contains(NodeChanges.Remove) || changes.any { it in photosRefreshRules }
+        }
+        if (updatedNodes.isEmpty()) return
+
+        // A folder moved, added or removed moves the photos inside it, which are not in the update
+        val hasFolderMoved = updatedNodes.any { (node, changes) ->
+            node is FolderNode && changes.any { it in folderRefreshRules }
+        }
+        if (hasFolderMoved) {
+            refreshPhotos()
+            return
+        }
+
+        val updatedPhotos = withContext(ioDispatcher) {
+            updatedNodes.map { (node, changes) ->
+                val photo = if (changes.contains(NodeChanges.Remove)) {
+                    null
+                } else {
+                    megaApiFacade.getMegaNodeByHandle(node.id.longValue)
+                        ?.let { getTimelinePhoto(it) }
                 }
-            }.launchIn(appScope)
+                node.id.longValue to photo
+            }
+        }
+
+        val snapshot = timelineIndexMutex.withLock {
+            // The running search may have read the nodes before this change, replay it after
+            updatesDuringSearch?.addAll(updatedPhotos)
+            // Changes received before the first full search are replayed on it
+            if (!timelineIndex.isInitialised) return
+
+            var hasChanged = false
+            updatedPhotos.forEach { (id, photo) ->
+                val changed = photo?.let { timelineIndex.upsert(it) } ?: timelineIndex.remove(id)
+                hasChanged = changed || hasChanged
+            }
+            if (hasChanged) timelineIndex.snapshot() else null
+        }
+        snapshot?.let { photos -> photosStateFlow.update { photos } }
     }
 
     private fun monitorRefreshPhotos() {
@@ -138,13 +218,23 @@ internal class DefaultPhotosRepository @Inject constructor(
             .filter { it }
             .conflate()
             .onEach {
+                refreshPhotosStateFlow.value = false
+                timelineIndexMutex.withLock { updatesDuringSearch = mutableListOf() }
                 val photos = searchMegaPhotos()
                 for (photo in photos) {
                     photosCache[NodeId(photo.id)] = photo
                 }
 
-                photosStateFlow.update { photos }
-                refreshPhotosStateFlow.value = false
+                val snapshot = timelineIndexMutex.withLock {
+                    timelineIndex.rebuild(photos)
+                    updatesDuringSearch?.forEach { (id, photo) ->
+                        photosCache.remove(NodeId(id))
+                        photo?.let { timelineIndex.upsert(it) } ?: timelineIndex.remove(id)
+                    }
+                    updatesDuringSearch = null
+                    timelineIndex.snapshot()
+                }
+                photosStateFlow.update { snapshot }
             }.launchIn(appScope)
     }
 
@@ -153,6 +243,7 @@ internal class DefaultPhotosRepository @Inject constructor(
             isMonitoringInitiated = true
 
             monitorNodeUpdates()
+            monitorFetchNodes()
             monitorRefreshPhotos()
         }
         return photosStateFlow.filterNotNull()
@@ -402,6 +493,36 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
     }
 
+    /**
+     * Map a single node to a timeline Photo, applying the same rules as the full search
+     *
+     * @return the Photo, or null if the node does not belong to the timeline
+     */
+    private suspend fun getTimelinePhoto(megaNode: MegaNode): Photo? {
+        if (!megaNode.isFile || !megaNode.isValidPhotoNode() || !megaNode.isInCloudDrive()) {
+            return null
+        }
+        return when (fileTypeInfoMapper(megaNode)) {
+            is SvgFileTypeInfo -> null
+            is VideoFileTypeInfo -> mapMegaNodeToVideo(megaNode)
+            is ImageFileTypeInfo -> mapMegaNodeToImage(megaNode)
+            else -> null
+        }
+    }
+
+    /**
+     * Check if the node is under the cloud drive root node, as searched by [searchImages]
+     */
+    private suspend fun MegaNode.isInCloudDrive(): Boolean {
+        val rootHandle = megaApiFacade.getRootNode()?.handle ?: return false
+        var current: MegaNode? = this
+        while (current != null) {
+            if (current.handle == rootHandle) return true
+            current = megaApiFacade.getParentNode(current)
+        }
+        return false
+    }
+
     private fun checkSvg(filterSvg: Boolean, fileType: ImageFileTypeInfo): Boolean {
         return if (filterSvg) {
             fileType !is SvgFileTypeInfo
@@ -506,11 +627,16 @@ internal class DefaultPhotosRepository @Inject constructor(
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = null
 
+        monitorFetchNodesJob?.cancel()
+        monitorFetchNodesJob = null
+
         refreshPhotosJob?.cancel()
         refreshPhotosJob = null
 
         isMonitoringInitiated = false
         photosCache.clear()
+        timelineIndex.clear()
+        updatesDuringSearch = null
 
         photosStateFlow.value = null
         refreshPhotosStateFlow.value = true
@@ -34,6 +34,7 @@ import mega.privacy.android.data.mapper.transfer.TransferDataMapper
 import mega.privacy.android.data.mapper.transfer.TransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferMapper
 import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.repository.transfers.ActiveTransfersWriteBuffer
 import mega.privacy.android.domain.entity.SdTransfer
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
@@ -86,6 +87,13 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     private val monitorPausedTransfers = MutableStateFlow(false)
 
+    private val activeTransfersWriteBuffer = ActiveTransfersWriteBuffer(
+        megaLocalRoomGateway = megaLocalRoomGateway,
+        scope = scope,
+        ioDispatcher = ioDispatcher,
+        flushIntervalMs = ACTIVE_TRANSFERS_FLUSH_INTERVAL_MS,
+    )
+
     init {
         //update monitorPausedTransfer with current sdk value
         scope.launch {
@@ -408,6 +416,13 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaLocalRoomGateway.getAllCompletedTransfers(size)
             .flowOn(ioDispatcher)
 
+    override fun getCompletedTransfersPage(
+        size: Int,
+        after: CompletedTransfer?,
+    ): Flow<List<CompletedTransfer>> =
+        megaLocalRoomGateway.getCompletedTransfersPage(size, after)
+            .flowOn(ioDispatcher)
+
     override suspend fun addCompletedTransfer(transfer: CompletedTransfer) =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.addCompletedTransfer(transfer)
@@ -449,44 +464,44 @@ internal class DefaultTransfersRepository @Inject constructor(
     }
 
     override suspend fun getActiveTransferByTag(tag: Int) = withContext(ioDispatcher) {
-        megaLocalRoomGateway.getActiveTransferByTag(tag)
+        activeTransfersWriteBuffer.getByTag(tag)
     }
 
     override fun getActiveTransfersByType(transferType: TransferType) =
-        megaLocalRoomGateway
-            .getActiveTransfersByType(transferType)
+        activeTransfersWriteBuffer
+            .monitorByType(transferType)
             .flowOn(ioDispatcher)
             .cancellable()
 
     override suspend fun getCurrentActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
-            megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType)
+            activeTransfersWriteBuffer.getCurrentByType(transferType)
         }
 
     override suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer) =
         withContext(ioDispatcher) {
-            megaLocalRoomGateway.insertOrUpdateActiveTransfer(activeTransfer)
+            activeTransfersWriteBuffer.insertOrUpdate(activeTransfer)
         }
 
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
-            megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
+            activeTransfersWriteBuffer.deleteAllByType(transferType)
         }
 
     override suspend fun setActiveTransferAsFinishedByTag(tags: List<Int>) =
         withContext(ioDispatcher) {
-            megaLocalRoomGateway.setActiveTransferAsFinishedByTag(tags)
+            activeTransfersWriteBuffer.setFinishedByTag(tags)
         }
 
     override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
-        megaLocalRoomGateway
-            .getActiveTransferTotalsByType(transferType)
+        activeTransfersWriteBuffer
+            .monitorTotals(transferType)
             .flowOn(ioDispatcher)
             .cancellable()
 
     override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals =
         withContext(ioDispatcher) {
-            megaLocalRoomGateway.getCurrentActiveTransferTotalsByType(transferType)
+            activeTransfersWriteBuffer.getCurrentTotals(transferType)
         }
 
     override suspend fun getCurrentUploadSpeed() = withContext(ioDispatcher) {
@@ -595,6 +610,13 @@ internal class DefaultTransfersRepository @Inject constructor(
                 "Replace with the corresponding value get from ActiveTransfers when ready"
     )
     override suspend fun getTotalDownloads() = megaApiGateway.totalDownloads
+
+    companion object {
+        /**
+         * Maximum time an active transfer change is kept in memory before being persisted
+         */
+        internal const val ACTIVE_TRANSFERS_FLUSH_INTERVAL_MS = 500L
+    }
 }
 
 private fun MegaTransfer.isCUUpload() =
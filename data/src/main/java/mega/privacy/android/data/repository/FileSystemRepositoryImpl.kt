@@ -253,6 +253,15 @@ internal class FileSystemRepositoryImpl @Inject constructor(
             destinationPath
         }
 
+    override suspend fun createTempFileWithoutGPSCoordinates(root: String, syncRecord: SyncRecord) =
+        withContext(ioDispatcher) {
+            val localPath = syncRecord.localPath
+            val destinationPath = syncRecord.newPath
+                ?: throw IllegalArgumentException("Destination path doesn't exist on sync record: $syncRecord")
+            fileGateway.createTempFileWithoutGPSCoordinates(root, localPath, destinationPath)
+            destinationPath
+        }
+
     override suspend fun removeGPSCoordinates(filePath: String) = withContext(ioDispatcher) {
         fileGateway.removeGPSCoordinates(filePath)
     }
@@ -0,0 +1,89 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.api.MegaChatApiGateway
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Paces the last green requests sent to the chat API
+ *
+ * Requests are queued and sent one at a time, at most one every [minIntervalMillis], and a user
+ * whose last green was requested less than [validityMillis] ago is not requested again. The
+ * results are received through the chat presence last green updates.
+ *
+ * @param megaChatApiGateway [MegaChatApiGateway]
+ * @param scope scope the requests are sent from
+ * @param minIntervalMillis minimum time between two requests
+ * @param validityMillis time during which a user is not requested again
+ * @param clock monotonic clock, in milliseconds
+ */
+@Singleton
+internal class LastGreenRequestLimiter(
+    private val megaChatApiGateway: MegaChatApiGateway,
+    private val scope: CoroutineScope,
+    private val minIntervalMillis: Long,
+    private val validityMillis: Long,
+    private val clock: () -> Long = { TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) },
+) {
+
+    @Inject
+    constructor(
+        megaChatApiGateway: MegaChatApiGateway,
+        @ApplicationScope scope: CoroutineScope,
+    ) : this(
+        megaChatApiGateway = megaChatApiGateway,
+        scope = scope,
+        minIntervalMillis = DEFAULT_MIN_INTERVAL_MILLIS,
+        validityMillis = DEFAULT_VALIDITY_MILLIS,
+    )
+
+    private val lock = Any()
+    private val pending = LinkedHashSet<Long>()
+    private val requestedAt = HashMap<Long, Long>()
+    private var draining = false
+
+    /**
+     * Queue a last green request, unless the user was requested recently
+     *
+     * @param userHandle User handle
+     */
+    fun request(userHandle: Long) {
+        synchronized(lock) {
+            val lastRequest = requestedAt[userHandle]
+            if (lastRequest != null && clock() - lastRequest < validityMillis) return
+            if (!pending.add(userHandle) || draining) return
+            draining = true
+        }
+        scope.launch { drain() }
+    }
+
+    private suspend fun drain() {
+        while (true) {
+            val userHandle = synchronized(lock) {
+                val iterator = pending.iterator()
+                if (!iterator.hasNext()) {
+                    draining = false
+                    return
+                }
+                iterator.next().also {
+                    iterator.remove()
+                    requestedAt[it] = clock()
+                }
+            }
+            runCatching { megaChatApiGateway.requestLastGreen(userHandle) }
+                .onFailure { Timber.w(it, "Error requesting last green") }
+            delay(minIntervalMillis)
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_MIN_INTERVAL_MILLIS = 50L
+        private val DEFAULT_VALIDITY_MILLIS = TimeUnit.MINUTES.toMillis(5)
+    }
+}
@@ -4,7 +4,6 @@ import android.content.Context
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
@@ -268,8 +267,7 @@ internal class NodeRepositoryImpl @Inject constructor(
         }
 
     override fun monitorNodeUpdates(): Flow<NodeUpdate> {
-        return megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+        return megaApiGateway.globalUpdatesOf(GlobalUpdate.OnNodesUpdate::class)
             .mapNotNull {
                 it.nodeList?.map { megaNode ->
                     convertToUnTypedNode(megaNode) to nodeUpdateMapper(megaNode)
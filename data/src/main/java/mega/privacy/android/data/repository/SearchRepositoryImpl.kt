@@ -4,6 +4,7 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
+import mega.privacy.android.data.mapper.node.NodeListAttributesMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryIntMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryMapper
@@ -28,6 +29,7 @@ internal class SearchRepositoryImpl @Inject constructor(
     private val searchCategoryMapper: SearchCategoryMapper,
     private val searchCategoryIntMapper: SearchCategoryIntMapper,
     private val nodeMapper: NodeMapper,
+    private val nodeListAttributesMapper: NodeListAttributesMapper,
     private val sortOrderIntMapper: SortOrderIntMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     private val getLinksSortOrder: GetLinksSortOrder,
@@ -75,7 +77,7 @@ internal class SearchRepositoryImpl @Inject constructor(
                             type = searchCategoryIntMapper(searchCategory)
                         )
                     }
-                    searchList.map { item -> nodeMapper(item) }
+                    searchList.toUnTypedNodes()
                 }
             }
         }.orEmpty()
@@ -95,7 +97,7 @@ internal class SearchRepositoryImpl @Inject constructor(
                     sortOrderIntMapper(order)
                 )
             }
-            list.map { nodeMapper(it) }
+            list.toUnTypedNodes()
         }
     }
 
@@ -120,7 +122,7 @@ internal class SearchRepositoryImpl @Inject constructor(
                     megaCancelToken = cancelTokenProvider.getOrCreateCancelToken(),
                     order = sortOrderIntMapper(order)
                 )
-            }.map { nodeMapper(it) }
+            }.toUnTypedNodes()
         }
 
     override suspend fun searchLinkShares(
@@ -140,7 +142,7 @@ internal class SearchRepositoryImpl @Inject constructor(
                 cancelTokenProvider.getOrCreateCancelToken(),
                 sortOrderIntMapper(order)
             )
-        }.map { nodeMapper(it) }
+        }.toUnTypedNodes()
     }
 
     private suspend fun getNodeChildren(
@@ -156,9 +158,17 @@ internal class SearchRepositoryImpl @Inject constructor(
             } ?: run {
                 megaApiGateway.getChildrenByNode(parent)
             }
-            childList.map { nodeMapper(it) }
+            childList.toUnTypedNodes()
         } ?: run {
             emptyList()
         }
     }
+
+    /**
+     * Maps the nodes of a list, fetching the attributes shared by the list once
+     */
+    private suspend fun List<MegaNode>.toUnTypedNodes(): List<UnTypedNode> {
+        val listAttributes = nodeListAttributesMapper(this)
+        return map { nodeMapper(it, listAttributes = listAttributes) }
+    }
 }
\ No newline at end of file
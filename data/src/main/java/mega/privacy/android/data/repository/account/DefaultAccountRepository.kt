@@ -7,7 +7,6 @@ import androidx.preference.PreferenceManager
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.map
@@ -246,8 +245,8 @@ internal class DefaultAccountRepository @Inject constructor(
             }
         }
 
-    override fun monitorUserUpdates() = megaApiGateway.globalUpdates
-        .filterIsInstance<GlobalUpdate.OnUsersUpdate>()
+    override fun monitorUserUpdates() = megaApiGateway
+        .globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)
         .mapNotNull { it.users }
         .map { userUpdateMapper(it) }
 
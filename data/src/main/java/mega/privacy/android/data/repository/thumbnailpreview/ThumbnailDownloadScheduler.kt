@@ -0,0 +1,363 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.extensions.getRequestListener
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import nz.mega.sdk.MegaRequestListenerInterface
+import java.util.TreeSet
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.coroutines.suspendCoroutine
+
+/**
+ * Schedules the downloads of thumbnails and previews
+ *
+ * Requests for a file which is already queued or downloading are merged into that download.
+ * Queued downloads start visible first and, within the same priority, newest first, so the cells
+ * the user has just scrolled to are not stuck behind those already scrolled past. When more than
+ * [maxQueuedDownloads] are waiting, the oldest of the lowest priority is dropped. A download is
+ * cancelled once every caller waiting for it has been cancelled.
+ *
+ * The SDK cannot cancel a thumbnail or preview request, so a download started with
+ * [downloadWithRequest] or [enqueueWithRequest] keeps its slot until the SDK finishes the request,
+ * even after it has been cancelled. Otherwise cancelled requests would keep running in the SDK on
+ * top of [maxConcurrentDownloads].
+ *
+ * @param scope scope where the downloads run
+ * @param maxConcurrentDownloads maximum number of downloads running at the same time
+ * @param maxQueuedDownloads maximum number of downloads waiting to start
+ * @param clock monotonic time source in nanoseconds, used for the queue latency
+ */
+@Singleton
+internal class ThumbnailDownloadScheduler(
+    private val scope: CoroutineScope,
+    private val maxConcurrentDownloads: Int,
+    private val maxQueuedDownloads: Int,
+    private val clock: () -> Long = System::nanoTime,
+) {
+
+    @Inject
+    constructor(@ApplicationScope scope: CoroutineScope) : this(
+        scope = scope,
+        maxConcurrentDownloads = MAX_CONCURRENT_DOWNLOADS,
+        maxQueuedDownloads = MAX_QUEUED_DOWNLOADS,
+    )
+
+    init {
+        require(maxConcurrentDownloads > 0) { "maxConcurrentDownloads must be positive" }
+        require(maxQueuedDownloads > 0) { "maxQueuedDownloads must be positive" }
+    }
+
+    private class Download(
+        val key: ThumbnailDownloadKey,
+        var priority: ThumbnailDownloadPriority,
+        var sequence: Long,
+        val enqueuedAt: Long,
+        val block: suspend () -> Unit,
+    ) {
+        val result = CompletableDeferred<Unit>()
+        var waiters = 1
+        var job: Job? = null
+    }
+
+    private val lock = Any()
+    private val downloads = HashMap<ThumbnailDownloadKey, Download>()
+    private val queue = TreeSet(
+        compareByDescending<Download> { it.priority }.thenByDescending { it.sequence }
+    )
+    private var running = 0
+    private var nextSequence = 0L
+
+    private var requests = 0L
+    private var merged = 0L
+    private var started = 0L
+    private var dropped = 0L
+    private var cancelled = 0L
+    private var totalQueueNanos = 0L
+    private var maxQueueNanos = 0L
+
+    /**
+     * Current counters of the scheduler
+     */
+    val stats: ThumbnailDownloadStats
+        get() = synchronized(lock) {
+            ThumbnailDownloadStats(
+                requests = requests,
+                merged = merged,
+                started = started,
+                dropped = dropped,
+                cancelled = cancelled,
+                queued = queue.size,
+                running = running,
+                averageQueueMillis =
+                    if (started == 0L) 0 else totalQueueNanos / started / NANOS_PER_MILLI,
+                maxQueueMillis = maxQueueNanos / NANOS_PER_MILLI,
+            )
+        }
+
+    /**
+     * Download a file, or wait for the download of the same file already scheduled
+     *
+     * @param key file to download
+     * @param priority priority of the request
+     * @param block downloads the file, throwing if it fails. It only runs if no download of the
+     * same file is scheduled
+     * @throws ThumbnailDownloadDroppedException if the download was dropped from a full queue
+     */
+    suspend fun download(
+        key: ThumbnailDownloadKey,
+        priority: ThumbnailDownloadPriority,
+        block: suspend () -> Unit,
+    ) {
+        val download = join(key, priority, block)
+        startQueued()
+        try {
+            download.result.await()
+        } catch (e: CancellationException) {
+            leave(download)
+            throw e
+        }
+    }
+
+    /**
+     * Schedule a download without waiting for it
+     *
+     * @param key file to download
+     * @param priority priority of the request
+     * @param block downloads the file, throwing if it fails
+     * @param onComplete called with the result of the download
+     */
+    fun enqueue(
+        key: ThumbnailDownloadKey,
+        priority: ThumbnailDownloadPriority,
+        block: suspend () -> Unit,
+        onComplete: (success: Boolean) -> Unit,
+    ) {
+        scope.launch {
+            val success = try {
+                download(key, priority, block)
+                true
+            } catch (e: CancellationException) {
+                throw e
+            } catch (e: Throwable) {
+                false
+            }
+            onComplete(success)
+        }
+    }
+
+    /**
+     * Download a file with an SDK request, or wait for the download of the same file already
+     * scheduled
+     *
+     * @param key file to download
+     * @param priority priority of the request
+     * @param methodName name of the SDK method, for the error logs
+     * @param request starts the SDK request, which must finish through the given listener
+     * @throws ThumbnailDownloadDroppedException if the download was dropped from a full queue
+     */
+    suspend fun downloadWithRequest(
+        key: ThumbnailDownloadKey,
+        priority: ThumbnailDownloadPriority,
+        methodName: String,
+        request: (MegaRequestListenerInterface) -> Unit,
+    ) = download(key, priority, requestBlock(methodName, request))
+
+    /**
+     * Schedule a download with an SDK request without waiting for it
+     *
+     * @param key file to download
+     * @param priority priority of the request
+     * @param methodName name of the SDK method, for the error logs
+     * @param request starts the SDK request, which must finish through the given listener
+     * @param onComplete called with the result of the download
+     */
+    fun enqueueWithRequest(
+        key: ThumbnailDownloadKey,
+        priority: ThumbnailDownloadPriority,
+        methodName: String,
+        request: (MegaRequestListenerInterface) -> Unit,
+        onComplete: (success: Boolean) -> Unit,
+    ) = enqueue(key, priority, requestBlock(methodName, request), onComplete)
+
+    /**
+     * The block does not resume on cancellation, the download only completes, and releases its
+     * slot, when the SDK calls the listener back
+     */
+    private fun requestBlock(
+        methodName: String,
+        request: (MegaRequestListenerInterface) -> Unit,
+    ): suspend () -> Unit = {
+        suspendCoroutine { continuation ->
+            request(continuation.getRequestListener(methodName) {})
+        }
+    }
+
+    private fun join(
+        key: ThumbnailDownloadKey,
+        priority: ThumbnailDownloadPriority,
+        block: suspend () -> Unit,
+    ): Download {
+        var evicted: Download? = null
+        val download = synchronized(lock) {
+            requests++
+            downloads[key]?.let { existing ->
+                merged++
+                existing.waiters++
+                if (priority >= existing.priority && queue.remove(existing)) {
+                    existing.priority = priority
+                    existing.sequence = nextSequence++
+                    queue.add(existing)
+                } else if (priority > existing.priority) {
+                    existing.priority = priority
+                }
+                return existing
+            }
+            Download(key, priority, nextSequence++, clock(), block).also {
+                downloads[key] = it
+                queue.add(it)
+                if (queue.size > maxQueuedDownloads) {
+                    evicted = queue.pollLast()?.also { eldest ->
+                        downloads.remove(eldest.key)
+                        dropped++
+                    }
+                }
+            }
+        }
+        evicted?.let { it.result.completeExceptionally(ThumbnailDownloadDroppedException(it.key)) }
+        return download
+    }
+
+    private fun leave(download: Download) {
+        val job = synchronized(lock) {
+            if (--download.waiters > 0 || download.result.isCompleted) return
+            cancelled++
+            downloads.remove(download.key)
+            if (queue.remove(download)) null else download.job
+        }
+        if (job != null) {
+            job.cancel()
+        } else {
+            download.result.cancel()
+        }
+    }
+
+    private fun startQueued() {
+        while (true) {
+            val download = synchronized(lock) {
+                if (running >= maxConcurrentDownloads) return
+                val next = queue.pollFirst() ?: return
+                running++
+                started++
+                val queueNanos = clock() - next.enqueuedAt
+                totalQueueNanos += queueNanos
+                maxQueueNanos = maxOf(maxQueueNanos, queueNanos)
+                next.job = scope.launch(start = CoroutineStart.LAZY) {
+                    try {
+                        next.block()
+                    } catch (e: CancellationException) {
+                        throw e
+                    } catch (e: Throwable) {
+                        next.result.completeExceptionally(e)
+                    }
+                }.apply { invokeOnCompletion { cause -> onFinished(next, cause) } }
+                next
+            }
+            download.job?.start()
+        }
+    }
+
+    private fun onFinished(download: Download, cause: Throwable?) {
+        synchronized(lock) {
+            running--
+            if (downloads[download.key] === download) downloads.remove(download.key)
+        }
+        if (cause == null) {
+            download.result.complete(Unit)
+        } else {
+            download.result.completeExceptionally(cause)
+        }
+        startQueued()
+    }
+
+    companion object {
+        /**
+         * Default maximum number of downloads running at the same time
+         */
+        const val MAX_CONCURRENT_DOWNLOADS = 4
+
+        /**
+         * Default maximum number of downloads waiting to start
+         */
+        const val MAX_QUEUED_DOWNLOADS = 256
+
+        private const val NANOS_PER_MILLI = 1_000_000L
+    }
+}
+
+/**
+ * File downloaded by the [ThumbnailDownloadScheduler]
+ *
+ * @property handle handle of the node
+ * @property path destination of the thumbnail or preview
+ */
+internal data class ThumbnailDownloadKey(val handle: Long, val path: String)
+
+/**
+ * Priority of a thumbnail or preview download
+ */
+internal enum class ThumbnailDownloadPriority {
+    /**
+     * Requested ahead of being displayed
+     */
+    Prefetch,
+
+    /**
+     * Requested to be displayed now
+     */
+    Visible,
+}
+
+/**
+ * Counters of a [ThumbnailDownloadScheduler]
+ *
+ * @property requests requests received
+ * @property merged requests merged into a download already scheduled
+ * @property started downloads started
+ * @property dropped downloads dropped from a full queue
+ * @property cancelled downloads cancelled after all their callers were cancelled
+ * @property queued downloads waiting to start
+ * @property running downloads running
+ * @property averageQueueMillis average time waited by the started downloads
+ * @property maxQueueMillis longest time waited by a started download
+ */
+internal data class ThumbnailDownloadStats(
+    val requests: Long,
+    val merged: Long,
+    val started: Long,
+    val dropped: Long,
+    val cancelled: Long,
+    val queued: Int,
+    val running: Int,
+    val averageQueueMillis: Long,
+    val maxQueueMillis: Long,
+) {
+    /**
+     * Fraction of the requests served by a download already scheduled
+     */
+    val dedupRatio: Double
+        get() = if (requests == 0L) 0.0 else merged.toDouble() / requests
+}
+
+/**
+ * Thrown to the callers of a download dropped from a full queue
+ *
+ * @param key file which was not downloaded
+ */
+internal class ThumbnailDownloadDroppedException(key: ThumbnailDownloadKey) :
+    RuntimeException("Download of ${key.path} dropped from a full queue")
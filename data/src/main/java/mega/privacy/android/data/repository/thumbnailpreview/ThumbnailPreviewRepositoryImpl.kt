@@ -11,11 +11,9 @@ import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
-import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.wrapper.StringWrapper
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
-import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import java.io.File
 import javax.inject.Inject
@@ -26,6 +24,7 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val cacheGateway: CacheGateway,
     private val stringWrapper: StringWrapper,
+    private val downloadScheduler: ThumbnailDownloadScheduler,
 ) : ThumbnailPreviewRepository {
 
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
@@ -57,13 +56,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 if (!node.hasThumbnail()) return@withContext null
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getThumbnailFromServer") {
-                            thumbnail
-                        }
-                        megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-                    }
+                    downloadScheduler.downloadWithRequest(
+                        ThumbnailDownloadKey(handle, thumbnail.absolutePath),
+                        ThumbnailDownloadPriority.Visible,
+                        "getThumbnailFromServer",
+                    ) { megaApi.getThumbnail(node, thumbnail.absolutePath, it) }
+                    thumbnail
                 }
             }
         }
@@ -72,16 +70,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         withContext(ioDispatcher) {
             megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener =
-                            continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
-                                thumbnail
-                            }
-                        megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation {
-                            megaApiFolder.removeRequestListener(listener)
-                        }
-                    }
+                    downloadScheduler.downloadWithRequest(
+                        ThumbnailDownloadKey(handle, thumbnail.absolutePath),
+                        ThumbnailDownloadPriority.Visible,
+                        "getPublicNodeThumbnailFromServer",
+                    ) { megaApiFolder.getThumbnail(node, thumbnail.absolutePath, it) }
+                    thumbnail
                 }
             }
         }
@@ -106,13 +100,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 getPreviewFile(node)?.let { preview ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getPreviewFromServer") {
-                            preview
-                        }
-                        megaApi.getPreview(node, preview.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-                    }
+                    downloadScheduler.downloadWithRequest(
+                        ThumbnailDownloadKey(handle, preview.absolutePath),
+                        ThumbnailDownloadPriority.Visible,
+                        "getPreviewFromServer",
+                    ) { megaApi.getPreview(node, preview.absolutePath, it) }
+                    preview
                 }
             }
         }
@@ -128,14 +121,13 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             callback(false)
         } else {
-            megaApi.getThumbnail(
-                node,
-                getThumbnailPath(thumbnailFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
+            val path = getThumbnailPath(thumbnailFolderPath, node)
+            downloadScheduler.enqueueWithRequest(
+                key = ThumbnailDownloadKey(handle, path),
+                priority = ThumbnailDownloadPriority.Visible,
+                methodName = "downloadThumbnail",
+                request = { megaApi.getThumbnail(node, path, it) },
+                onComplete = callback,
             )
         }
     }
@@ -151,14 +143,13 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             callback(false)
         } else {
-            megaApi.getPreview(
-                node,
-                getPreviewPath(previewFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
+            val path = getPreviewPath(previewFolderPath, node)
+            downloadScheduler.enqueueWithRequest(
+                key = ThumbnailDownloadKey(handle, path),
+                priority = ThumbnailDownloadPriority.Visible,
+                methodName = "downloadPreview",
+                request = { megaApi.getPreview(node, path, it) },
+                onComplete = callback,
             )
         }
     }
@@ -173,18 +164,13 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             return@withContext false
         } else {
-            return@withContext suspendCancellableCoroutine { continuation ->
-                val listener = continuation.getRequestListener("getThumbnail") {
-                    true
-                }
-                megaApi.getThumbnail(
-                    node,
-                    getThumbnailPath(thumbnailFolderPath, node),
-                    listener
-                )
-
-                continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-            }
+            val path = getThumbnailPath(thumbnailFolderPath, node)
+            downloadScheduler.downloadWithRequest(
+                ThumbnailDownloadKey(handle, path),
+                ThumbnailDownloadPriority.Visible,
+                "getThumbnail",
+            ) { megaApi.getThumbnail(node, path, it) }
+            return@withContext true
         }
     }
 
@@ -198,18 +184,13 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             return@withContext false
         } else {
-            return@withContext suspendCancellableCoroutine { continuation ->
-                val listener = continuation.getRequestListener("getThumbnail") {
-                    true
-                }
-                megaApi.getPreview(
-                    node,
-                    getPreviewPath(previewFolderPath, node),
-                    listener
-                )
-
-                continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
-            }
+            val path = getPreviewPath(previewFolderPath, node)
+            downloadScheduler.downloadWithRequest(
+                ThumbnailDownloadKey(handle, path),
+                ThumbnailDownloadPriority.Visible,
+                "getPreview",
+            ) { megaApi.getPreview(node, path, it) }
+            return@withContext true
         }
     }
 
@@ -0,0 +1,226 @@
+package mega.privacy.android.data.repository.transfers
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
+import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import mega.privacy.android.domain.entity.transfer.TransferType
+import timber.log.Timber
+
+/**
+ * Write-behind buffer for active transfers
+ *
+ * Keeps the latest state of each active transfer in memory and persists the changes in batches,
+ * at most once every [flushIntervalMs], instead of one database write per transfer event.
+ * The [ActiveTransferTotals] of each type are maintained incrementally from the in-memory state,
+ * so they don't need to be recomputed from the database on each change.
+ *
+ * @property megaLocalRoomGateway
+ * @property scope scope used to run the delayed flushes
+ * @property ioDispatcher
+ * @property flushIntervalMs maximum time a change is kept in memory before being persisted
+ */
+internal class ActiveTransfersWriteBuffer(
+    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val scope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher,
+    private val flushIntervalMs: Long,
+) {
+    private val stateMutex = Mutex()
+    private val databaseMutex = Mutex()
+    private val pendingWrites = LinkedHashMap<Int, ActiveTransfer>()
+    private val states = HashMap<TransferType, ActiveTransfersState>()
+    private var flushJob: Job? = null
+
+    /**
+     * Insert or update an active transfer, the change will be persisted on the next flush
+     */
+    suspend fun insertOrUpdate(activeTransfer: ActiveTransfer) {
+        val state = getState(activeTransfer.transferType)
+        stateMutex.withLock {
+            state.put(activeTransfer)
+            pendingWrites[activeTransfer.tag] = activeTransfer
+            scheduleFlush()
+        }
+    }
+
+    /**
+     * Get the latest known state of an active transfer
+     */
+    suspend fun getByTag(tag: Int): ActiveTransfer? =
+        stateMutex.withLock {
+            pendingWrites[tag] ?: states.values.firstNotNullOfOrNull { it.transfers[tag] }
+        } ?: megaLocalRoomGateway.getActiveTransferByTag(tag)
+
+    /**
+     * Get the latest known state of the active transfers of this type
+     */
+    suspend fun getCurrentByType(transferType: TransferType): List<ActiveTransfer> {
+        val state = getState(transferType)
+        return stateMutex.withLock { state.transfers.values.toList() }
+    }
+
+    /**
+     * Monitor the latest known state of the active transfers of this type
+     *
+     * The list is only copied when a collector reads it, the changes received in between are
+     * conflated.
+     */
+    fun monitorByType(transferType: TransferType): Flow<List<ActiveTransfer>> = flow {
+        val state = getState(transferType)
+        emitAll(state.version.map { stateMutex.withLock { state.transfers.values.toList() } })
+    }
+
+    /**
+     * Monitor the totals of this type, only distinct totals are emitted
+     */
+    fun monitorTotals(transferType: TransferType): Flow<ActiveTransferTotals> = flow {
+        emitAll(getState(transferType).totals)
+    }
+
+    /**
+     * Get the current totals of this type
+     */
+    suspend fun getCurrentTotals(transferType: TransferType): ActiveTransferTotals =
+        getState(transferType).totals.value
+
+    /**
+     * Delete all the active transfers of this type, including the ones not persisted yet
+     */
+    suspend fun deleteAllByType(transferType: TransferType) {
+        val state = getState(transferType)
+        databaseMutex.withLock {
+            stateMutex.withLock {
+                pendingWrites.values.removeAll { it.transferType == transferType }
+                state.clear()
+            }
+            megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
+        }
+    }
+
+    /**
+     * Set the active transfers with these tags as finished
+     */
+    suspend fun setFinishedByTag(tags: List<Int>) {
+        databaseMutex.withLock {
+            stateMutex.withLock {
+                tags.forEach { tag ->
+                    pendingWrites[tag]?.let { pendingWrites[tag] = it.asFinished() }
+                    states.values.forEach { state ->
+                        state.transfers[tag]?.let { state.put(it.asFinished()) }
+                    }
+                }
+            }
+            megaLocalRoomGateway.setActiveTransferAsFinishedByTag(tags)
+        }
+    }
+
+    /**
+     * Persist all the pending changes in a single transaction
+     */
+    suspend fun flush() {
+        databaseMutex.withLock {
+            val batch = stateMutex.withLock {
+                flushJob = null
+                pendingWrites.values.toList().also { pendingWrites.clear() }
+            }
+            if (batch.isNotEmpty()) {
+                megaLocalRoomGateway.insertOrUpdateActiveTransfers(batch)
+            }
+        }
+    }
+
+    private fun scheduleFlush() {
+        if (flushJob?.isActive == true) return
+        flushJob = scope.launch {
+            delay(flushIntervalMs)
+            runCatching { withContext(ioDispatcher) { flush() } }
+                .onFailure { Timber.e(it, "Error flushing active transfers") }
+        }
+    }
+
+    private suspend fun getState(transferType: TransferType): ActiveTransfersState {
+        stateMutex.withLock { states[transferType] }?.let { return it }
+        val persisted = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType)
+        return stateMutex.withLock {
+            states.getOrPut(transferType) {
+                ActiveTransfersState(transferType).apply { persisted.forEach { put(it) } }
+            }
+        }
+    }
+
+    private fun ActiveTransfer.asFinished() = ActiveTransferEntity(
+        tag = tag,
+        transferType = transferType,
+        totalBytes = totalBytes,
+        isFinished = true,
+        isFolderTransfer = isFolderTransfer,
+        isPaused = isPaused,
+    )
+
+    /**
+     * In-memory active transfers of a type and their incrementally maintained totals
+     *
+     * [version] changes on each change of [transfers], to notify the list collectors.
+     */
+    private class ActiveTransfersState(private val transferType: TransferType) {
+        val transfers = HashMap<Int, ActiveTransfer>()
+        val totals = MutableStateFlow(emptyTotals())
+        val version = MutableStateFlow(0L)
+
+        fun put(activeTransfer: ActiveTransfer) {
+            val previous = transfers.put(activeTransfer.tag, activeTransfer)
+            version.value++
+            var updated = totals.value
+            previous?.let { updated = updated.accumulate(it, -1) }
+            totals.value = updated.accumulate(activeTransfer, 1)
+        }
+
+        fun clear() {
+            transfers.clear()
+            totals.value = emptyTotals()
+            version.value++
+        }
+
+        private fun emptyTotals() = ActiveTransferTotals(
+            transfersType = transferType,
+            totalTransfers = 0,
+            totalFileTransfers = 0,
+            pausedFileTransfers = 0,
+            totalFinishedTransfers = 0,
+            totalFinishedFileTransfers = 0,
+            totalBytes = 0L,
+            transferredBytes = 0L,
+        )
+
+        private fun ActiveTransferTotals.accumulate(
+            activeTransfer: ActiveTransfer,
+            sign: Int,
+        ): ActiveTransferTotals {
+            val isFile = !activeTransfer.isFolderTransfer
+            return copy(
+                totalTransfers = totalTransfers + sign,
+                totalFileTransfers = totalFileTransfers + sign.onlyIf(isFile),
+                pausedFileTransfers = pausedFileTransfers + sign.onlyIf(isFile && activeTransfer.isPaused),
+                totalFinishedTransfers = totalFinishedTransfers + sign.onlyIf(activeTransfer.isFinished),
+                totalFinishedFileTransfers = totalFinishedFileTransfers + sign.onlyIf(isFile && activeTransfer.isFinished),
+                totalBytes = totalBytes + if (isFile) sign * activeTransfer.totalBytes else 0L,
+            )
+        }
+
+        private fun Int.onlyIf(condition: Boolean) = if (condition) this else 0
+    }
+}
@@ -0,0 +1,136 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+
+class DiskLruIndexTest {
+
+    @TempDir
+    lateinit var directory: File
+
+    private val now = 10 * DiskLruIndex.DEFAULT_MIN_AGE_MILLIS
+
+    private lateinit var underTest: DiskLruIndex
+
+    @BeforeEach
+    fun setUp() {
+        underTest = createIndex()
+    }
+
+    private fun createIndex(maxBytes: Long = 10) = DiskLruIndex(
+        directory = directory,
+        maxBytes = maxBytes,
+        clock = { now },
+    )
+
+    private fun createFile(name: String, size: Int, modified: Long = 0) =
+        File(directory, name).apply {
+            writeBytes(ByteArray(size))
+            setLastModified(modified)
+        }
+
+    @Test
+    fun `test that nothing is evicted while the folder fits in the budget`() {
+        createFile("a", 4)
+        createFile("b", 4)
+
+        val result = underTest.trim()
+
+        assertThat(result).isEqualTo(
+            DiskTrimResult(totalBytes = 8, evictedFiles = 0, evictedBytes = 0)
+        )
+        assertThat(File(directory, "a").exists()).isTrue()
+        assertThat(File(directory, "b").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that unknown files are evicted oldest modified first`() {
+        createFile("new", 4, modified = 3000)
+        createFile("old", 4, modified = 1000)
+        createFile("middle", 4, modified = 2000)
+
+        val result = underTest.trim()
+
+        assertThat(result.evictedFiles).isEqualTo(1)
+        assertThat(result.totalBytes).isEqualTo(8)
+        assertThat(File(directory, "old").exists()).isFalse()
+        assertThat(File(directory, "middle").exists()).isTrue()
+        assertThat(File(directory, "new").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that accessed files are evicted last`() {
+        createFile("a", 4, modified = 1000)
+        createFile("b", 4, modified = 2000)
+        underTest.trim()
+
+        underTest.recordAccess("a")
+        createFile("c", 4, modified = 3000)
+        underTest.trim()
+
+        assertThat(File(directory, "a").exists()).isTrue()
+        assertThat(File(directory, "b").exists()).isFalse()
+        assertThat(File(directory, "c").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that recently modified files are not evicted`() {
+        createFile("a", 8, modified = now - 1000)
+        createFile("b", 8, modified = now - 2000)
+
+        val result = underTest.trim()
+
+        assertThat(result.evictedFiles).isEqualTo(0)
+        assertThat(result.totalBytes).isEqualTo(16)
+    }
+
+    @Test
+    fun `test that the access order is restored from the journal`() {
+        createFile("a", 4, modified = 1000)
+        createFile("b", 4, modified = 2000)
+        underTest.trim()
+        underTest.recordAccess("a")
+        underTest.trim()
+
+        createFile("c", 4, modified = 3000)
+        createIndex().trim()
+
+        assertThat(File(directory, "a").exists()).isTrue()
+        assertThat(File(directory, "b").exists()).isFalse()
+        assertThat(File(directory, DiskLruIndex.JOURNAL_FILE).exists()).isTrue()
+    }
+
+    @Test
+    fun `test that files accessed before being written are measured on the next trim`() {
+        underTest.recordAccess("a")
+        underTest.trim()
+        createFile("a", 12)
+
+        val result = underTest.trim()
+
+        assertThat(result.evictedFiles).isEqualTo(1)
+        assertThat(File(directory, "a").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that deleted files are forgotten`() {
+        createFile("a", 4)
+        createFile("b", 4)
+        underTest.trim()
+
+        File(directory, "a").delete()
+
+        assertThat(underTest.trim().totalBytes).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that a corrupted journal is ignored`() {
+        createFile("a", 4)
+        File(directory, DiskLruIndex.JOURNAL_FILE).writeText("S x\nR\nS 4\n")
+
+        assertThat(underTest.trim().totalBytes).isEqualTo(4)
+    }
+}
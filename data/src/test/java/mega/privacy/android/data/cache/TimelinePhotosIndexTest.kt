@@ -0,0 +1,98 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDateTime
+
+internal class TimelinePhotosIndexTest {
+    private lateinit var underTest: TimelinePhotosIndex
+
+    private val now = LocalDateTime.of(2023, 1, 1, 12, 0)
+
+    @Before
+    fun setUp() {
+        underTest = TimelinePhotosIndex()
+    }
+
+    @Test
+    fun `test that rebuild sorts photos by modification time descending`() {
+        val old = createPhoto(id = 1L, minutesAgo = 10)
+        val newest = createPhoto(id = 2L, minutesAgo = 0)
+        val middle = createPhoto(id = 3L, minutesAgo = 5)
+
+        underTest.rebuild(listOf(old, newest, middle))
+
+        assertThat(underTest.isInitialised).isTrue()
+        assertThat(underTest.snapshot()).containsExactly(newest, middle, old).inOrder()
+    }
+
+    @Test
+    fun `test that upsert replaces an existing photo and keeps the order`() {
+        val first = createPhoto(id = 1L, minutesAgo = 10)
+        val second = createPhoto(id = 2L, minutesAgo = 5)
+        underTest.rebuild(listOf(first, second))
+
+        val updated = first.copy(modificationTime = now)
+
+        assertThat(underTest.upsert(updated)).isTrue()
+        assertThat(underTest.snapshot()).containsExactly(updated, second).inOrder()
+        assertThat(underTest.size).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that upsert of an identical photo does not change the snapshot`() {
+        val photo = createPhoto(id = 1L, minutesAgo = 1)
+        underTest.rebuild(listOf(photo))
+        val snapshot = underTest.snapshot()
+
+        assertThat(underTest.upsert(photo.copy())).isFalse()
+        assertThat(underTest.snapshot()).isSameInstanceAs(snapshot)
+    }
+
+    @Test
+    fun `test that remove deletes the photo from the snapshot`() {
+        val first = createPhoto(id = 1L, minutesAgo = 1)
+        val second = createPhoto(id = 2L, minutesAgo = 2)
+        underTest.rebuild(listOf(first, second))
+
+        assertThat(underTest.remove(1L)).isTrue()
+        assertThat(underTest.remove(1L)).isFalse()
+        assertThat(underTest.snapshot()).containsExactly(second)
+        assertThat(underTest[1L]).isNull()
+    }
+
+    @Test
+    fun `test that photos with the same modification time are all kept`() {
+        val first = createPhoto(id = 1L, minutesAgo = 1)
+        val second = createPhoto(id = 2L, minutesAgo = 1)
+
+        underTest.rebuild(listOf(first, second))
+
+        assertThat(underTest.snapshot()).containsExactly(second, first).inOrder()
+    }
+
+    @Test
+    fun `test that clear resets the index`() {
+        underTest.rebuild(listOf(createPhoto(id = 1L, minutesAgo = 1)))
+
+        underTest.clear()
+
+        assertThat(underTest.isInitialised).isFalse()
+        assertThat(underTest.snapshot()).isEmpty()
+    }
+
+    private fun createPhoto(id: Long, minutesAgo: Long) = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = "photo$id.jpg",
+        isFavourite = false,
+        creationTime = now,
+        modificationTime = now.minusMinutes(minutesAgo),
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg"),
+    )
+}
@@ -0,0 +1,159 @@
+package mega.privacy.android.data.exif
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.nio.ByteBuffer
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+internal class ExifGpsRemoverTest {
+
+    @TempDir
+    lateinit var tempDir: File
+
+    @Test
+    fun `test that the gps ifd is removed from a jpeg image and the rest is copied unchanged`() {
+        val tiff = createTiffWithGps()
+        val exifSegment = byteArrayOf(0x45, 0x78, 0x69, 0x66, 0x00, 0x00) + tiff
+        val jpeg = byteArrayOf(0xFF.toByte(), 0xD8.toByte()) +
+                marker(0xE1, exifSegment) +
+                JPEG_SCAN
+        val exifStart = 2 + 4 + 6
+
+        val result = copy(jpeg)
+
+        assertThat(result).isNotNull()
+        assertThat(result!!.size).isEqualTo(jpeg.size)
+        assertThat(result.copyOfRange(0, exifStart)).isEqualTo(jpeg.copyOfRange(0, exifStart))
+        assertThat(result.copyOfRange(exifStart + tiff.size, result.size))
+            .isEqualTo(jpeg.copyOfRange(exifStart + tiff.size, jpeg.size))
+        assertThatGpsIsRemoved(result.copyOfRange(exifStart, exifStart + tiff.size), tiff)
+    }
+
+    @Test
+    fun `test that the gps ifd is removed from a heif image and the rest is copied unchanged`() {
+        val tiff = createTiffWithGps()
+        val exifItem = int(6) + byteArrayOf(0x45, 0x78, 0x69, 0x66, 0x00, 0x00) + tiff
+        val ftyp = box("ftyp", "heic".toByteArray() + int(0) + "mif1".toByteArray())
+        val metaSize = meta(0, 0).size
+        val itemOffset = ftyp.size + metaSize + 8
+        val heif = ftyp + meta(itemOffset, exifItem.size) + box("mdat", exifItem)
+        val tiffStart = itemOffset + 4 + 6
+
+        val result = copy(heif)
+
+        assertThat(result).isNotNull()
+        assertThat(result!!.size).isEqualTo(heif.size)
+        assertThat(result.copyOfRange(0, tiffStart)).isEqualTo(heif.copyOfRange(0, tiffStart))
+        assertThatGpsIsRemoved(result.copyOfRange(tiffStart, tiffStart + tiff.size), tiff)
+    }
+
+    @Test
+    fun `test that a jpeg image without exif is copied unchanged`() {
+        val jpeg = byteArrayOf(0xFF.toByte(), 0xD8.toByte()) +
+                marker(0xE0, "JFIF".toByteArray() + ByteArray(10)) +
+                JPEG_SCAN
+
+        assertThat(copy(jpeg)).isEqualTo(jpeg)
+    }
+
+    @Test
+    fun `test that nothing is copied if the image format is not supported`() {
+        val png = byteArrayOf(0x89.toByte(), 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A) +
+                ByteArray(32)
+
+        assertThat(copy(png)).isNull()
+    }
+
+    @Test
+    fun `test that nothing is copied if the exif block is malformed`() {
+        val tiff = createTiffWithGps().also { it[7] = 0x7F }
+        val exifSegment = byteArrayOf(0x45, 0x78, 0x69, 0x66, 0x00, 0x00) + tiff
+        val jpeg = byteArrayOf(0xFF.toByte(), 0xD8.toByte()) +
+                marker(0xE1, exifSegment) +
+                JPEG_SCAN
+
+        assertThat(copy(jpeg)).isNull()
+    }
+
+    /**
+     * Copy the image and return the content of the copy, or null if nothing was copied
+     */
+    private fun copy(image: ByteArray): ByteArray? {
+        val source = File(tempDir, "source").apply { writeBytes(image) }
+        val destination = File(tempDir, "destination").apply { delete() }
+        val copied = ExifGpsRemover.copyWithoutGps(source, destination)
+        assertThat(destination.exists()).isEqualTo(copied)
+        return if (copied) destination.readBytes() else null
+    }
+
+    private fun assertThatGpsIsRemoved(result: ByteArray, original: ByteArray) {
+        val buffer = ByteBuffer.wrap(result)
+        // IFD0 only keeps the make entry, followed by an empty next IFD offset
+        assertThat(buffer.getShort(8).toInt()).isEqualTo(1)
+        assertThat(buffer.getShort(10).toInt()).isEqualTo(TAG_MAKE)
+        assertThat(result.copyOfRange(10, 22)).isEqualTo(original.copyOfRange(10, 22))
+        assertThat(result.copyOfRange(22, 38).all { it == 0.toByte() }).isTrue()
+        // The make value is kept
+        assertThat(result.copyOfRange(38, 46)).isEqualTo(original.copyOfRange(38, 46))
+        // The GPS IFD and its values are cleared
+        assertThat(result.copyOfRange(46, result.size).all { it == 0.toByte() }).isTrue()
+    }
+
+    /**
+     * Big endian TIFF block with a make tag and a GPS IFD containing a latitude
+     */
+    private fun createTiffWithGps(): ByteArray = ByteBuffer.allocate(100).apply {
+        put("MM".toByteArray()).putShort(42).putInt(8)
+        // IFD0 at 8
+        putShort(2)
+        putShort(TAG_MAKE.toShort()).putShort(2).putInt(8).putInt(38)
+        putShort(0x8825.toShort()).putShort(4).putInt(1).putInt(46)
+        putInt(0)
+        // Make value at 38
+        put("Camera1\u0000".toByteArray())
+        // GPS IFD at 46
+        putShort(2)
+        putShort(1).putShort(2).putInt(2).put("N\u0000\u0000\u0000".toByteArray())
+        putShort(2).putShort(5).putInt(3).putInt(76)
+        putInt(0)
+        // Latitude value at 76
+        putInt(40).putInt(1).putInt(26).putInt(1).putInt(46).putInt(1)
+    }.array()
+
+    private fun meta(exifOffset: Int, exifLength: Int): ByteArray {
+        val infe = box(
+            "infe",
+            byteArrayOf(2, 0, 0, 0) + short(1) + short(0) + "Exif".toByteArray()
+        )
+        val iinf = box("iinf", byteArrayOf(0, 0, 0, 0) + short(1) + infe)
+        val iloc = box(
+            "iloc",
+            byteArrayOf(0, 0, 0, 0, 0x44, 0x00) + short(1) +
+                    short(1) + short(0) + short(1) + int(exifOffset) + int(exifLength)
+        )
+        return box("meta", byteArrayOf(0, 0, 0, 0) + iinf + iloc)
+    }
+
+    private fun box(type: String, payload: ByteArray) =
+        int(8 + payload.size) + type.toByteArray() + payload
+
+    private fun marker(marker: Int, payload: ByteArray) =
+        byteArrayOf(0xFF.toByte(), marker.toByte()) + short(payload.size + 2) + payload
+
+    private fun short(value: Int) = ByteBuffer.allocate(2).putShort(value.toShort()).array()
+
+    private fun int(value: Int) = ByteBuffer.allocate(4).putInt(value).array()
+
+    companion object {
+        private const val TAG_MAKE = 0x010F
+
+        private val JPEG_SCAN = byteArrayOf(
+            0xFF.toByte(), 0xDA.toByte(), 0x00, 0x08, 0x01, 0x01, 0x00, 0x00, 0x3F, 0x00,
+            0x12, 0x34, 0x56, 0x78,
+            0xFF.toByte(), 0xD9.toByte(),
+        )
+    }
+}
@@ -7,6 +7,7 @@ import android.net.Uri
 import android.provider.MediaStore
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
@@ -110,7 +111,27 @@ class CameraUploadsMediaFacadeTest {
                     timestamp = modifiedDate2 * 1000,
                 )
             )
-            assertThat(underTest.getMediaList(uri, selectionQuery)).isEqualTo(expected)
+            assertThat(underTest.getMediaList(uri, selectionQuery).toList())
+                .containsExactly(expected)
+        }
+
+    @Test
+    fun test_that_getMediaList_emits_nothing_if_the_cursor_is_null() =
+        runTest {
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull(),
+                        anyOrNull()
+                    )
+                }.thenReturn(null)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            assertThat(underTest.getMediaList(mock(), null).toList()).isEmpty()
         }
 
     @Test
@@ -0,0 +1,102 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.model.GlobalUpdate
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class GlobalUpdatesHubTest {
+
+    private fun runHubTest(testBody: suspend TestScope.(GlobalUpdatesHub) -> Unit) = runTest {
+        val scope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+        try {
+            testBody(GlobalUpdatesHub(scope))
+        } finally {
+            scope.cancel()
+        }
+    }
+
+    @Test
+    fun `test that the updates of a type do not include other types`() = runHubTest { underTest ->
+        val received = mutableListOf<GlobalUpdate.OnNodesUpdate>()
+        val job = launch(UnconfinedTestDispatcher(testScheduler)) {
+            underTest.updatesOf(GlobalUpdate.OnNodesUpdate::class).collect { received.add(it) }
+        }
+
+        underTest.publish(GlobalUpdate.OnAccountUpdate)
+        underTest.publish(GlobalUpdate.OnNodesUpdate(null))
+        underTest.publish(GlobalUpdate.OnUsersUpdate(null))
+
+        assertThat(received).containsExactly(GlobalUpdate.OnNodesUpdate(null))
+        job.cancel()
+    }
+
+    @Test
+    fun `test that all the updates are received in order`() = runHubTest { underTest ->
+        val received = mutableListOf<GlobalUpdate>()
+        val job = launch(UnconfinedTestDispatcher(testScheduler)) {
+            underTest.updates.collect { received.add(it) }
+        }
+        val updates = listOf(
+            GlobalUpdate.OnNodesUpdate(null),
+            GlobalUpdate.OnAccountUpdate,
+            GlobalUpdate.OnEvent(null),
+            GlobalUpdate.OnAccountUpdate,
+        )
+
+        updates.forEach(underTest::publish)
+
+        assertThat(received).containsExactlyElementsIn(updates).inOrder()
+        job.cancel()
+    }
+
+    @Test
+    fun `test that a burst of node updates is not lost with a slow subscriber`() =
+        runHubTest { underTest ->
+            var received = 0
+            val job = launch(UnconfinedTestDispatcher(testScheduler)) {
+                underTest.updatesOf(GlobalUpdate.OnNodesUpdate::class).collect {
+                    delay(10)
+                    received++
+                }
+            }
+
+            repeat(1_000) { underTest.publish(GlobalUpdate.OnNodesUpdate(arrayListOf())) }
+
+            assertThat(underTest.queueDepth).isGreaterThan(0)
+            advanceUntilIdle()
+            assertThat(received).isEqualTo(1_000)
+            assertThat(underTest.queueDepth).isEqualTo(0)
+            assertThat(underTest.droppedCount).isEqualTo(0L)
+            job.cancel()
+        }
+
+    @Test
+    fun `test that signals without data are coalesced with a slow subscriber`() =
+        runHubTest { underTest ->
+            var received = 0
+            val job = launch(UnconfinedTestDispatcher(testScheduler)) {
+                underTest.updatesOf(GlobalUpdate.OnAccountUpdate::class).collect {
+                    delay(10)
+                    received++
+                }
+            }
+
+            repeat(5) { underTest.publish(GlobalUpdate.OnAccountUpdate) }
+            advanceUntilIdle()
+
+            assertThat(received).isLessThan(5)
+            assertThat(underTest.droppedCount).isEqualTo((5 - received).toLong())
+            assertThat(underTest.queueDepth).isEqualTo(0)
+            job.cancel()
+        }
+}
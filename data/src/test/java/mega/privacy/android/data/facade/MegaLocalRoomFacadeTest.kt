@@ -22,7 +22,6 @@ import mega.privacy.android.data.mapper.camerauploads.SyncRecordTypeIntMapper
 import mega.privacy.android.data.mapper.contact.ContactEntityMapper
 import mega.privacy.android.data.mapper.contact.ContactModelMapper
 import mega.privacy.android.data.mapper.transfer.active.ActiveTransferEntityMapper
-import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferEntityMapper
 import mega.privacy.android.data.mapper.transfer.completed.CompletedTransferModelMapper
 import mega.privacy.android.data.mapper.transfer.sd.SdTransferEntityMapper
@@ -60,7 +59,6 @@ internal class MegaLocalRoomFacadeTest {
     private val encryptData = mock<EncryptData>()
     private val decryptData = mock<DecryptData>()
     private val activeTransferDao = mock<ActiveTransferDao>()
-    private val activeTransferTotalsMapper = mock<ActiveTransferTotalsMapper>()
     private val activeTransferEntityMapper = mock<ActiveTransferEntityMapper>()
     private val syncRecordDao: SyncRecordDao = mock()
     private val syncRecordModelMapper: SyncRecordModelMapper = mock()
@@ -82,7 +80,6 @@ internal class MegaLocalRoomFacadeTest {
             activeTransferDao = activeTransferDao,
             completedTransferModelMapper = completedTransferModelMapper,
             activeTransferEntityMapper = activeTransferEntityMapper,
-            activeTransferTotalsMapper = activeTransferTotalsMapper,
             syncRecordDao = syncRecordDao,
             syncRecordModelMapper = syncRecordModelMapper,
             syncRecordEntityMapper = syncRecordEntityMapper,
@@ -117,18 +114,16 @@ internal class MegaLocalRoomFacadeTest {
     }
 
     @Test
-    fun `test that getAllCompletedTransfers returns a list of completed transfers ordered by timestamp descendant`() =
+    fun `test that getAllCompletedTransfers returns the completed transfers in the order of the query`() =
         runTest {
             val completedTransferEntities = listOf<CompletedTransferEntity>(
                 mock(), mock(), mock(),
             )
-            val completedTransfers = listOf<CompletedTransfer>(
-                mock { on { timestamp }.thenReturn(1684228012974) },
-                mock { on { timestamp }.thenReturn(1684228012975) },
-                mock { on { timestamp }.thenReturn(1684228012973) },
-            )
+            val completedTransfers = listOf<CompletedTransfer>(mock(), mock(), mock())
 
-            whenever(completedTransferDao.getAllCompletedTransfers())
+            whenever(completedTransferDao.getCompletedTransfersWithoutSortTimestamp())
+                .thenReturn(emptyList())
+            whenever(completedTransferDao.getCompletedTransfers(-1))
                 .thenReturn(flowOf(completedTransferEntities))
             completedTransferEntities.forEachIndexed { index, completedTransferEntity ->
                 whenever(completedTransferModelMapper(completedTransferEntity)).thenReturn(
@@ -136,29 +131,23 @@ internal class MegaLocalRoomFacadeTest {
                 )
             }
 
-            val expected =
-                listOf(completedTransfers[1], completedTransfers[0], completedTransfers[2])
-
-            assertThat(underTest.getAllCompletedTransfers().single()).isEqualTo(expected)
+            assertThat(underTest.getAllCompletedTransfers().single())
+                .isEqualTo(completedTransfers)
         }
 
-
     @Test
-    fun `test that getAllCompletedTransfers returns a list of completed transfers with size max elements`() =
+    fun `test that getAllCompletedTransfers limits the query to size elements`() =
         runTest {
             val expectedSize = 2
-            val completedTransferEntities = listOf<CompletedTransferEntity>(
-                mock(), mock(), mock(), mock()
-            )
+            val completedTransferEntities = listOf<CompletedTransferEntity>(mock(), mock())
 
-            whenever(completedTransferDao.getAllCompletedTransfers()).thenReturn(
+            whenever(completedTransferDao.getCompletedTransfersWithoutSortTimestamp())
+                .thenReturn(emptyList())
+            whenever(completedTransferDao.getCompletedTransfers(expectedSize)).thenReturn(
                 flowOf(completedTransferEntities)
             )
             completedTransferEntities.forEach { entity ->
-                val completedTransfer = mock<CompletedTransfer> {
-                    on { timestamp }.thenReturn(1684228012974)
-                }
-                whenever(completedTransferModelMapper(entity)).thenReturn(completedTransfer)
+                whenever(completedTransferModelMapper(entity)).thenReturn(mock())
             }
 
             assertThat(underTest.getAllCompletedTransfers(expectedSize).single().size)
@@ -166,24 +155,62 @@ internal class MegaLocalRoomFacadeTest {
         }
 
     @Test
-    fun `test that getAllCompletedTransfers returns all completed transfers if the size parameter is null`() =
+    fun `test that getCompletedTransfersPage queries the transfers after the given one`() =
         runTest {
-            val completedTransferEntities = listOf<CompletedTransferEntity>(
-                mock(), mock(), mock(), mock()
-            )
+            val size = 20
+            val after = mock<CompletedTransfer> {
+                on { id }.thenReturn(5)
+                on { timestamp }.thenReturn(1684228012974)
+            }
+            val entity = mock<CompletedTransferEntity>()
+            val completedTransfer = mock<CompletedTransfer>()
 
-            whenever(completedTransferDao.getAllCompletedTransfers()).thenReturn(
-                flowOf(completedTransferEntities)
+            whenever(completedTransferDao.getCompletedTransfersWithoutSortTimestamp())
+                .thenReturn(emptyList())
+            whenever(completedTransferDao.getCompletedTransfersAfter(1684228012974, 5, size))
+                .thenReturn(flowOf(listOf(entity)))
+            whenever(completedTransferModelMapper(entity)).thenReturn(completedTransfer)
+
+            assertThat(underTest.getCompletedTransfersPage(size, after).single())
+                .containsExactly(completedTransfer)
+        }
+
+    @Test
+    fun `test that completed transfers without sort timestamp are filled in a single transaction before being queried`() =
+        runTest {
+            val underTest = MegaLocalRoomFacade(
+                contactDao = contactDao,
+                contactEntityMapper = contactEntityMapper,
+                contactModelMapper = contactModelMapper,
+                completedTransferDao = completedTransferDao,
+                activeTransferDao = activeTransferDao,
+                completedTransferModelMapper = completedTransferModelMapper,
+                activeTransferEntityMapper = activeTransferEntityMapper,
+                syncRecordDao = syncRecordDao,
+                syncRecordModelMapper = syncRecordModelMapper,
+                syncRecordEntityMapper = syncRecordEntityMapper,
+                syncStatusIntMapper = syncStatusIntMapper,
+                syncRecordTypeIntMapper = syncRecordTypeIntMapper,
+                encryptData = encryptData,
+                decryptData = decryptData,
+                completedTransferEntityMapper = completedTransferEntityMapper,
+                sdTransferDao = sdTransferDao,
+                sdTransferEntityMapper = sdTransferEntityMapper,
+                sdTransferModelMapper = sdTransferModelMapper,
             )
-            completedTransferEntities.forEach { entity ->
-                val completedTransfer = mock<CompletedTransfer> {
-                    on { timestamp }.thenReturn(1684228012974)
-                }
-                whenever(completedTransferModelMapper(entity)).thenReturn(completedTransfer)
+            val entity = mock<CompletedTransferEntity> {
+                on { id }.thenReturn(3)
+                on { timestamp }.thenReturn("encrypted")
             }
 
-            assertThat(underTest.getAllCompletedTransfers().single().size)
-                .isEqualTo(completedTransferEntities.size)
+            whenever(completedTransferDao.getCompletedTransfersWithoutSortTimestamp())
+                .thenReturn(listOf(entity))
+            whenever(decryptData("encrypted")).thenReturn("1684228012974")
+            whenever(completedTransferDao.getCompletedTransfers(-1)).thenReturn(flowOf(emptyList()))
+
+            underTest.getAllCompletedTransfers().single()
+
+            verify(completedTransferDao).setCompletedTransfersSortTimestamp(mapOf(3 to 1684228012974))
         }
 
     @Test
@@ -245,6 +272,19 @@ internal class MegaLocalRoomFacadeTest {
             assertThat(underTest.doesLocalPathExist(fileName, isSecondary)).isEqualTo(expected)
         }
 
+    @Test
+    fun `test that getExistingLocalPaths returns the paths found in a single query`() =
+        runTest {
+            val paths = listOf("a.jpg", "b.jpg", "c.jpg")
+            paths.forEach { whenever(encryptData(it)).thenReturn("encrypted $it") }
+            whenever(encryptData("false")).thenReturn("false")
+            whenever(
+                syncRecordDao.getExistingOriginalPaths(paths.map { "encrypted $it" }, "false")
+            ).thenReturn(listOf("encrypted b.jpg"))
+
+            assertThat(underTest.getExistingLocalPaths(paths, false)).containsExactly("b.jpg")
+        }
+
     @Test
     fun `test that getSyncRecordByFingerprint returns correctly`() = runTest {
         val entity = mock<SyncRecordEntity>()
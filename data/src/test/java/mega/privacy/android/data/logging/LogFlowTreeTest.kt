@@ -1,7 +1,12 @@
 package mega.privacy.android.data.logging
 
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestScope
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.logging.LogEntry
 import mega.privacy.android.domain.usecase.CreateLogEntry
@@ -10,6 +15,7 @@ import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.argForWhich
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verifyBlocking
 import timber.log.Timber
 
@@ -39,9 +45,83 @@ class LogFlowTreeTest {
             Timber.DebugTree::class.java.name,
             LogFlowTree::class.java.name,
         )
-        underTest.d("Message")
+        collectLogs {
+            underTest.d("Message")
+        }
 
         verifyBlocking(createLogEntry) { invoke(argForWhich { loggingClasses.containsAll(expected) }) }
     }
 
-}
\ No newline at end of file
+    @Test
+    fun `test that the caller trace is passed to create entry for untagged lines`() = runTest {
+        collectLogs {
+            underTest.d("Message")
+        }
+
+        verifyBlocking(createLogEntry) {
+            invoke(argForWhich { tag == null && trace.any { it.className == LogFlowTree::class.java.name } })
+        }
+    }
+
+    @Test
+    fun `test that the caller trace is not captured for tagged lines`() = runTest {
+        Timber.plant(underTest)
+        collectLogs {
+            Timber.tag("[sdk]").d("Message")
+        }
+        Timber.uproot(underTest)
+
+        verifyBlocking(createLogEntry) { invoke(argForWhich { tag == "[sdk]" && trace.isEmpty() }) }
+    }
+
+    @Test
+    fun `test that lines are ignored while the log flow is not collected`() = runTest {
+        underTest.d("Message")
+
+        verifyBlocking(createLogEntry, never()) { invoke(any()) }
+        assertThat(underTest.stats).isEqualTo(LogPipelineStats(0, 0, 0))
+    }
+
+    @Test
+    fun `test that created entries are emitted in order`() = runTest {
+        val entries = mutableListOf<LogEntry>()
+        val createLogEntry = CreateLogEntry { LogEntry(message = it.message, priority = 0) }
+        underTest = LogFlowTree(UnconfinedTestDispatcher(), createLogEntry)
+
+        collectLogs(entries) {
+            repeat(5) { underTest.d("Message $it") }
+        }
+
+        assertThat(entries.map { it.message })
+            .containsExactly("Message 0", "Message 1", "Message 2", "Message 3", "Message 4")
+            .inOrder()
+        assertThat(underTest.stats).isEqualTo(LogPipelineStats(5, 5, 0))
+    }
+
+    @Test
+    fun `test that lines are dropped and counted while the buffer is full`() = runTest {
+        val entries = mutableListOf<LogEntry>()
+        val createLogEntry = CreateLogEntry { LogEntry(message = it.message, priority = 0) }
+        underTest = LogFlowTree(StandardTestDispatcher(testScheduler), createLogEntry, capacity = 2)
+
+        collectLogs(entries) {
+            repeat(3) { underTest.d("Message $it") }
+            assertThat(underTest.stats).isEqualTo(LogPipelineStats(2, 0, 1))
+            advanceUntilIdle()
+        }
+
+        assertThat(entries.map { it.message }).containsExactly("Message 0", "Message 1").inOrder()
+        assertThat(underTest.stats).isEqualTo(LogPipelineStats(2, 2, 1))
+    }
+
+    private fun TestScope.collectLogs(
+        entries: MutableList<LogEntry> = mutableListOf(),
+        block: () -> Unit,
+    ) {
+        val job = launch(UnconfinedTestDispatcher(testScheduler)) {
+            underTest.logFlow.collect { entries.add(it) }
+        }
+        block()
+        job.cancel()
+    }
+}
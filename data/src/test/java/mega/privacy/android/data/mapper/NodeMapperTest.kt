@@ -10,6 +10,7 @@ import mega.privacy.android.data.mapper.node.FolderNodeMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
 import mega.privacy.android.data.model.node.DefaultFolderNode
+import mega.privacy.android.data.model.node.NodeListAttributes
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
 import mega.privacy.android.domain.entity.node.NodeId
 import nz.mega.sdk.MegaNode
@@ -21,7 +22,9 @@ import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.stub
+import org.mockito.kotlin.verify
 
 @OptIn(ExperimentalCoroutinesApi::class)
 class NodeMapperTest {
@@ -123,6 +126,23 @@ class NodeMapperTest {
         assertThat(actualAsFolder.isPendingShare).isTrue()
     }
 
+    @Test
+    fun `test that list attributes are used instead of the gateway`() = runTest {
+        val node = getMockNode(isFile = false)
+        val listAttributes = NodeListAttributes(
+            pendingShareHandles = setOf(expectedId),
+            rubbishBinByParent = mapOf(expectedParentId to true),
+        )
+
+        val actual = underTest(megaNode = node, listAttributes = listAttributes)
+
+        val actualAsFolder = actual as DefaultFolderNode
+        assertThat(actualAsFolder.isInRubbishBin).isTrue()
+        assertThat(actualAsFolder.isPendingShare).isTrue()
+        verify(megaApiGateway, never()).isInRubbish(node)
+        verify(megaApiGateway, never()).isPendingShare(node)
+    }
+
     @Test
     fun `test that serialized string is not null when requireSerializedString is true`() = runTest {
         val megaNode = getMockNode(isFile = true)
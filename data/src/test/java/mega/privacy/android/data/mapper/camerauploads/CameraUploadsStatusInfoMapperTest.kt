@@ -79,6 +79,23 @@ class CameraUploadsStatusInfoMapperTest {
         progress = progress,
     )
 
+    private val videoAndUploadProgressData = workDataOf(
+        STATUS_INFO to COMPRESSION_PROGRESS,
+        CURRENT_PROGRESS to progress,
+        CURRENT_FILE_INDEX to currentFileIndex,
+        TOTAL_COUNT to totalCount,
+        TOTAL_UPLOADED to totalUploaded,
+        TOTAL_TO_UPLOAD to totalToUpload,
+    )
+
+    private val videoAndUploadProgressInfo = CameraUploadsStatusInfo.VideoCompressionProgress(
+        currentFileIndex = currentFileIndex,
+        totalCount = totalCount,
+        progress = progress,
+        totalUploaded = totalUploaded,
+        totalToUpload = totalToUpload,
+    )
+
     @BeforeAll
     fun setUp() {
         underTest = CameraUploadsStatusInfoMapper()
@@ -97,6 +114,7 @@ class CameraUploadsStatusInfoMapperTest {
     private fun provideParameters(): Stream<Arguments> = Stream.of(
         Arguments.of(progressData, cameraUploadProgressInfo),
         Arguments.of(videoProgressData, videoProgressInfo),
+        Arguments.of(videoAndUploadProgressData, videoAndUploadProgressInfo),
         Arguments.of(
             workDataOf(STATUS_INFO to CHECK_FILE_UPLOAD),
             CameraUploadsStatusInfo.CheckFilesForUpload
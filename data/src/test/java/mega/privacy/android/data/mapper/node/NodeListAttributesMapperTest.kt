@@ -0,0 +1,92 @@
+package mega.privacy.android.data.mapper.node
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaShare
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NodeListAttributesMapperTest {
+
+    private val megaApiGateway = mock<MegaApiGateway>()
+
+    private val underTest = NodeListAttributesMapper(megaApiGateway)
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway)
+    }
+
+    @Test
+    fun `test that the pending shares are fetched once for the list`() = runTest {
+        val pendingShare = mock<MegaShare> { on { nodeHandle }.thenReturn(1L) }
+        whenever(megaApiGateway.getPendingOutShares()).thenReturn(listOf(pendingShare))
+        whenever(megaApiGateway.isInRubbish(any())).thenReturn(false)
+        val shared = getMockFolder(handle = 1L)
+        val notShared = getMockFolder(handle = 2L)
+
+        val actual = underTest(listOf(shared, notShared))
+
+        assertThat(actual.isPendingShare(shared)).isTrue()
+        assertThat(actual.isPendingShare(notShared)).isFalse()
+        verify(megaApiGateway, times(1)).getPendingOutShares()
+        verify(megaApiGateway, never()).isPendingShare(any())
+    }
+
+    @Test
+    fun `test that the rubbish bin state is fetched once per parent`() = runTest {
+        whenever(megaApiGateway.getPendingOutShares()).thenReturn(emptyList())
+        val rubbishChild = getMockFolder(handle = 1L, parentHandle = 10L)
+        val rubbishSibling = getMockFolder(handle = 2L, parentHandle = 10L)
+        val cloudChild = getMockFolder(handle = 3L, parentHandle = 20L)
+        whenever(megaApiGateway.isInRubbish(rubbishChild)).thenReturn(true)
+        whenever(megaApiGateway.isInRubbish(cloudChild)).thenReturn(false)
+
+        val actual = underTest(listOf(rubbishChild, rubbishSibling, cloudChild))
+
+        assertThat(actual.isInRubbishBin(rubbishSibling)).isTrue()
+        assertThat(actual.isInRubbishBin(cloudChild)).isFalse()
+        verify(megaApiGateway, never()).isInRubbish(rubbishSibling)
+    }
+
+    @Test
+    fun `test that root nodes are left to the node mapper`() = runTest {
+        whenever(megaApiGateway.getPendingOutShares()).thenReturn(emptyList())
+        val root = getMockFolder(handle = 1L, parentHandle = MegaApiJava.INVALID_HANDLE)
+
+        val actual = underTest(listOf(root))
+
+        assertThat(actual.isInRubbishBin(root)).isNull()
+        verify(megaApiGateway, never()).isInRubbish(any())
+    }
+
+    @Test
+    fun `test that nothing is fetched for a list of files`() = runTest {
+        val file = mock<MegaNode> { on { isFolder }.thenReturn(false) }
+
+        underTest(listOf(file))
+
+        verify(megaApiGateway, never()).getPendingOutShares()
+        verify(megaApiGateway, never()).isInRubbish(any())
+    }
+
+    private fun getMockFolder(handle: Long, parentHandle: Long = 100L) = mock<MegaNode> {
+        on { this.handle }.thenReturn(handle)
+        on { this.parentHandle }.thenReturn(parentHandle)
+        on { isFolder }.thenReturn(true)
+    }
+}
@@ -0,0 +1,107 @@
+package mega.privacy.android.data.mapper.node
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.runBlocking
+import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Compares the throughput of mapping a large folder node by node, with the throughput when the
+ * attributes shared by the list are fetched once with [NodeListAttributesMapper].
+ * SDK attribute lookups are simulated with a fixed cost.
+ */
+class NodeMapperBenchmarkTest {
+    private val attributeLookups = AtomicLong()
+
+    private val megaNodes = List(NODES) { index ->
+        mock<MegaNode> {
+            on { handle }.thenReturn(index.toLong())
+            on { name }.thenReturn("Folder $index")
+            on { parentHandle }.thenReturn((index % PARENTS).toLong())
+            on { base64Handle }.thenReturn("base64")
+            on { isFolder }.thenReturn(true)
+        }
+    }
+
+    private val megaApiGateway = mock<MegaApiGateway> {
+        onBlocking { hasVersion(any()) }.thenAnswer { lookup(false) }
+        onBlocking { getNumChildFolders(any()) }.thenAnswer { lookup(1) }
+        onBlocking { getNumChildFiles(any()) }.thenAnswer { lookup(2) }
+        onBlocking { isInRubbish(any()) }.thenAnswer { lookup(false) }
+        onBlocking { isPendingShare(any()) }.thenAnswer { lookup(false) }
+        onBlocking { getPendingOutShares() }.thenAnswer { lookup(emptyList<Any>()) }
+    }
+
+    private val folderNodeMapper = FolderNodeMapper(
+        megaApiGateway = megaApiGateway,
+        megaApiFolderGateway = mock<MegaApiFolderGateway>(),
+        fetChildrenMapper = mock { on { invoke(any(), any()) }.thenReturn { emptyList() } },
+    )
+
+    private val nodeListAttributesMapper = NodeListAttributesMapper(megaApiGateway)
+
+    private fun <T> lookup(value: T): T {
+        attributeLookups.incrementAndGet()
+        val end = System.nanoTime() + LOOKUP_COST_NANOS
+        while (System.nanoTime() < end) {
+            // Busy wait, as a JNI call holding the SDK lock
+        }
+        return value
+    }
+
+    @Test
+    fun `test folder mapping throughput for a large folder`() = runBlocking {
+        // Warm up the mocks before measuring
+        mapNodeByNode(megaNodes.take(1_000))
+        mapWithListAttributes(megaNodes.take(1_000))
+        attributeLookups.set(0)
+
+        val nodeByNodeNanos = mapNodeByNode(megaNodes)
+        val nodeByNodeLookups = attributeLookups.getAndSet(0)
+        val listAttributesNanos = mapWithListAttributes(megaNodes)
+        val listAttributesLookups = attributeLookups.getAndSet(0)
+
+        println(
+            "FolderNodeMapper: ${throughput(nodeByNodeNanos)} nodes/s node by node, " +
+                    "${throughput(listAttributesNanos)} nodes/s with list attributes"
+        )
+        assertThat(nodeByNodeLookups).isEqualTo(NODES * 5L)
+        assertThat(listAttributesLookups).isEqualTo(NODES * 3L + PARENTS + 1)
+    }
+
+    private suspend fun mapNodeByNode(nodes: List<MegaNode>): Long {
+        val start = System.nanoTime()
+        nodes.forEach {
+            folderNodeMapper(it, fromFolderLink = false, requireSerializedData = false)
+        }
+        return System.nanoTime() - start
+    }
+
+    private suspend fun mapWithListAttributes(nodes: List<MegaNode>): Long {
+        val start = System.nanoTime()
+        val listAttributes = nodeListAttributesMapper(nodes)
+        nodes.forEach {
+            folderNodeMapper(
+                it,
+                fromFolderLink = false,
+                requireSerializedData = false,
+                listAttributes = listAttributes,
+            )
+        }
+        return System.nanoTime() - start
+    }
+
+    private fun throughput(nanos: Long) = NODES * TimeUnit.SECONDS.toNanos(1) / nanos
+
+    companion object {
+        private const val NODES = 20_000
+        private const val PARENTS = 100
+        private const val LOOKUP_COST_NANOS = 2_000L
+    }
+}
@@ -49,6 +49,7 @@ internal class CompletedTransferEntityMapperTest {
             error = "No error",
             originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
             parentHandle = "11622336899311",
+            sortTimestamp = 1684228012974L,
         )
         whenever(encryptData(model.fileName)).thenReturn(model.fileName)
         whenever(encryptData(model.type.toString())).thenReturn(model.type.toString())
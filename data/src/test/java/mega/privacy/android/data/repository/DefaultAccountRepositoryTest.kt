@@ -204,7 +204,7 @@ class DefaultAccountRepositoryTest {
     fun `test that user update is returned when onUsersUpdate is called with non null user list value`() =
         runTest {
             val userList = arrayListOf(mock<MegaUser>())
-            whenever(megaApiGateway.globalUpdates).thenReturn(
+            whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class)).thenReturn(
                 flowOf(
                     GlobalUpdate.OnUsersUpdate(
                         userList
@@ -220,7 +220,8 @@ class DefaultAccountRepositoryTest {
     @Test
     fun `test that no user update is returned when onUsersUpdate is returned with null user list value`() =
         runTest {
-            whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(GlobalUpdate.OnUsersUpdate(null)))
+            whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class))
+                .thenReturn(flowOf(GlobalUpdate.OnUsersUpdate(null)))
             underTest.monitorUserUpdates().test {
                 awaitComplete()
             }
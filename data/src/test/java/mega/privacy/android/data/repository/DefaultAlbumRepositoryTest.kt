@@ -254,7 +254,7 @@ class DefaultAlbumRepositoryTest {
             }
         }
 
-        whenever(megaApiGateway.globalUpdates)
+        whenever(megaApiGateway.globalUpdatesOf(OnSetsUpdate::class))
             .thenReturn(flowOf(OnSetsUpdate(ArrayList(megaSets))))
 
         underTest = createUnderTest(this)
@@ -283,7 +283,7 @@ class DefaultAlbumRepositoryTest {
             }
         }
 
-        whenever(megaApiGateway.globalUpdates)
+        whenever(megaApiGateway.globalUpdatesOf(OnSetElementsUpdate::class))
             .thenReturn(flowOf(OnSetElementsUpdate(ArrayList(megaSetElements))))
 
         underTest = createUnderTest(this)
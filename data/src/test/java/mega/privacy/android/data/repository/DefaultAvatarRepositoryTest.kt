@@ -6,6 +6,7 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.TestScope
@@ -66,7 +67,8 @@ internal class DefaultAvatarRepositoryTest {
     @Before
     fun setUp() {
         Dispatchers.setMain(StandardTestDispatcher())
-        whenever(megaApiGateway.globalUpdates).thenReturn(sharedFlow)
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUsersUpdate::class))
+            .thenReturn(sharedFlow.filterIsInstance())
         underTest = DefaultAvatarRepository(
             megaApiGateway = megaApiGateway,
             avatarWrapper = avatarWrapper,
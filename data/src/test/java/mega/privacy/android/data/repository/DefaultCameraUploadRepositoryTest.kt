@@ -6,6 +6,7 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.AndroidDeviceGateway
@@ -225,15 +226,15 @@ class DefaultCameraUploadRepositoryTest {
                         selectionQuery = any(),
                     )
                 ).thenReturn(
-                    result
+                    flowOf(result)
                 )
                 whenever(mediaStoreFileTypeUriWrapper(any())).thenReturn(Uri.EMPTY)
 
                 val actual = underTest.getMediaList(
                     mediaStoreFileType = MediaStoreFileType.IMAGES_INTERNAL,
                     selectionQuery = "",
-                )
-                assertThat(actual).isEqualTo(result)
+                ).toList()
+                assertThat(actual).containsExactly(result)
             }
     }
 
@@ -85,6 +85,7 @@ class DefaultContactsRepositoryTest {
     private val databaseHandler: DatabaseHandler = mock()
     private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
     private val context: Context = mock()
+    private val lastGreenRequestLimiter: LastGreenRequestLimiter = mock()
 
     private val userEmail = "test@mega.nz"
     private val userHandle = -123456L
@@ -126,7 +127,8 @@ class DefaultContactsRepositoryTest {
             databaseHandler = databaseHandler,
             chatConnectionStateMapper = chatConnectionStateMapper,
             context = context,
-            megaLocalRoomGateway = megaLocalRoomGateway
+            megaLocalRoomGateway = megaLocalRoomGateway,
+            lastGreenRequestLimiter = lastGreenRequestLimiter,
         )
 
         whenever(megaApiGateway.userHandleToBase64(userHandle)).thenReturn("LTEyMzQ1Ng==")
@@ -935,6 +937,51 @@ class DefaultContactsRepositoryTest {
         verify(megaApiGateway, never()).getContactAvatar(anyString(), anyString(), any())
     }
 
+    @Test
+    fun `test getVisibleContacts reads avatars from a single listing of the avatar folder`() =
+        runTest {
+            val megaUserVisible = mock<MegaUser> {
+                on { handle }.thenReturn(userHandle)
+                on { email }.thenReturn(userEmail)
+                on { visibility }.thenReturn(MegaUser.VISIBILITY_VISIBLE)
+            }
+            val avatarFolder = mock<File> {
+                on { path }.thenReturn("/cache/avatarsMEGA")
+                on { list() }.thenReturn(arrayOf("$userEmail.jpg"))
+            }
+            whenever(megaApiGateway.getContacts()).thenReturn(listOf(megaUserVisible))
+            whenever(cacheGateway.getOrCreateCacheFolder(any())).thenReturn(avatarFolder)
+            whenever(megaChatApiGateway.getUserFullNameFromCache(any())).thenReturn("full name")
+            whenever(megaChatApiGateway.getUserAliasFromCache(any())).thenReturn(testName)
+
+            underTest.getVisibleContacts()
+
+            verify(contactDataMapper).invoke(
+                "full name",
+                testName,
+                File(avatarFolder, "$userEmail.jpg").absolutePath
+            )
+            verify(cacheGateway, never()).getCacheFile(any(), any())
+        }
+
+    @Test
+    fun `test getVisibleContacts requests last green through the limiter for offline contacts`() =
+        runTest {
+            val megaUserVisible = mock<MegaUser> {
+                on { handle }.thenReturn(userHandle)
+                on { email }.thenReturn(userEmail)
+                on { visibility }.thenReturn(MegaUser.VISIBILITY_VISIBLE)
+            }
+            whenever(megaApiGateway.getContacts()).thenReturn(listOf(megaUserVisible))
+            whenever(megaChatApiGateway.getUserOnlineStatus(any()))
+                .thenReturn(MegaChatApi.STATUS_OFFLINE)
+
+            underTest.getVisibleContacts()
+
+            verify(lastGreenRequestLimiter).request(userHandle)
+            verify(megaChatApiGateway, never()).requestLastGreen(any())
+        }
+
     /**
      * common mock initialization for returning the ContactItem for a given MegaUser
      * It may have further mocking, for instance if skipCache is true
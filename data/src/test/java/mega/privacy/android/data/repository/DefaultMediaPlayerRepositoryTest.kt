@@ -2,6 +2,7 @@ package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
 import com.google.gson.Gson
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOf
@@ -17,6 +18,7 @@ import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.mediaplayer.RepeatToggleModeMapper
 import mega.privacy.android.data.mapper.mediaplayer.SubtitleFileInfoMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.repository.thumbnailpreview.ThumbnailDownloadScheduler
 import mega.privacy.android.domain.entity.mediaplayer.PlaybackInformation
 import mega.privacy.android.domain.entity.mediaplayer.RepeatToggleMode
 import mega.privacy.android.domain.repository.MediaPlayerRepository
@@ -68,7 +70,12 @@ class DefaultMediaPlayerRepositoryTest {
             ioDispatcher = UnconfinedTestDispatcher(),
             subtitleFileInfoMapper = subtitleFileInfoMapper,
             mediaPlayerPreferencesGateway = mediaPlayerPreferencesGateway,
-            repeatToggleModeMapper = RepeatToggleModeMapper()
+            repeatToggleModeMapper = RepeatToggleModeMapper(),
+            thumbnailDownloadScheduler = ThumbnailDownloadScheduler(
+                scope = CoroutineScope(UnconfinedTestDispatcher()),
+                maxConcurrentDownloads = 4,
+                maxQueuedDownloads = 16,
+            ),
         )
     }
 
@@ -87,7 +87,8 @@ class DefaultNotificationsRepositoryTest {
     @Test
     fun `test that user alert email is fetched locally`() = runTest {
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(mock()))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
         val contactInfo = mock<NonContactInfo> { on { email }.thenReturn("Email") }
         whenever(megaLocalStorageGateway.getNonContactByHandle(any())).thenReturn(contactInfo)
 
@@ -101,7 +102,8 @@ class DefaultNotificationsRepositoryTest {
     @Test
     fun `test that email is fetched if not found locally`() = runTest {
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(mock()))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
         whenever(megaLocalStorageGateway.getNonContactByHandle(any())).thenReturn(null)
         val megaApiJava = mock<MegaApiJava>()
         val request = mock<MegaRequest> { on { email }.thenReturn("Email") }
@@ -124,7 +126,8 @@ class DefaultNotificationsRepositoryTest {
     @Test
     fun `test that fetched email is cached`() = runTest {
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(mock()))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
         whenever(megaLocalStorageGateway.getNonContactByHandle(any())).thenReturn(null)
         val megaApiJava = mock<MegaApiJava>()
         val fetchedEmail = "Email"
@@ -147,7 +150,8 @@ class DefaultNotificationsRepositoryTest {
     @Test
     fun `test that contact is fetched from the api gateway`() = runTest {
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(mock()))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
         val contactInfo = mock<NonContactInfo> { on { email }.thenReturn(email) }
         whenever(megaLocalStorageGateway.getNonContactByHandle(any())).thenReturn(contactInfo)
         whenever(megaApiGateway.getContact(any())).thenReturn(mock())
@@ -172,7 +176,8 @@ class DefaultNotificationsRepositoryTest {
         val expectedEmail = "expected@email"
         val userAlert = mock<MegaUserAlert> { on { email }.thenReturn(expectedEmail) }
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(userAlert))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
 
         whenever(megaApiGateway.getContact(any())).thenReturn(mock())
 
@@ -186,7 +191,8 @@ class DefaultNotificationsRepositoryTest {
     @Test
     fun `test that nickname is returned with user alert`() = runTest {
         val globalUpdate = GlobalUpdate.OnUserAlertsUpdate(arrayListOf(mock()))
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnUserAlertsUpdate::class))
+            .thenReturn(flowOf(globalUpdate))
         val contactInfo = mock<NonContactInfo> { on { email }.thenReturn(email) }
         whenever(megaLocalStorageGateway.getNonContactByHandle(any())).thenReturn(contactInfo)
         whenever(megaApiGateway.getContact(any())).thenReturn(mock())
@@ -218,7 +224,8 @@ class DefaultNotificationsRepositoryTest {
             on { eventString }.thenReturn(expectedEvent.eventString)
         }
         val globalUpdate = GlobalUpdate.OnEvent(megaEvent)
-        whenever(megaApiGateway.globalUpdates).thenReturn(flowOf(globalUpdate))
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnEvent::class))
+            .thenReturn(flowOf(globalUpdate))
         whenever(eventMapper(megaEvent)).thenReturn(expectedEvent)
 
         underTest.monitorEvent().test {
@@ -244,7 +251,7 @@ class DefaultNotificationsRepositoryTest {
             on { eventString }.thenReturn(expectedEvent.eventString)
         }
         val globalUpdate = GlobalUpdate.OnEvent(megaEvent)
-        whenever(megaApiGateway.globalUpdates).thenReturn(
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnEvent::class)).thenReturn(
             flowOf(
                 globalUpdate,
                 globalUpdate,
@@ -1,11 +1,18 @@
 package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -25,20 +32,29 @@ import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.UnknownFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.repository.NodeRepository
 import mega.privacy.android.domain.repository.PhotosRepository
+import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaStringMap
 import org.junit.Before
 import org.junit.Test
+import org.mockito.Mockito.mockStatic
 import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
 
@@ -55,6 +71,9 @@ class DefaultPhotosRepositoryTest {
     }
     private val fileGateway = mock<FileGateway>()
     private val megaLocalStorageGateway = mock<MegaLocalStorageGateway>()
+    private val appEventGateway = mock<AppEventGateway> {
+        on { monitorFetchNodesFinish() }.thenReturn(flowOf())
+    }
     private val dateUtilWrapper = mock<DateUtilWrapper> {
         on { fromEpoch(any()) }.thenReturn(LocalDateTime.now())
     }
@@ -141,6 +160,72 @@ class DefaultPhotosRepositoryTest {
         assertThat(actualPhoto?.fileTypeInfo == null)
     }
 
+    @Test
+    fun `test that a node update is applied to the timeline without a new search`() = runTest {
+        val existingNode = createTimelineNode(handle = 1L, name = "existing.image")
+        val newNode = createTimelineNode(handle = 2L, name = "new.image")
+        val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+        stubTimelineSearch(nodeUpdates) { listOf(existingNode) }
+        whenever(megaApiGateway.getMegaNodeByHandle(newNode.handle)).thenReturn(newNode)
+
+        mockStatic(MegaCancelToken::class.java).use { cancelToken ->
+            cancelToken.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                .thenReturn(mock())
+            val appScope = CoroutineScope(SupervisorJob() + UnconfinedTestDispatcher(testScheduler))
+            underTest = createUnderTest(appScope)
+            val timeline = underTest.monitorPhotos()
+
+            assertThat(timeline.first().map { it.id }).containsExactly(existingNode.handle)
+
+            nodeUpdates.emit(
+                NodeUpdate(mapOf(createFileNode(newNode.handle) to listOf(NodeChanges.New)))
+            )
+
+            assertThat(timeline.first().map { it.id })
+                .containsExactly(existingNode.handle, newNode.handle)
+            verify(megaApiGateway, times(1)).searchByType(
+                any(),
+                any(),
+                eq(MegaApiAndroid.FILE_TYPE_PHOTO),
+                any(),
+            )
+            appScope.cancel()
+        }
+    }
+
+    @Test
+    fun `test that a node update received during the full search is replayed on its result`() =
+        runTest {
+            val removedNode = createTimelineNode(handle = 1L, name = "removed.image")
+            val keptNode = createTimelineNode(handle = 2L, name = "kept.image")
+            val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+            val searchGate = CompletableDeferred<Unit>()
+            stubTimelineSearch(nodeUpdates) {
+                searchGate.await()
+                listOf(removedNode, keptNode)
+            }
+
+            mockStatic(MegaCancelToken::class.java).use { cancelToken ->
+                cancelToken.`when`<MegaCancelToken> { MegaCancelToken.createInstance() }
+                    .thenReturn(mock())
+                val appScope =
+                    CoroutineScope(SupervisorJob() + UnconfinedTestDispatcher(testScheduler))
+                underTest = createUnderTest(appScope)
+                val timeline = underTest.monitorPhotos()
+
+                // The search has read the node, then the node is removed before it completes
+                nodeUpdates.emit(
+                    NodeUpdate(
+                        mapOf(createFileNode(removedNode.handle) to listOf(NodeChanges.Remove))
+                    )
+                )
+                searchGate.complete(Unit)
+
+                assertThat(timeline.first().map { it.id }).containsExactly(keptNode.handle)
+                appScope.cancel()
+            }
+        }
+
     @Test
     fun `test that getpreferences returns null if android settings doesnt exist`() = runTest {
         val nullRequest = mock<MegaRequest> {
@@ -243,6 +328,7 @@ class DefaultPhotosRepositoryTest {
         cacheGateway = cacheGateway,
         fileGateway = fileGateway,
         megaLocalStorageFacade = megaLocalStorageGateway,
+        appEventGateway = appEventGateway,
         dateUtilFacade = dateUtilWrapper,
         imageMapper = imageMapper,
         videoMapper = videoMapper,
@@ -252,6 +338,33 @@ class DefaultPhotosRepositoryTest {
         contentConsumptionMegaStringMapMapper = contentConsumptionMegaStringMapMapper,
     )
 
+    private suspend fun stubTimelineSearch(
+        nodeUpdates: Flow<NodeUpdate>,
+        searchPhotos: suspend () -> List<MegaNode>,
+    ) {
+        val rootNode = createMegaNode(handle = ROOT_HANDLE)
+        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(nodeUpdates)
+        whenever(megaApiGateway.getRootNode()).thenReturn(rootNode)
+        whenever(megaApiGateway.getParentNode(any())).thenReturn(rootNode)
+        whenever(megaApiGateway.isInRubbish(any())).thenReturn(false)
+        whenever(
+            megaApiGateway.searchByType(any(), any(), eq(MegaApiAndroid.FILE_TYPE_PHOTO), any())
+        ).doSuspendableAnswer { searchPhotos() }
+        whenever(
+            megaApiGateway.searchByType(any(), any(), eq(MegaApiAndroid.FILE_TYPE_VIDEO), any())
+        ).thenReturn(emptyList())
+    }
+
+    private fun createTimelineNode(handle: Long, name: String): MegaNode =
+        createMegaNode(handle = handle, parentHandle = ROOT_HANDLE, name = name).also {
+            whenever(it.isFile).thenReturn(true)
+            whenever(it.hasThumbnail()).thenReturn(true)
+        }
+
+    private fun createFileNode(handle: Long): FileNode = mock {
+        on { id }.thenReturn(NodeId(handle))
+    }
+
     private fun createMegaNode(
         handle: Long = 0L,
         parentHandle: Long = 0L,
@@ -334,4 +447,8 @@ class DefaultPhotosRepositoryTest {
             return UnknownFileTypeInfo(mimeType = "", extension = "")
         }
     }
+
+    companion object {
+        private const val ROOT_HANDLE = 100L
+    }
 }
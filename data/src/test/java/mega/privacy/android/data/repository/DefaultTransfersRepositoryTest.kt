@@ -9,7 +9,9 @@ import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
 import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -53,6 +55,7 @@ import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
@@ -89,7 +92,9 @@ class DefaultTransfersRepositoryTest {
         underTest = createDefaultTransfersRepository()
     }
 
-    private fun createDefaultTransfersRepository(): DefaultTransfersRepository {
+    private fun createDefaultTransfersRepository(
+        scope: CoroutineScope = testScope,
+    ): DefaultTransfersRepository {
         return DefaultTransfersRepository(
             megaApiGateway = megaApiGateway,
             ioDispatcher = UnconfinedTestDispatcher(),
@@ -103,7 +108,7 @@ class DefaultTransfersRepositoryTest {
             megaLocalRoomGateway = megaLocalRoomGateway,
             transferDataMapper = transferDataMapper,
             cancelTokenProvider = cancelTokenProvider,
-            scope = testScope,
+            scope = scope,
         )
     }
 
@@ -893,6 +898,12 @@ class DefaultTransfersRepositoryTest {
     @Nested
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     inner class ActiveTransfersTest {
+
+        @BeforeEach
+        fun createRepository() {
+            underTest = createDefaultTransfersRepository()
+        }
+
         @Test
         fun `test that getActiveTransferByTag gateway result is returned when getActiveTransferByTag is called`() =
             runTest {
@@ -902,27 +913,47 @@ class DefaultTransfersRepositoryTest {
                 assertThat(actual).isEqualTo(expected)
             }
 
+        @Test
+        fun `test that getActiveTransferByTag returns the buffered transfer when it is not persisted yet`() =
+            runTest {
+                val activeTransfer = createActiveTransferEntity(tag = 1)
+                underTest.insertOrUpdateActiveTransfer(activeTransfer)
+                val actual = underTest.getActiveTransferByTag(1)
+                assertThat(actual).isEqualTo(activeTransfer)
+                verify(megaLocalRoomGateway, never()).getActiveTransferByTag(any())
+            }
+
         @ParameterizedTest
         @EnumSource(TransferType::class)
-        fun `test that getActiveTransfersByType gateway result is returned when getActiveTransfersByType is called`(
+        fun `test that getActiveTransfersByType returns the persisted transfers when it is called`(
             transferType: TransferType,
         ) =
             runTest {
-                val expected = mock<List<ActiveTransfer>>()
-                val flow = flowOf(expected)
-                whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
-                    .thenReturn(flow)
+                val expected = listOf(createActiveTransferEntity(1, transferType))
+                whenever(megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType))
+                    .thenReturn(expected)
                 val actual = underTest.getActiveTransfersByType(transferType).first()
                 assertThat(actual).isEqualTo(expected)
             }
 
+        @Test
+        fun `test that getActiveTransfersByType returns the buffered transfers before they are persisted`() =
+            runTest {
+                val transferType = TransferType.DOWNLOAD
+                val activeTransfer = createActiveTransferEntity(1, transferType)
+                underTest.insertOrUpdateActiveTransfer(activeTransfer)
+                val actual = underTest.getActiveTransfersByType(transferType).first()
+                assertThat(actual).containsExactly(activeTransfer)
+                verify(megaLocalRoomGateway, never()).insertOrUpdateActiveTransfers(any())
+            }
+
         @ParameterizedTest
         @EnumSource(TransferType::class)
         fun `test that getActiveTransfersByType gateway first result is returned when getCurrentActiveTransfersByType is called`(
             transferType: TransferType,
         ) =
             runTest {
-                val expected = mock<List<ActiveTransfer>>()
+                val expected = listOf(createActiveTransferEntity(1, transferType))
                 whenever(megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType))
                     .thenReturn(expected)
                 val actual = underTest.getCurrentActiveTransfersByType(transferType)
@@ -930,11 +961,23 @@ class DefaultTransfersRepositoryTest {
             }
 
         @Test
-        fun `test that insertOrUpdateActiveTransfer gateway is called when insertOrUpdateActiveTransfer is called`() =
+        fun `test that insertOrUpdateActiveTransfer changes are persisted in a single batch after the flush interval`() =
             runTest {
-                val activeTransfer = mock<ActiveTransfer>()
-                underTest.insertOrUpdateActiveTransfer(activeTransfer)
-                verify(megaLocalRoomGateway).insertOrUpdateActiveTransfer(activeTransfer)
+                underTest = createDefaultTransfersRepository(scope = this)
+                val first = createActiveTransferEntity(tag = 1)
+                val firstUpdated = first.copy(isPaused = true)
+                val second = createActiveTransferEntity(tag = 2)
+                underTest.insertOrUpdateActiveTransfer(first)
+                underTest.insertOrUpdateActiveTransfer(second)
+                underTest.insertOrUpdateActiveTransfer(firstUpdated)
+                verify(megaLocalRoomGateway, never()).insertOrUpdateActiveTransfers(any())
+
+                advanceTimeBy(DefaultTransfersRepository.ACTIVE_TRANSFERS_FLUSH_INTERVAL_MS + 1)
+
+                verify(megaLocalRoomGateway).insertOrUpdateActiveTransfers(
+                    listOf(firstUpdated, second)
+                )
+                verify(megaLocalRoomGateway, never()).insertOrUpdateActiveTransfer(any())
             }
 
         @ParameterizedTest
@@ -949,35 +992,69 @@ class DefaultTransfersRepositoryTest {
         @Test
         fun `test that setActiveTransferAsFinishedByTag gateway is called when setActiveTransferAsFinishedByTag is called`(
         ) = runTest {
-            val tags = mock<List<Int>>()
+            val tags = listOf(1, 2)
             underTest.setActiveTransferAsFinishedByTag(tags)
             verify(megaLocalRoomGateway).setActiveTransferAsFinishedByTag(tags)
         }
 
         @ParameterizedTest
         @EnumSource(TransferType::class)
-        fun `test that getActiveTransferTotalsByType gateway result is returned when getActiveTransferTotalsByType is called`(
+        fun `test that getActiveTransferTotalsByType is computed from the persisted transfers`(
             transferType: TransferType,
         ) = runTest {
-            val expected = mock<ActiveTransferTotals>()
-            val flow = flowOf(expected)
-            whenever(megaLocalRoomGateway.getActiveTransferTotalsByType(transferType))
-                .thenReturn(flow)
+            whenever(megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType))
+                .thenReturn(
+                    listOf(
+                        createActiveTransferEntity(1, transferType, totalBytes = 10L),
+                        createActiveTransferEntity(2, transferType, isFolderTransfer = true),
+                    )
+                )
             val actual = underTest.getActiveTransferTotalsByType(transferType).first()
-            assertThat(actual).isEqualTo(expected)
+            assertThat(actual.totalTransfers).isEqualTo(2)
+            assertThat(actual.totalFileTransfers).isEqualTo(1)
+            assertThat(actual.totalBytes).isEqualTo(10L)
         }
 
-        @ParameterizedTest
-        @EnumSource(TransferType::class)
-        fun `test that getCurrentActiveTransferTotalsByType gateway result is returned when getCurrentActiveTransferTotalsByType is called`(
-            transferType: TransferType,
-        ) = runTest {
-            val expected = mock<ActiveTransferTotals>()
-            whenever(megaLocalRoomGateway.getCurrentActiveTransferTotalsByType(transferType))
-                .thenReturn(expected)
-            val actual = underTest.getCurrentActiveTransferTotalsByType(transferType)
-            assertThat(actual).isEqualTo(expected)
-        }
+        @Test
+        fun `test that getCurrentActiveTransferTotalsByType is updated incrementally`() =
+            runTest {
+                val transferType = TransferType.DOWNLOAD
+                val transfer = createActiveTransferEntity(1, transferType, totalBytes = 10L)
+                underTest.insertOrUpdateActiveTransfer(transfer)
+                underTest.insertOrUpdateActiveTransfer(transfer.copy(isPaused = true))
+                underTest.insertOrUpdateActiveTransfer(
+                    createActiveTransferEntity(2, transferType, totalBytes = 5L)
+                )
+                underTest.setActiveTransferAsFinishedByTag(listOf(2))
+
+                val actual = underTest.getCurrentActiveTransferTotalsByType(transferType)
+                assertThat(actual).isEqualTo(
+                    ActiveTransferTotals(
+                        transfersType = transferType,
+                        totalTransfers = 2,
+                        totalFileTransfers = 2,
+                        pausedFileTransfers = 1,
+                        totalFinishedTransfers = 1,
+                        totalFinishedFileTransfers = 1,
+                        totalBytes = 15L,
+                        transferredBytes = 0L,
+                    )
+                )
+            }
+
+        private fun createActiveTransferEntity(
+            tag: Int,
+            transferType: TransferType = TransferType.DOWNLOAD,
+            totalBytes: Long = 0L,
+            isFolderTransfer: Boolean = false,
+        ) = ActiveTransferEntity(
+            tag = tag,
+            transferType = transferType,
+            totalBytes = totalBytes,
+            isFinished = false,
+            isFolderTransfer = isFolderTransfer,
+            isPaused = false,
+        )
 
         @Test
         fun `test that workerManagerGateway enqueueDownloadsWorkerRequest is called when startDownloadWorker is called`() {
@@ -236,6 +236,33 @@ internal class FileSystemRepositoryImplTest {
         assertThat(actual).isEqualTo(newPath)
     }
 
+    @Test
+    fun `test that temporary file without gps coordinates is created when sync record is valid`() =
+        runTest {
+            val localPath = "/path/to/local"
+            val newPath = "/path/to/new"
+            val rootPath = "/path/to/root"
+            val syncRecord = SyncRecord(
+                id = 0,
+                localPath = localPath,
+                newPath = newPath,
+                originFingerprint = null,
+                newFingerprint = null,
+                timestamp = 0L,
+                fileName = "fileName.jpg",
+                longitude = null,
+                latitude = null,
+                status = 0,
+                type = SyncRecordType.TYPE_PHOTO,
+                nodeHandle = null,
+                isCopyOnly = false,
+                isSecondary = false,
+            )
+            val actual = underTest.createTempFileWithoutGPSCoordinates(rootPath, syncRecord)
+            verify(fileGateway).createTempFileWithoutGPSCoordinates(rootPath, localPath, newPath)
+            assertThat(actual).isEqualTo(newPath)
+        }
+
     @Test
     fun `test that not enough storage exception is thrown when there is not enough storage`() =
         runTest {
@@ -0,0 +1,98 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaChatApiGateway
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LastGreenRequestLimiterTest {
+
+    private val megaChatApiGateway = mock<MegaChatApiGateway>()
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaChatApiGateway)
+    }
+
+    private fun TestScope.createLimiter() = LastGreenRequestLimiter(
+        megaChatApiGateway = megaChatApiGateway,
+        scope = CoroutineScope(UnconfinedTestDispatcher(testScheduler)),
+        minIntervalMillis = INTERVAL,
+        validityMillis = VALIDITY,
+        clock = { currentTime },
+    )
+
+    @Test
+    fun `test that requests are sent one per interval`() = runTest {
+        val underTest = createLimiter()
+
+        underTest.request(1L)
+        underTest.request(2L)
+        underTest.request(3L)
+
+        verify(megaChatApiGateway).requestLastGreen(1L)
+        verify(megaChatApiGateway, times(1)).requestLastGreen(any())
+
+        advanceTimeBy(INTERVAL)
+        runCurrent()
+        verify(megaChatApiGateway).requestLastGreen(2L)
+        verify(megaChatApiGateway, times(2)).requestLastGreen(any())
+
+        advanceTimeBy(INTERVAL)
+        runCurrent()
+        verify(megaChatApiGateway).requestLastGreen(3L)
+    }
+
+    @Test
+    fun `test that a user is not requested again until the request expires`() = runTest {
+        val underTest = createLimiter()
+
+        underTest.request(1L)
+        advanceTimeBy(INTERVAL)
+        runCurrent()
+        underTest.request(1L)
+        advanceTimeBy(INTERVAL)
+        runCurrent()
+
+        verify(megaChatApiGateway, times(1)).requestLastGreen(1L)
+
+        advanceTimeBy(VALIDITY)
+        runCurrent()
+        underTest.request(1L)
+
+        verify(megaChatApiGateway, times(2)).requestLastGreen(1L)
+    }
+
+    @Test
+    fun `test that a user queued twice is requested once`() = runTest {
+        val underTest = createLimiter()
+
+        underTest.request(1L)
+        underTest.request(2L)
+        underTest.request(2L)
+        advanceTimeBy(INTERVAL * 3)
+        runCurrent()
+
+        verify(megaChatApiGateway, times(1)).requestLastGreen(2L)
+    }
+
+    companion object {
+        private const val INTERVAL = 50L
+        private const val VALIDITY = 1_000L
+    }
+}
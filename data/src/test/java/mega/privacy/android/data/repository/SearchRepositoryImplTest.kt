@@ -7,6 +7,7 @@ import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
+import mega.privacy.android.data.mapper.node.NodeListAttributesMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryIntMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryMapper
@@ -31,6 +32,7 @@ import org.mockito.kotlin.whenever
 class SearchRepositoryImplTest {
     private lateinit var underTest: SearchRepository
     private val nodeMapper: NodeMapper = mock()
+    private val nodeListAttributesMapper: NodeListAttributesMapper = mock()
     private val megaApiGateway: MegaApiGateway = mock()
     private val ioDispatcher: CoroutineDispatcher = UnconfinedTestDispatcher()
     private val cancelTokenProvider: CancelTokenProvider = mock()
@@ -44,6 +46,7 @@ class SearchRepositoryImplTest {
             searchCategoryMapper = SearchCategoryMapper(),
             searchCategoryIntMapper = SearchCategoryIntMapper(),
             nodeMapper = nodeMapper,
+            nodeListAttributesMapper = nodeListAttributesMapper,
             megaApiGateway = megaApiGateway,
             ioDispatcher = ioDispatcher,
             cancelTokenProvider = cancelTokenProvider,
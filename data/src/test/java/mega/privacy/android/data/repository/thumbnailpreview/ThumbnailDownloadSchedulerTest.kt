@@ -0,0 +1,323 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import nz.mega.sdk.MegaError
+import nz.mega.sdk.MegaRequestListenerInterface
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.mock
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailDownloadSchedulerTest {
+
+    private fun TestScope.createScheduler(
+        maxConcurrentDownloads: Int = 1,
+        maxQueuedDownloads: Int = 16,
+    ) = ThumbnailDownloadScheduler(
+        scope = CoroutineScope(UnconfinedTestDispatcher(testScheduler)),
+        maxConcurrentDownloads = maxConcurrentDownloads,
+        maxQueuedDownloads = maxQueuedDownloads,
+        clock = { currentTime * 1_000_000 },
+    )
+
+    private fun key(handle: Long) = ThumbnailDownloadKey(handle, "thumbnail/$handle.jpg")
+
+    @Test
+    fun `test that requests for the same file are merged into one download`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            var downloads = 0
+            val block: suspend () -> Unit = {
+                downloads++
+                gate.await()
+            }
+
+            val first = async(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible, block)
+            }
+            val second = async(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible, block)
+            }
+            gate.complete(Unit)
+            first.await()
+            second.await()
+
+            assertThat(downloads).isEqualTo(1)
+            val stats = underTest.stats
+            assertThat(stats.requests).isEqualTo(2)
+            assertThat(stats.merged).isEqualTo(1)
+            assertThat(stats.dedupRatio).isEqualTo(0.5)
+        }
+
+    @Test
+    fun `test that no more than the maximum downloads run at the same time`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler(maxConcurrentDownloads = 2)
+            val gates = List(3) { CompletableDeferred<Unit>() }
+            val started = mutableListOf<Int>()
+
+            gates.forEachIndexed { index, gate ->
+                launch(unconfined) {
+                    underTest.download(key(index.toLong()), ThumbnailDownloadPriority.Visible) {
+                        started.add(index)
+                        gate.await()
+                    }
+                }
+            }
+
+            assertThat(started).containsExactly(0, 1)
+            assertThat(underTest.stats.running).isEqualTo(2)
+            assertThat(underTest.stats.queued).isEqualTo(1)
+
+            gates[0].complete(Unit)
+            assertThat(started).containsExactly(0, 1, 2)
+
+            gates.forEach { it.complete(Unit) }
+        }
+
+    @Test
+    fun `test that visible downloads start first and the newest start first`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            val started = mutableListOf<Long>()
+            val download: suspend (Long, ThumbnailDownloadPriority) -> Unit = { handle, priority ->
+                underTest.download(key(handle), priority) {
+                    started.add(handle)
+                    gate.await()
+                }
+            }
+
+            launch(unconfined) { download(0, ThumbnailDownloadPriority.Visible) }
+            launch(unconfined) { download(1, ThumbnailDownloadPriority.Prefetch) }
+            launch(unconfined) { download(2, ThumbnailDownloadPriority.Prefetch) }
+            launch(unconfined) { download(3, ThumbnailDownloadPriority.Visible) }
+            launch(unconfined) { download(4, ThumbnailDownloadPriority.Visible) }
+            gate.complete(Unit)
+
+            assertThat(started).containsExactly(0L, 4L, 3L, 2L, 1L).inOrder()
+        }
+
+    @Test
+    fun `test that a prefetched download requested as visible is promoted`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            val started = mutableListOf<Long>()
+            val download: suspend (Long, ThumbnailDownloadPriority) -> Unit = { handle, priority ->
+                underTest.download(key(handle), priority) {
+                    started.add(handle)
+                    gate.await()
+                }
+            }
+
+            launch(unconfined) { download(0, ThumbnailDownloadPriority.Visible) }
+            launch(unconfined) { download(1, ThumbnailDownloadPriority.Prefetch) }
+            launch(unconfined) { download(2, ThumbnailDownloadPriority.Visible) }
+            launch(unconfined) { download(1, ThumbnailDownloadPriority.Visible) }
+            gate.complete(Unit)
+
+            assertThat(started).containsExactly(0L, 1L, 2L).inOrder()
+        }
+
+    @Test
+    fun `test that the oldest download of the lowest priority is dropped when the queue is full`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler(maxQueuedDownloads = 2)
+            val gate = CompletableDeferred<Unit>()
+            val block: suspend () -> Unit = { gate.await() }
+
+            launch(unconfined) {
+                underTest.download(key(0), ThumbnailDownloadPriority.Visible, block)
+            }
+            val dropped = async(unconfined) {
+                runCatching {
+                    underTest.download(key(1), ThumbnailDownloadPriority.Prefetch, block)
+                }
+            }
+            launch(unconfined) {
+                underTest.download(key(2), ThumbnailDownloadPriority.Prefetch, block)
+            }
+            launch(unconfined) {
+                underTest.download(key(3), ThumbnailDownloadPriority.Visible, block)
+            }
+
+            assertThat(dropped.await().exceptionOrNull())
+                .isInstanceOf(ThumbnailDownloadDroppedException::class.java)
+            assertThat(underTest.stats.dropped).isEqualTo(1)
+
+            gate.complete(Unit)
+        }
+
+    @Test
+    fun `test that a download is cancelled only when all its callers are cancelled`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            var cancelled = false
+            val block: suspend () -> Unit = {
+                try {
+                    gate.await()
+                } finally {
+                    cancelled = !gate.isCompleted
+                }
+            }
+
+            val first = launch(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible, block)
+            }
+            val second = launch(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible, block)
+            }
+
+            first.cancel()
+            assertThat(cancelled).isFalse()
+
+            second.cancel()
+            assertThat(cancelled).isTrue()
+            assertThat(underTest.stats.cancelled).isEqualTo(1)
+            assertThat(underTest.stats.running).isEqualTo(0)
+        }
+
+    @Test
+    fun `test that a queued download is removed when its caller is cancelled`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            val started = mutableListOf<Long>()
+
+            launch(unconfined) {
+                underTest.download(key(0), ThumbnailDownloadPriority.Visible) { gate.await() }
+            }
+            val queued = launch(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible) { started.add(1) }
+            }
+
+            queued.cancel()
+            gate.complete(Unit)
+
+            assertThat(started).isEmpty()
+            assertThat(underTest.stats.queued).isEqualTo(0)
+        }
+
+    @Test
+    fun `test that a failed download fails all its callers`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+            val block: suspend () -> Unit = {
+                gate.await()
+                throw IllegalStateException("Download failed")
+            }
+
+            val first = async(unconfined) {
+                runCatching { underTest.download(key(1), ThumbnailDownloadPriority.Visible, block) }
+            }
+            val second = async(unconfined) {
+                runCatching { underTest.download(key(1), ThumbnailDownloadPriority.Visible, block) }
+            }
+            gate.complete(Unit)
+
+            assertThat(first.await().exceptionOrNull())
+                .isInstanceOf(IllegalStateException::class.java)
+            assertThat(second.await().exceptionOrNull())
+                .isInstanceOf(IllegalStateException::class.java)
+        }
+
+    @Test
+    fun `test that enqueue reports the result of the download`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val results = mutableListOf<Boolean>()
+
+            underTest.enqueue(key(1), ThumbnailDownloadPriority.Visible, {}) { results.add(it) }
+            underTest.enqueue(
+                key(2),
+                ThumbnailDownloadPriority.Visible,
+                { throw IllegalStateException() },
+            ) { results.add(it) }
+
+            assertThat(results).containsExactly(true, false).inOrder()
+        }
+
+    @Test
+    fun `test that the queue latency of the started downloads is measured`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            val gate = CompletableDeferred<Unit>()
+
+            launch(unconfined) {
+                underTest.download(key(0), ThumbnailDownloadPriority.Visible) { gate.await() }
+            }
+            launch(unconfined) { underTest.download(key(1), ThumbnailDownloadPriority.Visible) {} }
+            advanceTimeBy(100)
+            gate.complete(Unit)
+
+            val stats = underTest.stats
+            assertThat(stats.started).isEqualTo(2)
+            assertThat(stats.averageQueueMillis).isEqualTo(50)
+            assertThat(stats.maxQueueMillis).isEqualTo(100)
+        }
+
+    @Test
+    fun `test that a cancelled SDK request keeps its slot until the SDK finishes it`() =
+        runTest {
+            val unconfined = UnconfinedTestDispatcher(testScheduler)
+            val underTest = createScheduler()
+            var listener: MegaRequestListenerInterface? = null
+            var nextStarted = false
+
+            val cancelled = launch(unconfined) {
+                underTest.downloadWithRequest(
+                    key(0),
+                    ThumbnailDownloadPriority.Visible,
+                    "getThumbnail",
+                ) { listener = it }
+            }
+            launch(unconfined) {
+                underTest.download(key(1), ThumbnailDownloadPriority.Visible) {
+                    nextStarted = true
+                }
+            }
+            cancelled.cancel()
+
+            assertThat(underTest.stats.cancelled).isEqualTo(1)
+            assertThat(nextStarted).isFalse()
+
+            val error = mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) }
+            listener?.onRequestFinish(mock(), mock(), error)
+
+            assertThat(nextStarted).isTrue()
+            assertThat(underTest.stats.running).isEqualTo(0)
+        }
+
+    @Test
+    fun `test that the limits must be positive`() {
+        assertThrows<IllegalArgumentException> {
+            ThumbnailDownloadScheduler(TestScope(), 0, 1)
+        }
+    }
+}
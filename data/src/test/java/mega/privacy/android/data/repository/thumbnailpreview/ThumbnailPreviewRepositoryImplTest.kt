@@ -1,6 +1,7 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
@@ -58,6 +59,11 @@ class ThumbnailPreviewRepositoryImplTest {
             ioDispatcher = UnconfinedTestDispatcher(),
             cacheGateway = cacheGateway,
             stringWrapper = stringWrapper,
+            downloadScheduler = ThumbnailDownloadScheduler(
+                scope = CoroutineScope(UnconfinedTestDispatcher()),
+                maxConcurrentDownloads = 4,
+                maxQueuedDownloads = 16,
+            ),
         )
     }
 
@@ -28,11 +28,15 @@ sealed interface CameraUploadsStatusInfo {
      *  @property progress
      *  @property currentFileIndex
      *  @property totalCount
+     *  @property totalUploaded count of files uploaded while compressing
+     *  @property totalToUpload count of files to upload while compressing
      */
     data class VideoCompressionProgress(
         val progress: Int,
         val currentFileIndex: Int,
         val totalCount: Int,
+        val totalUploaded: Int = 0,
+        val totalToUpload: Int = 0,
     ) : CameraUploadsStatusInfo
 
 
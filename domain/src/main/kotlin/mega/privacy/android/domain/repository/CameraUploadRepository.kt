@@ -215,6 +215,18 @@ interface CameraUploadRepository {
         isSecondary: Boolean,
     ): Boolean
 
+    /**
+     * Get the local paths that already have a sync record
+     *
+     * @param localPaths the local paths to check
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that already have a sync record
+     */
+    suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String>
+
     /**
      * Do user credentials exist
      *
@@ -454,17 +466,17 @@ interface CameraUploadRepository {
     suspend fun sendUpdateFolderDestinationBroadcast(nodeHandle: Long, isSecondary: Boolean)
 
     /**
-     * Get the media queue for a given media type
+     * Get the media for a given media type
      *
      * @param mediaStoreFileType different media store file type
      * @param selectionQuery db query
      *
-     * @return list of camera upload media
+     * @return cold flow of bounded chunks of camera upload media, sorted by modification date
      */
-    suspend fun getMediaList(
+    fun getMediaList(
         mediaStoreFileType: MediaStoreFileType,
         selectionQuery: String?,
-    ): List<CameraUploadsMedia>
+    ): Flow<List<CameraUploadsMedia>>
 
     /**
      * Update sync record status by local path
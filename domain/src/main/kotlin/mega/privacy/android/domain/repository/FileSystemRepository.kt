@@ -84,6 +84,15 @@ interface FileSystemRepository {
     @Throws(IOException::class)
     suspend fun createTempFile(root: String, syncRecord: SyncRecord): String
 
+    /**
+     * create temp file in file system without the GPS coordinates of the original file
+     * @param root root path
+     * @param syncRecord
+     * @return the path of the created file
+     */
+    @Throws(IOException::class)
+    suspend fun createTempFileWithoutGPSCoordinates(root: String, syncRecord: SyncRecord): String
+
     /**
      * remove GPS CoOrdinates from the file
      */
@@ -228,6 +228,17 @@ interface TransferRepository {
      */
     fun getAllCompletedTransfers(size: Int? = null): Flow<List<CompletedTransfer>>
 
+    /**
+     * Get a page of completed transfers, ordered by timestamp descendant
+     *
+     * @param size the size of the page
+     * @param after the last completed transfer of the previous page, or null for the first page
+     */
+    fun getCompletedTransfersPage(
+        size: Int,
+        after: CompletedTransfer? = null,
+    ): Flow<List<CompletedTransfer>>
+
     /**
      * Add a completed transfer to local storage
      *
@@ -0,0 +1,24 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import javax.inject.Inject
+
+/**
+ * Use Case that resolves, in a single lookup, which local paths already have a sync record
+ *
+ * @property cameraUploadRepository [CameraUploadRepository]
+ */
+class GetExistingLocalPathsUseCase @Inject constructor(
+    private val cameraUploadRepository: CameraUploadRepository,
+) {
+    /**
+     * Invocation function
+     *
+     * @param localPaths the local paths to check
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that already have a sync record
+     */
+    suspend operator fun invoke(localPaths: List<String>, isSecondary: Boolean): Set<String> =
+        if (localPaths.isEmpty()) emptySet()
+        else cameraUploadRepository.getExistingLocalPaths(localPaths, isSecondary)
+}
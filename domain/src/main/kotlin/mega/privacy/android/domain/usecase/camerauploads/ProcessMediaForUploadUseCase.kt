@@ -7,7 +7,6 @@ import kotlinx.coroutines.joinAll
 import kotlinx.coroutines.launch
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.SyncTimeStamp
-import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.repository.CameraUploadRepository
 import mega.privacy.android.domain.usecase.IsSecondaryFolderEnabled
@@ -39,173 +38,113 @@ class ProcessMediaForUploadUseCase @Inject constructor(
 
     /**
      * Invoke
+     *
+     * The media store is read in chunks, the sync records of each chunk are saved as soon as the
+     * chunk is processed
+     *
      * @param primaryUploadNodeId [NodeId]
      * @param secondaryUploadNodeId [NodeId]
      * @param tempRoot [String]
+     * @param onSyncRecordsSaved called each time new sync records have been saved in the database
      */
     suspend operator fun invoke(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId?,
         tempRoot: String,
+        onSyncRecordsSaved: suspend () -> Unit = {},
     ) {
         val mediaStoreTypes = getMediaStoreFileTypesUseCase()
         val secondaryEnabled = isSecondaryFolderEnabled()
+        val secondaryNodeId = secondaryUploadNodeId.takeIf { secondaryEnabled }
         coroutineScope {
             val list = mutableListOf<Job>()
             list.add(
-                preparePrimaryPhotos(
-                    types = mediaStoreTypes,
+                prepareMedia(
+                    types = mediaStoreTypes.filter { it in PHOTO_TYPES },
+                    syncTimeStamp = SyncTimeStamp.PRIMARY_PHOTO,
                     uploadNodeId = primaryUploadNodeId,
                     tempRoot = tempRoot,
+                    onSyncRecordsSaved = onSyncRecordsSaved,
                 )
             )
-            if (secondaryEnabled) {
-                secondaryUploadNodeId?.let {
-                    list.add(
-                        prepareSecondaryPhotos(
-                            types = mediaStoreTypes,
-                            uploadNodeId = it,
-                            tempRoot = tempRoot,
-                        )
+            secondaryNodeId?.let {
+                list.add(
+                    prepareMedia(
+                        types = mediaStoreTypes.filter { type -> type in PHOTO_TYPES },
+                        syncTimeStamp = SyncTimeStamp.SECONDARY_PHOTO,
+                        uploadNodeId = it,
+                        tempRoot = tempRoot,
+                        onSyncRecordsSaved = onSyncRecordsSaved,
                     )
-                }
+                )
             }
             list.add(
-                preparePrimaryVideos(
-                    types = mediaStoreTypes,
+                prepareMedia(
+                    types = mediaStoreTypes.filter { it in VIDEO_TYPES },
+                    syncTimeStamp = SyncTimeStamp.PRIMARY_VIDEO,
                     uploadNodeId = primaryUploadNodeId,
                     tempRoot = tempRoot,
+                    onSyncRecordsSaved = onSyncRecordsSaved,
                 )
             )
-            if (secondaryEnabled) {
-                secondaryUploadNodeId?.let {
-                    list.add(
-                        prepareSecondaryVideos(
-                            types = mediaStoreTypes,
-                            uploadNodeId = it,
-                            tempRoot = tempRoot,
-                        )
-                    )
-                }
-            }
-            list.joinAll()
-        }
-    }
-
-    private fun CoroutineScope.preparePrimaryPhotos(
-        types: List<MediaStoreFileType>,
-        uploadNodeId: NodeId,
-        tempRoot: String,
-    ) = launch {
-        val primaryPhotos = arrayListOf<CameraUploadsMedia>()
-        for (type in types) {
-            if (type == MediaStoreFileType.IMAGES_INTERNAL || type == MediaStoreFileType.IMAGES_EXTERNAL) {
-                primaryPhotos.addAll(
-                    cameraUploadRepository.getMediaList(
-                        mediaStoreFileType = type,
-                        selectionQuery = getCameraUploadSelectionQueryUseCase(SyncTimeStamp.PRIMARY_PHOTO),
+            secondaryNodeId?.let {
+                list.add(
+                    prepareMedia(
+                        types = mediaStoreTypes.filter { type -> type in VIDEO_TYPES },
+                        syncTimeStamp = SyncTimeStamp.SECONDARY_VIDEO,
+                        uploadNodeId = it,
+                        tempRoot = tempRoot,
+                        onSyncRecordsSaved = onSyncRecordsSaved,
                     )
                 )
             }
+            list.joinAll()
         }
-        val pendingUploadsList = getPendingUploadListUseCase(
-            mediaList = primaryPhotos,
-            isSecondary = false,
-            isVideo = false,
-        )
-        saveSyncRecordsToDBUseCase(
-            list = pendingUploadsList,
-            uploadNodeId = uploadNodeId,
-            rootPath = tempRoot,
-        )
-        updateTimeStamp(null, SyncTimeStamp.PRIMARY_PHOTO)
     }
 
-    private fun CoroutineScope.preparePrimaryVideos(
+    /**
+     * Collect the media of the given types chunk by chunk, and save the pending sync records of
+     * each chunk before reading the next one
+     */
+    private fun CoroutineScope.prepareMedia(
         types: List<MediaStoreFileType>,
+        syncTimeStamp: SyncTimeStamp,
         uploadNodeId: NodeId,
         tempRoot: String,
+        onSyncRecordsSaved: suspend () -> Unit,
     ) = launch {
-        val primaryVideos = arrayListOf<CameraUploadsMedia>()
-        for (type in types) {
-            if (type == MediaStoreFileType.VIDEO_INTERNAL || type == MediaStoreFileType.VIDEO_EXTERNAL) {
-                primaryVideos.addAll(
-                    cameraUploadRepository.getMediaList(
-                        mediaStoreFileType = type,
-                        selectionQuery = getCameraUploadSelectionQueryUseCase(SyncTimeStamp.PRIMARY_VIDEO),
+        val isSecondary = syncTimeStamp == SyncTimeStamp.SECONDARY_PHOTO
+                || syncTimeStamp == SyncTimeStamp.SECONDARY_VIDEO
+        val isVideo = syncTimeStamp == SyncTimeStamp.PRIMARY_VIDEO
+                || syncTimeStamp == SyncTimeStamp.SECONDARY_VIDEO
+        if (types.isNotEmpty()) {
+            val selectionQuery = getCameraUploadSelectionQueryUseCase(syncTimeStamp)
+            for (type in types) {
+                cameraUploadRepository.getMediaList(
+                    mediaStoreFileType = type,
+                    selectionQuery = selectionQuery,
+                ).collect { chunk ->
+                    val pendingUploadsList = getPendingUploadListUseCase(
+                        mediaList = chunk,
+                        isSecondary = isSecondary,
+                        isVideo = isVideo,
                     )
-                )
-            }
-        }
-        val pendingVideoUploadsList = getPendingUploadListUseCase(
-            mediaList = primaryVideos,
-            isSecondary = false,
-            isVideo = true,
-        )
-        saveSyncRecordsToDBUseCase(
-            list = pendingVideoUploadsList,
-            uploadNodeId = uploadNodeId,
-            rootPath = tempRoot,
-        )
-        updateTimeStamp(null, SyncTimeStamp.PRIMARY_VIDEO)
-    }
-
-    private fun CoroutineScope.prepareSecondaryPhotos(
-        types: List<MediaStoreFileType>,
-        uploadNodeId: NodeId,
-        tempRoot: String,
-    ) = launch {
-        val secondaryPhotos = arrayListOf<CameraUploadsMedia>()
-        for (type in types) {
-            if (type == MediaStoreFileType.IMAGES_INTERNAL || type == MediaStoreFileType.IMAGES_EXTERNAL) {
-                secondaryPhotos.addAll(
-                    cameraUploadRepository.getMediaList(
-                        mediaStoreFileType = type,
-                        selectionQuery = getCameraUploadSelectionQueryUseCase(SyncTimeStamp.SECONDARY_PHOTO),
+                    saveSyncRecordsToDBUseCase(
+                        list = pendingUploadsList,
+                        uploadNodeId = uploadNodeId,
+                        rootPath = tempRoot,
                     )
-                )
+                    onSyncRecordsSaved()
+                }
             }
         }
-        val pendingUploadsListSecondary = getPendingUploadListUseCase(
-            mediaList = secondaryPhotos,
-            isSecondary = true,
-            isVideo = false,
-        )
-        saveSyncRecordsToDBUseCase(
-            list = pendingUploadsListSecondary,
-            uploadNodeId = uploadNodeId,
-            rootPath = tempRoot,
-        )
-        updateTimeStamp(null, SyncTimeStamp.SECONDARY_PHOTO)
+        updateTimeStamp(null, syncTimeStamp)
     }
 
-    private fun CoroutineScope.prepareSecondaryVideos(
-        types: List<MediaStoreFileType>,
-        uploadNodeId: NodeId,
-        tempRoot: String,
-    ) = launch {
-        val secondaryVideos = arrayListOf<CameraUploadsMedia>()
-        for (type in types) {
-            if (type == MediaStoreFileType.VIDEO_INTERNAL || type == MediaStoreFileType.VIDEO_EXTERNAL) {
-
-                secondaryVideos.addAll(
-                    cameraUploadRepository.getMediaList(
-                        mediaStoreFileType = type,
-                        selectionQuery = getCameraUploadSelectionQueryUseCase(SyncTimeStamp.SECONDARY_VIDEO),
-                    )
-                )
-            }
-        }
-        val pendingVideoUploadsListSecondary = getPendingUploadListUseCase(
-            mediaList = secondaryVideos,
-            isSecondary = true,
-            isVideo = true,
-        )
-        saveSyncRecordsToDBUseCase(
-            list = pendingVideoUploadsListSecondary,
-            uploadNodeId = uploadNodeId,
-            rootPath = tempRoot,
-        )
-        updateTimeStamp(null, SyncTimeStamp.SECONDARY_VIDEO)
+    private companion object {
+        val PHOTO_TYPES =
+            listOf(MediaStoreFileType.IMAGES_INTERNAL, MediaStoreFileType.IMAGES_EXTERNAL)
+        val VIDEO_TYPES =
+            listOf(MediaStoreFileType.VIDEO_INTERNAL, MediaStoreFileType.VIDEO_EXTERNAL)
     }
 }
@@ -25,11 +25,13 @@ class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
         types: List<MediaStoreFileType>,
     ): List<CameraUploadsMedia> {
         val selectionQuery = cameraUploadRepository.getMediaSelectionQuery(parentPath)
-        return types.flatMap {
-            cameraUploadRepository.getMediaList(
-                mediaStoreFileType = it,
-                selectionQuery = selectionQuery,
-            )
+        return buildList {
+            types.forEach {
+                cameraUploadRepository.getMediaList(
+                    mediaStoreFileType = it,
+                    selectionQuery = selectionQuery,
+                ).collect { chunk -> addAll(chunk) }
+            }
         }
     }
 }
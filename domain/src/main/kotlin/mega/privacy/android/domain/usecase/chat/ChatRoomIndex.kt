@@ -0,0 +1,82 @@
+package mega.privacy.android.domain.usecase.chat
+
+import mega.privacy.android.domain.entity.chat.ChatRoomItem
+import java.util.TreeSet
+
+/**
+ * Chat rooms kept in display order, so updating a chat moves it in place instead of sorting the
+ * whole list again
+ *
+ * The list returned by [toList] is only rebuilt after a change, and the chats that did not change
+ * keep the same instance, so the list can be diffed by chat id cheaply.
+ *
+ * @param comparator display order. Chats comparing equal keep the order they were first added in
+ */
+internal class ChatRoomIndex(comparator: Comparator<ChatRoomItem>) {
+    private class Entry(val item: ChatRoomItem, val sequence: Long)
+
+    private val lock = Any()
+    private val entriesById = HashMap<Long, Entry>()
+    private val sortedEntries = TreeSet(
+        compareBy(comparator, Entry::item).thenBy(Entry::sequence)
+    )
+    private var nextSequence = 0L
+    private var snapshot: List<ChatRoomItem>? = emptyList()
+
+    /**
+     * Get a chat room
+     *
+     * @param chatId
+     */
+    operator fun get(chatId: Long): ChatRoomItem? = synchronized(lock) { entriesById[chatId]?.item }
+
+    /**
+     * Check if a chat room is in the index
+     *
+     * @param chatId
+     */
+    fun containsKey(chatId: Long): Boolean = synchronized(lock) { entriesById.containsKey(chatId) }
+
+    /**
+     * Add or replace a chat room
+     *
+     * @param item
+     * @return true if the index changed
+     */
+    fun put(item: ChatRoomItem): Boolean = synchronized(lock) {
+        val current = entriesById[item.chatId]
+        if (current?.item == item) return@synchronized false
+        current?.let(sortedEntries::remove)
+        val entry = Entry(item, current?.sequence ?: nextSequence++)
+        entriesById[item.chatId] = entry
+        sortedEntries.add(entry)
+        snapshot = null
+        true
+    }
+
+    /**
+     * Remove a chat room
+     *
+     * @param chatId
+     * @return true if the index changed
+     */
+    fun remove(chatId: Long): Boolean = synchronized(lock) {
+        val current = entriesById.remove(chatId) ?: return@synchronized false
+        sortedEntries.remove(current)
+        snapshot = null
+        true
+    }
+
+    /**
+     * Find the first chat room matching [predicate], in no particular order
+     */
+    fun firstOrNull(predicate: (ChatRoomItem) -> Boolean): ChatRoomItem? =
+        synchronized(lock) { entriesById.values.firstOrNull { predicate(it.item) }?.item }
+
+    /**
+     * Chat rooms in display order
+     */
+    fun toList(): List<ChatRoomItem> = synchronized(lock) {
+        snapshot ?: sortedEntries.map(Entry::item).also { snapshot = it }
+    }
+}
@@ -7,6 +7,7 @@ import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.filter
@@ -14,9 +15,9 @@ import kotlinx.coroutines.flow.flatMapMerge
 import kotlinx.coroutines.flow.flattenMerge
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
-import kotlinx.coroutines.flow.mapLatest
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
+import kotlinx.coroutines.flow.transform
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.sync.withLock
 import mega.privacy.android.data.mapper.chat.ChatRoomItemMapper
@@ -66,6 +67,11 @@ class GetChatsUseCase @Inject constructor(
 
     companion object {
         private const val MAX_CONCURRENT_JOBS = 8
+
+        /**
+         * Minimum time between two emissions, updates received meanwhile are emitted together
+         */
+        internal const val EMISSION_INTERVAL_MILLIS = 16L
     }
 
     /**
@@ -91,6 +97,10 @@ class GetChatsUseCase @Inject constructor(
     /**
      * Retrieve a flow of updated [ChatRoomItem]
      *
+     * Chats are kept sorted in a [ChatRoomIndex] as they are updated, and updates are emitted in
+     * batches at most once per [EMISSION_INTERVAL_MILLIS]. Chats which did not change keep the same
+     * instance between emissions.
+     *
      * @param chatRoomType          [ChatRoomType]
      * @param lastMessage
      * @param lastTimeMapper
@@ -106,9 +116,10 @@ class GetChatsUseCase @Inject constructor(
     ): Flow<List<ChatRoomItem>> =
         flow {
             val mutex = Mutex()
-            val chats = mutableMapOf<Long, ChatRoomItem>()
+            val chats = ChatRoomIndex(chatRoomComparator(chatRoomType))
 
-            emit(chats.addChatRooms(chatRoomType))
+            chats.addChatRooms(chatRoomType)
+            emit(chats.toList().addHeaders(chatRoomType, headerTimeMapper))
 
             emitAll(
                 flowOf(
@@ -130,15 +141,16 @@ class GetChatsUseCase @Inject constructor(
                         lastTimeMapper,
                         meetingTimeMapper
                     ),
-                ).flattenMerge().mapLatest {
-                    it.sorted(chatRoomType).addHeaders(chatRoomType, headerTimeMapper)
-                }
+                ).flattenMerge()
+                    .conflate()
+                    .transform {
+                        emit(chats.toList().addHeaders(chatRoomType, headerTimeMapper))
+                        delay(EMISSION_INTERVAL_MILLIS)
+                    }
             )
         }
 
-    private suspend fun MutableMap<Long, ChatRoomItem>.addChatRooms(
-        chatRoomType: ChatRoomType,
-    ): List<ChatRoomItem> =
+    private suspend fun ChatRoomIndex.addChatRooms(chatRoomType: ChatRoomType) =
         when (chatRoomType) {
             ChatRoomType.MEETINGS -> chatRepository.getMeetingChatRooms()
             ChatRoomType.NON_MEETINGS -> chatRepository.getNonMeetingChatRooms()
@@ -149,18 +161,18 @@ class GetChatsUseCase @Inject constructor(
                 if (chatRoomType == ChatRoomType.ARCHIVED_CHATS
                     || (!chatRoom.isArchived && chatRoom.isActive)
                 ) {
-                    put(chatRoom.chatId, chatRoomItemMapper(chatRoom))
+                    put(chatRoomItemMapper(chatRoom))
                 }
-            }.let { values.toList() }
+            }
 
-    private fun MutableMap<Long, ChatRoomItem>.updateFields(
+    private fun ChatRoomIndex.updateFields(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
         getLastMessage: suspend (Long) -> String,
         lastTimeMapper: (Long) -> String,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> =
-        values.asFlow().flatMapMerge(MAX_CONCURRENT_JOBS) { currentItem ->
+    ): Flow<Unit> =
+        toList().asFlow().flatMapMerge(MAX_CONCURRENT_JOBS) { currentItem ->
             flow {
                 val newItem = currentItem.updateChatFields(getLastMessage, lastTimeMapper)
                 val updatedItem = if (currentItem is MeetingChatRoomItem) {
@@ -169,11 +181,11 @@ class GetChatsUseCase @Inject constructor(
                     newItem
                 }
 
-                mutex.withLock {
-                    put(currentItem.chatId, updatedItem)
+                val changed = mutex.withLock {
+                    containsKey(currentItem.chatId) && put(updatedItem)
                 }
 
-                emit(values.toList())
+                if (changed) emit(Unit)
             }
         }
 
@@ -220,14 +232,14 @@ class GetChatsUseCase @Inject constructor(
             } ?: this
         } else this
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorMutedChats(
+    private fun ChatRoomIndex.monitorMutedChats(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Unit> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
             pushesRepository.monitorPushNotificationSettings().mapNotNull {
                 var listUpdated = false
-                values.toList().forEach { item ->
+                toList().forEach { item ->
                     val itemMuted = isChatMuted(item.chatId)
                     if (item.isMuted != itemMuted) {
                         listUpdated = true
@@ -237,19 +249,19 @@ class GetChatsUseCase @Inject constructor(
                                     isMuted = itemMuted,
                                 )
 
-                                put(item.chatId, newItem)
+                                put(newItem)
                             }
                         }
                     }
                 }
-                values.toList().takeIf { listUpdated }
+                Unit.takeIf { listUpdated }
             }
         } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatCalls(
+    private fun ChatRoomIndex.monitorChatCalls(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Unit> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
             monitorChatCallUpdates()
                 .filter { containsKey(it.chatId) }
@@ -261,21 +273,18 @@ class GetChatsUseCase @Inject constructor(
                                     currentCall = chatCallItem
                                 )
 
-                                if (currentItem != updatedItem) {
-                                    put(chatCall.chatId, updatedItem)
-                                }
+                                put(updatedItem)
                             }
-                        }
-                        values.toList()
+                        }?.takeIf { it }
                     }
                 }
         } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorSchedMeetingUpdates(
+    private fun ChatRoomIndex.monitorSchedMeetingUpdates(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Unit> =
         if (chatRoomType == ChatRoomType.MEETINGS) {
             merge(monitorScheduledMeetingUpdates(), monitorScheduledMeetingOccurrencesUpdates())
                 .mapNotNull { update ->
@@ -300,31 +309,28 @@ class GetChatsUseCase @Inject constructor(
                                     scheduledStartTimestamp = schedData.scheduledStartTimestamp,
                                     scheduledEndTimestamp = schedData.scheduledEndTimestamp,
                                 )
-                                if (currentItem != newItem) {
-                                    put(currentItem.chatId, newItem)
-                                }
+                                put(newItem)
                             }
-                        }
-                        values.toList()
+                        }?.takeIf { it }
                     }
                 }
         } else emptyFlow()
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatUpdates(
+    private fun ChatRoomIndex.monitorChatUpdates(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
         getLastMessage: suspend (Long) -> String,
         lastTimeMapper: (Long) -> String,
         meetingTimeMapper: (Long, Long) -> String,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Unit> =
         chatRepository.monitorChatListItemUpdates().mapNotNull { chatListItem ->
             if (((chatRoomType == ChatRoomType.ARCHIVED_CHATS && !chatListItem.isArchived) ||
                         chatListItem.isArchived) || chatListItem.isDeleted || !chatListItem.isActive
                 || chatListItem.changes == ChatListItemChanges.Deleted ||
                 chatListItem.changes == ChatListItemChanges.Closed
             ) {
-                mutex.withLock { remove(chatListItem.chatId) }
-                return@mapNotNull values.toList()
+                val removed = mutex.withLock { remove(chatListItem.chatId) }
+                return@mapNotNull Unit.takeIf { removed }
             }
 
             delay(500) // Required to wait for new SDK values
@@ -338,22 +344,17 @@ class GetChatsUseCase @Inject constructor(
                 ?.updateChatFields(getLastMessage, lastTimeMapper)
                 ?.updateMeetingFields(chatRoomType, meetingTimeMapper)
                 ?.let { newItem ->
-                    mutex.withLock {
-                        if (newItem != get(chatListItem.chatId)) {
-                            put(chatListItem.chatId, newItem)
-                        }
-                    }
-                    values.toList()
+                    Unit.takeIf { mutex.withLock { put(newItem) } }
                 }
         }
 
-    private fun MutableMap<Long, ChatRoomItem>.monitorChatOnlineStatusUpdates(
+    private fun ChatRoomIndex.monitorChatOnlineStatusUpdates(
         mutex: Mutex,
         chatRoomType: ChatRoomType,
-    ): Flow<List<ChatRoomItem>> =
+    ): Flow<Unit> =
         if (chatRoomType != ChatRoomType.ARCHIVED_CHATS) {
             contactsRepository.monitorChatOnlineStatusUpdates().mapNotNull { update ->
-                values.firstOrNull { item ->
+                firstOrNull { item ->
                     item is IndividualChatRoomItem && item.peerHandle == update.userHandle
                 }?.chatId?.let { chatId ->
                     mutex.withLock {
@@ -362,28 +363,24 @@ class GetChatsUseCase @Inject constructor(
                                 userStatus = update.status,
                             )
 
-                            if (currentItem != updatedItem) {
-                                put(updatedItem.chatId, updatedItem)
-                            }
+                            put(updatedItem)
                         }
-                    }
-                    values.toList()
+                    }?.takeIf { it }
                 }
             }
         } else emptyFlow()
 
-    private fun List<ChatRoomItem>.sorted(chatRoomType: ChatRoomType): List<ChatRoomItem> =
+    private fun chatRoomComparator(chatRoomType: ChatRoomType): Comparator<ChatRoomItem> =
         if (chatRoomType == ChatRoomType.MEETINGS) {
-            sortedWith { firstItem, secondItem ->
+            Comparator { firstItem, secondItem ->
                 when {
                     firstItem.isPendingMeeting() && secondItem.isPendingMeeting() -> {
                         firstItem as MeetingChatRoomItem
                         secondItem as MeetingChatRoomItem
-                        when {
-                            firstItem.scheduledStartTimestamp!! > secondItem.scheduledStartTimestamp!! -> 1
-                            firstItem.scheduledStartTimestamp < secondItem.scheduledStartTimestamp -> -1
-                            else -> 0
-                        }
+                        compareValues(
+                            firstItem.scheduledStartTimestamp!!,
+                            secondItem.scheduledStartTimestamp!!
+                        )
                     }
 
                     !firstItem.isPendingMeeting() && !secondItem.isPendingMeeting() -> {
@@ -401,7 +398,7 @@ class GetChatsUseCase @Inject constructor(
                 }
             }
         } else {
-            sortedByDescending(ChatRoomItem::lastTimestamp)
+            compareByDescending(ChatRoomItem::lastTimestamp)
         }
 
     private fun List<ChatRoomItem>.addHeaders(
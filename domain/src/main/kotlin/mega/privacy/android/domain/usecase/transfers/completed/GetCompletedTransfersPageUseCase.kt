@@ -0,0 +1,24 @@
+package mega.privacy.android.domain.usecase.transfers.completed
+
+import mega.privacy.android.domain.entity.transfer.CompletedTransfer
+import mega.privacy.android.domain.repository.TransferRepository
+import javax.inject.Inject
+
+/**
+ * Get a page of the completed transfers, the most recent first
+ *
+ * @param transferRepository
+ */
+class GetCompletedTransfersPageUseCase @Inject constructor(
+    private val transferRepository: TransferRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param size the size of the page
+     * @param after the last completed transfer of the previous page, or null for the first page
+     */
+    operator fun invoke(size: Int, after: CompletedTransfer? = null) =
+        transferRepository.getCompletedTransfersPage(size, after)
+}
@@ -0,0 +1,60 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+/**
+ * Test class for [GetExistingLocalPathsUseCase]
+ */
+@ExperimentalCoroutinesApi
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetExistingLocalPathsUseCaseTest {
+
+    private lateinit var underTest: GetExistingLocalPathsUseCase
+
+    private val cameraUploadRepository = mock<CameraUploadRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = GetExistingLocalPathsUseCase(
+            cameraUploadRepository = cameraUploadRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(cameraUploadRepository)
+    }
+
+    @ParameterizedTest(name = "is secondary: {0}")
+    @ValueSource(booleans = [true, false])
+    fun `test that the existing local paths are returned`(isSecondary: Boolean) = runTest {
+        val paths = listOf("path/1.jpg", "path/2.jpg", "path/3.jpg")
+        val expected = setOf("path/2.jpg")
+
+        whenever(cameraUploadRepository.getExistingLocalPaths(paths, isSecondary))
+            .thenReturn(expected)
+
+        assertThat(underTest(paths, isSecondary)).isEqualTo(expected)
+        verify(cameraUploadRepository).getExistingLocalPaths(paths, isSecondary)
+    }
+
+    @Test
+    fun `test that the repository is not queried if there are no paths`() = runTest {
+        assertThat(underTest(emptyList(), false)).isEmpty()
+        verifyNoInteractions(cameraUploadRepository)
+    }
+}
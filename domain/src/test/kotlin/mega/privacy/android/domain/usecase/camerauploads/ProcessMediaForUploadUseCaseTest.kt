@@ -5,12 +5,14 @@ import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.cancelAndJoin
 import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.test.advanceTimeBy
 import kotlinx.coroutines.test.runCurrent
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.SyncRecord
 import mega.privacy.android.domain.entity.SyncTimeStamp
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.node.NodeId
@@ -22,6 +24,7 @@ import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.doSuspendableAnswer
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.stub
 import org.mockito.kotlin.verify
@@ -73,7 +76,7 @@ class ProcessMediaForUploadUseCaseTest {
                         selectionQuery = eq("")
                     )
                 ).thenReturn(
-                    queue
+                    flowOf(queue)
                 )
             }
             listOf(
@@ -86,7 +89,7 @@ class ProcessMediaForUploadUseCaseTest {
                         selectionQuery = eq("")
                     )
                 ).thenReturn(
-                    queue
+                    flowOf(queue)
                 )
             }
         }
@@ -156,6 +159,40 @@ class ProcessMediaForUploadUseCaseTest {
             verify(updateTimeStamp).invoke(null, SyncTimeStamp.SECONDARY_VIDEO)
         }
 
+    @Test
+    fun `test that the sync records of each chunk are saved before the next chunk is retrieved`() =
+        runTest {
+            val firstChunk = listOf<CameraUploadsMedia>(mock())
+            val secondChunk = listOf<CameraUploadsMedia>(mock(), mock())
+            val firstRecords = listOf<SyncRecord>(mock())
+            val secondRecords = listOf<SyncRecord>(mock())
+            var savedChunks = 0
+            whenever(getMediaStoreFileTypesUseCase.invoke())
+                .thenReturn(listOf(MediaStoreFileType.IMAGES_EXTERNAL))
+            whenever(isSecondaryFolderEnabled.invoke()).thenReturn(false)
+            whenever(
+                cameraUploadRepository.getMediaList(
+                    mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL,
+                    selectionQuery = "",
+                )
+            ).thenReturn(flowOf(firstChunk, secondChunk))
+            whenever(getPendingUploadListUseCase(firstChunk, isSecondary = false, isVideo = false))
+                .thenReturn(firstRecords)
+            whenever(getPendingUploadListUseCase(secondChunk, isSecondary = false, isVideo = false))
+                .thenReturn(secondRecords)
+
+            underTest(NodeId(123L), null, "") { savedChunks++ }
+
+            with(inOrder(getPendingUploadListUseCase, saveSyncRecordsToDBUseCase)) {
+                verify(getPendingUploadListUseCase).invoke(firstChunk, false, false)
+                verify(saveSyncRecordsToDBUseCase).invoke(firstRecords, NodeId(123L), "")
+                verify(getPendingUploadListUseCase).invoke(secondChunk, false, false)
+                verify(saveSyncRecordsToDBUseCase).invoke(secondRecords, NodeId(123L), "")
+            }
+            Truth.assertThat(savedChunks).isEqualTo(2)
+            verify(updateTimeStamp).invoke(null, SyncTimeStamp.PRIMARY_PHOTO)
+        }
+
     @Test
     fun `test that cancellation exception is thrown when the operation is cancelled`() =
         runTest {
@@ -2,6 +2,7 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
@@ -56,13 +57,13 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
                     mediaStoreFileType1,
                     selectionQuery
                 )
-            ).thenReturn(cameraUploadsMediaList1)
+            ).thenReturn(flowOf(cameraUploadsMediaList1))
             whenever(
                 cameraUploadRepository.getMediaList(
                     mediaStoreFileType2,
                     selectionQuery
                 )
-            ).thenReturn(cameraUploadsMediaList2)
+            ).thenReturn(flowOf(cameraUploadsMediaList2))
             assertThat(underTest(parentPath, types)).isEqualTo(expected)
         }
 }
@@ -0,0 +1,70 @@
+package mega.privacy.android.domain.usecase.chat
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.domain.entity.chat.ChatRoomItem
+import org.junit.Before
+import org.junit.Test
+
+class ChatRoomIndexTest {
+
+    private lateinit var underTest: ChatRoomIndex
+
+    @Before
+    fun setUp() {
+        underTest = ChatRoomIndex(compareByDescending(ChatRoomItem::lastTimestamp))
+    }
+
+    private fun chat(chatId: Long, lastTimestamp: Long = 0L) =
+        ChatRoomItem.GroupChatRoomItem(chatId = chatId, title = "", lastTimestamp = lastTimestamp)
+
+    @Test
+    fun `test that chats are listed in comparator order`() {
+        underTest.put(chat(1L, lastTimestamp = 10L))
+        underTest.put(chat(2L, lastTimestamp = 30L))
+        underTest.put(chat(3L, lastTimestamp = 20L))
+
+        assertThat(underTest.toList().map { it.chatId }).containsExactly(2L, 3L, 1L).inOrder()
+    }
+
+    @Test
+    fun `test that an updated chat is moved to its new position`() {
+        underTest.put(chat(1L, lastTimestamp = 10L))
+        underTest.put(chat(2L, lastTimestamp = 20L))
+
+        underTest.put(chat(1L, lastTimestamp = 30L))
+
+        assertThat(underTest.toList().map { it.chatId }).containsExactly(1L, 2L).inOrder()
+        assertThat(underTest[1L]?.lastTimestamp).isEqualTo(30L)
+    }
+
+    @Test
+    fun `test that chats comparing equal keep the order they were added in`() {
+        underTest.put(chat(3L))
+        underTest.put(chat(1L))
+        underTest.put(chat(2L))
+
+        underTest.put(chat(3L).copy(title = "Updated"))
+
+        assertThat(underTest.toList().map { it.chatId }).containsExactly(3L, 1L, 2L).inOrder()
+    }
+
+    @Test
+    fun `test that putting an equal chat does not change the index`() {
+        underTest.put(chat(1L))
+        val list = underTest.toList()
+
+        assertThat(underTest.put(chat(1L))).isFalse()
+        assertThat(underTest.toList()).isSameInstanceAs(list)
+    }
+
+    @Test
+    fun `test that removed chats are no longer listed`() {
+        underTest.put(chat(1L))
+        underTest.put(chat(2L))
+
+        assertThat(underTest.remove(1L)).isTrue()
+        assertThat(underTest.remove(1L)).isFalse()
+        assertThat(underTest.containsKey(1L)).isFalse()
+        assertThat(underTest.toList().map { it.chatId }).containsExactly(2L)
+    }
+}
@@ -2,7 +2,6 @@ package mega.privacy.android.feature.sync.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.merge
@@ -87,6 +86,5 @@ internal class SyncRepositoryImpl @Inject constructor(
 
     private fun getOnGlobalSyncStateChangedFlow(): Flow<GlobalUpdate.OnGlobalSyncStateChanged> =
         megaApiGateway
-            .globalUpdates
-            .filterIsInstance()
+            .globalUpdatesOf(GlobalUpdate.OnGlobalSyncStateChanged::class)
 }
@@ -0,0 +1,59 @@
+package mega.privacy.android.feature.sync.data
+
+import app.cash.turbine.test
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.feature.sync.data.gateway.SyncGateway
+import mega.privacy.android.feature.sync.data.gateway.SyncStatsCacheGateway
+import mega.privacy.android.feature.sync.data.repository.SyncRepositoryImpl
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+@ExperimentalCoroutinesApi
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SyncRepositoryImplTest {
+
+    private val syncGateway: SyncGateway = mock()
+    private val syncStatsCacheGateway: SyncStatsCacheGateway = mock()
+    private val megaApiGateway: MegaApiGateway = mock()
+
+    private val underTest = SyncRepositoryImpl(
+        syncGateway = syncGateway,
+        syncStatsCacheGateway = syncStatsCacheGateway,
+        megaApiGateway = megaApiGateway,
+        folderPairMapper = mock(),
+        ioDispatcher = UnconfinedTestDispatcher(),
+    )
+
+    @AfterEach
+    fun resetAndTearDown() {
+        reset(
+            syncGateway,
+            syncStatsCacheGateway,
+            megaApiGateway,
+        )
+    }
+
+    @Test
+    fun `test that sync changes are emitted when the global sync state changes`() = runTest {
+        whenever(megaApiGateway.globalUpdatesOf(GlobalUpdate.OnGlobalSyncStateChanged::class))
+            .thenReturn(flowOf(GlobalUpdate.OnGlobalSyncStateChanged))
+        whenever(syncGateway.monitorOnSyncDeleted()).thenReturn(emptyFlow())
+        whenever(syncGateway.monitorOnSyncStatsUpdated()).thenReturn(emptyFlow())
+        whenever(syncGateway.monitorOnSyncStateChanged()).thenReturn(emptyFlow())
+
+        underTest.monitorSyncChanges().test {
+            awaitItem()
+            awaitComplete()
+        }
+    }
+}